@@ -0,0 +1,25 @@
+CREATE TABLE IF NOT EXISTS account_transaction
+(
+    db_id bigint(20) AUTO_INCREMENT,
+    account_id bigint(20) NOT NULL,
+    transaction_id bigint(20) NOT NULL,
+    height INT NOT NULL,
+    block_timestamp INT NOT NULL,
+    type TINYINT NOT NULL,
+    subtype TINYINT NOT NULL,
+    indirect BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (db_id)
+);
+CREATE UNIQUE INDEX IF NOT EXISTS account_transaction_account_tx_uindex ON account_transaction (account_id, transaction_id);
+CREATE INDEX IF NOT EXISTS account_transaction_account_timestamp_idx ON account_transaction (account_id, block_timestamp DESC, transaction_id DESC);
+CREATE INDEX IF NOT EXISTS account_transaction_account_type_timestamp_idx ON account_transaction (account_id, type, subtype, block_timestamp DESC, transaction_id DESC);
+CREATE INDEX IF NOT EXISTS account_transaction_height_idx ON account_transaction (height);
+
+INSERT IGNORE INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT sender_id, id, height, block_timestamp, type, subtype, FALSE FROM transaction;
+INSERT IGNORE INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT recipient_id, id, height, block_timestamp, type, subtype, FALSE FROM transaction
+WHERE recipient_id IS NOT NULL AND recipient_id <> sender_id;
+INSERT IGNORE INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT i.account_id, t.id, t.height, t.block_timestamp, t.type, t.subtype, TRUE FROM indirect_incoming i
+JOIN transaction t ON t.id = i.transaction_id;
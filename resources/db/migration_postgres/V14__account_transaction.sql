@@ -0,0 +1,29 @@
+create table if not exists account_transaction
+(
+  db_id           bigserial
+    constraint account_transaction_primary
+      primary key,
+  account_id      bigint   not null,
+  transaction_id  bigint   not null,
+  height          bigint   not null,
+  block_timestamp bigint   not null,
+  type            smallint not null,
+  subtype         smallint not null,
+  indirect        boolean  not null default false
+);
+CREATE UNIQUE INDEX IF NOT EXISTS account_transaction_account_tx_uindex ON account_transaction (account_id, transaction_id);
+CREATE INDEX IF NOT EXISTS account_transaction_account_timestamp_idx ON account_transaction (account_id, block_timestamp DESC, transaction_id DESC);
+CREATE INDEX IF NOT EXISTS account_transaction_account_type_timestamp_idx ON account_transaction (account_id, type, subtype, block_timestamp DESC, transaction_id DESC);
+CREATE INDEX IF NOT EXISTS account_transaction_height_idx ON account_transaction (height);
+
+INSERT INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT sender_id, id, height, block_timestamp, type, subtype, false FROM transaction
+ON CONFLICT DO NOTHING;
+INSERT INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT recipient_id, id, height, block_timestamp, type, subtype, false FROM transaction
+WHERE recipient_id IS NOT NULL AND recipient_id <> sender_id
+ON CONFLICT DO NOTHING;
+INSERT INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT i.account_id, t.id, t.height, t.block_timestamp, t.type, t.subtype, true FROM indirect_incoming i
+JOIN transaction t ON t.id = i.transaction_id
+ON CONFLICT DO NOTHING;
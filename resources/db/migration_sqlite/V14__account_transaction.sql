@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS account_transaction
+(
+  db_id           INTEGER PRIMARY KEY AUTOINCREMENT,
+  account_id      INTEGER NOT NULL,
+  transaction_id  INTEGER NOT NULL,
+  height          INTEGER NOT NULL,
+  block_timestamp INTEGER NOT NULL,
+  type            INTEGER NOT NULL,
+  subtype         INTEGER NOT NULL,
+  indirect        INTEGER DEFAULT 0 NOT NULL
+);
+CREATE UNIQUE INDEX IF NOT EXISTS account_transaction_account_tx_uindex ON account_transaction (account_id, transaction_id);
+CREATE INDEX IF NOT EXISTS account_transaction_account_timestamp_idx ON account_transaction (account_id, block_timestamp DESC, transaction_id DESC);
+CREATE INDEX IF NOT EXISTS account_transaction_account_type_timestamp_idx ON account_transaction (account_id, type, subtype, block_timestamp DESC, transaction_id DESC);
+CREATE INDEX IF NOT EXISTS account_transaction_height_idx ON account_transaction (height);
+
+INSERT OR IGNORE INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT sender_id, id, height, block_timestamp, type, subtype, 0 FROM "transaction";
+INSERT OR IGNORE INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT recipient_id, id, height, block_timestamp, type, subtype, 0 FROM "transaction"
+WHERE recipient_id IS NOT NULL AND recipient_id <> sender_id;
+INSERT OR IGNORE INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, indirect)
+SELECT i.account_id, t.id, t.height, t.block_timestamp, t.type, t.subtype, 1 FROM indirect_incoming i
+JOIN "transaction" t ON t.id = i.transaction_id;
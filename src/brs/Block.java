@@ -404,6 +404,10 @@ public class Block {
         return nextBlockId;
     }
 
+    void setNextBlockId(long nextBlockId) {
+        this.nextBlockId = nextBlockId;
+    }
+
     public int getHeight() {
         return height;
     }
@@ -1,7 +1,11 @@
 package brs;
 
 import brs.util.CollectionWithIndex;
+import brs.util.PageCursor;
+
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 //TODO: Create JavaDocs and remove this
 @SuppressWarnings({ "checkstyle:MissingJavadocTypeCheck", "checkstyle:MissingJavadocMethodCheck" })
@@ -18,12 +22,25 @@ public interface Blockchain {
 
     Block getBlock(long blockImplId);
 
+    /**
+     * @return the block at the height, null if it is {@link #getPrunedHeight() pruned}
+     */
     Block getBlockAtHeight(int height);
 
+    /**
+     * A node that started from a state snapshot has the genesis block and the blocks from the snapshot on, but not
+     * the ones in between.
+     *
+     * @return the highest height of the blocks that are not stored, 0 if all are
+     */
+    int getPrunedHeight();
+
     boolean hasBlock(long blockImplId);
 
     Collection<Block> getBlocks(int from, int to);
 
+    CollectionWithIndex<Block> getBlocks(PageCursor after, int limit);
+
     Collection<Block> getBlocks(Account account, int timestamp);
 
     CollectionWithIndex<Block> getBlocks(Account account, int timestamp, int from, int to);
@@ -34,10 +51,18 @@ public interface Blockchain {
 
     Collection<Block> getBlocksAfter(long blockId, int limit);
 
+    /**
+     * @return the id of the block at the height, 0 if it is {@link #getPrunedHeight() pruned}
+     */
     long getBlockIdAtHeight(int height);
 
     Transaction getTransaction(long transactionId);
 
+    /**
+     * @return the transactions with these ids, looked up together, in no particular order
+     */
+    List<Transaction> getTransactions(Collection<Long> transactionIds);
+
     Transaction getTransactionByFullHash(String fullHash); // TODO add byte[] method
 
     boolean hasTransaction(long transactionId);
@@ -64,7 +89,8 @@ public interface Blockchain {
             int from,
             int to,
             boolean includeIndirectIncoming,
-            boolean bidirectional);
+            boolean bidirectional,
+            PageCursor after);
 
     CollectionWithIndex<Transaction> getTransactions(
             Account account,
@@ -74,7 +100,10 @@ public interface Blockchain {
             int blockTimestamp,
             int from,
             int to,
-            boolean includeIndirectIncoming);
+            boolean includeIndirectIncoming,
+            PageCursor after);
+
+    void forEachTransaction(long accountId, int heightStart, int heightEnd, Consumer<Transaction> consumer);
 
     Collection<Transaction> getTransactions(
             long senderId,
@@ -6,11 +6,15 @@ import brs.db.store.BlockchainStore;
 import brs.props.PropertyService;
 import brs.props.Props;
 import brs.util.CollectionWithIndex;
+import brs.util.PageCursor;
 import brs.util.StampedLockUtils;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 //TODO: Create JavaDocs and remove this
@@ -18,12 +22,16 @@ import java.util.function.Supplier;
 
 public class BlockchainImpl implements Blockchain {
 
+    // all blocks a rollback may go back to while they are small, at least the last 80 or so when they are full
+    private static final long RECENT_BLOCKS_MAX_BYTES = 128L * 1024 * 1024;
+
     private final TransactionDb transactionDb;
     private final BlockDb blockDb;
     private final BlockchainStore blockchainStore;
     private final PropertyService propertyService;
 
     private final StampedLock bcsl;
+    private final RecentBlockCache recentBlocks = new RecentBlockCache(Constants.MAX_ROLLBACK, RECENT_BLOCKS_MAX_BYTES);
 
     BlockchainImpl(TransactionDb transactionDb, BlockDb blockDb, BlockchainStore blockchainStore,
             PropertyService propertyService) {
@@ -36,6 +44,12 @@ public class BlockchainImpl implements Blockchain {
 
     private final AtomicReference<Block> lastBlock = new AtomicReference<>();
 
+    private static final int MAX_TOTAL_MINED_STEPS = 10_000;
+    /** Height and total mined of the last {@link #getTotalMined()} call, moved along instead of summed up again. */
+    private final AtomicReference<long[]> lastTotalMined = new AtomicReference<>();
+    /** See {@link #getPrunedHeight()}, -1 until looked up. */
+    private volatile int prunedHeight = -1;
+
     private <T> T bcslRead(Supplier<T> supplier) {
         return StampedLockUtils.stampedLockRead(bcsl, supplier);
     }
@@ -43,20 +57,26 @@ public class BlockchainImpl implements Blockchain {
 
     @Override
     public void setLastBlock(Block block) {
+        RecentBlockCache.prepare(block);
         long stamp = bcsl.writeLock();
         try {
             lastBlock.set(block);
+            recentBlocks.put(block);
         } finally {
             bcsl.unlockWrite(stamp);
         }
+        // set on start, after a state snapshot import and when the chain was replaced, the floor may have moved
+        prunedHeight = -1;
     }
 
     void setLastBlock(Block previousBlock, Block block) {
+        RecentBlockCache.prepare(block);
         long stamp = bcsl.writeLock();
         try {
             if (!lastBlock.compareAndSet(previousBlock, block)) {
                 throw new IllegalStateException("Last block is no longer previous block");
             }
+            recentBlocks.put(block);
         } finally {
             bcsl.unlockWrite(stamp);
         }
@@ -88,12 +108,13 @@ public class BlockchainImpl implements Blockchain {
         if (block.getId() == blockId) {
             return block;
         }
-        return blockDb.findBlock(blockId);
+        Block recent = recentBlocks.get(blockId);
+        return recent != null ? recent : blockDb.findBlock(blockId);
     }
 
     @Override
     public boolean hasBlock(long blockId) {
-        return getLastBlock().getId() == blockId || blockDb.hasBlock(blockId);
+        return getLastBlock().getId() == blockId || recentBlocks.get(blockId) != null || blockDb.hasBlock(blockId);
     }
 
     @Override
@@ -101,6 +122,17 @@ public class BlockchainImpl implements Blockchain {
         return blockchainStore.getBlocks(from, to);
     }
 
+    @Override
+    public CollectionWithIndex<Block> getBlocks(PageCursor after, int limit) {
+        int height = after != null ? (int) after.getKey() : getHeight() + 1;
+        CollectionWithIndex<Block> blocks = new CollectionWithIndex<>(blockchainStore.getBlocksBelow(height, limit), -1);
+        Block last = lastOf(blocks.getCollection());
+        if (blocks.size() == limit && last != null && last.getHeight() > 0) {
+            blocks.setNextCursor(new PageCursor(last.getHeight(), last.getId()));
+        }
+        return blocks;
+    }
+
     @Override
     public Collection<Block> getBlocks(Account account, int timestamp) {
         return getBlocks(account, timestamp, 0, -1).getCollection();
@@ -121,12 +153,33 @@ public class BlockchainImpl implements Blockchain {
 
     @Override
     public Collection<Long> getBlockIdsAfter(long blockId, int limit) {
+        List<Block> recent = recentBlocks.getAfter(blockId, limit);
+        if (recent != null) {
+            List<Long> blockIds = new ArrayList<>(recent.size());
+            recent.forEach(block -> blockIds.add(block.getId()));
+            return blockIds;
+        }
         return blockchainStore.getBlockIdsAfter(blockId, limit);
     }
 
     @Override
     public Collection<Block> getBlocksAfter(long blockId, int limit) {
-        return blockchainStore.getBlocksAfter(blockId, limit);
+        List<Block> recent = recentBlocks.getAfter(blockId, limit);
+        return recent != null ? recent : blockchainStore.getBlocksAfter(blockId, limit);
+    }
+
+    @Override
+    public int getPrunedHeight() {
+        int height = prunedHeight;
+        if (height < 0) {
+            height = blockDb.findPrunedHeight();
+            prunedHeight = height;
+        }
+        return height;
+    }
+
+    private boolean isPruned(int height) {
+        return height > 0 && height <= getPrunedHeight();
     }
 
     @Override
@@ -139,7 +192,11 @@ public class BlockchainImpl implements Blockchain {
         if (height == block.getHeight()) {
             return block.getId();
         }
-        return blockDb.findBlockIdAtHeight(height);
+        Block recent = recentBlocks.getAtHeight(height);
+        if (recent != null) {
+            return recent.getId();
+        }
+        return isPruned(height) ? 0 : blockDb.findBlockIdAtHeight(height);
     }
 
     @Override
@@ -152,7 +209,11 @@ public class BlockchainImpl implements Blockchain {
         if (height == block.getHeight()) {
             return block;
         }
-        return blockDb.findBlockAtHeight(height);
+        Block recent = recentBlocks.getAtHeight(height);
+        if (recent != null) {
+            return recent;
+        }
+        return isPruned(height) ? null : blockDb.findBlockAtHeight(height);
     }
 
     @Override
@@ -160,6 +221,11 @@ public class BlockchainImpl implements Blockchain {
         return transactionDb.findTransaction(transactionId);
     }
 
+    @Override
+    public List<Transaction> getTransactions(Collection<Long> transactionIds) {
+        return transactionDb.findTransactions(transactionIds);
+    }
+
     @Override
     public Transaction getTransactionByFullHash(String fullHash) {
         return transactionDb.findTransactionByFullHash(fullHash);
@@ -211,8 +277,27 @@ public class BlockchainImpl implements Blockchain {
 
     @Override
     public long getTotalMined() {
-        long totalMined = 0;
         int height = getHeight();
+        long[] last = lastTotalMined.get();
+        long totalMined;
+        if (last != null && Math.abs(height - last[0]) <= MAX_TOTAL_MINED_STEPS) {
+            // the chain usually moved by a few blocks (push or pop off) since the last call
+            totalMined = last[1];
+            for (int i = (int) last[0] + 1; i <= height; i++) {
+                totalMined += getBlockReward(i);
+            }
+            for (int i = (int) last[0]; i > height; i--) {
+                totalMined -= getBlockReward(i);
+            }
+        } else {
+            totalMined = computeTotalMined(height);
+        }
+        lastTotalMined.set(new long[] { height, totalMined });
+        return totalMined;
+    }
+
+    private long computeTotalMined(int height) {
+        long totalMined = 0;
         long blockReward = getBlockReward(1);
         int blockMonth = 0;
         int rewardCycle = propertyService.getInt(Props.BLOCK_REWARD_CYCLE);
@@ -247,9 +332,10 @@ public class BlockchainImpl implements Blockchain {
             int from,
             int to,
             boolean includeIndirectIncoming,
-            boolean bidirectional) {
+            boolean bidirectional,
+            PageCursor after) {
 
-        return new CollectionWithIndex<>(
+        return withNextCursor(
                 blockchainStore.getTransactions(
                         senderId,
                         recipientId,
@@ -260,7 +346,8 @@ public class BlockchainImpl implements Blockchain {
                         from,
                         to,
                         includeIndirectIncoming,
-                        bidirectional),
+                        bidirectional,
+                        after),
                 from,
                 to);
     }
@@ -274,8 +361,9 @@ public class BlockchainImpl implements Blockchain {
             int blockTimestamp,
             int from,
             int to,
-            boolean includeIndirectIncoming) {
-        return new CollectionWithIndex<>(
+            boolean includeIndirectIncoming,
+            PageCursor after) {
+        return withNextCursor(
                 blockchainStore.getTransactions(
                         account,
                         numberOfConfirmations,
@@ -284,11 +372,35 @@ public class BlockchainImpl implements Blockchain {
                         blockTimestamp,
                         from,
                         to,
-                        includeIndirectIncoming),
+                        includeIndirectIncoming,
+                        after),
                 from,
                 to);
     }
 
+    @Override
+    public void forEachTransaction(long accountId, int heightStart, int heightEnd, Consumer<Transaction> consumer) {
+        blockchainStore.forEachTransaction(accountId, heightStart, heightEnd, consumer);
+    }
+
+    private static CollectionWithIndex<Transaction> withNextCursor(Collection<Transaction> transactions, int from, int to) {
+        CollectionWithIndex<Transaction> page = new CollectionWithIndex<>(transactions, from, to);
+        Transaction last = lastOf(transactions);
+        if (page.hasNextIndex() && last != null) {
+            // same order as the query: block timestamp, then id
+            page.setNextCursor(new PageCursor(last.getBlockTimestamp(), last.getId()));
+        }
+        return page;
+    }
+
+    private static <T> T lastOf(Collection<T> collection) {
+        T last = null;
+        for (T element : collection) {
+            last = element;
+        }
+        return last;
+    }
+
     @Override
     public Collection<Transaction> getTransactions(
             long senderId,
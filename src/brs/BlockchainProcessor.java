@@ -1,5 +1,6 @@
 package brs;
 
+import brs.peer.Bandwidth;
 import brs.peer.Peer;
 import brs.util.JSON;
 import brs.util.Observable;
@@ -147,6 +148,18 @@ public interface BlockchainProcessor extends Observable<Block, BlockchainProcess
 
     long getDownloadedVolume();
 
+    /**
+     * @return the current P2P upload throughput of the lane in bytes per second, read on net volume changes
+     * which are also fired every second
+     */
+    long getUploadBytesPerSecond(Bandwidth.Lane lane);
+
+    /**
+     * @return the current P2P download throughput of the lane in bytes per second, read on net volume changes
+     * which are also fired every second
+     */
+    long getDownloadBytesPerSecond(Bandwidth.Lane lane);
+
     int checkDatabaseStateRequest();
 
     long getTotalMined();
@@ -9,10 +9,13 @@ import brs.db.BlockDb;
 import brs.db.DerivedTable;
 import brs.db.TransactionDb;
 import brs.db.cache.DBCacheManagerImpl;
+import brs.db.sql.OptimisticRead;
+import brs.db.sql.StateSnapshot;
 import brs.db.store.BlockchainStore;
 import brs.db.store.DerivedTableManager;
 import brs.db.store.Stores;
 import brs.fluxcapacitor.FluxValues;
+import brs.peer.Bandwidth;
 import brs.peer.Peer;
 import brs.peer.Peers;
 import brs.props.PropertyService;
@@ -116,6 +119,7 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     private final DerivedTableManager derivedTableManager;
     private final StatisticsManagerImpl statisticsManager;
     private final Generator generator;
+    private final HeadersFirstDownload headersFirstDownload;
     private final DBCacheManagerImpl dbCacheManager;
     private final IndirectIncomingService indirectIncomingService;
     private final long genesisBlockId;
@@ -146,13 +150,15 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
             "All_transaction_count"
     };
 
-    private static final int MAX_TIMESTAMP_DIFFERENCE = 15;
+    static final int MAX_TIMESTAMP_DIFFERENCE = 15;
     private boolean oclVerify;
     private final int oclUnverifiedQueue;
 
     private final Semaphore gpuUsage = new Semaphore(2);
 
     private final boolean trimDerivedTables;
+    private final StateSnapshot stateSnapshot;
+    private final String snapshotExportDir;
     // The intentional requested trim height calculated
     private final AtomicInteger lastTrimHeight = new AtomicInteger();
     // The current trim height requested from derived table datas
@@ -173,6 +179,7 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     private final ReentrantReadWriteLock blockImporterLock = new ReentrantReadWriteLock();
 
     private final AtomicBoolean isTrimming = new AtomicBoolean(false);
+    private final AtomicBoolean isExportingSnapshot = new AtomicBoolean(false);
     private final AtomicBoolean isScanning = new AtomicBoolean(false);
 
     private final AtomicReference<ConsistencyState> consistencyState = new AtomicReference<>(
@@ -186,6 +193,8 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     private final AtomicLong lastCheckTotalMined = new AtomicLong(0);
     private final AtomicLong lastCheckTotalEffectiveBalance = new AtomicLong(0);
     private final AtomicInteger lastCheckHeight = new AtomicInteger(0);
+    private final AtomicInteger consistencyCheckRuns = new AtomicInteger(0);
+    private static final int CONSISTENCY_SCAN_EVERY_RUNS = 10;
 
     private int autoPopOffLastStuckHeight = 0;
     private int autoPopOffNumberOfBlocks = 0;
@@ -351,6 +360,16 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
         return downloadedVolume.get();
     }
 
+    @Override
+    public long getUploadBytesPerSecond(Bandwidth.Lane lane) {
+        return Peers.getBandwidth().getUploadBytesPerSecond(lane);
+    }
+
+    @Override
+    public long getDownloadBytesPerSecond(Bandwidth.Lane lane) {
+        return Peers.getBandwidth().getDownloadBytesPerSecond(lane);
+    }
+
     public BlockchainProcessorImpl(ThreadPool threadPool,
             BlockService blockService,
             TransactionProcessorImpl transactionProcessor,
@@ -385,6 +404,9 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
         this.stores = stores;
         this.downloadCache = downloadCache;
         this.generator = generator;
+        this.headersFirstDownload = propertyService.getBoolean(Props.P2P_HEADERS_FIRST)
+                ? new HeadersFirstDownload(blockService, generator, timeService)
+                : null;
         this.economicClustering = economicClustering;
         this.escrowService = escrowService;
         this.transactionService = transactionService;
@@ -454,6 +476,9 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
         oclUnverifiedQueue = propertyService.getInt(Props.GPU_UNVERIFIED_QUEUE);
 
         trimDerivedTables = propertyService.getBoolean(Props.DB_TRIM_DERIVED_TABLES);
+        stateSnapshot = new StateSnapshot(derivedTableManager, transactionDb,
+                Signum.getDbs().getAccountTransactionDb(), indirectIncomingService::processTransaction);
+        snapshotExportDir = propertyService.getString(Props.SNAPSHOT_EXPORT_DIR);
         genesisBlockId = Convert.parseUnsignedLong(
                 propertyService.getString(Props.GENESIS_BLOCK_ID));
 
@@ -553,6 +578,7 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
                 Event.BLOCK_PUSHED);
 
         addGenesisBlock();
+        importSnapshot();
 
         if (logSyncProgressToCsv) {
             initSyncProgressLogging();
@@ -711,12 +737,28 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
                                         logger.debug("A peer wants to feed us a fork that is more than "
                                                 + Constants.MAX_ROLLBACK + " blocks old.");
                                     }
+                                    peer.getScore().recordFork();
                                     peer.blacklist("feeding us a too old fork");
                                     return;
                                 }
                             }
 
-                            JsonArray nextBlocks = getNextBlocks(peer, commonBlockId);
+                            JsonArray nextBlocks = null;
+                            if (headersFirstDownload != null) {
+                                Block commonBlock = downloadCache.getBlock(commonBlockId);
+                                if (commonBlock != null) {
+                                    // no bodies for the blocks the loop below would not take yet
+                                    int maxBlocks = Signum.getFluxCapacitor().getValue(FluxValues.POC_PLUS,
+                                            commonBlock.getHeight() + 1)
+                                            ? blockchain.getHeight() + Constants.MAX_ROLLBACK - 1 - commonBlock.getHeight()
+                                            : Integer.MAX_VALUE;
+                                    nextBlocks = headersFirstDownload.getNextBlocks(peer, commonBlock,
+                                            saveInCache ? null : curCumulativeDifficulty, maxBlocks);
+                                }
+                            }
+                            if (nextBlocks == null) {
+                                nextBlocks = getNextBlocks(peer, commonBlockId);
+                            }
                             if (nextBlocks == null || nextBlocks.isEmpty()) {
                                 logger.debug("Peer did not feed us any blocks");
                                 return;
@@ -1007,6 +1049,7 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
                                 .compareTo(curCumulativeDifficulty) < 0) {
                             logger.warn("Fork was bad and pop off was caused by peer {}, blacklisting",
                                     peer.getPeerAddress());
+                            peer.getScore().recordFork();
                             peer.blacklist("got a bad fork");
                             List<Block> peerPoppedOffBlocks = popOffTo(forkBlock, null);
                             pushedForkBlocks = 0;
@@ -1102,6 +1145,44 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
                 propertyService.getInt(Props.BLOCK_PROCESS_THREAD_DELAY),
                 TimeUnit.MILLISECONDS);
 
+        // Keeps the consistency state current while importing. The lock that holds off block pushes is only taken
+        // briefly to read the height and to publish the result, the balances are read without it and the result is
+        // dropped if a block got committed meanwhile.
+        Runnable consistencyCheckThread = () -> {
+            if (isTrimming.get() || manualPopOffBlocksCount.get() > 0 || autoPopOffBlocksCount.get() > 0) {
+                return;
+            }
+            if (consistencyCheckRuns.incrementAndGet() % CONSISTENCY_SCAN_EVERY_RUNS == 0) {
+                // every now and then verify the running balance total with a full scan of the table
+                stores.getAccountStore().verifyAllAccountsBalance();
+            }
+            OptimisticRead read;
+            int height;
+            long totalMined;
+            synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
+                height = blockchain.getHeight();
+                if (lastCheckHeight.get() == height) {
+                    return;
+                }
+                read = OptimisticRead.begin();
+                totalMined = blockchain.getTotalMined();
+            }
+            long totalEffectiveBalance = getTotalEffectiveBalance();
+            synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
+                if (read.isValid() && blockchain.getHeight() == height) {
+                    setDatabaseState(height, totalMined, totalEffectiveBalance);
+                }
+            }
+        };
+        int consistencyCheckInterval = propertyService.getInt(Props.DB_CONSISTENCY_CHECK_INTERVAL);
+        if (consistencyCheckInterval > 0) {
+            threadPool.scheduleThread("CheckDatabaseState", consistencyCheckThread, consistencyCheckInterval,
+                    TimeUnit.SECONDS);
+        }
+
+        // the lane throughput falls when the traffic stops, which no volume change reports
+        threadPool.scheduleThread("NetVolume", this::updateAndFireNetVolume, 1);
+
         // Is there anything to verify
         // should we use Ocl?
         // is Ocl ready ?
@@ -1869,7 +1950,9 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
         int trimHeight = (lastTrimHeight.get() > 0
                 ? lastTrimHeight.get()
                 : Math.max(blockchain.getHeight() - Constants.MAX_ROLLBACK, 0));
-        return trimDerivedTables ? trimHeight : 0;
+        // after a state snapshot import the derived tables only go back to the first stored block
+        int prunedHeight = blockchain.getPrunedHeight();
+        return Math.max(trimDerivedTables ? trimHeight : 0, prunedHeight > 0 ? prunedHeight + 1 : 0);
     }
 
     @Override
@@ -1898,6 +1981,8 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
             newBlock.setByteLength(newBlock.toString().length());
             blockService.calculateBaseTarget(newBlock, chainblock);
             downloadCache.addBlock(newBlock);
+            // later announcements of the same block no longer follow the cache's last block
+            peer.getScore().recordFirstSeenBlock();
             logger.debug(
                     "Peer {} added block from Announce: Id: {} Height: {}",
                     peer.getPeerAddress(),
@@ -1942,12 +2027,18 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     private int checkDatabaseState() {
         logger.debug("Block height {}, checking database state...", blockchain.getHeight());
         long totalMined = blockchain.getTotalMined();
+        return setDatabaseState(blockchain.getHeight(), totalMined, getTotalEffectiveBalance());
+    }
 
+    private long getTotalEffectiveBalance() {
         long totalEffectiveBalance = accountService.getAllAccountsBalance();
         for (Escrow escrow : escrowService.getAllEscrowTransactions()) {
             totalEffectiveBalance += escrow.getAmountNQT();
         }
+        return totalEffectiveBalance;
+    }
 
+    private int setDatabaseState(int height, long totalMined, long totalEffectiveBalance) {
         int comparison = Long.compare(totalMined, totalEffectiveBalance);
         if (comparison != 0) {
             // Log detailed components of totalEffectiveBalance
@@ -1959,7 +2050,7 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
 
             long diff = totalMined - totalEffectiveBalance;
 
-            logger.error("  DATABASE INCONSISTENCY DETECTED at height {}", blockchain.getHeight());
+            logger.error("  DATABASE INCONSISTENCY DETECTED at height {}", height);
             logger.error("  Total Mined (Supply)         : {}", totalMined);
             logger.error("  Total Effective Balance      : {}", totalEffectiveBalance);
             logger.error("  Difference (Mined - Effective) : {}", diff);
@@ -1971,14 +2062,14 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
 
             logger.warn(
                     "Block height {}, total mined {}, total effective+burnt {}",
-                    blockchain.getHeight(),
+                    height,
                     totalMined,
                     totalEffectiveBalance);
         }
 
         lastCheckTotalMined.set(totalMined);
         lastCheckTotalEffectiveBalance.set(totalEffectiveBalance);
-        lastCheckHeight.set(blockchain.getHeight());
+        lastCheckHeight.set(height);
 
         consistencyState.set(totalMined == totalEffectiveBalance ? ConsistencyState.CONSISTENT
                 : ConsistencyState.INCONSISTENT);
@@ -2061,21 +2152,10 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
             logger.info("Pop-off is in progress. Database state check will give results after pop-off finished.");
         }
 
-        // Pause other operations
-        getMoreBlocksAutoPause.set(true);
-        blockImporterAutoPause.set(true);
-        getMoreBlocksLock.writeLock().lock();
-        blockImporterLock.writeLock().lock();
-        try {
-            synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
-                return checkDatabaseStateWithLog();
-            }
-        } finally {
-            // Resume other operations
-            blockImporterLock.writeLock().unlock();
-            getMoreBlocksLock.writeLock().unlock();
-            getMoreBlocksAutoPause.set(false);
-            blockImporterAutoPause.set(false);
+        // The totals are kept incrementally, no need to pause the block processing threads,
+        // holding off block pushes and pop-offs for the duration of the check is enough
+        synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
+            return checkDatabaseStateWithLog();
         }
     }
 
@@ -2429,9 +2509,71 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
                             getMinRollbackHeight());
                 }
             }
+            if (!snapshotExportDir.isEmpty() && (block.getHeight() % Constants.MAX_ROLLBACK) == 0) {
+                exportSnapshot(block);
+            }
         }
     }
 
+    /**
+     * Starts from the configured state snapshot instead of genesis, if the database is still empty.
+     */
+    private void importSnapshot() {
+        String file = propertyService.getString(Props.SNAPSHOT_IMPORT_FILE);
+        if (file.isEmpty()) {
+            return;
+        }
+        if (blockchain.getHeight() > 0) {
+            logger.info("Database is not empty, state snapshot {} not imported", file);
+            return;
+        }
+        try {
+            stateSnapshot.importFrom(Paths.get(file), propertyService.getString(Props.SNAPSHOT_IMPORT_HASH),
+                    genesisBlockId);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not import state snapshot {}, syncing from genesis", file, e);
+            return;
+        } finally {
+            dbCacheManager.flushCache();
+            downloadCache.resetCache();
+        }
+        Block lastBlock = blockDb.findLastBlock();
+        blockchain.setLastBlock(lastBlock);
+        logger.info("Continuing from state snapshot at height {}", lastBlock.getHeight());
+    }
+
+    /**
+     * Fixes the state at the block and writes it on a thread of its own, so blocks are pushed meanwhile. Skipped if
+     * the previous export is still running.
+     */
+    private void exportSnapshot(Block block) {
+        if (!isExportingSnapshot.compareAndSet(false, true)) {
+            logger.warn("State snapshot at height {} skipped, the previous export is still running",
+                    block.getHeight());
+            return;
+        }
+        StateSnapshot.Export export;
+        try {
+            export = stateSnapshot.beginExport(block, genesisBlockId);
+        } catch (RuntimeException e) {
+            isExportingSnapshot.set(false);
+            logger.error("Could not export the state snapshot at height {}", block.getHeight(), e);
+            return;
+        }
+        new Thread(() -> {
+            Path file = Paths.get(snapshotExportDir, "snapshot-" + block.getHeight() + ".bin");
+            try (export) {
+                Files.createDirectories(file.getParent());
+                String hash = export.writeTo(file);
+                Files.writeString(Paths.get(snapshotExportDir, "snapshot-" + block.getHeight() + ".sha256"), hash);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Could not export the state snapshot at height {}", block.getHeight(), e);
+            } finally {
+                isExportingSnapshot.set(false);
+            }
+        }, "StateSnapshotExportThread").start();
+    }
+
     private void accept(Block block, Long remainingAmount, Long remainingFee)
             throws BlockNotAcceptedException {
         long start;
@@ -2511,7 +2653,11 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
 
     @Override
     public List<Block> popOffTo(int height) {
-        List<Block> blocks = popOffTo(blockchain.getBlockAtHeight(height), null);
+        Block commonBlock = blockchain.getBlockAtHeight(height);
+        if (commonBlock == null) {
+            throw new IllegalArgumentException("Rollback to height " + height + " not supported, the block is pruned");
+        }
+        List<Block> blocks = popOffTo(commonBlock, null);
         if (Boolean.FALSE.equals(propertyService.getBoolean(Props.DB_SKIP_CHECK))
                 && checkDatabaseState() != 0) {
             logger.warn(
@@ -5,6 +5,7 @@ import brs.util.ThreadPool;
 
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.Map;
 
 public interface Generator {
 
@@ -35,6 +36,12 @@ public interface Generator {
   BigInteger calculateDeadline(BigInteger hit, long capacityBaseTarget, long commitment, long averageCommitment, int blockHeight);
 
   long estimateCommitment(long generatorId, Block prevBlock);
+
+  /**
+   * @param unconnectedBlocks blocks by id that are neither in the chain nor in the download cache yet, the previous
+   * blocks are looked up there first
+   */
+  long estimateCommitment(long generatorId, Block prevBlock, Map<Long, Block> unconnectedBlocks);
   
   double getCommitmentFactor(long commitment, long averageCommitment, int blockHeight);
   
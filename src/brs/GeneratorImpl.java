@@ -4,6 +4,7 @@ import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -282,6 +283,11 @@ public class GeneratorImpl implements Generator {
 
   @Override
   public long estimateCommitment(long generatorId, Block previousBlock) {
+    return estimateCommitment(generatorId, previousBlock, Collections.emptyMap());
+  }
+
+  @Override
+  public long estimateCommitment(long generatorId, Block previousBlock, Map<Long, Block> unconnectedBlocks) {
     // Check on the number of blocks mined to estimate the capacity and also the committed balance
     int nBlocksMined = 0;
     int nBlocksMinedOnCache = 1; // the present block being mined
@@ -297,10 +303,7 @@ public class GeneratorImpl implements Generator {
     int commitmentWait = fluxCapacitor.getValue(FluxValues.COMMITMENT_WAIT, height);
 
     // Check if there are mined blocks on the download cache or commitment removals
-    Block blockIt = null;
-    if(downloadCache != null) {
-      blockIt = downloadCache.getBlock(previousBlock.getId());
-    }
+    Block blockIt = getBlock(unconnectedBlocks, previousBlock.getId());
     // Get some pending from cache and later from DB directly when available
     // We also check if the blockchain actually have blockIt, we might be processing a fork
     while(blockIt != null && (endHeight >= blockchain.getHeight() ||
@@ -331,7 +334,7 @@ public class GeneratorImpl implements Generator {
       }
 
       endHeight--;
-      blockIt = downloadCache.getBlock(blockIt.getPreviousBlockId());
+      blockIt = getBlock(unconnectedBlocks, blockIt.getPreviousBlockId());
     }
 
     committedAmount = committedAmountOnCache;
@@ -391,4 +394,12 @@ public class GeneratorImpl implements Generator {
 
     return commitment;
   }
+
+  private Block getBlock(Map<Long, Block> unconnectedBlocks, long blockId) {
+    Block block = unconnectedBlocks.get(blockId);
+    if (block == null && downloadCache != null) {
+      block = downloadCache.getBlock(blockId);
+    }
+    return block;
+  }
 }
@@ -0,0 +1,219 @@
+package brs;
+
+import brs.crypto.Crypto;
+import brs.peer.Peer;
+import brs.peer.Peers;
+import brs.services.BlockService;
+import brs.services.TimeService;
+import brs.util.JSON;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Downloads the blocks after a common block headers first: the headers are fetched and checked on their own, for
+ * chaining, previous block hash, rising timestamps not in the future, generation signature, base target and
+ * cumulative difficulty. The bodies are only
+ * fetched once the header chain is good, in segments from several peers at once, and each body has to match its
+ * header.
+ * <p>
+ * A fork that claims a higher cumulative difficulty than it has is so rejected before its transactions are
+ * downloaded.
+ */
+final class HeadersFirstDownload {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeadersFirstDownload.class);
+
+    // blocks per getNextBlocks request for the bodies
+    static final int SEGMENT_BLOCKS = 60;
+    // peers the bodies are fetched from at once, including the one the headers came from
+    static final int MAX_BODY_PEERS = 4;
+    // getNextBlockHeaders answers at most this many
+    private static final int MAX_HEADERS = 1440 / 2;
+
+    private final BlockService blockService;
+    private final Generator generator;
+    private final TimeService timeService;
+
+    HeadersFirstDownload(BlockService blockService, Generator generator, TimeService timeService) {
+        this.blockService = blockService;
+        this.generator = generator;
+        this.timeService = timeService;
+    }
+
+    /**
+     * @param betterThan if not null, the cumulative difficulty the headers have to exceed, when they are a fork
+     * @param maxBlocks the most bodies to download, the headers are all checked
+     * @return the bodies of the blocks after the common block as <code>getNextBlocks</code> returns them, possibly
+     * fewer than there were headers if not all could be downloaded, empty if the peer was blacklisted for its headers
+     * or null if the peer does not know headers requests
+     */
+    JsonArray getNextBlocks(Peer peer, Block commonBlock, BigInteger betterThan, int maxBlocks) {
+        JsonObject request = new JsonObject();
+        request.addProperty("requestType", "getNextBlockHeaders");
+        request.addProperty("blockId", commonBlock.getStringId());
+        JsonObject response = peer.send(JSON.prepareRequest(request));
+        if (response == null || Peers.isUnsupportedRequest(response)) {
+            return null;
+        }
+        JsonArray headersData = JSON.getAsJsonArray(response.get("nextBlockHeaders"));
+        if (headersData.size() > MAX_HEADERS) {
+            peer.blacklist("obsolete or rogue peer sends too many nextBlockHeaders");
+            return new JsonArray();
+        }
+
+        List<Block> headers;
+        try {
+            headers = checkHeaders(commonBlock, headersData);
+        } catch (BlockchainProcessor.BlockOutOfOrderException e) {
+            // as when pushing, a block ahead of our clock or its previous blocks is no reason to blacklist the peer
+            logger.debug("Headers from {} out of order: {}", peer.getPeerAddress(), e.getMessage());
+            return new JsonArray();
+        } catch (SignumException.ValidationException | RuntimeException e) {
+            peer.blacklist(e, "sent an invalid header chain");
+            return new JsonArray();
+        }
+        if (headers.isEmpty()) {
+            return new JsonArray();
+        }
+        if (betterThan != null
+                && headers.get(headers.size() - 1).getCumulativeDifficulty().compareTo(betterThan) <= 0) {
+            peer.getScore().recordFork();
+            peer.blacklist("peer claimed to have bigger cumulative difficulty but its headers do not");
+            return new JsonArray();
+        }
+        logger.debug("Got {} checked headers after {} from {}", headers.size(), commonBlock.getHeight(),
+                peer.getPeerAddress());
+        if (maxBlocks <= 0) {
+            return new JsonArray();
+        }
+        if (headers.size() > maxBlocks) {
+            headers = headers.subList(0, maxBlocks);
+        }
+        return getBodies(peer, commonBlock, headers, headersData);
+    }
+
+    private List<Block> checkHeaders(Block commonBlock, JsonArray headersData)
+            throws SignumException.ValidationException, BlockchainProcessor.BlockOutOfOrderException {
+        List<Block> headers = new ArrayList<>(headersData.size());
+        // the base target calculation looks the previous blocks up here first, they are not in the chain or the
+        // download cache before their bodies are verified
+        Map<Long, Block> unconnectedHeaders = new HashMap<>();
+        Block previous = commonBlock;
+        int curTime = timeService.getEpochTime();
+        for (JsonElement headerData : headersData) {
+            int height = previous.getHeight() + 1;
+            Block header = Block.parseBlock(JSON.getAsJsonObject(headerData), height);
+            if (header.getPreviousBlockId() != previous.getId()) {
+                throw new SignumException.NotValidException("Header at height " + height + " does not chain");
+            }
+            if (header.getVersion() != 1
+                    && !Arrays.equals(Crypto.sha256().digest(previous.getBytes()), header.getPreviousBlockHash())) {
+                throw new SignumException.NotValidException("Previous block hash doesn't match at height " + height);
+            }
+            if (header.getTimestamp() <= previous.getTimestamp()) {
+                throw new SignumException.NotValidException("Header timestamp " + header.getTimestamp()
+                        + " not after the previous one at height " + height);
+            }
+            if (header.getTimestamp() > curTime + BlockchainProcessorImpl.MAX_TIMESTAMP_DIFFERENCE) {
+                throw new BlockchainProcessor.BlockOutOfOrderException("Header timestamp " + header.getTimestamp()
+                        + " is in the future at height " + height + ", current time is " + curTime);
+            }
+            if (!Arrays.equals(header.getGenerationSignature(), generator.calculateGenerationSignature(
+                    previous.getGenerationSignature(), previous.getGeneratorId()))) {
+                throw new SignumException.NotValidException("Generation signature doesn't match at height " + height);
+            }
+            header.setHeight(height);
+            blockService.calculateBaseTarget(header, previous, unconnectedHeaders);
+            unconnectedHeaders.put(header.getId(), header);
+            headers.add(header);
+            previous = header;
+        }
+        return headers;
+    }
+
+    private JsonArray getBodies(Peer peer, Block commonBlock, List<Block> headers, JsonArray headersData) {
+        List<Peer> bodyPeers = new ArrayList<>();
+        bodyPeers.add(peer);
+        for (Peer other : Peers.getBestConnectedPeers(MAX_BODY_PEERS)) {
+            if (other != peer && bodyPeers.size() < MAX_BODY_PEERS) {
+                bodyPeers.add(other);
+            }
+        }
+
+        List<CompletableFuture<JsonObject>> segments = new ArrayList<>();
+        for (int start = 0; start < headers.size(); start += SEGMENT_BLOCKS) {
+            Peer segmentPeer = bodyPeers.get(segments.size() % bodyPeers.size());
+            segments.add(segmentPeer.sendAsync(segmentRequest(commonBlock, headers, start)));
+        }
+
+        JsonArray bodies = new JsonArray();
+        for (int i = 0; i < segments.size(); i++) {
+            int start = i * SEGMENT_BLOCKS;
+            int end = Math.min(start + SEGMENT_BLOCKS, headers.size());
+            JsonArray segment = matchingBodies(Peers.await(segments.get(i), null), headersData, start, end);
+            if (segment == null && bodyPeers.get(i % bodyPeers.size()) != peer) {
+                // the other peer may be on another chain or just slow, the headers came from this one
+                segment = matchingBodies(peer.send(segmentRequest(commonBlock, headers, start)), headersData, start, end);
+            }
+            if (segment == null) {
+                logger.debug("Could not download the bodies from height {} on", headers.get(start).getHeight());
+                break;
+            }
+            bodies.addAll(segment);
+        }
+        return bodies;
+    }
+
+    private static JsonObject segmentRequest(Block commonBlock, List<Block> headers, int start) {
+        JsonObject request = new JsonObject();
+        request.addProperty("requestType", "getNextBlocks");
+        request.addProperty("blockId", start == 0 ? commonBlock.getStringId() : headers.get(start - 1).getStringId());
+        request.addProperty("limit", Math.min(SEGMENT_BLOCKS, headers.size() - start));
+        return JSON.getAsJsonObject(JSON.prepareRequest(request));
+    }
+
+    /**
+     * @return the bodies of the headers from start to end, null if the response does not have them all, older peers
+     * may send more
+     */
+    private static JsonArray matchingBodies(JsonObject response, JsonArray headersData, int start, int end) {
+        if (response == null || response.get("error") != null) {
+            return null;
+        }
+        JsonArray nextBlocks = JSON.getAsJsonArray(response.get("nextBlocks"));
+        if (nextBlocks.size() < end - start) {
+            return null;
+        }
+        JsonArray bodies = new JsonArray();
+        for (int i = start; i < end; i++) {
+            JsonObject body = JSON.getAsJsonObject(nextBlocks.get(i - start));
+            if (body == null || !hasHeader(body, JSON.getAsJsonObject(headersData.get(i)))) {
+                return null;
+            }
+            bodies.add(body);
+        }
+        return bodies;
+    }
+
+    private static boolean hasHeader(JsonObject body, JsonObject header) {
+        // the header fields make the block id, the transactions are checked against the payload hash when pushed
+        for (Map.Entry<String, JsonElement> field : header.entrySet()) {
+            if (!Objects.equals(JSON.getAsString(field.getValue()), JSON.getAsString(body.get(field.getKey())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
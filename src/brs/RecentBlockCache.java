@@ -0,0 +1,126 @@
+package brs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The most recent blocks of the chain, with their peer JSON and bytes already serialized, so peers syncing the tip
+ * from us and the API are served from memory instead of loading the blocks and their transactions from the database
+ * again.
+ * <p>
+ * Every block that becomes the last one is added and replaces the blocks at its height and above, which evicts the
+ * popped off ones. The highest block is so always the last block of the chain and the cached blocks below it are
+ * that chain's, possibly with gaps after a start or a cleared cache.
+ * <p>
+ * A block takes about its bytes and its JSON in memory, estimated from the bytes since the JSON is mostly their hex
+ * strings: a few KB for the usual blocks and up to about 1.5 MB for a full one. Besides the number of blocks the
+ * cache is so also capped by that size, and the oldest blocks are evicted first when either is exceeded.
+ */
+final class RecentBlockCache {
+
+    private static final class Entry {
+        private final Block block;
+        private final long size;
+
+        private Entry(Block block, long size) {
+            this.block = block;
+            this.size = size;
+        }
+    }
+
+    // the bytes themselves and about twice as much for the hex strings of the JSON
+    private static final int ENTRY_BYTES_PER_BLOCK_BYTE = 3;
+
+    private final int maxSize;
+    private final long maxBytes;
+    private final TreeMap<Integer, Block> byHeight = new TreeMap<>();
+    private final Map<Long, Entry> byId = new HashMap<>();
+    private long bytes;
+
+    RecentBlockCache(int maxSize, long maxBytes) {
+        this.maxSize = Math.max(1, maxSize);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Builds the bytes and JSON the block caches, so it is done before taking the blockchain lock to {@link #put} it.
+     */
+    static void prepare(Block block) {
+        block.getBytes();
+        block.getJsonObject();
+    }
+
+    void put(Block block) {
+        long size = (long) block.getBytes().length * ENTRY_BYTES_PER_BLOCK_BYTE;
+        synchronized (this) {
+            for (Block replaced : byHeight.tailMap(block.getHeight(), true).values()) {
+                bytes -= byId.remove(replaced.getId()).size;
+            }
+            byHeight.tailMap(block.getHeight(), true).clear();
+            // as in the database, the last block has no next block and the one before it now has this one
+            block.setNextBlockId(0);
+            Block previous = byHeight.get(block.getHeight() - 1);
+            if (previous != null && previous.getId() == block.getPreviousBlockId()) {
+                previous.setNextBlockId(block.getId());
+            }
+            byHeight.put(block.getHeight(), block);
+            byId.put(block.getId(), new Entry(block, size));
+            bytes += size;
+            // the last block always stays
+            while (byHeight.size() > maxSize || (bytes > maxBytes && byHeight.size() > 1)) {
+                bytes -= byId.remove(byHeight.pollFirstEntry().getValue().getId()).size;
+            }
+        }
+    }
+
+    synchronized Block get(long blockId) {
+        Entry entry = byId.get(blockId);
+        return entry != null ? entry.block : null;
+    }
+
+    synchronized Block getAtHeight(int height) {
+        return byHeight.get(height);
+    }
+
+    /**
+     * @return the blocks after the given one up to the last block, null if that one or any block after it is not
+     * cached
+     */
+    synchronized List<Block> getAfter(long blockId, int limit) {
+        Entry entry = byId.get(blockId);
+        if (entry == null) {
+            return null;
+        }
+        Block block = entry.block;
+        int lastHeight = byHeight.lastKey();
+        List<Block> blocks = new ArrayList<>(Math.max(0, Math.min(limit, lastHeight - block.getHeight())));
+        for (int height = block.getHeight() + 1; height <= lastHeight && blocks.size() < limit; height++) {
+            Block next = byHeight.get(height);
+            if (next == null) {
+                return null;
+            }
+            blocks.add(next);
+        }
+        return blocks;
+    }
+
+    synchronized int size() {
+        return byHeight.size();
+    }
+
+    /**
+     * @return the estimated memory the cached blocks take, their bytes and JSON
+     */
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    synchronized void clear() {
+        byHeight.clear();
+        byId.clear();
+        bytes = 0;
+    }
+}
@@ -5,6 +5,8 @@ import brs.util.Observable;
 import com.google.gson.JsonObject;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface TransactionProcessor extends Observable<List<? extends Transaction>,TransactionProcessor.Event> {
 
@@ -21,6 +23,11 @@ public interface TransactionProcessor extends Observable<List<? extends Transact
 
   List<Transaction> getAllUnconfirmedTransactionsFor(Peer peer);
 
+  /**
+   * @return a copy of the unconfirmed transactions, each with the peers that already have it
+   */
+  Map<Transaction, Set<Peer>> getAllUnconfirmedTransactionsWithFingerPrints();
+
   void markFingerPrintsOf(Peer peer, List<Transaction> transactions);
   
   Transaction getUnconfirmedTransaction(long transactionId);
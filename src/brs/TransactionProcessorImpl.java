@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -82,7 +84,7 @@ public class TransactionProcessorImpl implements TransactionProcessor {
                       if (peer == null) {
                           return;
                       }
-                      JsonObject response = Peers.readUnconfirmedTransactionsNonBlocking(peer).get();
+                      JsonObject response = Peers.readUnconfirmedTransactionsNonBlocking(peer, this::hasTransaction).get();
                       if (response == null) {
                           return;
                       }
@@ -103,21 +105,24 @@ public class TransactionProcessorImpl implements TransactionProcessor {
                               List<CompletableFuture<?>> expectedResults = new ArrayList<>();
 
                               for (Peer otherPeer : activePrioPlusExtra) {
-                                  CompletableFuture<JsonObject> unconfirmedTransactionsResult = Peers.readUnconfirmedTransactionsNonBlocking(otherPeer);
+                                  CompletableFuture<JsonObject> unconfirmedTransactionsResult = Peers.readUnconfirmedTransactionsNonBlocking(otherPeer, this::hasTransaction);
 
                                   unconfirmedTransactionsResult.whenComplete((jsonObject, throwable) -> {
+                                      if (jsonObject == null) {
+                                          return;
+                                      }
                                       try {
-                                          processPeerTransactions(transactionsData, otherPeer);
+                                          processPeerTransactions(JSON.getAsJsonArray(jsonObject.get(UNCONFIRMED_TRANSACTIONS_RESPONSE)), otherPeer);
                                           Peers.feedingTime(otherPeer, foodDispenser, doneFeedingLog);
                                       } catch (ValidationException | RuntimeException e) {
-                                          peer.blacklist(e, "pulled invalid data using getUnconfirmedTransactions");
+                                          otherPeer.blacklist(e, "pulled invalid data using getUnconfirmedTransactions");
                                       }
                                   });
 
                                   expectedResults.add(unconfirmedTransactionsResult);
                               }
 
-                              CompletableFuture.allOf(expectedResults.toArray(new CompletableFuture[0])).join();
+                              Peers.await(CompletableFuture.allOf(expectedResults.toArray(new CompletableFuture[0])), null);
                           }
                       } catch (ValidationException | RuntimeException e) {
                           peer.blacklist(e, "pulled invalid data using getUnconfirmedTransactions");
@@ -168,11 +173,20 @@ public class TransactionProcessorImpl implements TransactionProcessor {
     return unconfirmedTransactionStore.getAllFor(peer);
   }
 
+  @Override
+  public Map<Transaction, Set<Peer>> getAllUnconfirmedTransactionsWithFingerPrints() {
+    return unconfirmedTransactionStore.getAllWithFingerPrints();
+  }
+
   @Override
   public void markFingerPrintsOf(Peer peer, List<Transaction> transactions) {
     unconfirmedTransactionStore.markFingerPrintsOf(peer, transactions);
   }
 
+  private boolean hasTransaction(long transactionId) {
+    return unconfirmedTransactionStore.exists(transactionId) || dbs.getTransactionDb().hasTransaction(transactionId);
+  }
+
   @Override
   public Transaction getUnconfirmedTransaction(long transactionId) {
     return unconfirmedTransactionStore.get(transactionId);
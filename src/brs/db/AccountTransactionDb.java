@@ -0,0 +1,17 @@
+package brs.db;
+
+import brs.Transaction;
+
+import java.util.List;
+
+/**
+ * Secondary index of the transactions an account took part in, as sender, recipient or indirect recipient, so the
+ * history of an account is a single range scan. Rows are written together with the transactions, which includes
+ * AT, escrow and subscription payments, and dropped together with their blocks.
+ */
+public interface AccountTransactionDb extends Table {
+
+  void saveTransactions(List<Transaction> transactions);
+
+  void deleteFrom(int height);
+}
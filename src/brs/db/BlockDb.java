@@ -14,6 +14,11 @@ public interface BlockDb extends Table {
 
   Block findBlockAtHeight(int height);
 
+  /**
+   * @return the height below the first stored block after genesis, 0 unless the chain started from a state snapshot
+   */
+  int findPrunedHeight();
+
   Block findLastBlock();
 
   Block findLastBlock(int timestamp);
@@ -22,7 +27,8 @@ public interface BlockDb extends Table {
 
   void saveBlock(DSLContext ctx, Block block);
 
-  // relying on cascade triggers in the database to delete the transactions for all deleted blocks
+  // relying on cascade triggers in the database to delete the transactions for all deleted blocks,
+  // the account transaction index is cleared explicitly
   void deleteBlocksFrom(long blockId);
 
   void deleteAll(boolean force);
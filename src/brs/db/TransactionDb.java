@@ -4,11 +4,17 @@ import brs.SignumException;
 import brs.Transaction;
 import brs.schema.tables.records.TransactionRecord;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TransactionDb extends Table {
   Transaction findTransaction(long transactionId);
 
+  /**
+   * @return the transactions with these ids in one query, in no particular order, unknown ids are left out
+   */
+  List<Transaction> findTransactions(Collection<Long> transactionIds);
+
   Transaction findTransactionByFullHash(String fullHash); // TODO add byte[] method
 
   boolean hasTransaction(long transactionId);
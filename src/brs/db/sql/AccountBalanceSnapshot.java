@@ -0,0 +1,331 @@
+package brs.db.sql;
+
+import brs.Account;
+import brs.db.store.DerivedTableManager;
+import brs.util.LongIntHashMap;
+import org.jooq.Cursor;
+import org.jooq.Record2;
+import org.jooq.Record4;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static brs.schema.Tables.ACCOUNT_ASSET;
+import static brs.schema.Tables.ACCOUNT_BALANCE;
+
+/**
+ * Column oriented in-memory copy of the latest rows of <code>account_balance</code> and <code>account_asset</code>,
+ * used to answer the aggregate API queries (total balance, asset holders, circulating supply) without scanning
+ * the tables on every call. Kept up to date with the committed writes the account stores report, see
+ * {@link CommittedSnapshot}.
+ */
+final class AccountBalanceSnapshot extends CommittedSnapshot {
+
+  private static final Logger logger = LoggerFactory.getLogger(AccountBalanceSnapshot.class);
+
+  private final DbKey.LinkKeyFactory<Account.AccountAsset> accountAssetKeyFactory;
+
+  private Balances balances = new Balances(0);
+  private Map<Long, AssetHolders> assets = new HashMap<>();
+
+  AccountBalanceSnapshot(boolean enabled, DbKey.LinkKeyFactory<Account.AccountAsset> accountAssetKeyFactory,
+                         DerivedTableManager derivedTableManager) {
+    super("account balance snapshot", enabled, derivedTableManager);
+    this.accountAssetKeyFactory = accountAssetKeyFactory;
+  }
+
+  @Override
+  Runnable load() {
+    Balances loadedBalances = Db.useDSLContextOnPrimary(ctx -> {
+      Balances result = new Balances(1024);
+      try (Cursor<Record2<Long, Long>> cursor = ctx.select(ACCOUNT_BALANCE.ID, ACCOUNT_BALANCE.BALANCE)
+        .from(ACCOUNT_BALANCE).where(ACCOUNT_BALANCE.LATEST.isTrue()).fetchLazy()) {
+        for (Record2<Long, Long> row : cursor) {
+          result.set(row.value1(), row.value2());
+        }
+      }
+      return result;
+    });
+    Map<Long, AssetHolders> loadedAssets = new HashMap<>();
+    Db.useDSLContextOnPrimary(ctx -> {
+      try (Cursor<Record4<Long, Long, Long, Long>> cursor = ctx.select(ACCOUNT_ASSET.ASSET_ID, ACCOUNT_ASSET.ACCOUNT_ID,
+          ACCOUNT_ASSET.QUANTITY, ACCOUNT_ASSET.UNCONFIRMED_QUANTITY)
+        .from(ACCOUNT_ASSET).where(ACCOUNT_ASSET.LATEST.isTrue()).fetchLazy()) {
+        for (Record4<Long, Long, Long, Long> row : cursor) {
+          loadedAssets.computeIfAbsent(row.value1(), assetId -> new AssetHolders())
+            .set(row.value2(), row.value3(), row.value4());
+        }
+      }
+      return null;
+    });
+    return () -> {
+      balances = loadedBalances;
+      assets = loadedAssets;
+    };
+  }
+
+  @Override
+  String describeContent() {
+    return balances.size() + " balances and " + assets.size() + " assets";
+  }
+
+  void balancesWritten(Collection<Account.Balance> written) {
+    if (!isEnabled()) {
+      return;
+    }
+    long[] ids = new long[written.size()];
+    long[] values = new long[written.size()];
+    int count = 0;
+    for (Account.Balance balance : written) {
+      if (balance != null) {
+        ids[count] = balance.getId();
+        values[count] = balance.getBalanceNqt();
+        count++;
+      }
+    }
+    int size = count;
+    applyOnCommit(() -> {
+      for (int i = 0; i < size; i++) {
+        balances.set(ids[i], values[i]);
+      }
+    });
+  }
+
+  void accountAssetWritten(Account.AccountAsset accountAsset) {
+    if (!isEnabled()) {
+      return;
+    }
+    long assetId = accountAsset.getAssetId();
+    long accountId = accountAsset.getAccountId();
+    long quantity = accountAsset.getQuantityQnt();
+    long unconfirmedQuantity = accountAsset.getUnconfirmedQuantityQnt();
+    applyOnCommit(() ->
+      assets.computeIfAbsent(assetId, id -> new AssetHolders()).set(accountId, quantity, unconfirmedQuantity));
+  }
+
+  void accountAssetDeleted(Account.AccountAsset accountAsset) {
+    if (!isEnabled()) {
+      return;
+    }
+    long assetId = accountAsset.getAssetId();
+    long accountId = accountAsset.getAccountId();
+    applyOnCommit(() -> {
+      AssetHolders holders = assets.get(assetId);
+      if (holders != null) {
+        holders.remove(accountId);
+      }
+    });
+  }
+
+  /**
+   * Compares the running balance total against a full scan of the table and drops the snapshot on a mismatch.
+   * The scan runs outside of any transaction and is discarded if anything got committed meanwhile.
+   *
+   * @return false if the snapshot did not match the table
+   */
+  boolean verify() {
+    if (!isEnabled() || Db.isInTransaction() || Db.isCommitInProgress()) {
+      return true;
+    }
+    OptimisticRead read = OptimisticRead.begin();
+    long expectedTotal;
+    long expectedChanges;
+    synchronized (this) {
+      if (!isValid()) {
+        return true;
+      }
+      expectedTotal = balances.total;
+      expectedChanges = getAppliedChanges();
+    }
+    long scannedTotal = Db.useDSLContextOnPrimary(ctx -> {
+      return ctx.select(DSL.sum(ACCOUNT_BALANCE.BALANCE)).from(ACCOUNT_BALANCE).where(ACCOUNT_BALANCE.LATEST.isTrue())
+        .fetchOneInto(long.class);
+    });
+    synchronized (this) {
+      if (!isValid() || getAppliedChanges() != expectedChanges || !read.isValid()) {
+        // moved on while scanning, try again next time
+        return true;
+      }
+      if (scannedTotal != expectedTotal) {
+        logger.warn("Account balance snapshot total {} does not match the table total {}, reloading it",
+          expectedTotal, scannedTotal);
+        invalidate();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  synchronized long getTotalBalance() {
+    return balances.total;
+  }
+
+  synchronized int getAssetAccountsCount(long assetId, long minimumQuantity, boolean unconfirmed, List<Long> ignoredAccounts) {
+    AssetHolders holders = assets.get(assetId);
+    if (holders == null) {
+      return 0;
+    }
+    long[] quantities = unconfirmed ? holders.unconfirmedQuantities : holders.quantities;
+    int count = 0;
+    for (int row = 0; row < holders.size; row++) {
+      long accountId = holders.accountIds[row];
+      if (accountId != 0L && (minimumQuantity <= 0L || quantities[row] >= minimumQuantity)
+        && !ignoredAccounts.contains(accountId)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  synchronized long getAssetCirculatingSupply(long assetId, boolean unconfirmed, List<Long> ignoredAccounts) {
+    AssetHolders holders = assets.get(assetId);
+    if (holders == null) {
+      return 0L;
+    }
+    long[] quantities = unconfirmed ? holders.unconfirmedQuantities : holders.quantities;
+    long supply = 0L;
+    for (int row = 0; row < holders.size; row++) {
+      long accountId = holders.accountIds[row];
+      if (accountId != 0L && !ignoredAccounts.contains(accountId)) {
+        supply += quantities[row];
+      }
+    }
+    return supply;
+  }
+
+  /**
+   * Same order and limits as the SQL variant: quantity descending, then account id ascending.
+   */
+  List<Account.AccountAsset> getAssetAccounts(long assetId, long minimumQuantity, boolean unconfirmed,
+                                              List<Long> ignoredAccounts, int from, int to) {
+    long[] accountIds;
+    long[] quantities;
+    long[] unconfirmedQuantities;
+    int matches = 0;
+    synchronized (this) {
+      AssetHolders holders = assets.get(assetId);
+      if (holders == null) {
+        return Collections.emptyList();
+      }
+      long[] filtered = unconfirmed ? holders.unconfirmedQuantities : holders.quantities;
+      accountIds = new long[holders.size];
+      quantities = new long[holders.size];
+      unconfirmedQuantities = new long[holders.size];
+      for (int row = 0; row < holders.size; row++) {
+        long accountId = holders.accountIds[row];
+        if ((minimumQuantity <= 0L || filtered[row] >= minimumQuantity) && !ignoredAccounts.contains(accountId)) {
+          accountIds[matches] = accountId;
+          quantities[matches] = holders.quantities[row];
+          unconfirmedQuantities[matches] = holders.unconfirmedQuantities[row];
+          matches++;
+        }
+      }
+    }
+
+    Integer[] order = new Integer[matches];
+    for (int i = 0; i < matches; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> {
+      int byQuantity = Long.compare(quantities[b], quantities[a]);
+      return byQuantity != 0 ? byQuantity : Long.compare(accountIds[a], accountIds[b]);
+    });
+
+    int first = Math.max(from, 0);
+    int last = to >= 0 && to >= from && to < Integer.MAX_VALUE ? Math.min(to, matches - 1) : matches - 1;
+    List<Account.AccountAsset> result = new ArrayList<>(Math.max(last - first + 1, 0));
+    for (int i = first; i <= last; i++) {
+      int row = order[i];
+      result.add(new Account.AccountAsset(accountAssetKeyFactory.newKey(accountIds[row], assetId),
+        accountIds[row], assetId, quantities[row], unconfirmedQuantities[row]));
+    }
+    return result;
+  }
+
+  @Override
+  public String getTable() {
+    return "account_balance_snapshot";
+  }
+
+  /**
+   * Latest balance per account, the total is maintained on every change.
+   */
+  private static final class Balances {
+    private final LongIntHashMap rows;
+    private long[] values;
+    private int size;
+    private long total;
+
+    private Balances(int expectedSize) {
+      rows = new LongIntHashMap(expectedSize);
+      values = new long[Math.max(expectedSize, 16)];
+    }
+
+    private void set(long id, long value) {
+      int row = rows.get(id);
+      if (row == LongIntHashMap.NO_VALUE) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size * 2);
+        }
+        row = size++;
+        rows.put(id, row);
+        values[row] = 0L;
+      }
+      total += value - values[row];
+      values[row] = value;
+    }
+
+    private int size() {
+      return size;
+    }
+  }
+
+  /**
+   * Holders of a single asset, one column per attribute. Removing swaps the last row into the gap.
+   */
+  private static final class AssetHolders {
+    private final LongIntHashMap rows = new LongIntHashMap();
+    private long[] accountIds = new long[8];
+    private long[] quantities = new long[8];
+    private long[] unconfirmedQuantities = new long[8];
+    private int size;
+
+    private void set(long accountId, long quantity, long unconfirmedQuantity) {
+      int row = rows.get(accountId);
+      if (row == LongIntHashMap.NO_VALUE) {
+        if (size == accountIds.length) {
+          accountIds = Arrays.copyOf(accountIds, size * 2);
+          quantities = Arrays.copyOf(quantities, size * 2);
+          unconfirmedQuantities = Arrays.copyOf(unconfirmedQuantities, size * 2);
+        }
+        row = size++;
+        rows.put(accountId, row);
+        accountIds[row] = accountId;
+      }
+      quantities[row] = quantity;
+      unconfirmedQuantities[row] = unconfirmedQuantity;
+    }
+
+    private void remove(long accountId) {
+      int row = rows.remove(accountId);
+      if (row == LongIntHashMap.NO_VALUE) {
+        return;
+      }
+      int last = --size;
+      if (row != last) {
+        accountIds[row] = accountIds[last];
+        quantities[row] = quantities[last];
+        unconfirmedQuantities[row] = unconfirmedQuantities[last];
+        rows.put(accountIds[row], row);
+      }
+    }
+  }
+}
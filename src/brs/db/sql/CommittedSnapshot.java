@@ -0,0 +1,210 @@
+package brs.db.sql;
+
+import brs.db.DerivedTable;
+import brs.db.store.DerivedTableManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory copy of the committed content of some tables, used to answer API queries without scanning them.
+ * <p>
+ * The copy is only ever updated with what was actually written and committed: the stores report their writes and
+ * subclasses hand the changes to {@link #applyOnCommit}, which applies them once the surrounding transaction
+ * committed. Rollbacks (pop off) and truncates drop the copy, it is rebuilt lazily from the database on the next
+ * read. Reads from within a transaction (block processing) must keep using SQL, since they need to see uncommitted
+ * state.
+ * <p>
+ * Subclasses read and change their content only while holding the lock of the snapshot object.
+ */
+abstract class CommittedSnapshot implements DerivedTable {
+
+  private static final Logger logger = LoggerFactory.getLogger(CommittedSnapshot.class);
+
+  private enum State {INVALID, BUILDING, VALID}
+
+  private final String description;
+  private final boolean enabled;
+
+  private State state = State.INVALID;
+  private int cleanCount;
+  private boolean invalidatedWhileBuilding;
+  private final List<Runnable> pendingWhileBuilding = new ArrayList<>();
+
+  private long appliedChanges;
+
+  /**
+   * @param description what the snapshot holds, for the log
+   */
+  CommittedSnapshot(String description, boolean enabled, DerivedTableManager derivedTableManager) {
+    this.description = description;
+    this.enabled = enabled;
+    if (enabled) {
+      derivedTableManager.registerDerivedTable(this);
+    }
+  }
+
+  /**
+   * Loads the committed content from the database, without holding the lock.
+   *
+   * @return what puts the loaded content in place, run under the lock before the changes committed meanwhile
+   */
+  abstract Runnable load();
+
+  /**
+   * @return the size of the content for the log, called under the lock
+   */
+  abstract String describeContent();
+
+  final boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return true if the caller can be served from the snapshot, building it first if needed
+   */
+  final boolean isAvailable() {
+    if (!enabled || Db.isInTransaction()) {
+      return false;
+    }
+    synchronized (this) {
+      if (state != State.INVALID && cleanCount != Db.getCleanCount()) {
+        // the database was wiped underneath
+        invalidate();
+      }
+      if (state == State.VALID) {
+        return true;
+      }
+      if (state == State.BUILDING) {
+        // some other reader is loading it, use SQL meanwhile
+        return false;
+      }
+      state = State.BUILDING;
+      cleanCount = Db.getCleanCount();
+      invalidatedWhileBuilding = false;
+      pendingWhileBuilding.clear();
+    }
+    return build();
+  }
+
+  private boolean build() {
+    long start = System.currentTimeMillis();
+    Runnable install;
+    try {
+      install = load();
+    } catch (RuntimeException e) {
+      logger.warn("Failed to load the {}, falling back to SQL", description, e);
+      synchronized (this) {
+        state = State.INVALID;
+        pendingWhileBuilding.clear();
+      }
+      return false;
+    }
+
+    String content;
+    synchronized (this) {
+      install.run();
+      // commits that happened while loading, applying them again is harmless as they only set values
+      try {
+        pendingWhileBuilding.forEach(Runnable::run);
+      } catch (RuntimeException e) {
+        logger.warn("Failed to update the {}, falling back to SQL", description, e);
+        pendingWhileBuilding.clear();
+        state = State.INVALID;
+        return false;
+      }
+      pendingWhileBuilding.clear();
+      if (invalidatedWhileBuilding) {
+        state = State.INVALID;
+        return false;
+      }
+      state = State.VALID;
+      content = describeContent();
+    }
+    logger.info("Loaded {} with {} in {} ms", description, content, System.currentTimeMillis() - start);
+    return true;
+  }
+
+  /**
+   * Applies the change once the current transaction committed.
+   */
+  final void applyOnCommit(Runnable change) {
+    Db.afterCommit(() -> applyCommitted(change));
+  }
+
+  /**
+   * Applies a committed change, or keeps it for after the build in progress.
+   */
+  final synchronized void applyCommitted(Runnable change) {
+    if (state == State.VALID) {
+      try {
+        change.run();
+      } catch (RuntimeException e) {
+        // a change applied only in part leaves the snapshot unlike the committed tables, rebuild it
+        state = State.INVALID;
+        throw e;
+      }
+      appliedChanges++;
+    } else if (state == State.BUILDING) {
+      pendingWhileBuilding.add(change);
+    }
+  }
+
+  /**
+   * @return whether the content matches the committed tables, to be called under the lock
+   */
+  final boolean isValid() {
+    return state == State.VALID;
+  }
+
+  /**
+   * @return the number of changes applied so far, to tell whether the content moved on, called under the lock
+   */
+  final long getAppliedChanges() {
+    return appliedChanges;
+  }
+
+  final synchronized void invalidate() {
+    if (state == State.BUILDING) {
+      invalidatedWhileBuilding = true;
+    } else {
+      // the content is kept until the next build, readers that already passed isAvailable() see it as before
+      state = State.INVALID;
+    }
+  }
+
+  @Override
+  public void rollback(int height) {
+    invalidateOnCommit();
+  }
+
+  @Override
+  public void truncate() {
+    invalidateOnCommit();
+  }
+
+  private void invalidateOnCommit() {
+    if (Db.isInTransaction()) {
+      Db.afterCommit(this::invalidate);
+    } else {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void trim(int height) {
+    // only the latest content is kept, nothing to trim
+  }
+
+  @Override
+  public void finish() {
+    // changes are applied on commit
+  }
+
+  @Override
+  public void optimize() {
+    // not a database table
+  }
+}
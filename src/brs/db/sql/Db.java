@@ -7,6 +7,8 @@ import brs.db.sql.dialects.DatabaseInstanceFactory;
 import brs.db.store.Dbs;
 import brs.props.PropertyService;
 import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.flywaydb.core.Flyway;
 import org.jooq.*;
 import org.jooq.conf.Settings;
@@ -18,8 +20,12 @@ import org.slf4j.LoggerFactory;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -30,9 +36,14 @@ public final class Db {
   private static final ThreadLocal<Connection> localConnection = new ThreadLocal<>();
   private static final ThreadLocal<Map<String, Map<SignumKey, Object>>> transactionCaches = new ThreadLocal<>();
   private static final ThreadLocal<Map<String, Map<SignumKey, Object>>> transactionBatches = new ThreadLocal<>();
+  private static final ThreadLocal<List<Runnable>> transactionCommitActions = new ThreadLocal<>();
+  private static final ThreadLocal<Boolean> readPoolRouting = new ThreadLocal<>();
   private static DBCacheManagerImpl dbCacheManager;
   private static Flyway flyway;
   private static DatabaseInstance databaseInstance;
+  private static volatile int cleanCount;
+  private static final AtomicLong commitsStarted = new AtomicLong();
+  private static final AtomicLong commitsFinished = new AtomicLong();
 
   public static void init(PropertyService propertyService, DBCacheManagerImpl dbCacheManager) {
     try {
@@ -58,6 +69,7 @@ public final class Db {
     try {
       flyway.clean();
       flyway.migrate();
+      cleanCount++;
     } catch (Exception e) {
       logger.error(e.getMessage());
     }
@@ -115,6 +127,117 @@ public final class Db {
     return function.apply(getDSLContext());
   }
 
+  /**
+   * Like {@link #useDSLContext(Function)}, but never served by the read pool, for readers that must not lag behind.
+   */
+  static <T> T useDSLContextOnPrimary(Function<DSLContext, T> function) {
+    Boolean routing = readPoolRouting.get();
+    readPoolRouting.remove();
+    try {
+      return function.apply(getDSLContext());
+    } finally {
+      if (routing != null) {
+        readPoolRouting.set(routing);
+      }
+    }
+  }
+
+  /**
+   * Runs a long read in a read only transaction on its own connection, of the read pool if the thread is routed
+   * there. Drivers like the Postgres one only fetch a result in chunks of the fetch size with autocommit off, with
+   * autocommit on they buffer it whole.
+   */
+  static <T> T useReadOnlyTransaction(Function<DSLContext, T> function) {
+    if (localConnection.get() != null) {
+      throw new IllegalStateException("Transaction already in progress");
+    }
+    HikariDataSource dataSource = isReadPoolRouted() ? databaseInstance.getReadDataSource() : databaseInstance.getDataSource();
+    try (ConsistentRead read = new ConsistentRead(dataSource, Connection.TRANSACTION_NONE)) {
+      return function.apply(read.getDSLContext());
+    }
+  }
+
+  /**
+   * Opens a read only transaction on a primary connection of its own, which sees the database as of its first read
+   * for as long as it is open while other threads go on committing. Once the first read returned, block processing
+   * can go on and the rest can be read on another thread.
+   */
+  static ConsistentRead beginConsistentRead() {
+    SQLDialect dialect = databaseInstance.getDialect();
+    // repeatable read is a snapshot of the whole database on these, while on MariaDB serializable would lock the rows
+    int isolation = dialect == SQLDialect.SQLITE ? Connection.TRANSACTION_SERIALIZABLE
+      : Connection.TRANSACTION_REPEATABLE_READ;
+    return new ConsistentRead(databaseInstance.getDataSource(), isolation);
+  }
+
+  /**
+   * A read only transaction on a connection of its own, closing it releases the connection.
+   */
+  static final class ConsistentRead implements AutoCloseable {
+
+    private final Connection connection;
+    private final DSLContext ctx;
+
+    private ConsistentRead(HikariDataSource dataSource, int isolation) {
+      SQLDialect dialect = databaseInstance.getDialect();
+      Connection con = null;
+      try {
+        con = dataSource.getConnection();
+        if (isolation != Connection.TRANSACTION_NONE) {
+          con.setTransactionIsolation(isolation);
+        }
+        con.setAutoCommit(false);
+        if (dialect != SQLDialect.SQLITE) {
+          // SQLite only takes the flag when opening the connection
+          con.setReadOnly(true);
+        }
+      } catch (SQLException e) {
+        DbUtils.close(con);
+        throw new RuntimeException(e.toString(), e);
+      }
+      Settings settings = new Settings();
+      settings.setRenderSchema(Boolean.FALSE);
+      this.connection = con;
+      this.ctx = DSL.using(con, dialect, settings);
+    }
+
+    DSLContext getDSLContext() {
+      return ctx;
+    }
+
+    @Override
+    public void close() {
+      try {
+        // nothing to commit, the pool resets the autocommit, isolation and read only flags
+        connection.rollback();
+      } catch (SQLException e) {
+        logger.debug("Failed to end read only transaction", e);
+      }
+      DbUtils.close(connection);
+    }
+  }
+
+  /**
+   * Routes the reads of the current thread that happen outside of a transaction to the read pool (if configured),
+   * used for the API requests so heavy queries do not compete with block processing for connections.
+   */
+  public static void setReadPoolRouting(boolean enabled) {
+    if (enabled) {
+      readPoolRouting.set(Boolean.TRUE);
+    } else {
+      readPoolRouting.remove();
+    }
+  }
+
+  /**
+   * @return true if reads of the current thread are served by the read pool, which may lag behind the primary:
+   * what is read must not end up in a cache shared with block processing
+   */
+  static boolean isReadPoolRouted() {
+    return localConnection.get() == null && readPoolRouting.get() != null
+      && databaseInstance.getReadDataSource() != null;
+  }
+
   public static void useDSLContext(Consumer<DSLContext> consumer) { // TODO RxJava
     consumer.accept(getDSLContext());
   }
@@ -125,7 +248,8 @@ public final class Db {
     settings.setRenderSchema(Boolean.FALSE);
     SQLDialect dialect = databaseInstance.getDialect();
     if (con == null) {
-      return DSL.using(databaseInstance.getDataSource(), dialect, settings);
+      HikariDataSource dataSource = isReadPoolRouted() ? databaseInstance.getReadDataSource() : databaseInstance.getDataSource();
+      return DSL.using(dataSource, dialect, settings);
     } else {
       return DSL.using(con, dialect, settings);
     }
@@ -147,10 +271,58 @@ public final class Db {
     return (Map<SignumKey, V>) transactionBatches.get().computeIfAbsent(tableName, k -> new HashMap<>());
   }
 
+  /**
+   * Registers an action to be run right after the current transaction was committed successfully.
+   * Actions of a rolled back transaction are dropped. Each action runs even if an earlier one failed, an action
+   * keeping an in-memory copy up to date has to invalidate that copy itself when it fails.
+   */
+  static void afterCommit(Runnable action) {
+    if (!isInTransaction()) {
+      throw new IllegalStateException("Not in transaction");
+    }
+    transactionCommitActions.get().add(action);
+  }
+
   public static boolean isInTransaction() {
     return localConnection.get() != null;
   }
 
+  /**
+   * @return a counter that changes whenever the whole database was wiped, for in-memory copies of table content
+   */
+  static int getCleanCount() {
+    return cleanCount;
+  }
+
+  /**
+   * @return the number of commits started so far, together with {@link #isCommitInProgress()} this tells a reader
+   * outside of any transaction whether data got committed while it was scanning
+   */
+  static long getCommitCount() {
+    return commitsStarted.get();
+  }
+
+  static boolean isCommitInProgress() {
+    return commitsStarted.get() != commitsFinished.get();
+  }
+
+  /**
+   * @return the connection pools in use by pool name (the primary one and the read pool, if configured)
+   */
+  public static Map<String, HikariPoolMXBean> getPoolStatistics() {
+    Map<String, HikariPoolMXBean> pools = new LinkedHashMap<>();
+    for (HikariDataSource dataSource : new HikariDataSource[]{databaseInstance.getDataSource(), databaseInstance.getReadDataSource()}) {
+      if (dataSource != null && dataSource.getHikariPoolMXBean() != null) {
+        pools.put(dataSource.getPoolName(), dataSource.getHikariPoolMXBean());
+      }
+    }
+    return pools;
+  }
+
+  static DatabaseInstance getDatabaseInstance() {
+    return databaseInstance;
+  }
+
   public static SQLDialect getDialect() {
     return getDSLContext().dialect();
   }
@@ -165,6 +337,7 @@ public final class Db {
       localConnection.set(con);
       transactionCaches.set(new HashMap<>());
       transactionBatches.set(new HashMap<>());
+      transactionCommitActions.set(new ArrayList<>());
       return con;
     } catch (Exception e) {
       throw new RuntimeException(e.toString(), e);
@@ -176,10 +349,29 @@ public final class Db {
     if (con == null) {
       throw new IllegalStateException("Not in transaction");
     }
+    commitsStarted.incrementAndGet();
     try {
-      con.commit();
-    } catch (SQLException e) {
-      throw new RuntimeException(e.toString(), e);
+      try {
+        con.commit();
+      } catch (SQLException e) {
+        throw new RuntimeException(e.toString(), e);
+      }
+      List<Runnable> commitActions = transactionCommitActions.get();
+      try {
+        // one failing action must not keep the others from running, the in-memory copies it updates
+        // invalidate themselves when an update fails
+        for (Runnable action : commitActions) {
+          try {
+            action.run();
+          } catch (RuntimeException e) {
+            logger.error("Failed to run post commit action", e);
+          }
+        }
+      } finally {
+        commitActions.clear();
+      }
+    } finally {
+      commitsFinished.incrementAndGet();
     }
   }
 
@@ -195,6 +387,7 @@ public final class Db {
     }
     transactionCaches.get().clear();
     transactionBatches.get().clear();
+    transactionCommitActions.get().clear();
     dbCacheManager.flushCache();
   }
 
@@ -208,6 +401,7 @@ public final class Db {
     transactionCaches.remove();
     transactionBatches.get().clear();
     transactionBatches.remove();
+    transactionCommitActions.remove();
     DbUtils.close(con);
   }
 
@@ -22,6 +22,8 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
   final Field<Integer> heightField;
   final Field<Boolean> latestField;
 
+  private final PreparedQuery getQuery;
+
   EntitySqlTable(String table, TableImpl<?> tableClass, SignumKey.Factory<T> dbKeyFactory, DerivedTableManager derivedTableManager) {
     this(table, tableClass, dbKeyFactory, false, derivedTableManager);
   }
@@ -39,6 +41,36 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
       }
     }
     defaultSort.add(heightField.desc());
+    List<Field<Long>> pkFields = getPKFields(tableClass, this.dbKeyFactory.getPKColumns());
+    this.getQuery = new PreparedQuery("EntitySqlTable.get(" + table + ")", ctx -> {
+      SelectQuery<Record> query = ctx.selectQuery();
+      query.addFrom(tableClass);
+      for (Field<Long> pkField : pkFields) {
+        query.addConditions(pkField.eq((Long) null));
+      }
+      if (multiversion) {
+        query.addConditions(latestField.isTrue());
+      }
+      query.addLimit(DSL.inline(1));
+      return query;
+    });
+  }
+
+  /**
+   * The prepared lookup binds the key values as long, so every key column has to be a BIGINT.
+   */
+  @SuppressWarnings("unchecked")
+  static List<Field<Long>> getPKFields(Table<?> tableClass, String[] columns) {
+    List<Field<Long>> pkFields = new ArrayList<>(columns.length);
+    for (String column : columns) {
+      // some key factories qualify their columns with the table name
+      Field<?> pkField = tableClass.field(column.substring(column.lastIndexOf('.') + 1));
+      if (pkField == null || pkField.getType() != Long.class) {
+        throw new IllegalArgumentException("Key column " + column + " of " + tableClass.getName() + " is not a BIGINT column");
+      }
+      pkFields.add((Field<Long>) pkField);
+    }
+    return pkFields;
   }
 
   private Map<SignumKey, T> getCache() {
@@ -77,15 +109,7 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
       }
     }
     return Db.useDSLContext(ctx -> {
-      SelectQuery<Record> query = ctx.selectQuery();
-      query.addFrom(tableClass);
-      query.addConditions(dbKey.getPKConditions(tableClass));
-      if ( multiversion ) {
-        query.addConditions(latestField.isTrue());
-      }
-      query.addLimit(1);
-
-      return get(ctx, query, true);
+      return get(ctx, getQuery, PreparedQuery.toBinds(dbKey.getPKValues()));
     });
   }
 
@@ -148,8 +172,16 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
   }
 
   private T get(DSLContext ctx, SelectQuery<Record> query, boolean cache) {
+    return get(ctx, query.fetchOne(), cache);
+  }
+
+  T get(DSLContext ctx, PreparedQuery query, Object... binds) {
+    Result<Record> result = query.fetch(ctx, binds);
+    return result.isEmpty() ? null : get(ctx, result.get(0), true);
+  }
+
+  private T get(DSLContext ctx, Record record, boolean cache) {
     final boolean doCache = cache && Db.isInTransaction();
-    Record record = query.fetchOne();
     if (record == null) return null;
     T t = null;
     DbKey dbKey = null;
@@ -0,0 +1,128 @@
+package brs.db.sql;
+
+import brs.db.SignumKey;
+import brs.db.store.DerivedTableManager;
+import brs.util.NameIndex;
+import org.jooq.DSLContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory {@link NameIndex} over the latest names of one table (aliases, assets, account names), so name
+ * searches do not need a <code>LIKE</code> scan. Kept up to date with the committed names the store reports, see
+ * {@link CommittedSnapshot}.
+ */
+final class NameSearchSnapshot extends CommittedSnapshot {
+
+  private final String name;
+  private final SignumKey.LongKeyFactory<?> keyFactory;
+  private final BiConsumer<DSLContext, NameIndex> loader;
+
+  private NameIndex index = new NameIndex();
+
+  private static final class NameChange {
+    private final long id;
+    private final String value;
+    private final long group;
+
+    private NameChange(long id, String value, long group) {
+      this.id = id;
+      this.value = value;
+      this.group = group;
+    }
+  }
+
+  /**
+   * @param keyFactory keys of the table, the names written in one transaction are collected by them
+   * @param loader fills the index with the latest names of the table
+   */
+  NameSearchSnapshot(String name, boolean enabled, SignumKey.LongKeyFactory<?> keyFactory,
+                     DerivedTableManager derivedTableManager, BiConsumer<DSLContext, NameIndex> loader) {
+    super(name + " name index", enabled, derivedTableManager);
+    this.name = name;
+    this.keyFactory = keyFactory;
+    this.loader = loader;
+  }
+
+  @Override
+  Runnable load() {
+    NameIndex loaded = new NameIndex();
+    Db.useDSLContextOnPrimary(ctx -> {
+      loader.accept(ctx, loaded);
+      return null;
+    });
+    return () -> index = loaded;
+  }
+
+  @Override
+  String describeContent() {
+    return index.size() + " names";
+  }
+
+  /**
+   * Reports a written name, an empty one removes the id from the index. The names of one transaction are
+   * collected and applied by a single post commit action, a later write of the same id replaces the earlier one.
+   */
+  void nameWritten(long id, String value, long group) {
+    if (!isEnabled()) {
+      return;
+    }
+    // dropped together with the other batches on rollback
+    Map<SignumKey, NameChange> pending = Db.getBatch(getTable());
+    if (pending.isEmpty()) {
+      Db.afterCommit(() -> {
+        // batches outlive a commit, the transaction may go on and commit again
+        List<NameChange> changes = new ArrayList<>(pending.values());
+        pending.clear();
+        applyCommitted(() -> {
+          for (NameChange change : changes) {
+            if (change.value == null || change.value.isEmpty()) {
+              index.remove(change.id);
+            } else {
+              index.put(change.id, change.value, change.group);
+            }
+          }
+        });
+      });
+    }
+    pending.put(keyFactory.newKey(id), new NameChange(id, value, group));
+  }
+
+  synchronized List<Long> search(String query, LongPredicate group, int from, int to) {
+    return index.search(query, group, from, to);
+  }
+
+  synchronized List<Long> find(String value, LongPredicate group) {
+    return index.find(value, group);
+  }
+
+  /**
+   * Puts the entities loaded in one query back into the order of the search result.
+   */
+  static <T> List<T> inOrder(List<Long> ids, Collection<T> loaded, ToLongFunction<T> idOf) {
+    Map<Long, T> byId = new HashMap<>();
+    for (T entity : loaded) {
+      byId.put(idOf.applyAsLong(entity), entity);
+    }
+    List<T> ordered = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      T entity = byId.get(id);
+      if (entity != null) {
+        ordered.add(entity);
+      }
+    }
+    return ordered;
+  }
+
+  @Override
+  public String getTable() {
+    return name + "_name_index";
+  }
+}
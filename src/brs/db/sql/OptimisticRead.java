@@ -0,0 +1,35 @@
+package brs.db.sql;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * A read outside of any transaction that does not hold off the block processing. What was read is only of one
+ * database state if nothing got committed between {@link #begin()} and {@link #isValid()}, otherwise the caller drops
+ * it and tries again later.
+ */
+public final class OptimisticRead {
+
+  private final LongSupplier commitCount;
+  private final BooleanSupplier commitInProgress;
+  private final long startCount;
+  private final boolean startedInCommit;
+
+  OptimisticRead(LongSupplier commitCount, BooleanSupplier commitInProgress) {
+    this.commitCount = commitCount;
+    this.commitInProgress = commitInProgress;
+    this.startCount = commitCount.getAsLong();
+    this.startedInCommit = commitInProgress.getAsBoolean();
+  }
+
+  public static OptimisticRead begin() {
+    return new OptimisticRead(Db::getCommitCount, Db::isCommitInProgress);
+  }
+
+  /**
+   * @return true if no commit was running or happened since {@link #begin()}
+   */
+  public boolean isValid() {
+    return !startedInCommit && !commitInProgress.getAsBoolean() && commitCount.getAsLong() == startCount;
+  }
+}
@@ -0,0 +1,111 @@
+package brs.db.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Open orders of one side of the asset exchange, per asset in price-time priority: best price first, then the
+ * older order (creation height), then the lower id. The same order the <code>ask_order</code> and
+ * <code>bid_order</code> queries use.
+ * <p>
+ * Not thread safe, the owner synchronizes.
+ */
+final class OrderBook {
+
+  /**
+   * Immutable copy of an order, the order objects themselves get their quantity changed while matching.
+   */
+  static final class Entry {
+    final long id;
+    final long accountId;
+    final long assetId;
+    final long priceNQT;
+    final int creationHeight;
+    final long quantityQNT;
+
+    Entry(long id, long accountId, long assetId, long priceNQT, int creationHeight, long quantityQNT) {
+      this.id = id;
+      this.accountId = accountId;
+      this.assetId = assetId;
+      this.priceNQT = priceNQT;
+      this.creationHeight = creationHeight;
+      this.quantityQNT = quantityQNT;
+    }
+  }
+
+  private static final Comparator<Entry> TIME_PRIORITY = Comparator.<Entry>comparingInt(entry -> entry.creationHeight)
+    .thenComparingLong(entry -> entry.id);
+
+  private final Comparator<Entry> priority;
+  private final Map<Long, TreeSet<Entry>> byAsset = new HashMap<>();
+  private final Map<Long, Entry> byId = new HashMap<>();
+
+  private OrderBook(Comparator<Entry> priority) {
+    this.priority = priority;
+  }
+
+  /**
+   * @return a book with the lowest price first
+   */
+  static OrderBook asks() {
+    return new OrderBook(Comparator.<Entry>comparingLong(entry -> entry.priceNQT).thenComparing(TIME_PRIORITY));
+  }
+
+  /**
+   * @return a book with the highest price first
+   */
+  static OrderBook bids() {
+    return new OrderBook(Comparator.<Entry>comparingLong(entry -> entry.priceNQT).reversed().thenComparing(TIME_PRIORITY));
+  }
+
+  int size() {
+    return byId.size();
+  }
+
+  void put(Entry entry) {
+    remove(entry.id);
+    byId.put(entry.id, entry);
+    byAsset.computeIfAbsent(entry.assetId, key -> new TreeSet<>(priority)).add(entry);
+  }
+
+  void remove(long id) {
+    Entry entry = byId.remove(id);
+    if (entry == null) {
+      return;
+    }
+    TreeSet<Entry> orders = byAsset.get(entry.assetId);
+    orders.remove(entry);
+    if (orders.isEmpty()) {
+      byAsset.remove(entry.assetId);
+    }
+  }
+
+  /**
+   * @return the orders of the asset from <code>from</code> to <code>to</code>, both inclusive, in priority order.
+   * A negative <code>to</code> means all remaining ones.
+   */
+  List<Entry> page(long assetId, int from, int to) {
+    TreeSet<Entry> orders = byAsset.get(assetId);
+    int first = Math.max(from, 0);
+    boolean bounded = to >= 0 && to >= from && to < Integer.MAX_VALUE;
+    if (orders == null || first >= orders.size() || (bounded && to < first)) {
+      return Collections.emptyList();
+    }
+    int last = bounded ? Math.min(to, orders.size() - 1) : orders.size() - 1;
+    List<Entry> page = new ArrayList<>(last - first + 1);
+    Iterator<Entry> iterator = orders.iterator();
+    for (int i = 0; i <= last; i++) {
+      Entry entry = iterator.next();
+      if (i >= first) {
+        page.add(entry);
+      }
+    }
+    return page;
+  }
+}
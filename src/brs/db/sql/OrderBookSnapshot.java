@@ -0,0 +1,113 @@
+package brs.db.sql;
+
+import brs.Order;
+import brs.db.store.DerivedTableManager;
+import org.jooq.Cursor;
+import org.jooq.Record;
+
+import java.util.List;
+
+import static brs.schema.Tables.ASK_ORDER;
+import static brs.schema.Tables.BID_ORDER;
+
+/**
+ * In-memory ask and bid {@link OrderBook}s of all assets, so the order book API calls do not need an
+ * <code>ORDER BY price</code> query per page. Kept up to date with the committed orders the store reports, see
+ * {@link CommittedSnapshot}.
+ * <p>
+ * Matching runs inside the block transaction, it is part of consensus and keeps using the order queries.
+ */
+final class OrderBookSnapshot extends CommittedSnapshot {
+
+  private OrderBook asks = OrderBook.asks();
+  private OrderBook bids = OrderBook.bids();
+
+  OrderBookSnapshot(boolean enabled, DerivedTableManager derivedTableManager) {
+    super("order books", enabled, derivedTableManager);
+  }
+
+  @Override
+  Runnable load() {
+    OrderBook loadedAsks = OrderBook.asks();
+    OrderBook loadedBids = OrderBook.bids();
+    Db.useDSLContextOnPrimary(ctx -> {
+      try (Cursor<? extends Record> cursor = ctx.selectFrom(ASK_ORDER).where(ASK_ORDER.LATEST.isTrue()).fetchLazy()) {
+        for (Record record : cursor) {
+          loadedAsks.put(new OrderBook.Entry(record.get(ASK_ORDER.ID), record.get(ASK_ORDER.ACCOUNT_ID),
+            record.get(ASK_ORDER.ASSET_ID), record.get(ASK_ORDER.PRICE), record.get(ASK_ORDER.CREATION_HEIGHT),
+            record.get(ASK_ORDER.QUANTITY)));
+        }
+      }
+      try (Cursor<? extends Record> cursor = ctx.selectFrom(BID_ORDER).where(BID_ORDER.LATEST.isTrue()).fetchLazy()) {
+        for (Record record : cursor) {
+          loadedBids.put(new OrderBook.Entry(record.get(BID_ORDER.ID), record.get(BID_ORDER.ACCOUNT_ID),
+            record.get(BID_ORDER.ASSET_ID), record.get(BID_ORDER.PRICE), record.get(BID_ORDER.CREATION_HEIGHT),
+            record.get(BID_ORDER.QUANTITY)));
+        }
+      }
+      return null;
+    });
+    return () -> {
+      asks = loadedAsks;
+      bids = loadedBids;
+    };
+  }
+
+  @Override
+  String describeContent() {
+    return asks.size() + " asks and " + bids.size() + " bids";
+  }
+
+  private static OrderBook.Entry entry(Order order) {
+    return new OrderBook.Entry(order.getId(), order.getAccountId(), order.getAssetId(), order.getPriceNQT(),
+      order.getHeight(), order.getQuantityQNT());
+  }
+
+  void askSaved(Order.Ask ask) {
+    if (isEnabled()) {
+      written(ask.getId(), entry(ask), true);
+    }
+  }
+
+  void askRemoved(Order.Ask ask) {
+    if (isEnabled()) {
+      written(ask.getId(), null, true);
+    }
+  }
+
+  void bidSaved(Order.Bid bid) {
+    if (isEnabled()) {
+      written(bid.getId(), entry(bid), false);
+    }
+  }
+
+  void bidRemoved(Order.Bid bid) {
+    if (isEnabled()) {
+      written(bid.getId(), null, false);
+    }
+  }
+
+  private void written(long id, OrderBook.Entry entry, boolean ask) {
+    applyOnCommit(() -> {
+      OrderBook book = ask ? asks : bids;
+      if (entry == null) {
+        book.remove(id);
+      } else {
+        book.put(entry);
+      }
+    });
+  }
+
+  synchronized List<OrderBook.Entry> getSortedAsks(long assetId, int from, int to) {
+    return asks.page(assetId, from, to);
+  }
+
+  synchronized List<OrderBook.Entry> getSortedBids(long assetId, int from, int to) {
+    return bids.page(assetId, from, to);
+  }
+
+  @Override
+  public String getTable() {
+    return "order_book";
+  }
+}
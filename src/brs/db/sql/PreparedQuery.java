@@ -0,0 +1,147 @@
+package brs.db.sql;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.ResultQuery;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A hot lookup whose SQL is rendered only once per dialect and then executed as a plain JDBC prepared statement.
+ * Neither the jOOQ query model nor the SQL string has to be rebuilt on every call, and preparing the very same
+ * SQL string again hits the driver side statement cache configured in the {@link brs.db.sql.dialects.DatabaseInstance}.
+ * <p>
+ * The template must use <code>(Type) null</code> bind placeholders for all parameters (in the order they are passed
+ * on execution) and inlined values for everything else, e.g. <code>limit(DSL.inline(1))</code>.
+ * <p>
+ * Every execution is counted and timed, see {@link #getStatistics()}.
+ */
+public final class PreparedQuery {
+
+  private static final Map<String, PreparedQuery> queries = new ConcurrentHashMap<>();
+
+  private final String name;
+  private final Function<DSLContext, ResultQuery<?>> template;
+  private volatile Rendered rendered;
+
+  private final LongAdder executions = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+  private static final class Rendered {
+    private final SQLDialect dialect;
+    private final String sql;
+    private final Field<?>[] fields;
+
+    private Rendered(SQLDialect dialect, String sql, Field<?>[] fields) {
+      this.dialect = dialect;
+      this.sql = sql;
+      this.fields = fields;
+    }
+  }
+
+  public PreparedQuery(String name, Function<DSLContext, ResultQuery<?>> template) {
+    this.name = name;
+    this.template = template;
+    queries.put(name, this);
+  }
+
+  private Rendered render(DSLContext ctx) {
+    Rendered current = rendered;
+    if (current == null || current.dialect != ctx.dialect()) {
+      ResultQuery<?> query = template.apply(ctx);
+      current = new Rendered(ctx.dialect(), ctx.render(query), query.fields());
+      rendered = current;
+    }
+    return current;
+  }
+
+  public Result<Record> fetch(DSLContext ctx, Object... binds) {
+    Rendered query = render(ctx);
+    long start = System.nanoTime();
+    try {
+      return ctx.connectionResult(connection -> {
+        try (PreparedStatement statement = connection.prepareStatement(query.sql)) {
+          for (int i = 0; i < binds.length; i++) {
+            statement.setObject(i + 1, binds[i]);
+          }
+          try (ResultSet resultSet = statement.executeQuery()) {
+            return ctx.fetch(resultSet, query.fields);
+          }
+        }
+      });
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      executions.increment();
+      totalNanos.add(elapsed);
+      maxNanos.accumulate(elapsed);
+    }
+  }
+
+  public <R extends Record> Result<R> fetchInto(DSLContext ctx, Table<R> table, Object... binds) {
+    return fetch(ctx, binds).into(table);
+  }
+
+  public <R extends Record> R fetchOneInto(DSLContext ctx, Table<R> table, Object... binds) {
+    Result<R> result = fetchInto(ctx, table, binds);
+    return result.isEmpty() ? null : result.get(0);
+  }
+
+  public boolean fetchExists(DSLContext ctx, Object... binds) {
+    return !fetch(ctx, binds).isEmpty();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getExecutions() {
+    return executions.sum();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  /**
+   * @return all registered queries, the ones with the highest total execution time first
+   */
+  public static List<PreparedQuery> getStatistics() {
+    List<PreparedQuery> statistics = new ArrayList<>(queries.values());
+    statistics.sort(Comparator.comparingLong(PreparedQuery::getTotalNanos).reversed());
+    return statistics;
+  }
+
+  public static void resetStatistics() {
+    for (PreparedQuery query : queries.values()) {
+      query.executions.reset();
+      query.totalNanos.reset();
+      query.maxNanos.reset();
+    }
+  }
+
+  static Object[] toBinds(long[] values) {
+    Object[] binds = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      binds[i] = values[i];
+    }
+    return binds;
+  }
+}
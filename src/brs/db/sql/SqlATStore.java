@@ -154,32 +154,35 @@ public class SqlATStore implements ATStore {
     });
   }
 
+  private static final PreparedQuery orderedATsQuery = new PreparedQuery("SqlATStore.getOrderedATs",
+    ctx -> ctx.select(AT.ID).from(
+      AT.join(AT_STATE).on(AT.ID.eq(AT_STATE.AT_ID)).join(ACCOUNT_BALANCE).on(AT.ID.eq(ACCOUNT_BALANCE.ID))
+    ).where(
+      AT.LATEST.isTrue()
+    ).and(
+      AT_STATE.LATEST.isTrue()
+    ).and(
+      ACCOUNT_BALANCE.LATEST.isTrue()
+    ).and(
+      AT_STATE.NEXT_HEIGHT.lessOrEqual((Integer) null)
+    ).and(
+      ACCOUNT_BALANCE.BALANCE.greaterOrEqual((Long) null)
+    ).and(
+      AT_STATE.FREEZE_WHEN_SAME_BALANCE.isFalse().or(
+        ACCOUNT_BALANCE.BALANCE.minus(AT_STATE.PREV_BALANCE).ge(AT_STATE.MIN_ACTIVATE_AMOUNT)
+      )
+    ).orderBy(
+      AT_STATE.PREV_HEIGHT.asc(), AT_STATE.NEXT_HEIGHT.asc(), AT.ID.asc()
+    ));
+
   @Override
   public List<Long> getOrderedATs() {
     return Db.useDSLContext(ctx -> {
       AtConstants atConstants = AtConstants.getInstance();
-      return ctx.selectFrom(
-        AT.join(AT_STATE).on(AT.ID.eq(AT_STATE.AT_ID)).join(ACCOUNT_BALANCE).on(AT.ID.eq(ACCOUNT_BALANCE.ID))
-      ).where(
-        AT.LATEST.isTrue()
-      ).and(
-        AT_STATE.LATEST.isTrue()
-      ).and(
-        ACCOUNT_BALANCE.LATEST.isTrue()
-      ).and(
-        AT_STATE.NEXT_HEIGHT.lessOrEqual(Signum.getBlockchain().getHeight() + 1)
-      ).and(
-        ACCOUNT_BALANCE.BALANCE.greaterOrEqual(
-          atConstants.stepFee(atConstants.atVersion(Signum.getBlockchain().getHeight()))
-            * atConstants.apiStepMultiplier(atConstants.atVersion(Signum.getBlockchain().getHeight()))
-        )
-      ).and(
-        AT_STATE.FREEZE_WHEN_SAME_BALANCE.isFalse().or(
-          ACCOUNT_BALANCE.BALANCE.minus(AT_STATE.PREV_BALANCE).ge(AT_STATE.MIN_ACTIVATE_AMOUNT)
-        )
-      ).orderBy(
-        AT_STATE.PREV_HEIGHT.asc(), AT_STATE.NEXT_HEIGHT.asc(), AT.ID.asc()
-      ).fetch().getValues(AT.ID);
+      int height = Signum.getBlockchain().getHeight();
+      long minimumBalance = atConstants.stepFee(atConstants.atVersion(height))
+        * atConstants.apiStepMultiplier(atConstants.atVersion(height));
+      return orderedATsQuery.fetch(ctx, height + 1, minimumBalance).getValues(AT.ID);
     });
   }
 
@@ -122,7 +122,16 @@ public class SqlAccountStore implements AccountStore {
           .set(ACCOUNT_ASSET.UNCONFIRMED_QUANTITY, accountAsset.getUnconfirmedQuantityQnt())
           .set(ACCOUNT_ASSET.LATEST, true)
           .execute();
+        balanceSnapshot.accountAssetWritten(accountAsset);
+      }
 
+      @Override
+      public boolean delete(Account.AccountAsset accountAsset) {
+        boolean deleted = super.delete(accountAsset);
+        if (accountAsset != null) {
+          balanceSnapshot.accountAssetDeleted(accountAsset);
+        }
+        return deleted;
       }
 
       @Override
@@ -139,28 +148,38 @@ public class SqlAccountStore implements AccountStore {
 
       @Override
       protected void bulkInsert(DSLContext ctx, Collection<Account> accounts) {
-        List<Query> accountQueries = new ArrayList<>();
         int height = Signum.getBlockchain().getHeight();
-
+        // one prepared upsert re-bound per account instead of one rendered statement per account
+        BatchBindStep accountBatch = ctx.batch(
+          ctx.insertInto(ACCOUNT)
+            .columns(ACCOUNT.ID, ACCOUNT.HEIGHT, ACCOUNT.CREATION_HEIGHT, ACCOUNT.PUBLIC_KEY, ACCOUNT.KEY_HEIGHT,
+              ACCOUNT.NAME, ACCOUNT.DESCRIPTION, ACCOUNT.LATEST)
+            .values((Long) null, null, null, null, null, null, null, null)
+            .onConflict(ACCOUNT.ID, ACCOUNT.HEIGHT)
+            .doUpdate()
+            .set(ACCOUNT.CREATION_HEIGHT, DSL.excluded(ACCOUNT.CREATION_HEIGHT))
+            .set(ACCOUNT.PUBLIC_KEY, DSL.excluded(ACCOUNT.PUBLIC_KEY))
+            .set(ACCOUNT.KEY_HEIGHT, DSL.excluded(ACCOUNT.KEY_HEIGHT))
+            .set(ACCOUNT.NAME, DSL.excluded(ACCOUNT.NAME))
+            .set(ACCOUNT.DESCRIPTION, DSL.excluded(ACCOUNT.DESCRIPTION))
+            .set(ACCOUNT.LATEST, DSL.excluded(ACCOUNT.LATEST))
+        );
+
+        int batchSize = 0;
         for (Account account : accounts) {
           if (account == null) continue;
-          accountQueries.add(
-            ctx.insertInto(ACCOUNT)
-              .columns(ACCOUNT.ID, ACCOUNT.HEIGHT, ACCOUNT.CREATION_HEIGHT, ACCOUNT.PUBLIC_KEY, ACCOUNT.KEY_HEIGHT,
-                ACCOUNT.NAME, ACCOUNT.DESCRIPTION, ACCOUNT.LATEST)
-              .values(account.getId(), height, account.getCreationHeight(), account.getPublicKey(), account.getKeyHeight(),
-                account.getName(), account.getDescription(), true)
-              .onConflict(ACCOUNT.ID, ACCOUNT.HEIGHT)
-              .doUpdate()
-              .set(ACCOUNT.CREATION_HEIGHT, account.getCreationHeight())
-              .set(ACCOUNT.PUBLIC_KEY, account.getPublicKey())
-              .set(ACCOUNT.KEY_HEIGHT, account.getKeyHeight())
-              .set(ACCOUNT.NAME, account.getName())
-              .set(ACCOUNT.DESCRIPTION, account.getDescription())
-              .set(ACCOUNT.LATEST, true)
-          );
+          accountBatch.bind(account.getId(), height, account.getCreationHeight(), account.getPublicKey(), account.getKeyHeight(),
+            account.getName(), account.getDescription(), true);
+          batchSize++;
+        }
+        if (batchSize > 0) {
+          accountBatch.execute();
+          for (Account account : accounts) {
+            if (account != null) {
+              nameIndex.nameWritten(account.getId(), account.getName(), 0L);
+            }
+          }
         }
-        ctx.batch(accountQueries).execute();
       }
     };
 
@@ -205,8 +224,22 @@ public class SqlAccountStore implements AccountStore {
             .valuesOfRecords(rows)
             .execute();
         }
+        balanceSnapshot.balancesWritten(accounts);
       }
     };
+
+    balanceSnapshot = new AccountBalanceSnapshot(Signum.getPropertyService().getBoolean(Props.DB_BALANCE_SNAPSHOT),
+      accountAssetDbKeyFactory, derivedTableManager);
+
+    nameIndex = new NameSearchSnapshot("account", Signum.getPropertyService().getBoolean(Props.DB_NAME_INDEX),
+      accountDbKeyFactory, derivedTableManager, (ctx, index) -> {
+        try (Cursor<Record2<Long, String>> cursor = ctx.select(ACCOUNT.ID, ACCOUNT.NAME).from(ACCOUNT)
+          .where(ACCOUNT.LATEST.isTrue()).and(ACCOUNT.NAME.isNotNull()).and(ACCOUNT.NAME.ne("")).fetchLazy()) {
+          for (Record2<Long, String> row : cursor) {
+            index.put(row.value1(), row.value2(), 0L);
+          }
+        }
+      });
   }
 
   private static Condition getAccountsWithRewardRecipientClause(final long id, final int height) {
@@ -221,6 +254,10 @@ public class SqlAccountStore implements AccountStore {
 
   private final VersionedBatchEntityTable<Account.Balance> accountBalanceTable;
 
+  private final AccountBalanceSnapshot balanceSnapshot;
+
+  private final NameSearchSnapshot nameIndex;
+
   @Override
   public VersionedBatchEntityTable<Account> getAccountTable() {
     return accountTable;
@@ -254,14 +291,26 @@ public class SqlAccountStore implements AccountStore {
 
   @Override
   public long getAllAccountsBalance() {
+    if (balanceSnapshot.isAvailable()) {
+      return balanceSnapshot.getTotalBalance();
+    }
     return Db.useDSLContext(ctx -> {
       return ctx.select(DSL.sum(ACCOUNT_BALANCE.BALANCE)).from(ACCOUNT_BALANCE).where(ACCOUNT_BALANCE.LATEST.isTrue())
         .fetchOneInto(long.class);
     });
   }
 
+  @Override
+  public boolean verifyAllAccountsBalance() {
+    return balanceSnapshot.verify();
+  }
+
   @Override
   public int getAssetAccountsCount(Asset asset, long minimumQuantity, boolean ignoreTreasury, boolean unconfirmed) {
+    List<Long> ignoredAccounts = ignoreTreasury ? getTreasuryAccounts(asset) : Collections.emptyList();
+    if (balanceSnapshot.isAvailable()) {
+      return balanceSnapshot.getAssetAccountsCount(asset.getId(), minimumQuantity, unconfirmed, ignoredAccounts);
+    }
     return Db.useDSLContext(ctx -> {
 
       SelectConditionStep<Record1<Integer>> select = ctx.selectCount().from(ACCOUNT_ASSET)
@@ -270,16 +319,8 @@ public class SqlAccountStore implements AccountStore {
       if (minimumQuantity > 0L) {
         select = select.and((unconfirmed ? ACCOUNT_ASSET.UNCONFIRMED_QUANTITY : ACCOUNT_ASSET.QUANTITY).ge(minimumQuantity));
       }
-      if (ignoreTreasury) {
-        Transaction transaction = Signum.getBlockchain().getTransaction(asset.getId());
-        if (transaction != null) {
-          List<Long> ignoredAccounts = ctx.select(TRANSACTION.RECIPIENT_ID).from(TRANSACTION)
-            .where(TRANSACTION.TYPE.eq(TransactionType.TYPE_COLORED_COINS.getType()))
-            .and(TRANSACTION.SUBTYPE.eq(TransactionType.SUBTYPE_COLORED_COINS_ADD_TREASURY_ACCOUNT))
-            .and(TRANSACTION.REFERENCED_TRANSACTION_FULLHASH.eq(Convert.parseHexString(transaction.getFullHash())))
-            .fetch().getValues(TRANSACTION.RECIPIENT_ID);
-          select = select.and(ACCOUNT_ASSET.ACCOUNT_ID.notIn(ignoredAccounts));
-        }
+      if (!ignoredAccounts.isEmpty()) {
+        select = select.and(ACCOUNT_ASSET.ACCOUNT_ID.notIn(ignoredAccounts));
       }
       return select.fetchOne(0, int.class);
     });
@@ -287,6 +328,10 @@ public class SqlAccountStore implements AccountStore {
 
   @Override
   public long getAssetCirculatingSupply(Asset asset, boolean ignoreTreasury, boolean unconfirmed) {
+    List<Long> ignoredAccounts = ignoreTreasury ? getTreasuryAccounts(asset) : Collections.emptyList();
+    if (balanceSnapshot.isAvailable()) {
+      return balanceSnapshot.getAssetCirculatingSupply(asset.getId(), unconfirmed, ignoredAccounts);
+    }
     return Db.useDSLContext(ctx -> {
 
       SelectConditionStep<Record1<BigDecimal>> select = ctx.select(DSL.sum(
@@ -295,22 +340,31 @@ public class SqlAccountStore implements AccountStore {
         .and(ACCOUNT_ASSET.LATEST.isTrue())
         .and(ACCOUNT_ASSET.ACCOUNT_ID.ne(0L));
 
-      if (ignoreTreasury) {
-        Transaction transaction = Signum.getBlockchain().getTransaction(asset.getId());
-        if (transaction != null) {
-          List<Long> ignoredAccounts = ctx.select(TRANSACTION.RECIPIENT_ID).from(TRANSACTION)
-            .where(TRANSACTION.TYPE.eq(TransactionType.TYPE_COLORED_COINS.getType()))
-            .and(TRANSACTION.SUBTYPE.eq(TransactionType.SUBTYPE_COLORED_COINS_ADD_TREASURY_ACCOUNT))
-            .and(TRANSACTION.REFERENCED_TRANSACTION_FULLHASH.eq(Convert.parseHexString(transaction.getFullHash())))
-            .fetch().getValues(TRANSACTION.RECIPIENT_ID);
-          select = select.and(ACCOUNT_ASSET.ACCOUNT_ID.notIn(ignoredAccounts));
-        }
+      if (!ignoredAccounts.isEmpty()) {
+        select = select.and(ACCOUNT_ASSET.ACCOUNT_ID.notIn(ignoredAccounts));
       }
 
       return select.fetchOne(0, long.class);
     });
   }
 
+  /**
+   * @return the accounts added as treasury accounts of the given asset
+   */
+  private List<Long> getTreasuryAccounts(Asset asset) {
+    Transaction transaction = Signum.getBlockchain().getTransaction(asset.getId());
+    if (transaction == null) {
+      return Collections.emptyList();
+    }
+    return Db.useDSLContext(ctx -> {
+      return ctx.select(TRANSACTION.RECIPIENT_ID).from(TRANSACTION)
+        .where(TRANSACTION.TYPE.eq(TransactionType.TYPE_COLORED_COINS.getType()))
+        .and(TRANSACTION.SUBTYPE.eq(TransactionType.SUBTYPE_COLORED_COINS_ADD_TREASURY_ACCOUNT))
+        .and(TRANSACTION.REFERENCED_TRANSACTION_FULLHASH.eq(Convert.parseHexString(transaction.getFullHash())))
+        .fetch().getValues(TRANSACTION.RECIPIENT_ID);
+    });
+  }
+
   @Override
   public DbKey.LongKeyFactory<Account> getAccountKeyFactory() {
     return accountDbKeyFactory;
@@ -326,6 +380,19 @@ public class SqlAccountStore implements AccountStore {
     return getRewardRecipientAssignmentTable().getManyBy(getAccountsWithRewardRecipientClause(recipientId, Signum.getBlockchain().getHeight() + 1), 0, -1);
   }
 
+  @Override
+  public Collection<Account> getAccountsWithName(String name) {
+    if (name == null) {
+      return Collections.emptyList();
+    }
+    if (nameIndex.isAvailable()) {
+      List<Long> ids = nameIndex.find(name, group -> true);
+      return ids.isEmpty() ? Collections.emptyList()
+        : NameSearchSnapshot.inOrder(ids, accountTable.getManyBy(ACCOUNT.ID.in(ids), 0, -1), Account::getId);
+    }
+    return accountTable.getManyBy(ACCOUNT.NAME.equalIgnoreCase(name), 0, -1);
+  }
+
   @Override
   public Collection<Account.AccountAsset> getAssets(int from, int to, Long id) {
     return getAccountAssetTable().getManyBy(ACCOUNT_ASSET.ACCOUNT_ID.eq(id), from, to);
@@ -349,19 +416,17 @@ public class SqlAccountStore implements AccountStore {
     ArrayList<Long> treasuryAccounts = new ArrayList<>();
     // the 0 account should also be removed from the circulating
     treasuryAccounts.add(0L);
-    Transaction transaction = Signum.getBlockchain().getTransaction(asset.getId());
-    if (transaction != null) {
-      treasuryAccounts.addAll(Db.useDSLContext(ctx -> {
-        return ctx.select(TRANSACTION.RECIPIENT_ID).from(TRANSACTION).where(TRANSACTION.TYPE.eq(TransactionType.TYPE_COLORED_COINS.getType()))
-          .and(TRANSACTION.SUBTYPE.eq(TransactionType.SUBTYPE_COLORED_COINS_ADD_TREASURY_ACCOUNT))
-          .and(TRANSACTION.REFERENCED_TRANSACTION_FULLHASH.eq(Convert.parseHexString(transaction.getFullHash())))
-          .fetch().getValues(TRANSACTION.RECIPIENT_ID);
-      }));
-    }
-    if (ignoreTreasury) {
-      condition = condition.and(ACCOUNT_ASSET.ACCOUNT_ID.notIn(treasuryAccounts));
+    treasuryAccounts.addAll(getTreasuryAccounts(asset));
+    Collection<AccountAsset> accounts;
+    if (balanceSnapshot.isAvailable()) {
+      accounts = balanceSnapshot.getAssetAccounts(asset.getId(), minimumQuantity, unconfirmed,
+        ignoreTreasury ? treasuryAccounts : Collections.emptyList(), from, to);
+    } else {
+      if (ignoreTreasury) {
+        condition = condition.and(ACCOUNT_ASSET.ACCOUNT_ID.notIn(treasuryAccounts));
+      }
+      accounts = getAccountAssetTable().getManyBy(condition, from, to, sort);
     }
-    Collection<AccountAsset> accounts = getAccountAssetTable().getManyBy(condition, from, to, sort);
 
     // flag treasury accounts
     for (AccountAsset account : accounts) {
@@ -0,0 +1,110 @@
+package brs.db.sql;
+
+import brs.IndirectIncoming;
+import brs.Signum;
+import brs.Transaction;
+import brs.db.AccountTransactionDb;
+import brs.props.PropertyService;
+import brs.props.Props;
+import org.jooq.DSLContext;
+import org.jooq.Record7;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
+
+public class SqlAccountTransactionDb implements AccountTransactionDb {
+
+  private final int insertMaxBatchSize;
+  private final boolean indexIndirectIncomings;
+
+  public SqlAccountTransactionDb() {
+    this(Signum.getPropertyService());
+  }
+
+  SqlAccountTransactionDb(PropertyService propertyService) {
+    this.insertMaxBatchSize = propertyService.getInt(Props.DB_INSERT_BATCH_MAX_SIZE);
+    // without the indirect incoming service the history does not show them either
+    this.indexIndirectIncomings = propertyService.getBoolean(Props.INDIRECT_INCOMING_SERVICE_ENABLE);
+  }
+
+  @Override
+  public void saveTransactions(List<Transaction> transactions) {
+    if (transactions.isEmpty()) {
+      return;
+    }
+    Db.useDSLContext(ctx -> {
+      List<Record7<Long, Long, Integer, Integer, Byte, Byte, Boolean>> rows = new ArrayList<>();
+      Set<Long> accountIds = new HashSet<>();
+      for (Transaction transaction : transactions) {
+        accountIds.clear();
+        accountIds.add(transaction.getSenderId());
+        rows.add(newRow(ctx, transaction.getSenderId(), transaction, false));
+        if (transaction.getRecipientId() != 0 && accountIds.add(transaction.getRecipientId())) {
+          rows.add(newRow(ctx, transaction.getRecipientId(), transaction, false));
+        }
+        if (indexIndirectIncomings) {
+          for (IndirectIncoming indirect : transaction.getType().getIndirectIncomings(transaction)) {
+            if (accountIds.add(indirect.getAccountId())) {
+              rows.add(newRow(ctx, indirect.getAccountId(), transaction, true));
+            }
+          }
+        }
+        if (rows.size() >= insertMaxBatchSize) {
+          insert(ctx, rows);
+          rows.clear();
+        }
+      }
+      if (!rows.isEmpty()) {
+        insert(ctx, rows);
+      }
+    });
+  }
+
+  private static Record7<Long, Long, Integer, Integer, Byte, Byte, Boolean> newRow(DSLContext ctx, long accountId,
+                                                                                  Transaction transaction, boolean indirect) {
+    return ctx.newRecord(ACCOUNT_TRANSACTION.ACCOUNT_ID,
+      ACCOUNT_TRANSACTION.TRANSACTION_ID,
+      ACCOUNT_TRANSACTION.HEIGHT,
+      ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP,
+      ACCOUNT_TRANSACTION.TYPE,
+      ACCOUNT_TRANSACTION.SUBTYPE,
+      ACCOUNT_TRANSACTION.INDIRECT).values(
+      accountId,
+      transaction.getId(),
+      transaction.getHeight(),
+      transaction.getBlockTimestamp(),
+      transaction.getType().getType(),
+      transaction.getType().getSubtype(),
+      indirect
+    );
+  }
+
+  private static void insert(DSLContext ctx, List<Record7<Long, Long, Integer, Integer, Byte, Byte, Boolean>> rows) {
+    ctx.insertInto(ACCOUNT_TRANSACTION,
+        ACCOUNT_TRANSACTION.ACCOUNT_ID,
+        ACCOUNT_TRANSACTION.TRANSACTION_ID,
+        ACCOUNT_TRANSACTION.HEIGHT,
+        ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP,
+        ACCOUNT_TRANSACTION.TYPE,
+        ACCOUNT_TRANSACTION.SUBTYPE,
+        ACCOUNT_TRANSACTION.INDIRECT)
+      .valuesOfRecords(rows)
+      .execute();
+  }
+
+  @Override
+  public void deleteFrom(int height) {
+    Db.useDSLContext(ctx -> {
+      ctx.deleteFrom(ACCOUNT_TRANSACTION).where(ACCOUNT_TRANSACTION.HEIGHT.ge(height)).execute();
+    });
+  }
+
+  @Override
+  public void optimize() {
+    Db.optimizeTable(ACCOUNT_TRANSACTION.getName());
+  }
+}
@@ -6,16 +6,20 @@ import brs.db.SignumKey;
 import brs.db.VersionedEntityTable;
 import brs.db.store.AliasStore;
 import brs.db.store.DerivedTableManager;
+import brs.props.Props;
 import brs.util.Convert;
 
 import org.jooq.Condition;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
 import org.jooq.Record;
 import org.jooq.Record1;
+import org.jooq.Record3;
 import org.jooq.Result;
 import org.jooq.SortField;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
@@ -24,6 +28,9 @@ import static brs.schema.Tables.ALIAS_OFFER;
 
 public class SqlAliasStore implements AliasStore {
 
+  // group of the TLDs in the name index, they have no TLD themselves
+  private static final long TLD_GROUP = Long.MIN_VALUE;
+
   private static final DbKey.LongKeyFactory<Alias.Offer> offerDbKeyFactory = new DbKey.LongKeyFactory<Alias.Offer>(ALIAS_OFFER.ID) {
       @Override
       public SignumKey newKey(Alias.Offer offer) {
@@ -62,6 +69,20 @@ public class SqlAliasStore implements AliasStore {
         return sort;
       }
     };
+
+    nameIndex = new NameSearchSnapshot("alias", Signum.getPropertyService().getBoolean(Props.DB_NAME_INDEX),
+      aliasDbKeyFactory, derivedTableManager, (ctx, index) -> {
+        try (Cursor<Record3<Long, String, Long>> cursor = ctx.select(ALIAS.ID, ALIAS.ALIAS_NAME, ALIAS.TLD)
+          .from(ALIAS).where(ALIAS.LATEST.isTrue()).fetchLazy()) {
+          for (Record3<Long, String, Long> row : cursor) {
+            index.put(row.value1(), row.value2(), tldGroup(row.value3()));
+          }
+        }
+      });
+  }
+
+  private static long tldGroup(Long tld) {
+    return tld == null ? TLD_GROUP : tld;
   }
 
   @Override
@@ -132,10 +153,13 @@ public class SqlAliasStore implements AliasStore {
       set(ALIAS.ALIAS_URI, alias.getAliasUri()).
       set(ALIAS.TIMESTAMP, alias.getTimestamp()).
       set(ALIAS.HEIGHT, Signum.getBlockchain().getHeight()).execute();
+    nameIndex.nameWritten(alias.getId(), alias.getAliasName(), tldGroup(alias.getTld()));
   }
 
   private final VersionedEntityTable<Alias> aliasTable;
 
+  private final NameSearchSnapshot nameIndex;
+
   @Override
   public Collection<Alias> getAliasesByOwner(long accountId, String name, Long tld, int from, int to) {
     Condition condition = ALIAS.TLD.isNotNull();
@@ -151,6 +175,16 @@ public class SqlAliasStore implements AliasStore {
     return aliasTable.getManyBy(condition, from, to);
   }
 
+  @Override
+  public Collection<Alias> searchAliases(String name, int from, int to) {
+    if (nameIndex.isAvailable()) {
+      List<Long> ids = nameIndex.search(name, group -> group != TLD_GROUP, from, to);
+      return ids.isEmpty() ? Collections.emptyList()
+        : NameSearchSnapshot.inOrder(ids, aliasTable.getManyBy(ALIAS.ID.in(ids), 0, -1), Alias::getId);
+    }
+    return getAliasesByOwner(0L, "%" + name.toLowerCase(Locale.ENGLISH) + "%", null, from, to);
+  }
+
   @Override
   public Collection<Alias> getTLDs(int from, int to) {
     return aliasTable.getManyBy(brs.schema.Tables.ALIAS.TLD.isNull(), from, to);
@@ -173,6 +207,10 @@ public class SqlAliasStore implements AliasStore {
   
   @Override
   public Alias getTLD(String tldName) {
+    if (nameIndex.isAvailable()) {
+      List<Long> tlds = nameIndex.find(tldName, group -> group == TLD_GROUP);
+      return tlds.isEmpty() ? null : aliasTable.get(aliasDbKeyFactory.newKey(tlds.get(0)));
+    }
     return aliasTable.getBy(brs.schema.Tables.ALIAS.ALIAS_NAME_LOWER.eq(tldName.toLowerCase(Locale.ENGLISH)).and(ALIAS.TLD.isNull()));
   }
 
@@ -5,14 +5,19 @@ import brs.Signum;
 import brs.db.SignumKey;
 import brs.db.store.AssetStore;
 import brs.db.store.DerivedTableManager;
+import brs.props.Props;
 import brs.schema.tables.records.AssetRecord;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
 import org.jooq.Record;
+import org.jooq.Record2;
 import org.jooq.Result;
 import org.jooq.SelectQuery;
 import org.jooq.impl.DSL;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import static brs.schema.Tables.ASSET;
 
@@ -27,6 +32,7 @@ public class SqlAssetStore implements AssetStore {
 
     };
   private final EntitySqlTable<Asset> assetTable;
+  private final NameSearchSnapshot nameIndex;
 
   public SqlAssetStore(DerivedTableManager derivedTableManager) {
     assetTable = new EntitySqlTable<Asset>("asset", brs.schema.Tables.ASSET, assetDbKeyFactory, derivedTableManager) {
@@ -41,6 +47,15 @@ public class SqlAssetStore implements AssetStore {
         saveAsset(ctx, asset);
       }
     };
+
+    nameIndex = new NameSearchSnapshot("asset", Signum.getPropertyService().getBoolean(Props.DB_NAME_INDEX),
+      assetDbKeyFactory, derivedTableManager, (ctx, index) -> {
+        try (Cursor<Record2<Long, String>> cursor = ctx.select(ASSET.ID, ASSET.NAME).from(ASSET).fetchLazy()) {
+          for (Record2<Long, String> row : cursor) {
+            index.put(row.value1(), row.value2(), 0L);
+          }
+        }
+      });
   }
 
   private void saveAsset(DSLContext ctx, Asset asset) {
@@ -53,6 +68,7 @@ public class SqlAssetStore implements AssetStore {
       set(ASSET.DECIMALS, asset.getDecimals()).
       set(ASSET.MINTABLE, asset.getMintable()).
       set(ASSET.HEIGHT, Signum.getBlockchain().getHeight()).execute();
+    nameIndex.nameWritten(asset.getId(), asset.getName(), 0L);
   }
 
   @Override
@@ -77,6 +93,11 @@ public class SqlAssetStore implements AssetStore {
   
   @Override
   public Collection<Asset> getAssetsByName(String name, int from, int to){
+    if (nameIndex.isAvailable()) {
+      List<Long> ids = nameIndex.search(name, group -> true, from, to);
+      return ids.isEmpty() ? Collections.emptyList()
+        : NameSearchSnapshot.inOrder(ids, assetTable.getManyBy(ASSET.ID.in(ids), 0, -1), Asset::getId);
+    }
     return Db.useDSLContext(ctx -> {
       SelectQuery<AssetRecord> query = ctx.selectFrom(ASSET).where(DSL.upper(ASSET.NAME).like("%"+name.toUpperCase()+"%")).getQuery();
       query.addOrderBy(ASSET.HEIGHT.asc(), ASSET.ID);
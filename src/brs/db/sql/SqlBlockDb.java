@@ -3,6 +3,7 @@ package brs.db.sql;
 import brs.Block;
 import brs.Signum;
 import brs.SignumException;
+import brs.db.AccountTransactionDb;
 import brs.db.BlockDb;
 import brs.schema.tables.records.BlockRecord;
 import org.jooq.*;
@@ -20,6 +21,15 @@ public class SqlBlockDb implements BlockDb {
 
   private static final Logger logger = LoggerFactory.getLogger(BlockDb.class);
 
+  private static final PreparedQuery hasBlockQuery = new PreparedQuery("SqlBlockDb.hasBlock",
+    ctx -> ctx.selectOne().from(BLOCK).where(BLOCK.ID.eq((Long) null)).limit(DSL.inline(1)));
+
+  private final AccountTransactionDb accountTransactionDb;
+
+  public SqlBlockDb(AccountTransactionDb accountTransactionDb) {
+    this.accountTransactionDb = accountTransactionDb;
+  }
+
   public Block findBlock(long blockId) {
     return Db.useDSLContext(ctx -> {
       try {
@@ -33,7 +43,7 @@ public class SqlBlockDb implements BlockDb {
 
   public boolean hasBlock(long blockId) {
     return Db.useDSLContext(ctx -> {
-      return ctx.fetchExists(ctx.selectOne().from(BLOCK).where(BLOCK.ID.eq(blockId)));
+      return hasBlockQuery.fetchExists(ctx, blockId);
     });
   }
 
@@ -61,6 +71,13 @@ public class SqlBlockDb implements BlockDb {
     });
   }
 
+  public int findPrunedHeight() {
+    return Db.useDSLContext(ctx -> {
+      Integer firstHeight = ctx.select(DSL.min(BLOCK.HEIGHT)).from(BLOCK).where(BLOCK.HEIGHT.gt(0)).fetchOne(0, Integer.class);
+      return firstHeight == null ? 0 : firstHeight - 1;
+    });
+  }
+
   public Block findLastBlock() {
     return Db.useDSLContext(ctx -> {
       try {
@@ -174,6 +191,8 @@ public class SqlBlockDb implements BlockDb {
         DeleteQuery deleteQuery = ctx.deleteQuery(BLOCK);
         deleteQuery.addConditions(BLOCK.HEIGHT.ge(blockHeight));
         deleteQuery.execute();
+        // not bound to the transactions, so not covered by the cascade
+        accountTransactionDb.deleteFrom(blockHeight);
       }
     });
   }
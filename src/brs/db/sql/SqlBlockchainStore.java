@@ -12,6 +12,7 @@ import brs.fluxcapacitor.FluxValues;
 import brs.schema.tables.records.BlockRecord;
 import brs.schema.tables.records.TransactionRecord;
 import brs.util.Convert;
+import brs.util.PageCursor;
 
 import org.jooq.*;
 import org.jooq.impl.DSL;
@@ -23,13 +24,17 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Consumer;
 
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
 import static brs.schema.Tables.BLOCK;
 import static brs.schema.Tables.TRANSACTION;
 import static brs.schema.Tables.INDIRECT_INCOMING;
 
 public class SqlBlockchainStore implements BlockchainStore {
 
+  private static final int EXPORT_FETCH_SIZE = 500;
+
   private final Logger logger = LoggerFactory.getLogger(SqlBlockchainStore.class);
 
   private final TransactionDb transactionDb = Signum.getDbs().getTransactionDb();
@@ -50,6 +55,17 @@ public class SqlBlockchainStore implements BlockchainStore {
     });
   }
 
+  @Override
+  public Collection<Block> getBlocksBelow(int height, int limit) {
+    return Db.useDSLContext(ctx -> {
+      return getBlocks(ctx.selectFrom(BLOCK)
+        .where(BLOCK.HEIGHT.lt(height))
+        .orderBy(BLOCK.HEIGHT.desc())
+        .limit(limit)
+        .fetch());
+    });
+  }
+
   @Override
   public Collection<Block> getBlocks(Account account, int timestamp, int from, int to) {
     return Db.useDSLContext(ctx -> {
@@ -151,9 +167,58 @@ public class SqlBlockchainStore implements BlockchainStore {
 
 
   @Override
-  public Collection<Transaction> getTransactions(Account account, int numberOfConfirmations, byte type, byte subtype, int blockTimestamp, int from, int to, boolean includeIndirectIncoming) {
-    // note to devs: this method does not scale. as of 12, 2024 some account suffer long loading times here. some unsuccessful trials to refactor the queries failed. So, touch this method only
-    // if you are really understand what you are doing.
+  public Collection<Transaction> getTransactions(Account account, int numberOfConfirmations, byte type, byte subtype, int blockTimestamp, int from, int to, boolean includeIndirectIncoming, PageCursor after) {
+    if (account == null) {
+      return getTransactionsWithoutRecipient(numberOfConfirmations, type, subtype, blockTimestamp, from, to, after);
+    }
+    int height = getHeightForNumberOfConfirmations(numberOfConfirmations);
+    return Db.useDSLContext(ctx -> {
+      SelectQuery<Record> selectQuery = getAccountTransactionsQuery(ctx, account.getId(), height, type, subtype,
+        blockTimestamp, includeIndirectIncoming, after);
+      DbUtils.applyLimits(selectQuery, from, to);
+
+      return getTransactions(ctx, selectQuery.fetchInto(TRANSACTION));
+    });
+  }
+
+  /**
+   * One range scan over the account transaction index, in the order of the index, instead of the union of the
+   * sender, recipient and indirect incoming lookups on the transaction table.
+   */
+  static SelectQuery<Record> getAccountTransactionsQuery(DSLContext ctx, long accountId, int height, byte type, byte subtype,
+                                                         int blockTimestamp, boolean includeIndirectIncoming, PageCursor after) {
+    ArrayList<Condition> conditions = new ArrayList<>();
+    conditions.add(ACCOUNT_TRANSACTION.ACCOUNT_ID.eq(accountId));
+    if (blockTimestamp > 0) {
+      conditions.add(ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.ge(blockTimestamp));
+    }
+    if (type >= 0) {
+      conditions.add(ACCOUNT_TRANSACTION.TYPE.eq(type));
+      if (subtype >= 0) {
+        conditions.add(ACCOUNT_TRANSACTION.SUBTYPE.eq(subtype));
+      }
+    }
+    if (height < Integer.MAX_VALUE) {
+      conditions.add(ACCOUNT_TRANSACTION.HEIGHT.le(height));
+    }
+    if (!includeIndirectIncoming) {
+      conditions.add(ACCOUNT_TRANSACTION.INDIRECT.isFalse());
+    }
+    if (after != null) {
+      int afterTimestamp = (int) after.getKey();
+      conditions.add(ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.lt(afterTimestamp)
+        .or(ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.eq(afterTimestamp).and(ACCOUNT_TRANSACTION.TRANSACTION_ID.lt(after.getId()))));
+    }
+
+    return ctx.select(TRANSACTION.fields())
+      .from(ACCOUNT_TRANSACTION)
+      .join(TRANSACTION).on(TRANSACTION.ID.eq(ACCOUNT_TRANSACTION.TRANSACTION_ID))
+      .where(conditions)
+      .orderBy(ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.desc(), ACCOUNT_TRANSACTION.TRANSACTION_ID.desc())
+      .getQuery();
+  }
+
+  private Collection<Transaction> getTransactionsWithoutRecipient(int numberOfConfirmations, byte type, byte subtype, int blockTimestamp, int from, int to, PageCursor after) {
     int height = getHeightForNumberOfConfirmations(numberOfConfirmations);
     return Db.useDSLContext(ctx -> {
       ArrayList<Condition> conditions = new ArrayList<>();
@@ -169,27 +234,13 @@ public class SqlBlockchainStore implements BlockchainStore {
       if (height < Integer.MAX_VALUE) {
         conditions.add(TRANSACTION.HEIGHT.le(height));
       }
-
-      SelectOrderByStep<TransactionRecord> select = ctx.selectFrom(TRANSACTION).where(conditions).and(
-        account == null ? TRANSACTION.RECIPIENT_ID.isNull() :
-          TRANSACTION.RECIPIENT_ID.eq(account.getId()).and(
-            TRANSACTION.SENDER_ID.ne(account.getId())
-          )
-      ).unionAll(
-        account == null ? null :
-          ctx.selectFrom(TRANSACTION).where(conditions).and(
-            TRANSACTION.SENDER_ID.eq(account.getId())
-          )
-      );
-
-      if (includeIndirectIncoming) {
-        select = select.unionAll(ctx.selectFrom(TRANSACTION)
-          .where(conditions)
-          .and(TRANSACTION.ID.in(ctx.select(INDIRECT_INCOMING.TRANSACTION_ID).from(INDIRECT_INCOMING)
-            .where(INDIRECT_INCOMING.ACCOUNT_ID.eq(account.getId())))));
+      if (after != null) {
+        conditions.add(afterCursor(after));
       }
 
-      SelectQuery<TransactionRecord> selectQuery = select
+      SelectQuery<TransactionRecord> selectQuery = ctx.selectFrom(TRANSACTION)
+        .where(conditions)
+        .and(TRANSACTION.RECIPIENT_ID.isNull())
         .orderBy(TRANSACTION.BLOCK_TIMESTAMP.desc(), TRANSACTION.ID.desc())
         .getQuery();
 
@@ -199,6 +250,16 @@ public class SqlBlockchainStore implements BlockchainStore {
     });
   }
 
+  /**
+   * Rows after the cursor in the order of <code>block_timestamp DESC, id DESC</code>, so a page continues with an
+   * index seek instead of skipping all previous rows with an offset.
+   */
+  private static Condition afterCursor(PageCursor after) {
+    int blockTimestamp = (int) after.getKey();
+    return TRANSACTION.BLOCK_TIMESTAMP.lt(blockTimestamp)
+      .or(TRANSACTION.BLOCK_TIMESTAMP.eq(blockTimestamp).and(TRANSACTION.ID.lt(after.getId())));
+  }
+
   private static int getHeightForNumberOfConfirmations(int numberOfConfirmations) {
     int height = numberOfConfirmations > 0 ? Signum.getBlockchain().getHeight() - numberOfConfirmations : Integer.MAX_VALUE;
     if (height < 0) {
@@ -209,7 +270,7 @@ public class SqlBlockchainStore implements BlockchainStore {
 
   // TODO: better introduce a dedicated bySender, byRecipient endpoint to reduce complexity
   @Override
-  public Collection<Transaction> getTransactions(Long senderId, Long recipientId, int numberOfConfirmations, byte type, byte subtype, int blockTimestamp, int from, int to, boolean includeIndirectIncoming, boolean bidirectional) {
+  public Collection<Transaction> getTransactions(Long senderId, Long recipientId, int numberOfConfirmations, byte type, byte subtype, int blockTimestamp, int from, int to, boolean includeIndirectIncoming, boolean bidirectional, PageCursor after) {
     int height = getHeightForNumberOfConfirmations(numberOfConfirmations);
     return Db.useDSLContext(ctx -> {
       ArrayList<Condition> conditions = new ArrayList<>();
@@ -229,6 +290,9 @@ public class SqlBlockchainStore implements BlockchainStore {
       if (height < Integer.MAX_VALUE) {
         conditions.add(TRANSACTION.HEIGHT.le(height));
       }
+      if (after != null) {
+        conditions.add(afterCursor(after));
+      }
 
       SelectOrderByStep<TransactionRecord> select = null;
       if (!bidirectional) {
@@ -362,6 +426,38 @@ public class SqlBlockchainStore implements BlockchainStore {
     });
   }
 
+  @Override
+  public void forEachTransaction(long accountId, int heightStart, int heightEnd, Consumer<Transaction> consumer) {
+    // a read only transaction, so the rows are really fetched in chunks as they are read
+    Db.useReadOnlyTransaction(ctx -> {
+      ArrayList<Condition> conditions = new ArrayList<>();
+      conditions.add(ACCOUNT_TRANSACTION.ACCOUNT_ID.eq(accountId));
+      if (heightStart > 0) {
+        conditions.add(ACCOUNT_TRANSACTION.HEIGHT.ge(heightStart));
+      }
+      if (heightEnd >= 0) {
+        conditions.add(ACCOUNT_TRANSACTION.HEIGHT.le(heightEnd));
+      }
+      // the account transaction index has sent, received and indirect incoming transactions alike, read in the
+      // order of the index so nothing has to be sorted before the first row
+      SelectQuery<Record> selectQuery = ctx.select(TRANSACTION.fields())
+        .from(ACCOUNT_TRANSACTION)
+        .join(TRANSACTION).on(TRANSACTION.ID.eq(ACCOUNT_TRANSACTION.TRANSACTION_ID))
+        .where(conditions)
+        .orderBy(ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.asc(), ACCOUNT_TRANSACTION.TRANSACTION_ID.asc())
+        .getQuery();
+      // rows are handed over one by one as they come from the database, without collecting them first
+      try (Cursor<Record> cursor = selectQuery.fetchSize(EXPORT_FETCH_SIZE).fetchLazy()) {
+        for (Record record : cursor) {
+          consumer.accept(transactionDb.loadTransaction(record.into(TRANSACTION)));
+        }
+      } catch (SignumException.ValidationException e) {
+        throw new RuntimeException(e);
+      }
+      return null;
+    });
+  }
+
   @Override
   public Collection<Transaction> getTransactions(DSLContext ctx, Result<TransactionRecord> rs) {
     return rs.map(r -> {
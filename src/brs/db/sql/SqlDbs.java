@@ -1,5 +1,6 @@
 package brs.db.sql;
 
+import brs.db.AccountTransactionDb;
 import brs.db.BlockDb;
 import brs.db.PeerDb;
 import brs.db.TransactionDb;
@@ -10,11 +11,13 @@ public class SqlDbs implements Dbs {
   private final BlockDb blockDb;
   private final TransactionDb transactionDb;
   private final PeerDb peerDb;
+  private final AccountTransactionDb accountTransactionDb;
 
   public SqlDbs() {
-    this.blockDb       = new SqlBlockDb();
-    this.transactionDb = new SqlTransactionDb();
-    this.peerDb        = new SqlPeerDb();
+    this.accountTransactionDb = new SqlAccountTransactionDb();
+    this.blockDb              = new SqlBlockDb(accountTransactionDb);
+    this.transactionDb        = new SqlTransactionDb(accountTransactionDb);
+    this.peerDb               = new SqlPeerDb();
   }
 
   @Override
@@ -31,4 +34,9 @@ public class SqlDbs implements Dbs {
   public PeerDb getPeerDb() {
     return peerDb;
   }
+
+  @Override
+  public AccountTransactionDb getAccountTransactionDb() {
+    return accountTransactionDb;
+  }
 }
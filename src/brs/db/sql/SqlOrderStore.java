@@ -6,16 +6,13 @@ import brs.db.SignumKey;
 import brs.db.VersionedEntityTable;
 import brs.db.store.DerivedTableManager;
 import brs.db.store.OrderStore;
-import brs.schema.tables.records.AskOrderRecord;
-import brs.schema.tables.records.BidOrderRecord;
 import org.jooq.DSLContext;
 import org.jooq.Record;
-import org.jooq.SelectQuery;
 import org.jooq.SortField;
+import org.jooq.impl.DSL;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 
 import static brs.schema.Tables.ASK_ORDER;
@@ -30,7 +27,7 @@ public class SqlOrderStore implements OrderStore {
     }
 
   };
-  private final VersionedEntityTable<Order.Ask> askOrderTable;
+  private final VersionedEntitySqlTable<Order.Ask> askOrderTable;
   private final DbKey.LongKeyFactory<Order.Bid> bidOrderDbKeyFactory = new DbKey.LongKeyFactory<Order.Bid>(BID_ORDER.ID) {
 
     @Override
@@ -40,7 +37,16 @@ public class SqlOrderStore implements OrderStore {
 
   };
 
+  private final OrderBookSnapshot orderBook;
+
+  /**
+   * Without the in-memory order books, all reads go to the database.
+   */
   public SqlOrderStore(DerivedTableManager derivedTableManager) {
+    this(derivedTableManager, false);
+  }
+
+  public SqlOrderStore(DerivedTableManager derivedTableManager, boolean orderBookEnabled) {
     askOrderTable = new VersionedEntitySqlTable<Order.Ask>("ask_order", ASK_ORDER, askOrderDbKeyFactory, derivedTableManager) {
       @Override
       protected Order.Ask load(DSLContext ctx, Record record) {
@@ -50,6 +56,16 @@ public class SqlOrderStore implements OrderStore {
       @Override
       protected void save(DSLContext ctx, Order.Ask ask) {
         saveAsk(ctx, ask);
+        orderBook.askSaved(ask);
+      }
+
+      @Override
+      public boolean delete(Order.Ask ask) {
+        boolean deleted = super.delete(ask);
+        if (ask != null) {
+          orderBook.askRemoved(ask);
+        }
+        return deleted;
       }
 
       @Override
@@ -70,6 +86,16 @@ public class SqlOrderStore implements OrderStore {
       @Override
       protected void save(DSLContext ctx, Order.Bid bid) {
         saveBid(ctx, bid);
+        orderBook.bidSaved(bid);
+      }
+
+      @Override
+      public boolean delete(Order.Bid bid) {
+        boolean deleted = super.delete(bid);
+        if (bid != null) {
+          orderBook.bidRemoved(bid);
+        }
+        return deleted;
       }
 
       @Override
@@ -81,8 +107,25 @@ public class SqlOrderStore implements OrderStore {
 
     };
 
+    orderBook = new OrderBookSnapshot(orderBookEnabled, derivedTableManager);
   }
-  private final VersionedEntityTable<Order.Bid> bidOrderTable;
+  private final VersionedEntitySqlTable<Order.Bid> bidOrderTable;
+
+  private static final PreparedQuery nextAskQuery = new PreparedQuery("SqlOrderStore.getNextOrder",
+    ctx -> ctx.selectFrom(ASK_ORDER)
+      .where(ASK_ORDER.ASSET_ID.eq((Long) null).and(ASK_ORDER.LATEST.isTrue()))
+      .orderBy(ASK_ORDER.PRICE.asc(),
+        ASK_ORDER.CREATION_HEIGHT.asc(),
+        ASK_ORDER.ID.asc())
+      .limit(DSL.inline(1)));
+
+  private static final PreparedQuery nextBidQuery = new PreparedQuery("SqlOrderStore.getNextBid",
+    ctx -> ctx.selectFrom(BID_ORDER)
+      .where(BID_ORDER.ASSET_ID.eq((Long) null).and(BID_ORDER.LATEST.isTrue()))
+      .orderBy(BID_ORDER.PRICE.desc(),
+        BID_ORDER.CREATION_HEIGHT.asc(),
+        BID_ORDER.ID.asc())
+      .limit(DSL.inline(1)));
 
   @Override
   public VersionedEntityTable<Order.Bid> getBidOrderTable() {
@@ -102,6 +145,13 @@ public class SqlOrderStore implements OrderStore {
 
   @Override
   public Collection<Order.Ask> getSortedAsks(long assetId, int from, int to) {
+    if (orderBook.isAvailable()) {
+      List<Order.Ask> asks = new ArrayList<>();
+      for (OrderBook.Entry entry : orderBook.getSortedAsks(assetId, from, to)) {
+        asks.add(new SqlAsk(entry));
+      }
+      return asks;
+    }
     List<SortField<?>> sort = new ArrayList<>();
     sort.add(ASK_ORDER.field("price", Long.class).asc());
     sort.add(ASK_ORDER.field("creation_height", Integer.class).asc());
@@ -112,15 +162,7 @@ public class SqlOrderStore implements OrderStore {
   @Override
   public Order.Ask getNextOrder(long assetId) {
     return Db.useDSLContext(ctx -> {
-      SelectQuery<AskOrderRecord> query = ctx.selectFrom(ASK_ORDER)
-              .where(ASK_ORDER.ASSET_ID.eq(assetId).and(ASK_ORDER.LATEST.isTrue()))
-              .orderBy(ASK_ORDER.PRICE.asc(),
-                      ASK_ORDER.CREATION_HEIGHT.asc(),
-                      ASK_ORDER.ID.asc())
-              .limit(1)
-              .getQuery();
-      Iterator<Order.Ask> result = askOrderTable.getManyBy(ctx, query, true).iterator();
-      return result.hasNext() ? result.next() : null;
+      return askOrderTable.get(ctx, nextAskQuery, assetId);
     });
   }
 
@@ -199,6 +241,13 @@ public class SqlOrderStore implements OrderStore {
 
   @Override
   public Collection<Order.Bid> getSortedBids(long assetId, int from, int to) {
+    if (orderBook.isAvailable()) {
+      List<Order.Bid> bids = new ArrayList<>();
+      for (OrderBook.Entry entry : orderBook.getSortedBids(assetId, from, to)) {
+        bids.add(new SqlBid(entry));
+      }
+      return bids;
+    }
     List<SortField<?>> sort = new ArrayList<>();
     sort.add(BID_ORDER.field("price", Long.class).desc());
     sort.add(BID_ORDER.field("creation_height", Integer.class).asc());
@@ -209,16 +258,7 @@ public class SqlOrderStore implements OrderStore {
   @Override
   public Order.Bid getNextBid(long assetId) {
     return Db.useDSLContext(ctx -> {
-      SelectQuery<BidOrderRecord> query = ctx.selectFrom(BID_ORDER)
-              .where(BID_ORDER.ASSET_ID.eq(assetId)
-                      .and(BID_ORDER.LATEST.isTrue()))
-              .orderBy(BID_ORDER.PRICE.desc(),
-                      BID_ORDER.CREATION_HEIGHT.asc(),
-                      BID_ORDER.ID.asc())
-              .limit(1)
-              .getQuery();
-      Iterator<Order.Bid> result = bidOrderTable.getManyBy(ctx, query, true).iterator();
-      return result.hasNext() ? result.next() : null;
+      return bidOrderTable.get(ctx, nextBidQuery, assetId);
     });
   }
 
@@ -254,6 +294,11 @@ public class SqlOrderStore implements OrderStore {
               askOrderDbKeyFactory.newKey(record.get(ASK_ORDER.ID))
       );
     }
+
+    private SqlAsk(OrderBook.Entry entry) {
+      super(entry.id, entry.accountId, entry.assetId, entry.priceNQT, entry.creationHeight, entry.quantityQNT,
+              askOrderDbKeyFactory.newKey(entry.id));
+    }
   }
 
   class SqlBid extends Order.Bid {
@@ -268,5 +313,10 @@ public class SqlOrderStore implements OrderStore {
               bidOrderDbKeyFactory.newKey(record.get(BID_ORDER.ID))
       );
     }
+
+    private SqlBid(OrderBook.Entry entry) {
+      super(entry.id, entry.accountId, entry.assetId, entry.priceNQT, entry.creationHeight, entry.quantityQNT,
+              bidOrderDbKeyFactory.newKey(entry.id));
+    }
   }
 }
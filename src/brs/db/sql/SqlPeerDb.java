@@ -19,14 +19,18 @@ public class SqlPeerDb implements PeerDb {
     }
 
     @Override public void deletePeers(Collection<String> peers) {
+        if (peers.isEmpty()) {
+            return;
+        }
         Db.useDSLContext(ctx -> {
-            for (String peer : peers) {
-                ctx.deleteFrom(PEER).where(PEER.ADDRESS.eq(peer)).execute();
-            }
+            ctx.deleteFrom(PEER).where(PEER.ADDRESS.in(peers)).execute();
         });
     }
 
     @Override public void addPeers(Collection<String> peers) {
+        if (peers.isEmpty()) {
+            return;
+        }
         Db.useDSLContext(ctx -> {
             List<Insert<PeerRecord>> inserts = peers.stream().map(peer -> ctx.insertInto(PEER).set(PEER.ADDRESS, peer)).collect(Collectors.toList());
             ctx.batch(inserts).execute();
@@ -4,15 +4,18 @@ import brs.Appendix;
 import brs.SignumException;
 import brs.Transaction;
 import brs.TransactionType;
+import brs.db.AccountTransactionDb;
 import brs.db.TransactionDb;
 import brs.schema.tables.records.TransactionRecord;
 import brs.util.Convert;
 
 import java.util.ArrayList;
 import org.jooq.SelectConditionStep;
+import org.jooq.impl.DSL;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +23,17 @@ import static brs.schema.Tables.TRANSACTION;
 
 public class SqlTransactionDb implements TransactionDb {
 
+  private static final PreparedQuery hasTransactionQuery = new PreparedQuery("SqlTransactionDb.hasTransaction",
+    ctx -> ctx.selectOne().from(TRANSACTION).where(TRANSACTION.ID.eq((Long) null)).limit(DSL.inline(1)));
+  private static final PreparedQuery hasTransactionByFullHashQuery = new PreparedQuery("SqlTransactionDb.hasTransactionByFullHash",
+    ctx -> ctx.selectOne().from(TRANSACTION).where(TRANSACTION.FULL_HASH.eq((byte[]) null)).limit(DSL.inline(1)));
+
+  private final AccountTransactionDb accountTransactionDb;
+
+  public SqlTransactionDb(AccountTransactionDb accountTransactionDb) {
+    this.accountTransactionDb = accountTransactionDb;
+  }
+
   @Override
   public Transaction findTransaction(long transactionId) {
     return Db.useDSLContext(ctx -> {
@@ -32,6 +46,23 @@ public class SqlTransactionDb implements TransactionDb {
     });
   }
 
+  @Override
+  public List<Transaction> findTransactions(Collection<Long> transactionIds) {
+    if (transactionIds.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return Db.useDSLContext(ctx -> {
+      return ctx.selectFrom(TRANSACTION).where(TRANSACTION.ID.in(transactionIds)).fetch(record -> {
+        try {
+          return loadTransaction(record);
+        } catch (SignumException.ValidationException e) {
+          throw new RuntimeException("Transaction already in database, id = " + record.getId()
+            + ", does not pass validation!", e);
+        }
+      });
+    });
+  }
+
   @Override
   public Transaction findTransactionByFullHash(String fullHash) {
     return Db.useDSLContext(ctx -> {
@@ -47,14 +78,14 @@ public class SqlTransactionDb implements TransactionDb {
   @Override
   public boolean hasTransaction(long transactionId) {
     return Db.useDSLContext(ctx -> {
-      return ctx.fetchExists(ctx.selectFrom(TRANSACTION).where(TRANSACTION.ID.eq(transactionId)));
+      return hasTransactionQuery.fetchExists(ctx, transactionId);
     });
   }
 
   @Override
   public boolean hasTransactionByFullHash(String fullHash) {
     return Db.useDSLContext(ctx -> {
-      return ctx.fetchExists(ctx.selectFrom(TRANSACTION).where(TRANSACTION.FULL_HASH.eq(Convert.parseHexString(fullHash))));
+      return hasTransactionByFullHashQuery.fetchExists(ctx, (Object) Convert.parseHexString(fullHash));
     });
   }
 
@@ -179,6 +210,7 @@ public class SqlTransactionDb implements TransactionDb {
         }
         ctx.batchInsert(records).execute();
       });
+      accountTransactionDb.saveTransactions(transactions);
     }
   }
 
@@ -0,0 +1,401 @@
+package brs.db.sql;
+
+import brs.Block;
+import brs.Constants;
+import brs.SignumException;
+import brs.Transaction;
+import brs.db.AccountTransactionDb;
+import brs.db.DerivedTable;
+import brs.db.TransactionDb;
+import brs.db.store.DerivedTableManager;
+import brs.schema.tables.records.TransactionRecord;
+import org.jooq.Condition;
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
+import org.jooq.Record;
+import org.jooq.SortField;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
+import static brs.schema.Tables.BLOCK;
+import static brs.schema.Tables.INDIRECT_INCOMING;
+import static brs.schema.Tables.TRANSACTION;
+
+/**
+ * Exports the state of the derived tables at a block to a {@link StateSnapshotFile}, and imports such a file into an
+ * empty database, so a new node only has to sync the blocks after it instead of replaying the chain from genesis.
+ * <p>
+ * A snapshot holds the last {@link Constants#MAX_ROLLBACK} blocks with their transactions, which the next blocks
+ * are verified against, and every row of the derived tables a rollback within them may go back to: of the versioned
+ * tables the versions above the rollback height and the newest one at or below it per key, all rows of the others.
+ * The indirect incomings and the account history index depend on the configuration of a node, they are left out and
+ * written again from the transactions on import. The database ids are left out too and the rows are ordered by their
+ * key and height, so the snapshot hash is the same on every node for the same block.
+ */
+public final class StateSnapshot {
+
+  private static final Logger logger = LoggerFactory.getLogger(StateSnapshot.class);
+
+  private static final String DB_ID = "db_id";
+  private static final String HEIGHT = "height";
+
+  /** Written by each node as its configuration says. */
+  private static final Set<Table<?>> CONFIGURATION_DEPENDENT = Set.of(INDIRECT_INCOMING, ACCOUNT_TRANSACTION);
+
+  private static final Comparator<Object[]> ROW_ORDER = (a, b) -> {
+    for (int i = 0; i < a.length; i++) {
+      int result = compareValues(a[i], b[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  };
+
+  private final DerivedTableManager derivedTableManager;
+  private final TransactionDb transactionDb;
+  private final AccountTransactionDb accountTransactionDb;
+  private final Consumer<Transaction> indirectIncomingIndexer;
+
+  /**
+   * @param indirectIncomingIndexer writes the indirect incomings of a transaction if this node keeps them
+   */
+  public StateSnapshot(DerivedTableManager derivedTableManager, TransactionDb transactionDb,
+                       AccountTransactionDb accountTransactionDb, Consumer<Transaction> indirectIncomingIndexer) {
+    this.derivedTableManager = derivedTableManager;
+    this.transactionDb = transactionDb;
+    this.accountTransactionDb = accountTransactionDb;
+    this.indirectIncomingIndexer = indirectIncomingIndexer;
+  }
+
+  /**
+   * Writes the state as of the given block, which has to be the last one. See {@link #beginExport}.
+   *
+   * @return the snapshot hash as hex
+   */
+  public String export(Path file, Block block, long genesisBlockId) throws IOException {
+    try (Export export = beginExport(block, genesisBlockId)) {
+      return export.writeTo(file);
+    }
+  }
+
+  /**
+   * Fixes the state as of the given block, which has to be the last one, in a read only transaction that keeps
+   * seeing it while later blocks are pushed. It only reads the block, the export can then be written by another
+   * thread without holding up block processing.
+   */
+  public Export beginExport(Block block, long genesisBlockId) {
+    Db.ConsistentRead read = Db.beginConsistentRead();
+    try {
+      // the first read fixes what the transaction sees
+      Long blockId = read.getDSLContext().select(BLOCK.ID).from(BLOCK).where(BLOCK.HEIGHT.eq(block.getHeight()))
+        .fetchOne(BLOCK.ID);
+      if (blockId == null || blockId != block.getId()) {
+        throw new IllegalStateException("Block " + block.getStringId() + " is no longer at height "
+          + block.getHeight());
+      }
+    } catch (RuntimeException e) {
+      read.close();
+      throw e;
+    }
+    return new Export(read, block, genesisBlockId);
+  }
+
+  /**
+   * The state fixed by {@link #beginExport}, closing it releases the database connection.
+   */
+  public final class Export implements AutoCloseable {
+
+    private final Db.ConsistentRead read;
+    private final Block block;
+    private final long genesisBlockId;
+
+    private Export(Db.ConsistentRead read, Block block, long genesisBlockId) {
+      this.read = read;
+      this.block = block;
+      this.genesisBlockId = genesisBlockId;
+    }
+
+    /**
+     * The file only appears once complete.
+     *
+     * @return the snapshot hash as hex
+     */
+    public String writeTo(Path file) throws IOException {
+      long start = System.currentTimeMillis();
+      DSLContext ctx = read.getDSLContext();
+      Path partial = file.resolveSibling(file.getFileName() + ".part");
+      String hash;
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial));
+           StateSnapshotFile.Writer writer = new StateSnapshotFile.Writer(out,
+             new StateSnapshotFile.Header(block.getHeight(), block.getId(), genesisBlockId))) {
+        int rollbackHeight = block.getHeight() - Constants.MAX_ROLLBACK;
+        for (DerivedSqlTable table : derivedTables().values()) {
+          exportTable(ctx, writer, table.tableClass, keyFields(table), table.latestField != null
+            ? rollbackWindow(table, block.getHeight(), rollbackHeight)
+            : table.heightField.le(block.getHeight()));
+        }
+        int firstBlockHeight = Math.max(1, rollbackHeight + 1);
+        exportTable(ctx, writer, BLOCK, List.of(BLOCK.HEIGHT),
+          BLOCK.HEIGHT.between(firstBlockHeight, block.getHeight()));
+        exportTable(ctx, writer, TRANSACTION, List.of(TRANSACTION.HEIGHT, TRANSACTION.ID),
+          TRANSACTION.HEIGHT.between(firstBlockHeight, block.getHeight()));
+        hash = writer.finish();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+      logger.info("State snapshot at height {} exported to {} in {} ms, hash {}", block.getHeight(), file,
+        System.currentTimeMillis() - start, hash);
+      return hash;
+    }
+
+    @Override
+    public void close() {
+      read.close();
+    }
+  }
+
+  /**
+   * Replaces the whole state and the blocks above genesis by the snapshot. The file is checked completely against
+   * the expected hash before anything is changed. The blocks below the snapshot are not stored afterwards, see
+   * {@link brs.Blockchain#getPrunedHeight()}.
+   *
+   * @return the height of the snapshot
+   */
+  public int importFrom(Path file, String expectedHash, long genesisBlockId) throws IOException {
+    long start = System.currentTimeMillis();
+    StateSnapshotFile.Header header;
+    String hash;
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+         StateSnapshotFile.Reader reader = new StateSnapshotFile.Reader(in)) {
+      header = reader.getHeader();
+      while (reader.next() != null) {
+        // only checking
+      }
+      hash = reader.getHash();
+    }
+    if (!hash.equalsIgnoreCase(expectedHash.trim())) {
+      throw new IOException("Snapshot hash " + hash + " does not match the published " + expectedHash);
+    }
+    if (header.genesisBlockId != genesisBlockId) {
+      throw new IOException("Snapshot belongs to another network");
+    }
+
+    Map<String, Table<?>> tables = new TreeMap<>();
+    for (DerivedSqlTable table : derivedTables().values()) {
+      tables.put(table.tableClass.getName(), table.tableClass);
+    }
+    tables.put(BLOCK.getName(), BLOCK);
+    tables.put(TRANSACTION.getName(), TRANSACTION);
+
+    Db.beginTransaction();
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+         StateSnapshotFile.Reader reader = new StateSnapshotFile.Reader(in)) {
+      for (DerivedTable table : derivedTableManager.getDerivedTables()) {
+        table.truncate();
+      }
+      Db.useDSLContext(ctx -> {
+        ctx.delete(ACCOUNT_TRANSACTION).execute();
+        ctx.delete(TRANSACTION).execute();
+        ctx.delete(BLOCK).where(BLOCK.HEIGHT.gt(0)).execute();
+      });
+      StateSnapshotFile.Chunk chunk;
+      while ((chunk = reader.next()) != null) {
+        importChunk(tables, chunk);
+      }
+      indexTransactions(Math.max(1, header.height - Constants.MAX_ROLLBACK + 1), header.height);
+      Db.commitTransaction();
+    } catch (IOException | RuntimeException e) {
+      Db.rollbackTransaction();
+      throw e;
+    } finally {
+      Db.endTransaction();
+    }
+    logger.info("State snapshot at height {} imported from {} in {} ms", header.height, file,
+      System.currentTimeMillis() - start);
+    return header.height;
+  }
+
+  private Map<String, DerivedSqlTable> derivedTables() {
+    // several derived tables may work on the same database table, sorted for a stable order in the file
+    Map<String, DerivedSqlTable> tables = new TreeMap<>();
+    for (DerivedTable table : derivedTableManager.getDerivedTables()) {
+      if (table instanceof DerivedSqlTable && !CONFIGURATION_DEPENDENT.contains(((DerivedSqlTable) table).tableClass)) {
+        DerivedSqlTable sqlTable = (DerivedSqlTable) table;
+        tables.put(sqlTable.tableClass.getName(), sqlTable);
+      }
+    }
+    return tables;
+  }
+
+  /**
+   * Writes the indirect incomings and the account history index of the imported transactions, block by block as the
+   * block push does.
+   */
+  private void indexTransactions(int fromHeight, int toHeight) {
+    for (int height = fromHeight; height <= toHeight; height++) {
+      int blockHeight = height;
+      List<Transaction> transactions = Db.useDSLContext(ctx -> {
+        List<Transaction> loaded = new ArrayList<>();
+        for (TransactionRecord record : ctx.selectFrom(TRANSACTION).where(TRANSACTION.HEIGHT.eq(blockHeight))
+          .orderBy(TRANSACTION.ID).fetch()) {
+          try {
+            loaded.add(transactionDb.loadTransaction(record));
+          } catch (SignumException.ValidationException e) {
+            throw new RuntimeException("Snapshot transaction " + record.getId() + " does not pass validation", e);
+          }
+        }
+        return loaded;
+      });
+      transactions.forEach(indirectIncomingIndexer);
+      accountTransactionDb.saveTransactions(transactions);
+    }
+  }
+
+  /**
+   * The versions above the rollback height and, per key, the newest one at or below it, which is the one a rollback
+   * to that height makes the latest again.
+   */
+  private static Condition rollbackWindow(DerivedSqlTable table, int height, int rollbackHeight) {
+    Table<?> newer = table.tableClass.as("newer");
+    Field<Integer> newerHeight = newer.field(HEIGHT, Integer.class);
+    Condition sameKey = DSL.noCondition();
+    for (Field<Long> keyField : EntitySqlTable.getPKFields(table.tableClass, keyColumns(table))) {
+      sameKey = sameKey.and(newer.field(keyField.getName(), Long.class).eq(keyField));
+    }
+    return table.heightField.le(height).and(table.heightField.gt(rollbackHeight)
+      .or(DSL.notExists(DSL.selectOne().from(newer).where(sameKey)
+        .and(newerHeight.gt(table.heightField))
+        .and(newerHeight.le(rollbackHeight)))));
+  }
+
+  private static String[] keyColumns(DerivedSqlTable table) {
+    if (table instanceof EntitySqlTable) {
+      return ((EntitySqlTable<?>) table).dbKeyFactory.getPKColumns();
+    }
+    if (table instanceof ValuesSqlTable) {
+      return ((ValuesSqlTable<?, ?>) table).dbKeyFactory.getPKColumns();
+    }
+    throw new IllegalStateException("Derived table " + table.getTable() + " has no key");
+  }
+
+  private static List<Field<?>> keyFields(DerivedSqlTable table) {
+    return new ArrayList<>(EntitySqlTable.getPKFields(table.tableClass, keyColumns(table)));
+  }
+
+  /**
+   * Writes the rows ordered by the key columns and the height, which are numbers every database orders alike. Rows
+   * with the same key and height, as values tables have them, are ordered by all their values here, since the
+   * databases do not agree on how to order strings and binary values.
+   */
+  private static void exportTable(DSLContext ctx, StateSnapshotFile.Writer writer, Table<?> table,
+                                  List<Field<?>> key, Condition condition) throws IOException {
+    List<Field<?>> columns = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    for (Field<?> field : table.fields()) {
+      if (!DB_ID.equals(field.getName())) {
+        columns.add(field);
+        names.add(field.getName());
+      }
+    }
+    List<String> orderNames = new ArrayList<>();
+    key.forEach(field -> orderNames.add(field.getName()));
+    if (names.contains(HEIGHT) && !orderNames.contains(HEIGHT)) {
+      orderNames.add(HEIGHT);
+    }
+    List<SortField<?>> order = new ArrayList<>();
+    int[] orderIndexes = new int[orderNames.size()];
+    for (int i = 0; i < orderNames.size(); i++) {
+      orderIndexes[i] = names.indexOf(orderNames.get(i));
+      order.add(columns.get(orderIndexes[i]).asc());
+    }
+    writer.beginTable(table.getName(), names);
+    List<Object[]> sameKey = new ArrayList<>();
+    try (Cursor<Record> cursor = ctx.select(columns).from(table).where(condition).orderBy(order).fetchLazy()) {
+      for (Record record : cursor) {
+        Object[] row = record.intoArray();
+        if (!sameKey.isEmpty() && !hasSameValues(sameKey.get(0), row, orderIndexes)) {
+          writeRows(writer, sameKey);
+        }
+        sameKey.add(row);
+      }
+    }
+    writeRows(writer, sameKey);
+  }
+
+  private static boolean hasSameValues(Object[] a, Object[] b, int[] indexes) {
+    for (int index : indexes) {
+      if (compareValues(a[index], b[index]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void writeRows(StateSnapshotFile.Writer writer, List<Object[]> rows) throws IOException {
+    if (rows.size() > 1) {
+      rows.sort(ROW_ORDER);
+    }
+    for (Object[] row : rows) {
+      writer.row(row);
+    }
+    rows.clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compareValues(Object a, Object b) {
+    if (a == null || b == null) {
+      return a == null ? (b == null ? 0 : -1) : 1;
+    }
+    if (a instanceof byte[]) {
+      return Arrays.compareUnsigned((byte[]) a, (byte[]) b);
+    }
+    return ((Comparable<Object>) a).compareTo(b);
+  }
+
+  private static void importChunk(Map<String, Table<?>> tables, StateSnapshotFile.Chunk chunk) throws IOException {
+    Table<?> table = tables.get(chunk.table);
+    if (table == null) {
+      throw new IOException("Snapshot has unknown table " + chunk.table);
+    }
+    List<Field<?>> columns = new ArrayList<>(chunk.columns.size());
+    for (String name : chunk.columns) {
+      Field<?> column = table.field(name);
+      if (column == null || DB_ID.equals(name)) {
+        throw new IOException("Snapshot has unknown column " + chunk.table + "." + name);
+      }
+      columns.add(column);
+    }
+    Db.useDSLContext(ctx -> {
+      InsertValuesStepN<?> insert = ctx.insertInto(table).columns(columns);
+      for (Object[] row : chunk.rows) {
+        insert = insert.values(row);
+      }
+      insert.execute();
+    });
+  }
+}
@@ -0,0 +1,412 @@
+package brs.db.sql;
+
+import brs.crypto.Crypto;
+import brs.util.Convert;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * File format of a {@link StateSnapshot}: a header naming the block the state belongs to, then the rows of each table
+ * in chunks of at most {@link #CHUNK_ROWS} rows, each compressed on its own and followed by the end marker and the
+ * hash of the snapshot.
+ * <p>
+ * Each chunk carries the SHA-256 of its uncompressed content, the snapshot hash is the SHA-256 of the header followed
+ * by all chunk hashes. It only depends on the rows and their order, not on the compression, so the same state gives
+ * the same hash on every node and it can be published for a height.
+ */
+final class StateSnapshotFile {
+
+  static final int CHUNK_ROWS = 1000;
+
+  private static final byte[] MAGIC = "SIGNUMSNAPSHOT1\n".getBytes(StandardCharsets.US_ASCII);
+  private static final int HASH_LENGTH = 32;
+  private static final int MAX_CHUNK_LENGTH = 256 * 1024 * 1024;
+
+  private static final byte END = 0;
+  private static final byte CHUNK = 1;
+
+  private static final byte NULL = 0;
+  private static final byte BOOLEAN = 1;
+  private static final byte BYTE = 2;
+  private static final byte SHORT = 3;
+  private static final byte INTEGER = 4;
+  private static final byte LONG = 5;
+  private static final byte STRING = 6;
+  private static final byte BYTES = 7;
+
+  private StateSnapshotFile() {
+  }
+
+  static final class Header {
+    final int height;
+    final long blockId;
+    final long genesisBlockId;
+
+    Header(int height, long blockId, long genesisBlockId) {
+      this.height = height;
+      this.blockId = blockId;
+      this.genesisBlockId = genesisBlockId;
+    }
+
+    private byte[] toBytes() throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(height);
+      out.writeLong(blockId);
+      out.writeLong(genesisBlockId);
+      return bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Rows of one table, all of a chunk belong to the same table.
+   */
+  static final class Chunk {
+    final String table;
+    final List<String> columns;
+    final List<Object[]> rows;
+
+    Chunk(String table, List<String> columns, List<Object[]> rows) {
+      this.table = table;
+      this.columns = columns;
+      this.rows = rows;
+    }
+  }
+
+  static final class Writer implements Closeable {
+    private final DataOutputStream out;
+    private final MessageDigest snapshotDigest = Crypto.sha256();
+    private String table;
+    private List<String> columns;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    Writer(OutputStream out, Header header) throws IOException {
+      this.out = new DataOutputStream(out);
+      byte[] headerBytes = header.toBytes();
+      this.out.write(MAGIC);
+      this.out.write(headerBytes);
+      snapshotDigest.update(headerBytes);
+    }
+
+    void beginTable(String table, List<String> columns) throws IOException {
+      flushChunk();
+      this.table = table;
+      this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+    }
+
+    void row(Object... values) throws IOException {
+      if (table == null) {
+        throw new IllegalStateException("No table begun");
+      }
+      if (values.length != columns.size()) {
+        throw new IllegalArgumentException("Expected " + columns.size() + " values for " + table + ", got " + values.length);
+      }
+      rows.add(values);
+      if (rows.size() >= CHUNK_ROWS) {
+        flushChunk();
+      }
+    }
+
+    /**
+     * Writes the end of the snapshot.
+     * @return the snapshot hash as hex
+     */
+    String finish() throws IOException {
+      flushChunk();
+      table = null;
+      byte[] snapshotHash = snapshotDigest.digest();
+      out.writeByte(END);
+      out.write(snapshotHash);
+      out.flush();
+      return Convert.toHexString(snapshotHash);
+    }
+
+    private void flushChunk() throws IOException {
+      if (rows.isEmpty()) {
+        return;
+      }
+      byte[] content = encode(new Chunk(table, columns, rows));
+      rows.clear();
+      byte[] chunkHash = Crypto.sha256().digest(content);
+      byte[] compressed = deflate(content);
+      out.writeByte(CHUNK);
+      out.writeInt(content.length);
+      out.writeInt(compressed.length);
+      out.write(chunkHash);
+      out.write(compressed);
+      snapshotDigest.update(chunkHash);
+    }
+
+    /**
+     * A snapshot closed without {@link #finish()} has no end marker and is refused when read.
+     */
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+
+  static final class Reader implements Closeable {
+    private final DataInputStream in;
+    private final Header header;
+    private final MessageDigest snapshotDigest = Crypto.sha256();
+    private String hash;
+
+    Reader(InputStream in) throws IOException {
+      this.in = new DataInputStream(in);
+      byte[] magic = new byte[MAGIC.length];
+      this.in.readFully(magic);
+      if (!Arrays.equals(magic, MAGIC)) {
+        throw new IOException("Not a snapshot file");
+      }
+      int height = this.in.readInt();
+      long blockId = this.in.readLong();
+      long genesisBlockId = this.in.readLong();
+      this.header = new Header(height, blockId, genesisBlockId);
+      snapshotDigest.update(header.toBytes());
+    }
+
+    Header getHeader() {
+      return header;
+    }
+
+    /**
+     * @return the next chunk, its hash checked, or null after the last one, when the snapshot hash was checked too
+     */
+    Chunk next() throws IOException {
+      if (hash != null) {
+        return null;
+      }
+      byte marker;
+      try {
+        marker = in.readByte();
+      } catch (EOFException e) {
+        throw new IOException("Snapshot file is truncated", e);
+      }
+      if (marker == END) {
+        byte[] expected = new byte[HASH_LENGTH];
+        in.readFully(expected);
+        byte[] snapshotHash = snapshotDigest.digest();
+        if (!MessageDigest.isEqual(expected, snapshotHash)) {
+          throw new IOException("Snapshot hash mismatch");
+        }
+        hash = Convert.toHexString(snapshotHash);
+        return null;
+      }
+      if (marker != CHUNK) {
+        throw new IOException("Corrupt snapshot file, unknown marker " + marker);
+      }
+      int length = in.readInt();
+      int compressedLength = in.readInt();
+      if (length < 0 || length > MAX_CHUNK_LENGTH || compressedLength < 0 || compressedLength > MAX_CHUNK_LENGTH) {
+        throw new IOException("Corrupt snapshot file, chunk length " + length + "/" + compressedLength);
+      }
+      byte[] chunkHash = new byte[HASH_LENGTH];
+      in.readFully(chunkHash);
+      byte[] compressed = new byte[compressedLength];
+      in.readFully(compressed);
+      byte[] content = inflate(compressed, length);
+      if (!MessageDigest.isEqual(chunkHash, Crypto.sha256().digest(content))) {
+        throw new IOException("Snapshot chunk hash mismatch");
+      }
+      snapshotDigest.update(chunkHash);
+      return decode(content);
+    }
+
+    /**
+     * @return the snapshot hash as hex, once all chunks were read
+     */
+    String getHash() {
+      return hash;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /**
+   * Reads the whole snapshot, checking every chunk and the snapshot hash.
+   * @return the snapshot hash as hex
+   */
+  static String verify(InputStream in) throws IOException {
+    try (Reader reader = new Reader(in)) {
+      while (reader.next() != null) {
+        // only checking
+      }
+      return reader.getHash();
+    }
+  }
+
+  private static byte[] encode(Chunk chunk) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    writeString(out, chunk.table);
+    out.writeShort(chunk.columns.size());
+    for (String column : chunk.columns) {
+      writeString(out, column);
+    }
+    out.writeInt(chunk.rows.size());
+    for (Object[] row : chunk.rows) {
+      for (Object value : row) {
+        writeValue(out, value);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Chunk decode(byte[] content) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+    String table = readString(in);
+    int columnCount = in.readUnsignedShort();
+    List<String> columns = new ArrayList<>(columnCount);
+    for (int i = 0; i < columnCount; i++) {
+      columns.add(readString(in));
+    }
+    int rowCount = in.readInt();
+    if (rowCount < 0 || rowCount > CHUNK_ROWS) {
+      throw new IOException("Corrupt snapshot chunk, " + rowCount + " rows");
+    }
+    List<Object[]> rows = new ArrayList<>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      Object[] row = new Object[columnCount];
+      for (int j = 0; j < columnCount; j++) {
+        row[j] = readValue(in);
+      }
+      rows.add(row);
+    }
+    return new Chunk(table, Collections.unmodifiableList(columns), rows);
+  }
+
+  private static void writeValue(DataOutputStream out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Byte) {
+      out.writeByte(BYTE);
+      out.writeByte((Byte) value);
+    } else if (value instanceof Short) {
+      out.writeByte(SHORT);
+      out.writeShort((Short) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(INTEGER);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String) value);
+    } else if (value instanceof byte[]) {
+      out.writeByte(BYTES);
+      out.writeInt(((byte[]) value).length);
+      out.write((byte[]) value);
+    } else {
+      throw new IllegalArgumentException("Unsupported snapshot value type " + value.getClass().getName());
+    }
+  }
+
+  private static Object readValue(DataInputStream in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case NULL:
+        return null;
+      case BOOLEAN:
+        return in.readBoolean();
+      case BYTE:
+        return in.readByte();
+      case SHORT:
+        return in.readShort();
+      case INTEGER:
+        return in.readInt();
+      case LONG:
+        return in.readLong();
+      case STRING:
+        return readString(in);
+      case BYTES:
+        return readBytes(in);
+      default:
+        throw new IOException("Corrupt snapshot chunk, unknown value type " + type);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return new String(readBytes(in), StandardCharsets.UTF_8);
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > in.available()) {
+      throw new IOException("Corrupt snapshot chunk, value length " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static byte[] deflate(byte[] content) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(content);
+      deflater.finish();
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2 + 64);
+      byte[] buffer = new byte[64 * 1024];
+      while (!deflater.finished()) {
+        compressed.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return compressed.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(byte[] compressed, int length) throws IOException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      byte[] content = new byte[length];
+      int read = 0;
+      while (read < length && !inflater.finished()) {
+        int n = inflater.inflate(content, read, length - read);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += n;
+      }
+      if (read != length || !inflater.finished()) {
+        throw new IOException("Corrupt snapshot chunk, length mismatch");
+      }
+      return content;
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt snapshot chunk", e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
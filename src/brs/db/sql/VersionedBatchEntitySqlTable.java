@@ -3,6 +3,7 @@ package brs.db.sql;
 import brs.db.SignumKey;
 import brs.db.VersionedBatchEntityTable;
 import brs.db.cache.DBCacheManagerImpl;
+import brs.db.sql.dialects.DatabaseInstance;
 import brs.db.store.DerivedTableManager;
 import org.ehcache.Cache;
 import org.jooq.*;
@@ -55,7 +56,8 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
       return getBatch().get(dbKey);
     }
     T item = super.get(dbKey);
-    if (item != null) {
+    // the read pool may lag behind, do not let it feed the cache used by block processing
+    if (item != null && !Db.isReadPoolRouted()) {
       getCache().put(dbKey, item);
     }
     return item;
@@ -78,10 +80,6 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
       return;
     }
 
-    // As recommended for databases,
-    // not more than 1000 items should be put in subqueries
-    int UpdateMaxBatchSize = 1_000;
-
     // As recommended for databases,
     // not more than 1000 items should be inserted in a single batch
     /**
@@ -89,6 +87,7 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
      */
     int InsertMaxBatchSize = 1_000;
 
+    DatabaseInstance databaseInstance = Db.getDatabaseInstance();
     Db.useDSLContext(ctx -> {
 
       Field<Long> idField = tableClass.field(dbKeyFactory.getPKColumns()[0], Long.class);
@@ -98,15 +97,8 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
       // transactional scope avoids auto-commits, giving us even more performance back
       ctx.transaction(configuration -> {
         DSLContext txContext = DSL.using(configuration);
-        int idsListSize = ids.size();
-        for (int from = 0; from < idsListSize; from += UpdateMaxBatchSize) {
-          int to = Math.min(from + UpdateMaxBatchSize, idsListSize);
-          txContext.update(tableClass)
-            .set(latestField, false)
-            .where(latestField.isTrue())
-            .and(idField.in(ids.subList(from, to)))
-            .execute();
-        }
+        // the dialect picks its own bulk path (temp table + COPY, UPDATE ... JOIN, prepared statement reuse)
+        databaseInstance.clearLatest(txContext, tableClass, idField, latestField, ids);
 
         /**
          * Bulk insert of new entities.
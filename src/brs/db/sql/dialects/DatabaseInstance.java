@@ -2,8 +2,12 @@ package brs.db.sql.dialects;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.SQLDialect;
+import org.jooq.Table;
 
+import java.util.List;
 
 
 public interface DatabaseInstance {
@@ -16,9 +20,26 @@ public interface DatabaseInstance {
   void onShutdown();
   HikariConfig getConfig();
   HikariDataSource getDataSource();
+
+  /**
+   * @return the pool for reads that may lag behind the primary (API queries), or null if not configured
+   */
+  HikariDataSource getReadDataSource();
   String getMigrationSqlScriptPath();
   String getMigrationClassPath();
   String getDatabaseVersionSQLScript();
   SQLDialect getDialect();
   SupportStatus getSupportStatus();
+
+  /**
+   * Sets <code>latest = false</code> on all current rows of a versioned table whose id is in <code>ids</code>.
+   * Used when flushing batched entities, so dialects may override it with their native bulk path.
+   *
+   * @param ctx the transactional context to run in
+   * @param table the versioned table
+   * @param idField the (single column) primary key of the entity
+   * @param latestField the latest flag column
+   * @param ids the ids of the entities about to get a new version
+   */
+  void clearLatest(DSLContext ctx, Table<?> table, Field<Long> idField, Field<Boolean> latestField, List<Long> ids);
 }
@@ -4,18 +4,27 @@ import brs.props.PropertyService;
 import brs.props.Props;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Table;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 
 public abstract class DatabaseInstanceBaseImpl implements DatabaseInstance {
   private static final Logger logger = LoggerFactory.getLogger(DatabaseInstanceBaseImpl.class);
 
+  // As recommended for databases,
+  // not more than 1000 items should be put in subqueries
+  protected static final int UPDATE_MAX_BATCH_SIZE = 1_000;
+
   private final HikariDataSource dataSource;
+  private final HikariDataSource readDataSource;
   private HikariConfig config = new HikariConfig();
   protected PropertyService propertyService;
 
@@ -34,11 +43,41 @@ public abstract class DatabaseInstanceBaseImpl implements DatabaseInstance {
       config.setPassword(dbPassword);
     }
     config.setMaximumPoolSize(propertyService.getInt(Props.DB_CONNECTIONS));
+    config.setPoolName("primary");
     config = this.configureImpl(config);
     dataSource = new HikariDataSource(config);
+
+    if (propertyService.getBoolean(Props.DB_READ_POOL)) {
+      String readUrl = propertyService.getString(Props.DB_READ_URL);
+      HikariConfig readConfig = new HikariConfig();
+      readConfig.setJdbcUrl(readUrl == null || readUrl.isEmpty() ? dbUrl : readUrl);
+      readConfig.setAutoCommit(true);
+      if (dbUsername != null) {
+        readConfig.setUsername(dbUsername);
+      }
+      if (dbPassword != null) {
+        readConfig.setPassword(dbPassword);
+      }
+      readConfig.setPoolName("read");
+      readConfig = this.configureReadImpl(readConfig);
+      readConfig.setMaximumPoolSize(propertyService.getInt(Props.DB_READ_CONNECTIONS));
+      logger.info("Using a separate read pool for API queries on {}", readConfig.getJdbcUrl());
+      readDataSource = new HikariDataSource(readConfig);
+    } else {
+      readDataSource = null;
+    }
   }
 
   protected abstract HikariConfig configureImpl(HikariConfig config);
+
+  /**
+   * Configures the read pool, by default like the primary one but with read-only connections.
+   */
+  protected HikariConfig configureReadImpl(HikariConfig config) {
+    config = configureImpl(config);
+    config.setReadOnly(true);
+    return config;
+  }
   protected abstract void onShutdownImpl();
   protected abstract void onStartupImpl();
 
@@ -58,6 +97,9 @@ public abstract class DatabaseInstanceBaseImpl implements DatabaseInstance {
       return;
     }
     this.onShutdownImpl();
+    if (readDataSource != null && !readDataSource.isClosed()) {
+      readDataSource.close();
+    }
     if (!dataSource.isClosed()) {
       logger.info("Closing Database connections...");
       dataSource.close();
@@ -80,8 +122,26 @@ public abstract class DatabaseInstanceBaseImpl implements DatabaseInstance {
     return this.dataSource;
   }
 
+  @Override
+  public HikariDataSource getReadDataSource() {
+    return this.readDataSource;
+  }
+
   @Override
   public String getMigrationClassPath() {
     return "classpath:/brs/db/sql/migration";
   }
+
+  @Override
+  public void clearLatest(DSLContext ctx, Table<?> table, Field<Long> idField, Field<Boolean> latestField, List<Long> ids) {
+    int idsListSize = ids.size();
+    for (int from = 0; from < idsListSize; from += UPDATE_MAX_BATCH_SIZE) {
+      int to = Math.min(from + UPDATE_MAX_BATCH_SIZE, idsListSize);
+      ctx.update(table)
+        .set(latestField, false)
+        .where(latestField.isTrue())
+        .and(idField.in(ids.subList(from, to)))
+        .execute();
+    }
+  }
 }
@@ -2,13 +2,25 @@ package brs.db.sql.dialects;
 
 import brs.props.PropertyService;
 import com.zaxxer.hikari.HikariConfig;
+import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.StringReader;
+import java.util.List;
+
 public class DatabaseInstancePostgres extends DatabaseInstanceBaseImpl {
   private static final Logger logger = LoggerFactory.getLogger(DatabaseInstancePostgres.class);
 
+  private static final String LATEST_IDS_TABLE = "tmp_latest_ids";
+  private static final Table<?> latestIdsTable = DSL.table(DSL.name(LATEST_IDS_TABLE));
+  private static final Field<Long> latestIdsField = DSL.field(DSL.name(LATEST_IDS_TABLE, "id"), Long.class);
+
   protected DatabaseInstancePostgres(PropertyService propertyService) {
     super(propertyService);
   }
@@ -16,6 +28,11 @@ public class DatabaseInstancePostgres extends DatabaseInstanceBaseImpl {
   @Override
   protected HikariConfig configureImpl(HikariConfig config) {
     // check https://jdbc.postgresql.org/documentation/use/ for more options
+    config.addDataSourceProperty("reWriteBatchedInserts", "true");
+    // server side prepared statements, reused per connection for the hot lookups
+    config.addDataSourceProperty("prepareThreshold", "1");
+    config.addDataSourceProperty("preparedStatementCacheQueries", "512");
+    config.addDataSourceProperty("preparedStatementCacheSizeMiB", "8");
     return config;
   }
 
@@ -44,4 +61,33 @@ public class DatabaseInstancePostgres extends DatabaseInstanceBaseImpl {
   public SupportStatus getSupportStatus() {
     return SupportStatus.EXPERIMENTAL;
   }
+
+  /**
+   * Streams the ids into a session-local temporary table via <code>COPY</code> and clears the
+   * latest flags with a single <code>UPDATE ... FROM</code>, instead of many <code>IN (...)</code> chunks.
+   */
+  @Override
+  public void clearLatest(DSLContext ctx, Table<?> table, Field<Long> idField, Field<Boolean> latestField, List<Long> ids) {
+    if (ids.size() <= UPDATE_MAX_BATCH_SIZE) {
+      super.clearLatest(ctx, table, idField, latestField, ids);
+      return;
+    }
+    ctx.execute("CREATE TEMPORARY TABLE IF NOT EXISTS " + LATEST_IDS_TABLE + " (id BIGINT NOT NULL) ON COMMIT DELETE ROWS");
+    ctx.truncate(latestIdsTable).execute();
+    ctx.connection(connection -> {
+      StringBuilder rows = new StringBuilder(ids.size() * 21);
+      for (Long id : ids) {
+        rows.append(id).append('\n');
+      }
+      connection.unwrap(PGConnection.class).getCopyAPI()
+        .copyIn("COPY " + LATEST_IDS_TABLE + " (id) FROM STDIN", new StringReader(rows.toString()));
+    });
+    int updated = ctx.update(table)
+      .set(latestField, false)
+      .from(latestIdsTable)
+      .where(idField.eq(latestIdsField))
+      .and(latestField.isTrue())
+      .execute();
+    logger.trace("Cleared latest flag of {} rows in {}", updated, table.getName());
+  }
 }
@@ -3,7 +3,12 @@ package brs.db.sql.dialects;
 import brs.props.PropertyService;
 import brs.props.Props;
 import com.zaxxer.hikari.HikariConfig;
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,6 +16,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 public class DatabaseInstanceSqlite extends DatabaseInstanceBaseImpl {
   private static final Logger logger = LoggerFactory.getLogger(DatabaseInstanceSqlite.class);
@@ -65,6 +71,15 @@ public class DatabaseInstanceSqlite extends DatabaseInstanceBaseImpl {
     return config;
   }
 
+  @Override
+  protected HikariConfig configureReadImpl(HikariConfig config) {
+    config = configureImpl(config);
+    // the read-only flag can not be changed on an open SQLite connection, refuse writes per connection instead;
+    // in WAL mode these readers do not block the writer
+    config.setConnectionInitSql("PRAGMA query_only = 1;");
+    return config;
+  }
+
   @Override
   protected void onShutdownImpl() {
     logger.info("Applying SQLite Checkpoint...");
@@ -129,4 +144,23 @@ public class DatabaseInstanceSqlite extends DatabaseInstanceBaseImpl {
   public SupportStatus getSupportStatus() {
     return SupportStatus.STABLE;
   }
+
+  /**
+   * SQLite runs in-process, so there is no round trip to save: a single prepared
+   * <code>UPDATE ... WHERE id = ?</code> re-executed per id uses the <code>(id, latest)</code> index directly,
+   * while large <code>IN (...)</code> lists have to be re-parsed and re-planned for every chunk.
+   */
+  @Override
+  public void clearLatest(DSLContext ctx, Table<?> table, Field<Long> idField, Field<Boolean> latestField, List<Long> ids) {
+    BatchBindStep batch = ctx.batch(
+      ctx.update(table)
+        .set(latestField, DSL.inline(false))
+        .where(idField.eq((Long) null))
+        .and(latestField.eq(DSL.inline(true)))
+    );
+    for (Long id : ids) {
+      batch.bind(id);
+    }
+    batch.execute();
+  }
 }
@@ -19,6 +19,13 @@ public interface AccountStore {
 
   long getAllAccountsBalance();
 
+  /**
+   * Checks an in-memory running total used by {@link #getAllAccountsBalance()} (if any) against a scan of the table.
+   *
+   * @return false if the running total was wrong and had to be dropped
+   */
+  boolean verifyAllAccountsBalance();
+
   VersionedEntityTable<Account.RewardRecipientAssignment> getRewardRecipientAssignmentTable();
 
   SignumKey.LongKeyFactory<Account.RewardRecipientAssignment> getRewardRecipientAssignmentKeyFactory();
@@ -37,6 +44,8 @@ public interface AccountStore {
 
   Collection<Account.RewardRecipientAssignment> getAccountsWithRewardRecipient(Long recipientId);
 
+  Collection<Account> getAccountsWithName(String name);
+
   Collection<Account.AccountAsset> getAssets(int from, int to, Long id);
 
   Account.AccountAsset getAccountAsset(Long accountId, Long assetId);
@@ -16,6 +16,11 @@ public interface AliasStore {
 
   Collection<Alias> getAliasesByOwner(long accountId, String name, Long tld, int from, int to);
 
+  /**
+   * Aliases (no TLDs) whose name contains the given text, best matches first.
+   */
+  Collection<Alias> searchAliases(String name, int from, int to);
+
   Collection<Alias> getTLDs(int from, int to);
   
   Collection<Alias.Offer> getAliasOffers(long account, long buyer, int from, int to);
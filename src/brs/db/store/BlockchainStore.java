@@ -5,10 +5,12 @@ import brs.Block;
 import brs.Transaction;
 import brs.schema.tables.records.BlockRecord;
 import brs.schema.tables.records.TransactionRecord;
+import brs.util.PageCursor;
 import org.jooq.DSLContext;
 import org.jooq.Result;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 /**
  * Store for both BlockchainImpl and BlockchainProcessorImpl
@@ -36,11 +38,22 @@ public interface BlockchainStore {
   long getAtBurnTotal();
 
   Collection<Transaction> getTransactions(Account account, int numberOfConfirmations, byte type, byte subtype,
-                                          int blockTimestamp, int from, int to, boolean includeIndirectIncoming);
+                                          int blockTimestamp, int from, int to, boolean includeIndirectIncoming,
+                                          PageCursor after);
 
   Collection<Transaction> getTransactions(Long senderId, Long recipientId, int numberOfConfirmations,
                                                  byte type, byte subtype, int blockTimestamp, int from, int to,
-                                                 boolean includeIndirectIncoming, boolean bidirectional);
+                                                 boolean includeIndirectIncoming, boolean bidirectional,
+                                                 PageCursor after);
+
+  /**
+   * Streams the transactions the account sent, received or got indirect incoming payments from, block by block and
+   * by id within a block, without loading them all at once. The consumer is called while the database cursor is
+   * open.
+   */
+  void forEachTransaction(long accountId, int heightStart, int heightEnd, Consumer<Transaction> consumer);
+
+  Collection<Block> getBlocksBelow(int height, int limit);
 
   Collection<Transaction> getTransactions(long senderId, byte type, byte subtypeStart, byte subtypeEnd, int from, int to);
 
@@ -1,5 +1,6 @@
 package brs.db.store;
 
+import brs.db.AccountTransactionDb;
 import brs.db.BlockDb;
 import brs.db.PeerDb;
 import brs.db.TransactionDb;
@@ -12,4 +13,6 @@ public interface Dbs {
 
   PeerDb getPeerDb();
 
+  AccountTransactionDb getAccountTransactionDb();
+
 }
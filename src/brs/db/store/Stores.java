@@ -4,6 +4,7 @@ import brs.db.TransactionDb;
 import brs.db.cache.DBCacheManagerImpl;
 import brs.db.sql.*;
 import brs.props.PropertyService;
+import brs.props.Props;
 import brs.services.TimeService;
 import brs.unconfirmedtransactions.UnconfirmedTransactionStore;
 import brs.unconfirmedtransactions.UnconfirmedTransactionStoreImpl;
@@ -33,7 +34,7 @@ public class Stores {
     this.atStore                     = new SqlATStore(derivedTableManager);
     this.digitalGoodsStoreStore      = new SqlDigitalGoodsStoreStore(derivedTableManager);
     this.escrowStore                 = new SqlEscrowStore(derivedTableManager);
-    this.orderStore                  = new SqlOrderStore(derivedTableManager);
+    this.orderStore                  = new SqlOrderStore(derivedTableManager, propertyService.getBoolean(Props.DB_ORDER_BOOK));
     this.tradeStore                  = new SqlTradeStore(derivedTableManager);
     this.subscriptionStore           = new SqlSubscriptionStore(derivedTableManager);
     this.unconfirmedTransactionStore = new UnconfirmedTransactionStoreImpl(timeService, propertyService, accountStore, transactionDb, params);
@@ -46,6 +46,7 @@ import brs.Signum;
 import brs.BlockchainProcessor;
 import brs.Constants;
 import brs.Block;
+import brs.peer.Bandwidth;
 import brs.peer.Peer;
 import brs.fluxcapacitor.FluxValues;
 import brs.props.PropertyService;
@@ -927,9 +928,15 @@ public class SignumGUI extends JFrame {
     public void onNetVolumeChanged() {
         BlockchainProcessor blockchainProcessor = Signum.getBlockchainProcessor();
         long newDownloadedVolume = blockchainProcessor.getDownloadedVolume();
+        String uploadRates = formatLaneRates(blockchainProcessor.getUploadBytesPerSecond(Bandwidth.Lane.PRIORITY),
+                blockchainProcessor.getUploadBytesPerSecond(Bandwidth.Lane.BULK));
+        String downloadRates = formatLaneRates(blockchainProcessor.getDownloadBytesPerSecond(Bandwidth.Lane.PRIORITY),
+                blockchainProcessor.getDownloadBytesPerSecond(Bandwidth.Lane.BULK));
         SwingUtilities.invokeLater(() -> {
             uploadVolumeLabel.setText("▲ " + formatDataSize(blockchainProcessor.getUploadedVolume()));
             downloadVolumeLabel.setText("▼ " + formatDataSize(newDownloadedVolume));
+            uploadVolumeLabel.setToolTipText(uploadRates);
+            downloadVolumeLabel.setToolTipText(downloadRates);
 
             // Initial check for sync status before any timers start, to ensure the
             // sync_in_progress timer starts correctly.
@@ -1305,6 +1312,11 @@ public class SignumGUI extends JFrame {
         return String.format("%.2f %s", bytes, units[unitIndex]);
     }
 
+    private String formatLaneRates(long priorityBytesPerSecond, long bulkBytesPerSecond) {
+        return "Now " + formatDataSize(priorityBytesPerSecond) + "/s priority (blocks, transactions), "
+                + formatDataSize(bulkBytesPerSecond) + "/s bulk (sync)";
+    }
+
     private void onBrsStopped() {
         SwingUtilities.invokeLater(() -> setTitle(getTitle() + " (STOPPED)"));
         if (trayIcon != null)
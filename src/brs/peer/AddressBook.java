@@ -0,0 +1,130 @@
+package brs.peer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Which peer addresses to try connecting to next. An address that could not be connected to waits before the next
+ * attempt, twice as long after every failure up to {@link #MAX_BACKOFF_MS}. The addresses are put in buckets by
+ * network, an IPv4 /16 or IPv6 /32 or the host name, and every round of attempts takes one address per bucket before
+ * the next from the same, so many addresses from one network can not crowd out the others.
+ * <p>
+ * The backoff of an address is kept when its peer is removed, so it applies again when the address is received
+ * again. It ends with a successful connection or once the last failure is {@link #EXPIRY_MS} old.
+ */
+final class AddressBook {
+
+    static final long BASE_BACKOFF_MS = 30 * 1000L;
+    static final long MAX_BACKOFF_MS = 60 * 60 * 1000L;
+    static final long EXPIRY_MS = 24 * 60 * 60 * 1000L;
+
+    private static final class Backoff {
+        private final int failures;
+        private final long failedAt;
+        private final long retryAt;
+
+        private Backoff(int failures, long failedAt, long retryAt) {
+            this.failures = failures;
+            this.failedAt = failedAt;
+            this.retryAt = retryAt;
+        }
+    }
+
+    private final LongSupplier clock;
+    private final Map<String, Backoff> backoffs = new ConcurrentHashMap<>();
+
+    AddressBook() {
+        this(System::currentTimeMillis);
+    }
+
+    AddressBook(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    void connected(String address) {
+        backoffs.remove(address);
+    }
+
+    void failed(String address) {
+        long now = clock.getAsLong();
+        backoffs.compute(address, (key, backoff) -> {
+            int failures = backoff == null ? 1 : backoff.failures + 1;
+            long delay = BASE_BACKOFF_MS << Math.min(failures - 1, 20);
+            return new Backoff(failures, now, now + Math.min(delay, MAX_BACKOFF_MS));
+        });
+    }
+
+    /**
+     * Forgets the failures that are {@link #EXPIRY_MS} old, of addresses that were not tried again since.
+     */
+    void expire() {
+        long now = clock.getAsLong();
+        backoffs.values().removeIf(backoff -> now - backoff.failedAt >= EXPIRY_MS);
+    }
+
+    boolean mayConnect(String address) {
+        Backoff backoff = backoffs.get(address);
+        return backoff == null || backoff.retryAt <= clock.getAsLong();
+    }
+
+    int getFailures(String address) {
+        Backoff backoff = backoffs.get(address);
+        return backoff == null ? 0 : backoff.failures;
+    }
+
+    /**
+     * @return up to max of the peers whose backoff has passed, spread over the buckets, in random order within each
+     */
+    List<Peer> selectToConnect(Collection<Peer> candidates, int max) {
+        expire();
+        List<Peer> shuffled = new ArrayList<>(candidates);
+        Collections.shuffle(shuffled);
+        Map<String, List<Peer>> buckets = new LinkedHashMap<>();
+        for (Peer peer : shuffled) {
+            if (mayConnect(peer.getPeerAddress())) {
+                buckets.computeIfAbsent(bucket(peer.getPeerAddress()), key -> new ArrayList<>()).add(peer);
+            }
+        }
+        List<Peer> selected = new ArrayList<>();
+        while (selected.size() < max && !buckets.isEmpty()) {
+            Iterator<List<Peer>> bucketIterator = buckets.values().iterator();
+            while (bucketIterator.hasNext() && selected.size() < max) {
+                List<Peer> bucket = bucketIterator.next();
+                selected.add(bucket.remove(bucket.size() - 1));
+                if (bucket.isEmpty()) {
+                    bucketIterator.remove();
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return the network of an address as <code>host</code> or <code>host:port</code>
+     */
+    static String bucket(String address) {
+        String host = address;
+        if (host.startsWith("[")) {
+            int end = host.indexOf(']');
+            host = end > 0 ? host.substring(1, end) : host.substring(1);
+        } else if (host.indexOf(':') == host.lastIndexOf(':') && host.indexOf(':') > 0) {
+            host = host.substring(0, host.indexOf(':'));
+        }
+        if (host.contains(":")) {
+            String[] groups = host.split(":", -1);
+            return groups.length >= 2 ? groups[0] + ":" + groups[1] : host;
+        }
+        String[] octets = host.split("\\.");
+        if (octets.length == 4 && host.chars().allMatch(c -> c == '.' || Character.isDigit(c))) {
+            return octets[0] + "." + octets[1];
+        }
+        return host.toLowerCase();
+    }
+}
@@ -0,0 +1,49 @@
+package brs.peer;
+
+import brs.TransactionProcessor;
+import brs.util.Convert;
+import brs.util.JSON;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * A peer offers unconfirmed transactions by id, the answer lists the ones we do not have, which the peer then sends
+ * with <code>processTransactions</code>.
+ */
+final class AnnounceTransactions implements PeerServlet.PeerRequestHandler {
+
+  private final TransactionProcessor transactionProcessor;
+  private final int maxTransactionIds;
+
+  /**
+   * @param maxTransactionIds the most ids looked at, the size of the unconfirmed pool
+   */
+  AnnounceTransactions(TransactionProcessor transactionProcessor, int maxTransactionIds) {
+    this.transactionProcessor = transactionProcessor;
+    this.maxTransactionIds = maxTransactionIds;
+  }
+
+  @Override
+  public JsonElement processRequest(JsonObject request, Peer peer) {
+    JsonObject response = new JsonObject();
+
+    JsonArray missing = new JsonArray();
+    long now = System.currentTimeMillis();
+    JsonArray transactionIds = JSON.getAsJsonArray(request.get("transactionIds"));
+    // the ones beyond are announced again with the next feeding
+    for (int i = 0; i < transactionIds.size() && i < maxTransactionIds; i++) {
+      long transactionId = Convert.parseUnsignedLong(JSON.getAsString(transactionIds.get(i)));
+      if (peer != null) {
+        Peers.knownTransactions(peer).add(transactionId, now);
+      }
+      if (transactionProcessor.getUnconfirmedTransaction(transactionId) == null) {
+        missing.add(Convert.toUnsignedLong(transactionId));
+      }
+    }
+
+    response.add("missingTransactionIds", missing);
+    return response;
+  }
+
+}
@@ -0,0 +1,248 @@
+package brs.peer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Shapes the P2P traffic with token buckets for all peers together and for each peer, for upload and download.
+ * <p>
+ * Traffic is in two lanes by request type: bulk sync serving and fetching (blocks, headers and unconfirmed
+ * transaction lists) and priority for everything else, above all block announcements. Priority traffic never waits
+ * but uses up the same buckets, so the bulk traffic waits for it: a node busy serving syncing peers still relays new
+ * blocks right away.
+ * <p>
+ * A bulk request we send reserves its bytes and the expected bytes of its answer before it leaves, so bulk requests
+ * sent at the same time wait behind each other instead of all seeing the same debt and going together. The expected
+ * answer size follows the recent bulk answers and the difference is settled when the answer arrives.
+ * <p>
+ * The throughput of each lane is measured either way and read with the net volume events.
+ */
+public final class Bandwidth {
+
+    public enum Lane {
+        PRIORITY, BULK
+    }
+
+    static final Set<String> BULK_REQUEST_TYPES = Set.of("getNextBlocks", "getNextBlockHeaders",
+            "getBlocksFromHeight", "getUnconfirmedTransactions");
+    // writes to a throttled stream are split so the wait is spread over the response
+    private static final int MAX_CHUNK_BYTES = 16 * 1024;
+    // reserved for the answer of the first bulk requests, until the answers tell better
+    private static final long INITIAL_BULK_RESPONSE_BYTES = 64 * 1024;
+
+    private final long peerUploadBytesPerSecond;
+    private final long peerDownloadBytesPerSecond;
+    private final LongSupplier clock;
+    private final TokenBucket upload;
+    private final TokenBucket download;
+    private final TokenBucket unlimited;
+    private final Map<Peer, TokenBucket> peerUploads = new ConcurrentHashMap<>();
+    private final Map<Peer, TokenBucket> peerDownloads = new ConcurrentHashMap<>();
+    private final Map<Lane, RateMeter> uploadRates = new EnumMap<>(Lane.class);
+    private final Map<Lane, RateMeter> downloadRates = new EnumMap<>(Lane.class);
+    private final AtomicLong expectedBulkResponseBytes = new AtomicLong(INITIAL_BULK_RESPONSE_BYTES);
+
+    Bandwidth(long uploadBytesPerSecond, long downloadBytesPerSecond, long peerUploadBytesPerSecond,
+            long peerDownloadBytesPerSecond) {
+        this(uploadBytesPerSecond, downloadBytesPerSecond, peerUploadBytesPerSecond, peerDownloadBytesPerSecond,
+                System::currentTimeMillis);
+    }
+
+    Bandwidth(long uploadBytesPerSecond, long downloadBytesPerSecond, long peerUploadBytesPerSecond,
+            long peerDownloadBytesPerSecond, LongSupplier clock) {
+        this.peerUploadBytesPerSecond = peerUploadBytesPerSecond;
+        this.peerDownloadBytesPerSecond = peerDownloadBytesPerSecond;
+        this.clock = clock;
+        this.upload = new TokenBucket(uploadBytesPerSecond, clock);
+        this.download = new TokenBucket(downloadBytesPerSecond, clock);
+        this.unlimited = new TokenBucket(0, clock);
+        for (Lane lane : Lane.values()) {
+            uploadRates.put(lane, new RateMeter(clock));
+            downloadRates.put(lane, new RateMeter(clock));
+        }
+    }
+
+    static Lane lane(String requestType) {
+        return requestType != null && BULK_REQUEST_TYPES.contains(requestType) ? Lane.BULK : Lane.PRIORITY;
+    }
+
+    /**
+     * @return milliseconds to wait before more bulk traffic to the peer, always 0 for priority traffic
+     */
+    long uploaded(Peer peer, Lane lane, long bytes) {
+        uploadRates.get(lane).record(bytes);
+        long wait = Math.max(upload.take(bytes), peerBucket(peerUploads, peer, peerUploadBytesPerSecond).take(bytes));
+        return lane == Lane.BULK ? wait : 0;
+    }
+
+    /**
+     * @return milliseconds to wait before more bulk traffic from the peer, always 0 for priority traffic
+     */
+    long downloaded(Peer peer, Lane lane, long bytes) {
+        downloadRates.get(lane).record(bytes);
+        long wait = Math.max(download.take(bytes),
+                peerBucket(peerDownloads, peer, peerDownloadBytesPerSecond).take(bytes));
+        return lane == Lane.BULK ? wait : 0;
+    }
+
+    /**
+     * Reserves a bulk request to the peer in the buckets: its bytes for the upload and the expected bytes of its
+     * answer for the download. Settle it with {@link #settle} once it is answered or failed.
+     */
+    Reservation reserveBulkRequest(Peer peer, long requestBytes) {
+        long responseBytes = expectedBulkResponseBytes.get();
+        long wait = Math.max(
+                Math.max(upload.reserve(requestBytes),
+                        peerBucket(peerUploads, peer, peerUploadBytesPerSecond).reserve(requestBytes)),
+                Math.max(download.reserve(responseBytes),
+                        peerBucket(peerDownloads, peer, peerDownloadBytesPerSecond).reserve(responseBytes)));
+        return new Reservation(peer, wait, requestBytes, responseBytes);
+    }
+
+    /**
+     * Counts what the reserved request really sent and received and gives back or takes the difference.
+     *
+     * @param sent whether the request left, its bytes are given back if not
+     * @param responseBytes the bytes of the answer, 0 if there is none
+     */
+    void settle(Reservation reservation, boolean sent, long responseBytes) {
+        Peer peer = reservation.peer;
+        if (sent) {
+            uploadRates.get(Lane.BULK).record(reservation.requestBytes);
+        } else {
+            upload.take(-reservation.requestBytes);
+            peerBucket(peerUploads, peer, peerUploadBytesPerSecond).take(-reservation.requestBytes);
+        }
+        downloadRates.get(Lane.BULK).record(responseBytes);
+        long difference = responseBytes - reservation.responseBytes;
+        download.take(difference);
+        peerBucket(peerDownloads, peer, peerDownloadBytesPerSecond).take(difference);
+        if (responseBytes > 0) {
+            expectedBulkResponseBytes.accumulateAndGet(responseBytes, (expected, actual) -> (expected + actual) / 2);
+        }
+    }
+
+    /**
+     * @return the stream counting what is written as uploaded to the peer, waiting for bulk traffic
+     */
+    OutputStream throttle(OutputStream out, Peer peer, Lane lane) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                while (len > 0) {
+                    int chunk = Math.min(len, MAX_CHUNK_BYTES);
+                    long wait = uploaded(peer, lane, chunk);
+                    if (wait > 0) {
+                        try {
+                            Thread.sleep(wait);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new InterruptedIOException("interrupted while throttled");
+                        }
+                    }
+                    out.write(b, off, chunk);
+                    off += chunk;
+                    len -= chunk;
+                }
+            }
+        };
+    }
+
+    void remove(Peer peer) {
+        peerUploads.remove(peer);
+        peerDownloads.remove(peer);
+    }
+
+    public long getUploadBytesPerSecond(Lane lane) {
+        return uploadRates.get(lane).getBytesPerSecond();
+    }
+
+    public long getDownloadBytesPerSecond(Lane lane) {
+        return downloadRates.get(lane).getBytesPerSecond();
+    }
+
+    private TokenBucket peerBucket(Map<Peer, TokenBucket> buckets, Peer peer, long bytesPerSecond) {
+        if (bytesPerSecond <= 0) {
+            return unlimited;
+        }
+        return buckets.computeIfAbsent(peer, key -> new TokenBucket(bytesPerSecond, clock));
+    }
+
+    /**
+     * The bytes a bulk request took from the buckets before it was sent.
+     */
+    static final class Reservation {
+        private final Peer peer;
+        private final long waitMillis;
+        private final long requestBytes;
+        private final long responseBytes;
+
+        private Reservation(Peer peer, long waitMillis, long requestBytes, long responseBytes) {
+            this.peer = peer;
+            this.waitMillis = waitMillis;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+        }
+
+        /**
+         * @return milliseconds to wait before sending, until the bandwidth reserved before is paid off
+         */
+        long getWaitMillis() {
+            return waitMillis;
+        }
+    }
+
+    /**
+     * Bytes per second over one second windows, averaged with the previous windows so it does not jump around.
+     */
+    static final class RateMeter {
+        private static final long WINDOW_MS = 1000;
+
+        private final LongSupplier clock;
+        private long windowStart;
+        private long windowBytes;
+        private double bytesPerSecond;
+
+        RateMeter(LongSupplier clock) {
+            this.clock = clock;
+            this.windowStart = clock.getAsLong();
+        }
+
+        synchronized void record(long bytes) {
+            roll();
+            windowBytes += bytes;
+        }
+
+        synchronized long getBytesPerSecond() {
+            roll();
+            return Math.round(bytesPerSecond);
+        }
+
+        private void roll() {
+            long now = clock.getAsLong();
+            while (now - windowStart >= WINDOW_MS) {
+                bytesPerSecond = (bytesPerSecond + windowBytes * 1000.0 / WINDOW_MS) / 2;
+                windowBytes = 0;
+                windowStart += WINDOW_MS;
+                if (bytesPerSecond < 1 && now - windowStart >= WINDOW_MS) {
+                    // idle, nothing left to average
+                    bytesPerSecond = 0;
+                    windowStart = now - (now - windowStart) % WINDOW_MS;
+                }
+            }
+        }
+    }
+}
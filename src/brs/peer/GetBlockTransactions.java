@@ -0,0 +1,66 @@
+package brs.peer;
+
+import brs.Blockchain;
+import brs.Transaction;
+import brs.util.Convert;
+import brs.util.JSON;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the transactions a peer missed to rebuild a block announced by <code>processCompactBlock</code>, in the
+ * order asked for. Nothing is returned if any of them is unknown.
+ */
+final class GetBlockTransactions implements PeerServlet.PeerRequestHandler {
+
+  // the most transactions a block can hold
+  static final int MAX_TRANSACTIONS = 255 * 4 * 2;
+
+  private final Blockchain blockchain;
+
+  GetBlockTransactions(Blockchain blockchain) {
+    this.blockchain = blockchain;
+  }
+
+  @Override
+  public JsonElement processRequest(JsonObject request, Peer peer) {
+
+    JsonObject response = new JsonObject();
+
+    JsonArray transactionIds = JSON.getAsJsonArray(request.get("transactionIds"));
+    if (transactionIds.size() > MAX_TRANSACTIONS) {
+      response.addProperty("error", "Invalid transactionIds");
+      return response;
+    }
+
+    List<Long> ids = new ArrayList<>(transactionIds.size());
+    for (JsonElement transactionId : transactionIds) {
+      ids.add(Convert.parseUnsignedLong(JSON.getAsString(transactionId)));
+    }
+    Map<Long, Transaction> found = new HashMap<>();
+    for (Transaction transaction : blockchain.getTransactions(ids)) {
+      found.put(transaction.getId(), transaction);
+    }
+
+    JsonArray transactions = new JsonArray();
+    for (Long id : ids) {
+      Transaction transaction = found.get(id);
+      if (transaction == null) {
+        response.addProperty("error", "Unknown transaction " + Convert.toUnsignedLong(id));
+        return response;
+      }
+      transactions.add(transaction.getJsonObject());
+    }
+
+    response.add("transactions", transactions);
+
+    return response;
+  }
+
+}
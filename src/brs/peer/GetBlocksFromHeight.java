@@ -8,6 +8,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import java.util.Collection;
+import java.util.List;
 
 final class GetBlocksFromHeight implements PeerServlet.PeerRequestHandler {
 
@@ -38,8 +39,9 @@ final class GetBlocksFromHeight implements PeerServlet.PeerRequestHandler {
     }
     	    
     long blockId =  blockchain.getBlockIdAtHeight(blockHeight);
-    Collection<? extends Block> blocks = blockchain.getBlocksAfter(blockId, numBlocks);
     JsonArray nextBlocksArray = new JsonArray();
+    // none after a pruned height, the blocks right after it are not stored
+    Collection<? extends Block> blocks = blockId == 0 ? List.of() : blockchain.getBlocksAfter(blockId, numBlocks);
     for (Block nextBlock : blocks) {
       nextBlocksArray.add(nextBlock.getJsonObject());
     }
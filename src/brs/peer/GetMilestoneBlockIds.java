@@ -47,6 +47,8 @@ final class GetMilestoneBlockIds implements PeerServlet.PeerRequestHandler {
       int jump;
       int limit = 10;
       int blockchainHeight = blockchain.getHeight();
+      // started from a state snapshot, the milestones stop at the first stored block after it
+      int prunedHeight = blockchain.getPrunedHeight();
       String lastMilestoneBlockIdString = JSON.getAsString(request.get("lastMilestoneBlockId"));
       if (lastMilestoneBlockIdString != null) {
         Block lastMilestoneBlock = blockchain.getBlock(Convert.parseUnsignedLong(lastMilestoneBlockIdString));
@@ -54,8 +56,12 @@ final class GetMilestoneBlockIds implements PeerServlet.PeerRequestHandler {
           throw new IllegalStateException("Don't have block " + lastMilestoneBlockIdString);
         }
         height = lastMilestoneBlock.getHeight();
+        if (prunedHeight > 0 && height <= prunedHeight + 1) {
+          response.addProperty("error", "No blocks below height " + (prunedHeight + 1));
+          return response;
+        }
         jump = Math.min(1440, Math.max(blockchainHeight - height, 1));
-        height = Math.max(height - jump, 0);
+        height = Math.max(height - jump, prunedHeight > 0 ? prunedHeight + 1 : 0);
       } else if (lastBlockIdString != null) {
         height = blockchainHeight;
         jump = 10;
@@ -66,7 +72,7 @@ final class GetMilestoneBlockIds implements PeerServlet.PeerRequestHandler {
       }
       blockId = blockchain.getBlockIdAtHeight(height);
 
-      while (height > 0 && limit-- > 0) {
+      while (height > prunedHeight && limit-- > 0) {
         milestoneBlockIds.add(Convert.toUnsignedLong(blockId));
         blockId = blockchain.getBlockIdAtHeight(height);
         height = height - jump;
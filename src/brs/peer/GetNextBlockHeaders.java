@@ -0,0 +1,80 @@
+package brs.peer;
+
+import brs.Block;
+import brs.Blockchain;
+import brs.util.Convert;
+import brs.util.JSON;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Collection;
+
+/**
+ * The blocks after the given one without their transactions, for headers-first download: a header carries the
+ * payload hash and the block signature, so the chain can be checked before the bodies are fetched with
+ * <code>getNextBlocks</code>.
+ */
+final class GetNextBlockHeaders implements PeerServlet.PeerRequestHandler {
+
+  // the same as getNextBlocks at most returns
+  static final int MAX_HEADERS = 1440 / 2;
+
+  private final Blockchain blockchain;
+
+  GetNextBlockHeaders(Blockchain blockchain) {
+    this.blockchain = blockchain;
+  }
+
+  /**
+   * @return the JSON of the block without the transactions, built from its fields, so the transactions of a block
+   * that was never sent as a whole are not loaded
+   */
+  static JsonObject header(Block block) {
+    JsonObject header = new JsonObject();
+    header.addProperty("version", block.getVersion());
+    header.addProperty("timestamp", block.getTimestamp());
+    header.addProperty("previousBlock", Convert.toUnsignedLong(block.getPreviousBlockId()));
+    header.addProperty("totalAmountNQT", block.getTotalAmountNqt());
+    header.addProperty("totalFeeNQT", block.getTotalFeeNqt());
+    header.addProperty("totalFeeCashBackNQT", block.getTotalFeeCashBackNqt());
+    header.addProperty("totalFeeBurntNQT", block.getTotalFeeBurntNqt());
+    header.addProperty("payloadLength", block.getPayloadLength());
+    header.addProperty("payloadHash", Convert.toHexString(block.getPayloadHash()));
+    header.addProperty("generatorPublicKey", Convert.toHexString(block.getGeneratorPublicKey()));
+    header.addProperty("generationSignature", Convert.toHexString(block.getGenerationSignature()));
+    if (block.getVersion() > 1) {
+      header.addProperty("previousBlockHash", Convert.toHexString(block.getPreviousBlockHash()));
+    }
+    header.addProperty("blockSignature", Convert.toHexString(block.getBlockSignature()));
+    header.addProperty("nonce", Convert.toUnsignedLong(block.getNonce()));
+    header.addProperty("baseTarget", Convert.toUnsignedLong(block.getBaseTarget()));
+    header.addProperty("blockATs", Convert.toHexString(block.getBlockAts()));
+    return header;
+  }
+
+  @Override
+  public JsonElement processRequest(JsonObject request, Peer peer) {
+
+    JsonObject response = new JsonObject();
+
+    JsonArray nextBlockHeaders = new JsonArray();
+    long blockId = Convert.parseUnsignedLong(JSON.getAsString(request.get("blockId")));
+    while (nextBlockHeaders.size() < MAX_HEADERS) {
+      Collection<? extends Block> blocks = blockchain.getBlocksAfter(blockId,
+          Math.min(100, MAX_HEADERS - nextBlockHeaders.size()));
+      if (blocks.isEmpty()) {
+        break;
+      }
+      for (Block block : blocks) {
+        nextBlockHeaders.add(header(block));
+        blockId = block.getId();
+      }
+    }
+
+    response.add("nextBlockHeaders", nextBlockHeaders);
+
+    return response;
+  }
+
+}
@@ -43,6 +43,9 @@ final class GetNextBlocks implements PeerServlet.PeerRequestHandler {
     List<Block> nextBlocks = new ArrayList<>();
     int totalLength = 0;
     long blockId = Convert.parseUnsignedLong(JSON.getAsString(request.get("blockId")));
+    // headers-first download asks for segments
+    int limit = JSON.getAsInt(request.get("limit"));
+    int maxBlocks = limit > 0 ? Math.min(limit, this.maxBlocks) : this.maxBlocks;
     
     while(totalLength < MAX_LENGHT && nextBlocks.size() < maxBlocks) {
       Collection<? extends Block> blocks = blockchain.getBlocksAfter(blockId, Math.min(100, maxBlocks));
@@ -54,7 +57,7 @@ final class GetNextBlocks implements PeerServlet.PeerRequestHandler {
         int length = Constants.BLOCK_HEADER_LENGTH + block.getPayloadLength();
         totalLength += length;
         nextBlocks.add(block);
-        if (totalLength >= MAX_LENGHT || nextBlocks.size() >= MAX_BLOCKS) {
+        if (totalLength >= MAX_LENGHT || nextBlocks.size() >= maxBlocks) {
           break;
         }
         blockId = block.getId();
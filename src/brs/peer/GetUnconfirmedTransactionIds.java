@@ -0,0 +1,118 @@
+package brs.peer;
+
+import brs.Transaction;
+import brs.TransactionProcessor;
+import brs.web.server.BoundedExecutor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Inventory variant of <code>getUnconfirmedTransactions</code>: only the ids of the unconfirmed transactions the
+ * peer is not known to have. The peer then fetches the ones it lacks with <code>getUnconfirmedTransactions</code>
+ * and <code>transactionIds</code>.
+ * <p>
+ * Served from a snapshot of the unconfirmed transactions refreshed in the background, so the answer does not wait
+ * for the store while a block or transaction import holds it. As for <code>getUnconfirmedTransactions</code>, the
+ * transactions the peer sent or was sent are left out and the answer holds no more than one fetch can return.
+ */
+final class GetUnconfirmedTransactionIds extends PeerServlet.ExtendedPeerRequestHandler {
+
+  static final long SNAPSHOT_MAX_AGE_MS = 1000;
+
+  private final TransactionProcessor transactionProcessor;
+  private final int maxTransactionIds;
+  private final long maxRawBytes;
+  private final BoundedExecutor refreshExecutor;
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile Map<Transaction, Set<Peer>> snapshot;
+  private volatile long snapshotAt;
+
+  /**
+   * @param maxTransactionIds the most ids in one answer, as many as <code>getUnconfirmedTransactions</code> looks at
+   * @param maxRawBytes the most bytes the transactions of one answer may have, as for the ones sent unasked
+   * @param refreshExecutor where the snapshot is refreshed, not to take a shared pool's threads while waiting for the
+   * store
+   */
+  GetUnconfirmedTransactionIds(TransactionProcessor transactionProcessor, int maxTransactionIds, long maxRawBytes,
+                               BoundedExecutor refreshExecutor) {
+    this.transactionProcessor = transactionProcessor;
+    this.maxTransactionIds = maxTransactionIds;
+    this.maxRawBytes = maxRawBytes;
+    this.refreshExecutor = refreshExecutor;
+  }
+
+  @Override
+  PeerServlet.ExtendedProcessRequest extendedProcessRequest(JsonObject request, Peer peer) {
+    JsonObject response = new JsonObject();
+
+    List<Transaction> unconfirmedTransactions = peer == null ? Collections.emptyList() : getAllFor(peer);
+
+    JsonArray transactionIds = new JsonArray();
+    for (Transaction transaction : unconfirmedTransactions) {
+      transactionIds.add(transaction.getStringId());
+    }
+
+    response.add("unconfirmedTransactionIds", transactionIds);
+
+    return new PeerServlet.ExtendedProcessRequest(response, () -> {
+      if (peer != null) {
+        Peers.markKnown(peer, unconfirmedTransactions);
+      }
+    });
+  }
+
+  private List<Transaction> getAllFor(Peer peer) {
+    List<Transaction> untouchedTransactions = new ArrayList<>();
+    for (Map.Entry<Transaction, Set<Peer>> entry : getSnapshot().entrySet()) {
+      if (!entry.getValue().contains(peer)) {
+        untouchedTransactions.add(entry.getKey());
+      }
+    }
+
+    List<Transaction> result = new ArrayList<>();
+    long roomLeft = maxRawBytes;
+    for (Transaction transaction : Peers.unknownTo(peer, untouchedTransactions)) {
+      roomLeft -= transaction.getSize();
+      if (roomLeft <= 0 || result.size() >= maxTransactionIds) {
+        break;
+      }
+      result.add(transaction);
+    }
+    return result;
+  }
+
+  private Map<Transaction, Set<Peer>> getSnapshot() {
+    Map<Transaction, Set<Peer>> current = snapshot;
+    if (current == null) {
+      refresh();
+      return snapshot;
+    }
+    if (System.currentTimeMillis() - snapshotAt > SNAPSHOT_MAX_AGE_MS && refreshing.compareAndSet(false, true)) {
+      boolean queued = refreshExecutor.execute(() -> {
+        try {
+          refresh();
+        } finally {
+          refreshing.set(false);
+        }
+      });
+      if (!queued) {
+        refreshing.set(false);
+      }
+    }
+    return current;
+  }
+
+  private void refresh() {
+    Map<Transaction, Set<Peer>> transactions = transactionProcessor.getAllUnconfirmedTransactionsWithFingerPrints();
+    snapshotAt = System.currentTimeMillis();
+    snapshot = transactions;
+  }
+
+}
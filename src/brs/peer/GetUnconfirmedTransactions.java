@@ -3,9 +3,12 @@ package brs.peer;
 import brs.Transaction;
 import brs.TransactionProcessor;
 import brs.peer.PeerServlet.ExtendedProcessRequest;
+import brs.util.Convert;
+import brs.util.JSON;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static brs.web.api.http.common.ResultFields.UNCONFIRMED_TRANSACTIONS_RESPONSE;
@@ -13,16 +16,44 @@ import static brs.web.api.http.common.ResultFields.UNCONFIRMED_TRANSACTIONS_RESP
 final class GetUnconfirmedTransactions extends PeerServlet.ExtendedPeerRequestHandler {
 
   private final TransactionProcessor transactionProcessor;
+  private final int maxTransactionIds;
+  private final long maxRawBytes;
 
-  GetUnconfirmedTransactions(TransactionProcessor transactionProcessor) {
+  /**
+   * @param maxTransactionIds the most ids looked at, the size of the unconfirmed pool
+   * @param maxRawBytes the most transaction bytes sent in one answer, as for the ones sent unasked
+   */
+  GetUnconfirmedTransactions(TransactionProcessor transactionProcessor, int maxTransactionIds, long maxRawBytes) {
     this.transactionProcessor = transactionProcessor;
+    this.maxTransactionIds = maxTransactionIds;
+    this.maxRawBytes = maxRawBytes;
   }
 
   @Override
   ExtendedProcessRequest extendedProcessRequest(JsonObject request, Peer peer) {
     JsonObject response = new JsonObject();
 
-    final List<Transaction> unconfirmedTransactions = transactionProcessor.getAllUnconfirmedTransactionsFor(peer);
+    final List<Transaction> unconfirmedTransactions;
+    if (request.has("transactionIds")) {
+      // only the ones the peer lacks after getUnconfirmedTransactionIds
+      // the peer asks for the rest next time
+      unconfirmedTransactions = new ArrayList<>();
+      JsonArray transactionIds = JSON.getAsJsonArray(request.get("transactionIds"));
+      long roomLeft = maxRawBytes;
+      for (int i = 0; i < transactionIds.size() && i < maxTransactionIds; i++) {
+        Transaction transaction = transactionProcessor.getUnconfirmedTransaction(
+            Convert.parseUnsignedLong(JSON.getAsString(transactionIds.get(i))));
+        if (transaction != null) {
+          roomLeft -= transaction.getSize();
+          if (roomLeft <= 0) {
+            break;
+          }
+          unconfirmedTransactions.add(transaction);
+        }
+      }
+    } else {
+      unconfirmedTransactions = transactionProcessor.getAllUnconfirmedTransactionsFor(peer);
+    }
 
     JsonArray transactionsData = new JsonArray();
     for (Transaction transaction : unconfirmedTransactions) {
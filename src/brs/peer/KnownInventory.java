@@ -0,0 +1,49 @@
+package brs.peer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The transaction ids a peer is known to have, because it announced them or we announced or sent them to it. Holds
+ * at most a given number of ids and forgets each after a while, so a peer that dropped a transaction gets offered it
+ * again.
+ */
+final class KnownInventory {
+
+  private final int maxSize;
+  private final long expiryMillis;
+  // insertion order is also expiry order, a re-added id moves to the end
+  private final LinkedHashMap<Long, Long> addedAt = new LinkedHashMap<>();
+
+  KnownInventory(int maxSize, long expiryMillis) {
+    this.maxSize = Math.max(1, maxSize);
+    this.expiryMillis = expiryMillis;
+  }
+
+  synchronized void add(long transactionId, long now) {
+    addedAt.remove(transactionId);
+    addedAt.put(transactionId, now);
+    evict(now);
+  }
+
+  synchronized boolean contains(long transactionId, long now) {
+    Long time = addedAt.get(transactionId);
+    return time != null && time + expiryMillis > now;
+  }
+
+  synchronized int size() {
+    return addedAt.size();
+  }
+
+  private void evict(long now) {
+    Iterator<Map.Entry<Long, Long>> oldest = addedAt.entrySet().iterator();
+    while (oldest.hasNext()) {
+      Map.Entry<Long, Long> entry = oldest.next();
+      if (addedAt.size() <= maxSize && entry.getValue() + expiryMillis > now) {
+        break;
+      }
+      oldest.remove();
+    }
+  }
+}
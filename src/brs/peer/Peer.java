@@ -4,6 +4,8 @@ import brs.Version;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import java.util.concurrent.CompletableFuture;
+
 //TODO: Create JavaDocs and remove this
 @SuppressWarnings({ "checkstyle:MissingJavadocTypeCheck", "checkstyle:MissingJavadocMethodCheck" })
 public interface Peer extends Comparable<Peer> {
@@ -68,10 +70,18 @@ public interface Peer extends Comparable<Peer> {
 
     long getUploadedVolume();
 
+    PeerScore getScore();
+
     int getLastUpdated();
 
     JsonObject send(JsonElement request);
 
+    /**
+     * Sends the request on a pooled connection, the future completes with the response or an error object, never
+     * exceptionally.
+     */
+    CompletableFuture<JsonObject> sendAsync(JsonElement request);
+
     static boolean isHigherOrEqualVersion(Version ourVersion, Version possiblyLowerVersion) {
         if (ourVersion == null || possiblyLowerVersion == null) {
             return false;
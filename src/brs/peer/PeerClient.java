@@ -0,0 +1,163 @@
+package brs.peer;
+
+import brs.Signum;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Outgoing peer requests over one shared {@link HttpClient}, which keeps the connections to the peers open between
+ * requests instead of a new TCP connection per request.
+ * <p>
+ * The peer server only speaks HTTP/1.1 in the clear, so each connection carries one request at a time. How many
+ * connections a single peer gets is capped by its {@link Limiter}, a few further requests wait for a free one.
+ * <p>
+ * How long idle connections stay in the pool is the JVM wide <code>jdk.httpclient.keepalive.timeout</code>, which
+ * the launcher sets below the idle timeout of the peer servers.
+ */
+final class PeerClient {
+
+  /**
+   * Requests queued per peer at most, the ones beyond fail right away.
+   */
+  static final int MAX_WAITING_PER_PEER = 64;
+
+  private static final int DEFAULT_REQUEST_TIMEOUT_MS = 60000;
+
+  private final HttpClient client;
+  private final int readTimeout;
+  private final long requestTimeout;
+  private final int maxConnectionsPerPeer;
+
+  PeerClient(int connectTimeout, int readTimeout, int maxConnectionsPerPeer) {
+    HttpClient.Builder builder = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .followRedirects(HttpClient.Redirect.NEVER);
+    if (connectTimeout > 0) {
+      builder.connectTimeout(Duration.ofMillis(connectTimeout));
+    }
+    this.client = builder.build();
+    this.readTimeout = readTimeout;
+    // the request timeout only covers the response headers, this also bounds reading the body
+    long timeout = Math.max(connectTimeout, 0) + Math.max(readTimeout, 0);
+    this.requestTimeout = timeout > 0 ? timeout : DEFAULT_REQUEST_TIMEOUT_MS;
+    this.maxConnectionsPerPeer = maxConnectionsPerPeer;
+  }
+
+  Limiter newLimiter() {
+    // a connection frees up within one request timeout, unless the peer is that slow
+    return new Limiter(maxConnectionsPerPeer, MAX_WAITING_PER_PEER, requestTimeout);
+  }
+
+  /**
+   * @return how long a request waits for a connection and its response at most
+   */
+  long getMaxResponseMillis() {
+    return 2 * requestTimeout;
+  }
+
+  CompletableFuture<HttpResponse<byte[]>> post(URI uri, byte[] body) {
+    HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+      .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+      .header("Content-Type", "application/json; charset=UTF-8")
+      .header("User-Agent", "BRS/" + Signum.VERSION.toString())
+      .header("Accept-Encoding", "gzip");
+    if (readTimeout > 0) {
+      request.timeout(Duration.ofMillis(readTimeout));
+    }
+    return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+      .orTimeout(requestTimeout, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Runs at most a given number of requests at once, the others are started in order as running ones complete.
+   * Requests fail right away if too many are waiting, or once they waited too long for their turn.
+   */
+  static final class Limiter {
+    private final int maxRunning;
+    private final int maxWaiting;
+    private final long maxWaitMillis;
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int running;
+
+    Limiter(int maxRunning, int maxWaiting, long maxWaitMillis) {
+      this.maxRunning = Math.max(1, maxRunning);
+      this.maxWaiting = maxWaiting;
+      this.maxWaitMillis = maxWaitMillis;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+      CompletableFuture<T> result = new CompletableFuture<>();
+      Runnable start = () -> {
+        CompletableFuture<T> started;
+        try {
+          started = request.get();
+        } catch (RuntimeException e) {
+          started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, e) -> {
+          release();
+          if (e != null) {
+            result.completeExceptionally(e);
+          } else {
+            result.complete(value);
+          }
+        });
+      };
+      synchronized (this) {
+        if (running >= maxRunning) {
+          if (waiting.size() >= maxWaiting) {
+            return CompletableFuture.failedFuture(
+              new RejectedExecutionException("Too many requests waiting for the peer"));
+          }
+          waiting.add(start);
+          CompletableFuture.delayedExecutor(maxWaitMillis, TimeUnit.MILLISECONDS).execute(() -> expire(start, result));
+          return result;
+        }
+        running++;
+      }
+      start.run();
+      return result;
+    }
+
+    private void expire(Runnable start, CompletableFuture<?> result) {
+      boolean expired;
+      synchronized (this) {
+        expired = waiting.remove(start);
+      }
+      if (expired) {
+        result.completeExceptionally(new TimeoutException("No connection to the peer became free in time"));
+      }
+    }
+
+    private void release() {
+      Runnable next;
+      synchronized (this) {
+        next = waiting.poll();
+        if (next == null) {
+          running--;
+          return;
+        }
+      }
+      next.run();
+    }
+
+    synchronized int getRunning() {
+      return running;
+    }
+
+    synchronized int getWaiting() {
+      return waiting.size();
+    }
+  }
+}
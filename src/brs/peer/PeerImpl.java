@@ -9,13 +9,11 @@ import brs.crypto.Crypto;
 import brs.fluxcapacitor.FluxValues;
 import brs.props.Props;
 import brs.util.Convert;
-import brs.util.CountingInputStream;
-import brs.util.CountingOutputStream;
 import brs.util.JSON;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,11 +26,18 @@ import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.net.URI;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -63,6 +68,8 @@ final class PeerImpl implements Peer {
     private final AtomicInteger lastUpdated = new AtomicInteger();
     private byte[] lastDownloadedTransactionsDigest;
     private final Object lastDownloadedTransactionsLock = new Object();
+    private final PeerClient.Limiter sendLimiter = Peers.client.newLimiter();
+    private final PeerScore score = new PeerScore();
 
     PeerImpl(String peerAddress, String announcedAddress) {
         this.peerAddress = peerAddress;
@@ -131,6 +138,11 @@ final class PeerImpl implements Peer {
         Peers.notifyListeners(this, Peers.Event.DOWNLOADED_VOLUME);
     }
 
+    @Override
+    public PeerScore getScore() {
+        return score;
+    }
+
     @Override
     public long getUploadedVolume() {
         return uploadedVolume.get();
@@ -284,6 +296,7 @@ final class PeerImpl implements Peer {
 
     @Override
     public void blacklist(String description) {
+        score.recordError();
         if (!isBlacklisted()) {
             if (logger.isInfoEnabled()) {
                 logger.info(
@@ -341,15 +354,13 @@ final class PeerImpl implements Peer {
 
     @Override
     public JsonObject send(final JsonElement request) {
+        return Peers.await(sendAsync(request), error("Peer did not respond in time"));
+    }
 
-        JsonObject response;
-
+    @Override
+    public CompletableFuture<JsonObject> sendAsync(final JsonElement request) {
         String log = null;
-        boolean showLog = false;
-        HttpURLConnection connection = null;
-
         try {
-
             String address = announcedAddress.get() != null ? announcedAddress.get() : peerAddress;
             StringBuilder buf = new StringBuilder(Constants.HTTP);
             buf.append(address);
@@ -358,51 +369,84 @@ final class PeerImpl implements Peer {
                 buf.append(Signum.getPropertyService().getInt(Props.P2P_PORT));
             }
             buf.append("/burst");
-            URL url = new URL(buf.toString());
+            URI uri = URI.create(buf.toString());
 
             if (Peers.communicationLoggingMask != 0) {
                 StringWriter stringWriter = new StringWriter();
                 JSON.writeTo(request, stringWriter);
-                log = "\"" + url.toString() + "\": " + stringWriter.toString();
+                log = "\"" + uri + "\": " + stringWriter;
             }
 
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("POST");
-            connection.setDoOutput(true);
-            connection.setConnectTimeout(Peers.connectTimeout);
-            connection.setReadTimeout(Peers.readTimeout);
-            connection.addRequestProperty("User-Agent", "BRS/" + Signum.VERSION.toString());
-            connection.setRequestProperty("Accept-Encoding", "gzip");
-            connection.setRequestProperty("Connection", "close");
-
-            CountingOutputStream cos = new CountingOutputStream(connection.getOutputStream());
-            try (Writer writer = new BufferedWriter(
-                    new OutputStreamWriter(cos, StandardCharsets.UTF_8))) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(body, StandardCharsets.UTF_8)) {
                 JSON.writeTo(request, writer);
-            } // rico666: no catch?
-            updateUploadedVolume(cos.getCount());
-
-            if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
-                CountingInputStream cis = new CountingInputStream(connection.getInputStream());
-                InputStream responseStream = cis;
-                if ("gzip".equals(connection.getHeaderField("Content-Encoding"))) {
-                    responseStream = new GZIPInputStream(cis);
+            }
+            byte[] bytes = body.toByteArray();
+
+            final String requestLog = log;
+            Bandwidth.Lane lane = request.isJsonObject()
+                    ? Bandwidth.lane(JSON.getAsString(request.getAsJsonObject().get("requestType")))
+                    : Bandwidth.Lane.PRIORITY;
+            // bulk requests reserve their bandwidth and wait until the one reserved before is paid off, the others go
+            // right away
+            Bandwidth.Reservation reservation = lane == Bandwidth.Lane.BULK
+                    ? Peers.bandwidth.reserveBulkRequest(this, bytes.length)
+                    : null;
+            long wait = reservation != null ? reservation.getWaitMillis() : 0;
+            CompletableFuture<Void> ready = wait > 0
+                    ? CompletableFuture.runAsync(() -> { },
+                            CompletableFuture.delayedExecutor(wait, TimeUnit.MILLISECONDS))
+                    : CompletableFuture.completedFuture(null);
+            // taken when the request leaves, not while it waits for a connection
+            AtomicLong sentAt = new AtomicLong();
+            return ready.thenCompose(ignored -> sendLimiter.submit(() -> {
+                sentAt.set(System.currentTimeMillis());
+                return Peers.client.post(uri, bytes);
+            })).handle((httpResponse, e) -> {
+                if (e != null) {
+                    if (reservation != null) {
+                        Peers.bandwidth.settle(reservation, sentAt.get() != 0, 0);
+                    }
+                    return failed(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e,
+                            requestLog);
+                }
+                updateUploadedVolume(bytes.length);
+                byte[] responseBody = httpResponse.body();
+                long responseBytes = responseBody != null ? responseBody.length : 0;
+                if (reservation != null) {
+                    Peers.bandwidth.settle(reservation, true, responseBytes);
+                } else {
+                    Peers.bandwidth.uploaded(this, lane, bytes.length);
+                    Peers.bandwidth.downloaded(this, lane, responseBytes);
+                }
+                return received(httpResponse, System.currentTimeMillis() - sentAt.get(), requestLog);
+            });
+        } catch (RuntimeException | IOException e) {
+            return CompletableFuture.completedFuture(failed(e, log));
+        }
+    }
+
+    private JsonObject received(HttpResponse<byte[]> httpResponse, long rttMillis, String log) {
+        try {
+            JsonObject response;
+            boolean showLog = false;
+            if (httpResponse.statusCode() == HttpURLConnection.HTTP_OK) {
+                byte[] body = httpResponse.body();
+                InputStream responseStream = new ByteArrayInputStream(body);
+                boolean gzipped = "gzip".equals(httpResponse.headers().firstValue("Content-Encoding").orElse(null));
+                if (gzipped) {
+                    responseStream = new GZIPInputStream(responseStream);
                 }
                 if ((Peers.communicationLoggingMask & Peers.LOGGING_MASK_200_RESPONSES) != 0) {
-                    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                    byte[] buffer = new byte[1024];
-                    int numberOfBytes;
+                    String responseValue;
                     try (InputStream inputStream = responseStream) {
-                        while ((numberOfBytes = inputStream.read(buffer, 0, buffer.length)) > 0) {
-                            byteArrayOutputStream.write(buffer, 0, numberOfBytes);
-                        }
+                        responseValue = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
                     }
-                    String responseValue = byteArrayOutputStream.toString("UTF-8");
-                    if (!responseValue.isEmpty() && responseStream instanceof GZIPInputStream) {
+                    if (!responseValue.isEmpty() && gzipped) {
                         log += String.format(
                                 "[length: %d, compression ratio: %.2f]",
-                                cis.getCount(),
-                                (double) cis.getCount() / (double) responseValue.length());
+                                body.length,
+                                (double) body.length / (double) responseValue.length());
                     }
                     log += " >>> " + responseValue;
                     showLog = true;
@@ -413,12 +457,14 @@ final class PeerImpl implements Peer {
                         response = JSON.getAsJsonObject(JSON.parse(reader));
                     }
                 }
-                updateDownloadedVolume(cis.getCount());
+                updateDownloadedVolume(body.length);
+                score.recordResponse(rttMillis, body.length);
             } else {
+                score.recordError();
 
                 if ((Peers.communicationLoggingMask & Peers.LOGGING_MASK_NON200_RESPONSES) != 0) {
                     log += " >>> Peer responded with HTTP "
-                            + connection.getResponseCode() + " code!";
+                            + httpResponse.statusCode() + " code!";
                     showLog = true;
                 }
                 if (state.get() == State.CONNECTED) {
@@ -426,40 +472,38 @@ final class PeerImpl implements Peer {
                 } else {
                     setState(State.NON_CONNECTED);
                 }
-                response = error("Peer responded with HTTP " + connection.getResponseCode());
-            }
-
-        } catch (RuntimeException | IOException e) {
-            if (!isConnectionException(e)) {
-                logger.debug("Error sending JSON request", e);
+                response = error("Peer responded with HTTP " + httpResponse.statusCode());
             }
-            if ((Peers.communicationLoggingMask & Peers.LOGGING_MASK_EXCEPTIONS) != 0) {
-                log += " >>> " + e.toString();
-                showLog = true;
+            if (showLog) {
+                logger.info(log);
             }
-            if (state.get() == State.CONNECTED) {
-                setState(State.DISCONNECTED);
-            }
-            response = error("Error getting response from peer: "
-                    + e.getClass().toString() + ": " + e.getMessage());
+            return response;
+        } catch (RuntimeException | IOException e) {
+            return failed(e, log);
         }
+    }
 
-        if (showLog) {
-            logger.info(log);
+    private JsonObject failed(Throwable e, String log) {
+        score.recordError();
+        if (!isConnectionException(e)) {
+            logger.debug("Error sending JSON request", e);
         }
-
-        if (connection != null) {
-            connection.disconnect();
+        if ((Peers.communicationLoggingMask & Peers.LOGGING_MASK_EXCEPTIONS) != 0) {
+            logger.info(log + " >>> " + e.toString());
         }
-
-        return response;
-
+        if (state.get() == State.CONNECTED) {
+            setState(State.DISCONNECTED);
+        }
+        return error("Error getting response from peer: "
+                + e.getClass().toString() + ": " + e.getMessage());
     }
 
     private boolean isConnectionException(Throwable e) {
         if (e instanceof UnknownHostException
                 || e instanceof SocketTimeoutException
-                || e instanceof SocketException) {
+                || e instanceof SocketException
+                || e instanceof HttpTimeoutException
+                || e instanceof ClosedChannelException) {
             return true;
         }
         if (e.getCause() == null) {
@@ -0,0 +1,129 @@
+package brs.peer;
+
+import java.util.function.LongSupplier;
+
+/**
+ * How useful a peer has been lately: its round trip time and download rate, how often requests to it failed, how
+ * often it fed us a bad fork and how often it was the first to bring us a new block. Counts fade with a half-life, so
+ * a peer recovers from a bad spell and a good one has to keep being good.
+ * <p>
+ * {@link #getValue()} folds these into one number, higher is better, used to prefer peers when downloading blocks,
+ * feeding unconfirmed transactions and relaying blocks.
+ */
+public final class PeerScore {
+
+    static final long HALF_LIFE_MS = 10 * 60 * 1000L;
+    // weight of a new sample in the round trip time and download rate averages
+    private static final double SAMPLE_WEIGHT = 0.2;
+    // smaller responses say more about the round trip than about the download rate
+    private static final long MIN_DOWNLOAD_RATE_SAMPLE_BYTES = 16 * 1024;
+    // round trip time assumed for a peer not heard from yet
+    private static final double UNKNOWN_RTT_MS = 1000;
+
+    private final LongSupplier clock;
+    private long decayedAt;
+    private double responses;
+    private double errors;
+    private double forks;
+    private double firstSeenBlocks;
+    private double rttMillis = -1;
+    private double downloadBytesPerSecond = -1;
+
+    PeerScore() {
+        this(System::currentTimeMillis);
+    }
+
+    PeerScore(LongSupplier clock) {
+        this.clock = clock;
+        this.decayedAt = clock.getAsLong();
+    }
+
+    synchronized void recordResponse(long rttMillis, long bytes) {
+        decay();
+        responses++;
+        this.rttMillis = average(this.rttMillis, Math.max(0, rttMillis));
+        if (bytes >= MIN_DOWNLOAD_RATE_SAMPLE_BYTES) {
+            downloadBytesPerSecond = average(downloadBytesPerSecond, bytes * 1000.0 / Math.max(1, rttMillis));
+        }
+    }
+
+    synchronized void recordError() {
+        decay();
+        errors++;
+    }
+
+    public synchronized void recordFork() {
+        decay();
+        forks++;
+    }
+
+    public synchronized void recordFirstSeenBlock() {
+        decay();
+        firstSeenBlocks++;
+    }
+
+    public synchronized double getValue() {
+        decay();
+        double reliability = (responses + 1) / (responses + errors + 1);
+        double latency = UNKNOWN_RTT_MS / (UNKNOWN_RTT_MS + (rttMillis < 0 ? UNKNOWN_RTT_MS : rttMillis));
+        double downloadBonus = downloadBytesPerSecond < 0 ? 1 : 1 + Math.log10(1 + downloadBytesPerSecond / 100_000);
+        double firstSeenBonus = 1 + firstSeenBlocks / (firstSeenBlocks + 4);
+        double forkPenalty = 1 / (1 + forks);
+        return reliability * latency * downloadBonus * firstSeenBonus * forkPenalty;
+    }
+
+    /**
+     * @return the average round trip time in milliseconds, -1 if not known yet
+     */
+    public synchronized long getRttMillis() {
+        return Math.round(rttMillis);
+    }
+
+    /**
+     * @return the average download rate of larger responses in bytes per second, -1 if not known yet
+     */
+    public synchronized long getDownloadBytesPerSecond() {
+        return Math.round(downloadBytesPerSecond);
+    }
+
+    /**
+     * @return the share of recent requests that failed
+     */
+    public synchronized double getErrorRate() {
+        decay();
+        return responses + errors == 0 ? 0 : errors / (responses + errors);
+    }
+
+    /**
+     * @return the bad forks fed to us within about a half-life
+     */
+    public synchronized double getRecentForks() {
+        decay();
+        return forks;
+    }
+
+    /**
+     * @return the blocks this peer brought us first within about a half-life
+     */
+    public synchronized double getRecentFirstSeenBlocks() {
+        decay();
+        return firstSeenBlocks;
+    }
+
+    private void decay() {
+        long now = clock.getAsLong();
+        if (now <= decayedAt) {
+            return;
+        }
+        double factor = Math.pow(0.5, (double) (now - decayedAt) / HALF_LIFE_MS);
+        responses *= factor;
+        errors *= factor;
+        forks *= factor;
+        firstSeenBlocks *= factor;
+        decayedAt = now;
+    }
+
+    private static double average(double average, double sample) {
+        return average < 0 ? sample : average + SAMPLE_WEIGHT * (sample - average);
+    }
+}
@@ -6,14 +6,15 @@ import brs.Blockchain;
 import brs.BlockchainProcessor;
 import brs.TransactionProcessor;
 import brs.props.PropertyService;
+import brs.props.Props;
 import brs.services.AccountService;
 import brs.services.TimeService;
 import brs.util.CountingInputStream;
 import brs.util.CountingOutputStream;
 import brs.util.JSON;
+import brs.web.server.BoundedExecutor;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
@@ -22,6 +23,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
@@ -64,12 +66,36 @@ public final class PeerServlet extends HttpServlet {
     }
 
     private final Map<String, PeerRequestHandler> peerRequestHandlers;
+    // Requests are processed off the Jetty threads, each class on its own bounded executor: block imports can
+    // hold the blockchain lock and transaction imports the unconfirmed transaction store for seconds, which must
+    // not keep us from answering the read requests peers use to tell whether we are alive.
+    private final BoundedExecutor blockExecutor;
+    private final BoundedExecutor transactionExecutor;
+    // bulk answers are written throttled and can take their thread for long, they must not starve the other reads
+    private final BoundedExecutor bulkExecutor;
+    private final BoundedExecutor readExecutor;
+    // refreshes the unconfirmed transaction snapshot getUnconfirmedTransactionIds answers from, one at a time
+    private final BoundedExecutor inventoryExecutor;
+    private final Map<String, BoundedExecutor> requestExecutors;
+    // a request queued longer than this is dropped, the peer has given up waiting for it
+    private final long maxQueuedMs;
 
     public PeerServlet(TimeService timeService, AccountService accountService,
             Blockchain blockchain,
             TransactionProcessor transactionProcessor,
             BlockchainProcessor blockchainProcessor,
             PropertyService propertyService) {
+        int queueSize = propertyService.getInt(Props.JETTY_P2P_QUEUE_SIZE);
+        blockExecutor = new BoundedExecutor("p2p-block",
+                propertyService.getInt(Props.JETTY_P2P_BLOCK_THREADS), queueSize);
+        transactionExecutor = new BoundedExecutor("p2p-transactions",
+                propertyService.getInt(Props.JETTY_P2P_TRANSACTION_THREADS), queueSize);
+        bulkExecutor = new BoundedExecutor("p2p-bulk",
+                propertyService.getInt(Props.JETTY_P2P_BULK_THREADS), queueSize);
+        readExecutor = new BoundedExecutor("p2p-read",
+                propertyService.getInt(Props.JETTY_P2P_READ_THREADS), queueSize);
+        inventoryExecutor = new BoundedExecutor("p2p-inventory", 1, 1);
+
         final Map<String, PeerRequestHandler> map = new HashMap<>();
         map.put("addPeers", AddPeers.instance);
         map.put("getCumulativeDifficulty", new GetCumulativeDifficulty(blockchain));
@@ -77,19 +103,44 @@ public final class PeerServlet extends HttpServlet {
         map.put("getMilestoneBlockIds", new GetMilestoneBlockIds(blockchain));
         map.put("getNextBlockIds", new GetNextBlockIds(blockchain));
         map.put("getBlocksFromHeight", new GetBlocksFromHeight(blockchain));
+        map.put("getBlockTransactions", new GetBlockTransactions(blockchain));
         map.put("getNextBlocks", new GetNextBlocks(blockchain, propertyService));
+        map.put("getNextBlockHeaders", new GetNextBlockHeaders(blockchain));
         map.put("getPeers", GetPeers.instance);
-        map.put("getUnconfirmedTransactions", new GetUnconfirmedTransactions(transactionProcessor));
+        int maxUnconfirmedTransactions = propertyService.getInt(Props.P2P_MAX_UNCONFIRMED_TRANSACTIONS);
+        int maxUnconfirmedTransactionsRawBytes =
+                propertyService.getInt(Props.P2P_MAX_UNCONFIRMED_TRANSACTIONS_RAW_SIZE_BYTES_TO_SEND);
+        map.put("getUnconfirmedTransactions", new GetUnconfirmedTransactions(transactionProcessor,
+                maxUnconfirmedTransactions, maxUnconfirmedTransactionsRawBytes));
+        map.put("getUnconfirmedTransactionIds", new GetUnconfirmedTransactionIds(transactionProcessor,
+                maxUnconfirmedTransactions, maxUnconfirmedTransactionsRawBytes, inventoryExecutor));
+        map.put("announceTransactions", new AnnounceTransactions(transactionProcessor, maxUnconfirmedTransactions));
         map.put("processBlock", new ProcessBlock(blockchain, blockchainProcessor));
+        map.put("processCompactBlock", new ProcessCompactBlock(blockchain, blockchainProcessor, transactionProcessor,
+                blockExecutor));
         map.put("processTransactions", new ProcessTransactions(transactionProcessor));
         peerRequestHandlers = Collections.unmodifiableMap(map);
+
+        final Map<String, BoundedExecutor> executors = new HashMap<>();
+        executors.put("processBlock", blockExecutor);
+        executors.put("processCompactBlock", blockExecutor);
+        executors.put("processTransactions", transactionExecutor);
+        executors.put("announceTransactions", transactionExecutor);
+        for (String requestType : Bandwidth.BULK_REQUEST_TYPES) {
+            executors.put(requestType, bulkExecutor);
+        }
+        requestExecutors = Collections.unmodifiableMap(executors);
+        maxQueuedMs = propertyService.getInt(Props.P2P_TIMEOUT_READ_MS);
     }
 
+    // what older nodes answer to request types they do not know yet
+    static final String UNSUPPORTED_REQUEST_TYPE_ERROR = "Unsupported request type!";
+
     private static final JsonElement UNSUPPORTED_REQUEST_TYPE;
 
     static {
         final JsonObject response = new JsonObject();
-        response.addProperty("error", "Unsupported request type!");
+        response.addProperty("error", UNSUPPORTED_REQUEST_TYPE_ERROR);
         UNSUPPORTED_REQUEST_TYPE = response;
     }
 
@@ -106,48 +157,84 @@ public final class PeerServlet extends HttpServlet {
         super.init(config);
     }
 
+    @Override
+    public void destroy() {
+        blockExecutor.shutdown();
+        transactionExecutor.shutdown();
+        bulkExecutor.shutdown();
+        readExecutor.shutdown();
+        inventoryExecutor.shutdown();
+        super.destroy();
+    }
+
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
         try {
             if (!Peers.isSupportedUserAgent(req.getHeader("User-Agent"))) {
                 return;
             }
-            process(req, resp);
+            Peer peer = Peers.addPeer(req.getRemoteAddr(), null);
+            if (peer == null || peer.isBlacklisted()) {
+                return;
+            }
+
+            JsonObject request;
+            CountingInputStream cis = new CountingInputStream(req.getInputStream());
+            try (Reader reader = new InputStreamReader(cis, StandardCharsets.UTF_8)) {
+                request = JSON.getAsJsonObject(JSON.parse(reader));
+            }
+            peer.updateDownloadedVolume(cis.getCount());
+
+            String requestType = JSON.getAsString(request.get("requestType"));
+            // requests are small or announcements, only counted
+            Peers.bandwidth.downloaded(peer, Bandwidth.lane(requestType), cis.getCount());
+            BoundedExecutor executor = requestType == null ? readExecutor
+                    : requestExecutors.getOrDefault(requestType, readExecutor);
+            long receivedAt = System.currentTimeMillis();
+            AsyncContext asyncContext = req.startAsync();
+            // the executors are bounded, every request they take is answered
+            asyncContext.setTimeout(0);
+            boolean queued = executor.execute(() -> {
+                try {
+                    if (System.currentTimeMillis() - receivedAt > maxQueuedMs) {
+                        resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    } else {
+                        process(peer, request, resp);
+                    }
+                } catch (Exception e) {
+                    resp.setStatus(500);
+                    logger.warn("Error handling peer request", e);
+                } finally {
+                    asyncContext.complete();
+                }
+            });
+            if (!queued) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Too many {} requests queued, rejecting {} from {}", executor.getName(),
+                            requestType, peer.getPeerAddress());
+                }
+                resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                asyncContext.complete();
+            }
         } catch (Exception e) { // We don't want to send exception information to client...
             resp.setStatus(500);
             logger.warn("Error handling peer request", e);
         }
     }
 
-    private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        Peer peer = null;
+    private void process(Peer peer, JsonObject request, HttpServletResponse resp) {
         JsonElement response;
 
         ExtendedProcessRequest extendedProcessRequest = null;
 
         String requestType = "unknown";
         try {
-            peer = Peers.addPeer(req.getRemoteAddr(), null);
-            if (peer == null || peer.isBlacklisted()) {
-                return;
-            }
-
-            JsonObject request;
-            CountingInputStream cis = new CountingInputStream(req.getInputStream());
-            try (Reader reader = new InputStreamReader(cis, StandardCharsets.UTF_8)) {
-                request = JSON.getAsJsonObject(JSON.parse(reader));
-            }
-            if (request == null) {
-                return;
-            }
-
             if (peer.isState(Peer.State.DISCONNECTED)) {
                 peer.setState(Peer.State.CONNECTED);
                 if (peer.getAnnouncedAddress() != null) {
                     Peers.updateAddress(peer);
                 }
             }
-            peer.updateDownloadedVolume(cis.getCount());
 
             if (request.get(PROTOCOL) != null
                     && JSON.getAsString(request.get(PROTOCOL)).equals("B1")) {
@@ -185,18 +272,15 @@ public final class PeerServlet extends HttpServlet {
         try {
             long byteCount;
 
-            CountingOutputStream cos = new CountingOutputStream(resp.getOutputStream());
+            CountingOutputStream cos = new CountingOutputStream(
+                    Peers.bandwidth.throttle(resp.getOutputStream(), peer, Bandwidth.lane(requestType)));
             try (Writer writer = new OutputStreamWriter(cos, StandardCharsets.UTF_8)) {
                 JSON.writeTo(response, writer);
             }
             byteCount = cos.getCount();
-            if (peer != null) {
-                peer.updateUploadedVolume(byteCount);
-            }
+            peer.updateUploadedVolume(byteCount);
         } catch (Exception e) {
-            if (peer != null) {
-                peer.blacklist(e, "can't respond to requestType=" + requestType);
-            }
+            peer.blacklist(e, "can't respond to requestType=" + requestType);
             return;
         }
 
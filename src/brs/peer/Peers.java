@@ -6,10 +6,12 @@ import brs.props.PropertyService;
 import brs.props.Props;
 import brs.services.AccountService;
 import brs.services.TimeService;
+import brs.util.Convert;
 import brs.util.JSON;
 import brs.util.Listener;
 import brs.util.Listeners;
 import brs.util.ThreadPool;
+import brs.web.server.ServerThreadPools;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -40,6 +42,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 import static brs.peer.Peer.isHigherOrEqualVersion;
@@ -86,8 +89,8 @@ public final class Peers {
 
     static Set<String> rebroadcastPeers;
 
-    static int connectTimeout;
-    static int readTimeout;
+    static PeerClient client;
+    static Bandwidth bandwidth = new Bandwidth(0, 0, 0, 0);
     static int blacklistingPeriod;
     static boolean getMorePeers;
 
@@ -98,11 +101,14 @@ public final class Peers {
     private static boolean shareMyAddress;
     private static int maxNumberOfConnectedPublicPeers;
     private static int sendToPeersLimit;
+    private static boolean compactBlocks;
+    private static int knownTransactionsPerPeer;
+    // after that a peer is offered a transaction again, in case it dropped it
+    private static final long KNOWN_TRANSACTIONS_EXPIRY_MS = 10 * 60 * 1000L;
     private static boolean usePeersDb;
     private static boolean savePeers;
     private static int getMorePeersThreshold;
     private static String dumpPeersVersion;
-    private static int lastSavedPeers;
 
     static JsonElement myPeerInfoRequest;
     static JsonElement myPeerInfoResponse;
@@ -114,7 +120,17 @@ public final class Peers {
 
     private static final Collection<Peer> allPeers = Collections.unmodifiableCollection(peers.values());
 
-    private static final ExecutorService sendBlocksToPeersService = Executors.newCachedThreadPool();
+    // host name lookups, at most this many at once however many addresses come in
+    private static final int RESOLVE_THREADS = 16;
+    // the most addresses taken from one getPeers answer
+    static final int MAX_PEERS_PER_RESPONSE = 100;
+    private static final ExecutorService resolvePeersService = Executors.newFixedThreadPool(RESOLVE_THREADS);
+    private static ExecutorService connectingService;
+    private static final ExecutorService peerDbService = Executors.newSingleThreadExecutor();
+    private static final AddressBook addressBook = new AddressBook();
+    // the announced addresses in the database, as of the last write
+    private static volatile Set<String> savedPeers = Collections.emptySet();
+    private static final AtomicBoolean savingPeers = new AtomicBoolean();
     private static final ExecutorService blocksSendingService = Executors.newFixedThreadPool(10);
 
     private static TimeService timeService;
@@ -207,12 +223,20 @@ public final class Peers {
 
         maxNumberOfConnectedPublicPeers = propertyService.getInt(Props.P2P_MAX_CONNECTIONS);
         logger.info("P2P max connections: {}", maxNumberOfConnectedPublicPeers);
-        connectTimeout = propertyService.getInt(Props.P2P_TIMEOUT_CONNECT_MS);
-        readTimeout = propertyService.getInt(Props.P2P_TIMEOUT_READ_MS);
+        connectingService = Executors.newFixedThreadPool(Math.max(1, maxNumberOfConnectedPublicPeers));
+        client = new PeerClient(propertyService.getInt(Props.P2P_TIMEOUT_CONNECT_MS),
+                propertyService.getInt(Props.P2P_TIMEOUT_READ_MS),
+                propertyService.getInt(Props.P2P_MAX_CONNECTIONS_PER_PEER));
 
         blacklistingPeriod = propertyService.getInt(Props.P2P_BLACKLISTING_TIME_MS);
         communicationLoggingMask = propertyService.getInt(Props.BRS_COMMUNICATION_LOGGING_MASK);
         sendToPeersLimit = propertyService.getInt(P2P_SEND_TO_LIMIT);
+        compactBlocks = propertyService.getBoolean(Props.P2P_COMPACT_BLOCKS);
+        bandwidth = new Bandwidth(1024L * propertyService.getInt(Props.P2P_UPLOAD_LIMIT_KBPS),
+                1024L * propertyService.getInt(Props.P2P_DOWNLOAD_LIMIT_KBPS),
+                1024L * propertyService.getInt(Props.P2P_PEER_UPLOAD_LIMIT_KBPS),
+                1024L * propertyService.getInt(Props.P2P_PEER_DOWNLOAD_LIMIT_KBPS));
+        knownTransactionsPerPeer = 2 * propertyService.getInt(Props.P2P_MAX_UNCONFIRMED_TRANSACTIONS);
         usePeersDb = propertyService.getBoolean(Props.P2P_USE_PEERS_DB)
                 && !Signum.getPropertyService().getBoolean(Props.DEV_OFFLINE);
         savePeers = usePeersDb && propertyService.getBoolean(Props.P2P_SAVE_PEERS);
@@ -226,7 +250,7 @@ public final class Peers {
 
             private void loadPeers(Collection<String> addresses) {
                 for (final String address : addresses) {
-                    Future<String> unresolvedAddress = sendBlocksToPeersService.submit(() -> {
+                    Future<String> unresolvedAddress = resolvePeersService.submit(() -> {
                         Peer peer = Peers.addPeer(address);
                         return peer == null ? address : null;
                     });
@@ -239,11 +263,17 @@ public final class Peers {
                 if (!wellKnownPeers.isEmpty()) {
                     loadPeers(wellKnownPeers);
                 }
-                if (usePeersDb) {
+                if (usePeersDb || savePeers) {
                     logger.debug("Loading known peers from the database...");
-                    loadPeers(Signum.getDbs().getPeerDb().loadPeers());
+                    List<String> dbPeers = Signum.getDbs().getPeerDb().loadPeers();
+                    if (savePeers) {
+                        // only the difference to these is written
+                        savedPeers = new HashSet<>(dbPeers);
+                    }
+                    if (usePeersDb) {
+                        loadPeers(dbPeers);
+                    }
                 }
-                lastSavedPeers = peers.size();
             }
         }, false);
 
@@ -334,7 +364,8 @@ public final class Peers {
                     }
                 }
 
-                peerServer = new Server();
+                boolean virtualThreads = propertyService.getBoolean(Props.JETTY_P2P_VIRTUAL_THREADS);
+                peerServer = new Server(ServerThreadPools.create("p2p", virtualThreads));
                 ServerConnector connector = new ServerConnector(peerServer);
                 connector.setPort(port);
                 final String host = propertyService.getString(Props.P2P_LISTEN);
@@ -346,6 +377,7 @@ public final class Peers {
                 ServletHolder peerServletHolder = new ServletHolder(
                         new PeerServlet(timeService, accountService, blockchain,
                                 transactionProcessor, blockchainProcessor, propertyService));
+                peerServletHolder.setAsyncSupported(true);
                 boolean isGzipEnabled = propertyService.getBoolean(Props.JETTY_P2P_GZIP_FILTER);
                 peerServletHolder.setInitParameter("isGzipEnabled", Boolean.toString(isGzipEnabled));
 
@@ -353,7 +385,8 @@ public final class Peers {
                 peerContext.setContextPath("/");
                 peerContext.addServlet(peerServletHolder, "/*");
 
-                if (propertyService.getBoolean(Props.JETTY_P2P_DOS_FILTER)) {
+                // on virtual threads the request executors of the PeerServlet replace the DoSFilter
+                if (propertyService.getBoolean(Props.JETTY_P2P_DOS_FILTER) && !virtualThreads) {
                     FilterHolder dosFilterHolder = peerContext.addFilter(DoSFilter.class, "/*",
                             EnumSet.of(DispatcherType.REQUEST));
                     dosFilterHolder.setInitParameter("maxRequestsPerSec",
@@ -453,106 +486,147 @@ public final class Peers {
             return numberOfConnectedPeers;
         }
 
+        private List<Peer> getConnectCandidates() {
+            checkWellKnownPeers();
+            List<Peer> candidates = new ArrayList<>();
+            for (Peer peer : peers.values()) {
+                if (!peer.isBlacklisted() && peer.getState() != Peer.State.CONNECTED && peer.shareAddress()
+                        && (connectWellKnownFinished || peer.isWellKnown())) {
+                    candidates.add(peer);
+                }
+            }
+            return candidates;
+        }
+
+        /**
+         * Connects to all given peers at once and waits for the attempts to finish.
+         *
+         * @return how many of them are connected now
+         */
+        private int connect(List<Peer> toConnect) throws InterruptedException {
+            List<Future<Boolean>> attempts = new ArrayList<>(toConnect.size());
+            for (Peer peer : toConnect) {
+                attempts.add(connectingService.submit(() -> connect(peer)));
+            }
+            int connected = 0;
+            for (Future<Boolean> attempt : attempts) {
+                try {
+                    if (attempt.get()) {
+                        connected++;
+                    }
+                } catch (ExecutionException e) {
+                    logger.debug("Error connecting to peer", e);
+                }
+            }
+            return connected;
+        }
+
+        private boolean connect(Peer peer) {
+            peer.connect(timeService.getEpochTime());
+            if (peer.getState() == Peer.State.CONNECTED) {
+                addressBook.connected(peer.getPeerAddress());
+            } else {
+                addressBook.failed(peer.getPeerAddress());
+            }
+            /*
+             * remove non connected peer. if peer is blacklisted, keep it to maintain
+             * blacklist time.
+             * Peers should never be removed if total peers are below our target to prevent
+             * total erase of peers
+             * if we loose Internet connection
+             */
+            if (!peer.isHigherOrEqualVersionThan(
+                    Signum.getFluxCapacitor().getValue(FluxValues.MIN_PEER_VERSION))
+                    || (peer.getNetworkName() != null
+                            && !peer.getNetworkName().equals(propertyService.getString(Props.NETWORK_NAME)))
+                    || (peer.getState() != Peer.State.CONNECTED && !peer.isBlacklisted()
+                            && peers.size() > maxNumberOfConnectedPublicPeers)) {
+                removePeer(peer);
+                return false;
+            }
+            return peer.getState() == Peer.State.CONNECTED;
+        }
+
         @Override
         public void run() {
             try {
                 int numConnectedPeers = getNumberOfConnectedPublicPeers();
                 /*
-                 * aggressive connection with while loop.
-                 * if we have connected to our target amount we can exit loop.
-                 * if peers size is equal or below connected value we have nothing to connect to
+                 * aggressive connection: up to the missing number of peers at once, again as long as we are below
+                 * our target and there is someone left whose backoff has passed
                  */
                 while (!Thread.currentThread().isInterrupted() && ThreadPool.running.get()
-                        && numConnectedPeers < maxNumberOfConnectedPublicPeers && peers.size() > numConnectedPeers) {
-                    Peer peer = getAnyPeer(ThreadLocalRandom.current().nextInt(2) == 0 ? Peer.State.NON_CONNECTED
-                            : Peer.State.DISCONNECTED);
-                    if (peer != null) {
-                        peer.connect(timeService.getEpochTime());
-                        /*
-                         * remove non connected peer. if peer is blacklisted, keep it to maintain
-                         * blacklist time.
-                         * Peers should never be removed if total peers are below our target to prevent
-                         * total erase of peers
-                         * if we loose Internet connection
-                         */
-
-                        if (!peer.isHigherOrEqualVersionThan(
-                                Signum.getFluxCapacitor().getValue(FluxValues.MIN_PEER_VERSION))
-                                || (peer.getNetworkName() != null
-                                        && !peer.getNetworkName().equals(propertyService.getString(Props.NETWORK_NAME)))
-                                || (peer.getState() != Peer.State.CONNECTED && !peer.isBlacklisted()
-                                        && peers.size() > maxNumberOfConnectedPublicPeers)) {
-                            removePeer(peer);
-                        } else {
-                            numConnectedPeers++;
-                        }
-                    }
-
-                    try {
-                        Thread.sleep(1000);
-                    } catch (InterruptedException ex) {
-                        Thread.currentThread().interrupt();
-                        return;
+                        && numConnectedPeers < maxNumberOfConnectedPublicPeers) {
+                    List<Peer> toConnect = addressBook.selectToConnect(getConnectCandidates(),
+                            maxNumberOfConnectedPublicPeers - numConnectedPeers);
+                    if (toConnect.isEmpty()) {
+                        break;
                     }
+                    numConnectedPeers += connect(toConnect);
                 }
 
                 int now = timeService.getEpochTime();
+                List<Peer> toReconnect = new ArrayList<>();
                 for (Peer peer : peers.values()) {
                     if (peer.getState() == Peer.State.CONNECTED && now - peer.getLastUpdated() > 3600) {
-                        peer.connect(timeService.getEpochTime());
-                        if (!peer.isHigherOrEqualVersionThan(
-                                Signum.getFluxCapacitor().getValue(FluxValues.MIN_PEER_VERSION)) ||
-                                (peer.getNetworkName() != null && !peer.getNetworkName()
-                                        .equals(Signum.getPropertyService().getString(Props.NETWORK_NAME)))
-                                ||
-                                (peer.getState() != Peer.State.CONNECTED && !peer.isBlacklisted()
-                                        && peers.size() > maxNumberOfConnectedPublicPeers)) {
-                            removePeer(peer);
-                        }
+                        toReconnect.add(peer);
                     }
                 }
+                connect(toReconnect);
 
-                if (lastSavedPeers != peers.size()) {
-                    lastSavedPeers = peers.size();
+                if (savePeers) {
                     updateSavedPeers();
                 }
 
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
                 logger.debug("Error connecting to peer", e);
             }
         }
 
-        private void updateSavedPeers() {
-            Set<String> oldPeers = new HashSet<>(Signum.getDbs().getPeerDb().loadPeers());
-            Set<String> currentPeers = new HashSet<>();
-            for (Peer peer : Peers.peers.values()) {
-                if (peer.getAnnouncedAddress() != null
-                        && !peer.isBlacklisted()
-                        && !peer.isWellKnown()
-                        && (peer.getNetworkName() == null || peer.getNetworkName()
-                                .equals(Signum.getPropertyService().getString(Props.NETWORK_NAME)))
-                        && peer.isHigherOrEqualVersionThan(
-                                Signum.getFluxCapacitor().getValue(FluxValues.MIN_PEER_VERSION))) {
-                    currentPeers.add(peer.getAnnouncedAddress());
-                }
+    };
+
+    /**
+     * Writes the changes of the peers worth keeping to the database in one batch, off the calling thread. Changes made
+     * while a write is pending are picked up by the next call.
+     */
+    private static void updateSavedPeers() {
+        Set<String> currentPeers = new HashSet<>();
+        for (Peer peer : Peers.peers.values()) {
+            if (peer.getAnnouncedAddress() != null
+                    && !peer.isBlacklisted()
+                    && !peer.isWellKnown()
+                    && (peer.getNetworkName() == null || peer.getNetworkName()
+                            .equals(Signum.getPropertyService().getString(Props.NETWORK_NAME)))
+                    && peer.isHigherOrEqualVersionThan(
+                            Signum.getFluxCapacitor().getValue(FluxValues.MIN_PEER_VERSION))) {
+                currentPeers.add(peer.getAnnouncedAddress());
             }
-            Set<String> toDelete = new HashSet<>(oldPeers);
-            toDelete.removeAll(currentPeers);
+        }
+        if (currentPeers.equals(savedPeers) || !savingPeers.compareAndSet(false, true)) {
+            return;
+        }
+        Set<String> toDelete = new HashSet<>(savedPeers);
+        toDelete.removeAll(currentPeers);
+        Set<String> toAdd = new HashSet<>(currentPeers);
+        toAdd.removeAll(savedPeers);
+        peerDbService.submit(() -> {
             try {
                 Signum.getStores().beginTransaction();
                 Signum.getDbs().getPeerDb().deletePeers(toDelete);
-                currentPeers.removeAll(oldPeers);
-                Signum.getDbs().getPeerDb().addPeers(currentPeers);
+                Signum.getDbs().getPeerDb().addPeers(toAdd);
                 Signum.getStores().commitTransaction();
+                savedPeers = currentPeers;
             } catch (Exception e) {
                 Signum.getStores().rollbackTransaction();
-                throw e;
+                logger.debug("Error saving peers", e);
             } finally {
                 Signum.getStores().endTransaction();
+                savingPeers.set(false);
             }
-        }
-
-    };
+        });
+    }
 
     private static final Runnable getMorePeersThread = new Runnable() {
 
@@ -594,9 +668,24 @@ public final class Peers {
                 JsonArray peersJson = JSON.getAsJsonArray(response.get("peers"));
                 Set<String> addedAddresses = new HashSet<>();
                 if (peersJson != null) {
+                    // resolving the host names one after the other takes long for a fresh node
+                    Map<String, Future<Peer>> resolving = new HashMap<>();
                     for (JsonElement announcedAddress : peersJson) {
-                        if (addPeer(JSON.getAsString(announcedAddress)) != null) {
-                            addedAddresses.add(JSON.getAsString(announcedAddress));
+                        if (resolving.size() >= MAX_PEERS_PER_RESPONSE) {
+                            break;
+                        }
+                        String address = JSON.getAsString(announcedAddress);
+                        if (address != null && !resolving.containsKey(address)) {
+                            resolving.put(address, resolvePeersService.submit(() -> addPeer(address)));
+                        }
+                    }
+                    for (Map.Entry<String, Future<Peer>> entry : resolving.entrySet()) {
+                        try {
+                            if (entry.getValue().get() != null) {
+                                addedAddresses.add(entry.getKey());
+                            }
+                        } catch (ExecutionException e) {
+                            logger.debug("Failed to add peer {}", entry.getKey(), e);
                         }
                     }
                     if (savePeers && addedNewPeer.get()) {
@@ -629,6 +718,8 @@ public final class Peers {
                     peer.send(prepareRequest(request));
                 }
 
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
                 logger.debug("Error requesting peers from a peer", e);
             }
@@ -666,7 +757,11 @@ public final class Peers {
             }
         }
 
-        threadPool.shutdownExecutor(sendBlocksToPeersService);
+        threadPool.shutdownExecutor(resolvePeersService);
+        if (connectingService != null) {
+            threadPool.shutdownExecutor(connectingService);
+        }
+        threadPool.shutdownExecutor(peerDbService);
     }
 
     public static boolean removeListener(Listener<Peer> listener, Event eventType) {
@@ -677,6 +772,10 @@ public final class Peers {
         Peers.listeners.notify(peer, eventType);
     }
 
+    public static Bandwidth getBandwidth() {
+        return bandwidth;
+    }
+
     public static Collection<Peer> getAllPeers() {
         return allPeers;
     }
@@ -767,6 +866,9 @@ public final class Peers {
     }
 
     static Peer removePeer(Peer peer) {
+        knownTransactions.remove(peer);
+        // the backoff stays, the address may come back with the next getPeers answer
+        bandwidth.remove(peer);
         if (peer.getAnnouncedAddress() != null) {
             announcedAddresses.remove(peer.getAnnouncedAddress());
         }
@@ -784,6 +886,9 @@ public final class Peers {
     }
 
     public static void sendToSomePeers(Block block) {
+        // peers have most of the transactions already, an empty block is as small in full
+        final JsonElement compactRequest = compactBlocks && !block.getTransactions().isEmpty()
+                ? prepareRequest(ProcessCompactBlock.request(block)) : null;
         JsonObject request = block.getJsonObject();
         request.addProperty("requestType", "processBlock");
 
@@ -792,22 +897,24 @@ public final class Peers {
 
             int successful = 0;
             List<Future<JsonObject>> expectedResponses = new ArrayList<>();
-            for (final Peer peer : peers.values()) {
+            for (final Peer peer : byScore(peers.values())) {
 
                 if (peerEligibleForSending(peer, false)) {
-                    Future<JsonObject> futureResponse = sendBlocksToPeersService.submit(() -> peer.send(jsonRequest));
+                    Future<JsonObject> futureResponse = compactRequest == null ? peer.sendAsync(jsonRequest)
+                            : peer.sendAsync(compactRequest).thenCompose(response -> isUnsupportedRequest(response)
+                                    ? peer.sendAsync(jsonRequest) : CompletableFuture.completedFuture(response));
                     expectedResponses.add(futureResponse);
                 }
                 if (expectedResponses.size() >= Peers.sendToPeersLimit - successful) {
                     for (Future<JsonObject> future : expectedResponses) {
                         try {
-                            JsonObject response = future.get();
+                            JsonObject response = future.get(2 * client.getMaxResponseMillis(), TimeUnit.MILLISECONDS);
                             if (response != null && response.get("error") == null) {
                                 successful += 1;
                             }
                         } catch (InterruptedException e) {
                             Thread.currentThread().interrupt();
-                        } catch (ExecutionException e) {
+                        } catch (ExecutionException | TimeoutException e) {
                             logger.debug("Error in sendToSomePeers", e);
                         }
 
@@ -821,6 +928,33 @@ public final class Peers {
         });
     }
 
+    /**
+     * Waits for a future of {@link Peer#sendAsync}, allowing for one request after another as when falling back to
+     * an older request type. A request gives up on its own in that time, this only guards the caller.
+     *
+     * @return the result, or <code>onTimeout</code> if it did not come in time
+     */
+    public static <T> T await(CompletableFuture<T> future, T onTimeout) {
+        try {
+            return future.get(2 * client.getMaxResponseMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return onTimeout;
+        } catch (TimeoutException e) {
+            return onTimeout;
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * @return true if the response is how older peers answer request types they do not know
+     */
+    public static boolean isUnsupportedRequest(JsonObject response) {
+        return response != null
+                && PeerServlet.UNSUPPORTED_REQUEST_TYPE_ERROR.equals(JSON.getAsString(response.get("error")));
+    }
+
     private static final JsonElement getUnconfirmedTransactionsRequest;
     static {
         JsonObject request = new JsonObject();
@@ -828,53 +962,176 @@ public final class Peers {
         getUnconfirmedTransactionsRequest = prepareRequest(request);
     }
 
-    private static final ExecutorService utReceivingService = Executors.newCachedThreadPool();
+    private static final JsonElement getUnconfirmedTransactionIdsRequest;
+    static {
+        JsonObject request = new JsonObject();
+        request.addProperty("requestType", "getUnconfirmedTransactionIds");
+        getUnconfirmedTransactionIdsRequest = prepareRequest(request);
+    }
 
-    public static CompletableFuture<JsonObject> readUnconfirmedTransactionsNonBlocking(Peer peer) {
-        return CompletableFuture.supplyAsync(() -> peer.send(getUnconfirmedTransactionsRequest), utReceivingService);
+    /**
+     * Pulls the unconfirmed transactions of the peer we do not have yet: first only their ids, then the missing
+     * transactions themselves. Peers not knowing the id request send all they have for us.
+     *
+     * @param have whether we already have the transaction of an id
+     */
+    public static CompletableFuture<JsonObject> readUnconfirmedTransactionsNonBlocking(Peer peer, LongPredicate have) {
+        return peer.sendAsync(getUnconfirmedTransactionIdsRequest).thenCompose(response -> {
+            if (isUnsupportedRequest(response)) {
+                return peer.sendAsync(getUnconfirmedTransactionsRequest);
+            }
+            if (response.get("error") != null) {
+                return CompletableFuture.completedFuture(response);
+            }
+            KnownInventory known = knownTransactions(peer);
+            long now = System.currentTimeMillis();
+            JsonArray missing = new JsonArray();
+            for (JsonElement element : JSON.getAsJsonArray(response.get("unconfirmedTransactionIds"))) {
+                long transactionId = Convert.parseUnsignedLong(JSON.getAsString(element));
+                known.add(transactionId, now);
+                if (!have.test(transactionId)) {
+                    missing.add(Convert.toUnsignedLong(transactionId));
+                }
+            }
+            if (missing.isEmpty()) {
+                JsonObject nothingMissing = new JsonObject();
+                nothingMissing.add("unconfirmedTransactions", new JsonArray());
+                return CompletableFuture.completedFuture(nothingMissing);
+            }
+            JsonObject request = new JsonObject();
+            request.addProperty("requestType", "getUnconfirmedTransactions");
+            request.add("transactionIds", missing);
+            return peer.sendAsync(prepareRequest(request));
+        });
     }
 
-    private static final ExecutorService utSendingService = Executors.newCachedThreadPool();
+    private static final Map<Peer, KnownInventory> knownTransactions = new ConcurrentHashMap<>();
+
+    static KnownInventory knownTransactions(Peer peer) {
+        return knownTransactions.computeIfAbsent(peer,
+                key -> new KnownInventory(knownTransactionsPerPeer, KNOWN_TRANSACTIONS_EXPIRY_MS));
+    }
+
+    /**
+     * @return the transactions the peer is not known to have
+     */
+    static List<Transaction> unknownTo(Peer peer, List<Transaction> transactions) {
+        KnownInventory known = knownTransactions(peer);
+        long now = System.currentTimeMillis();
+        List<Transaction> unknown = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            if (!known.contains(transaction.getId(), now)) {
+                unknown.add(transaction);
+            }
+        }
+        return unknown;
+    }
+
+    static void markKnown(Peer peer, List<Transaction> transactions) {
+        KnownInventory known = knownTransactions(peer);
+        long now = System.currentTimeMillis();
+        for (Transaction transaction : transactions) {
+            known.add(transaction.getId(), now);
+        }
+    }
 
     private static final List<Peer> processingQueue = new ArrayList<>();
     private static final List<Peer> beingProcessed = new ArrayList<>();
 
-    public static synchronized void feedingTime(Peer peer, Function<Peer, List<Transaction>> foodDispenser,
+    public static void feedingTime(Peer peer, Function<Peer, List<Transaction>> foodDispenser,
             BiConsumer<Peer, List<Transaction>> doneFeedingLog) {
-        if (!beingProcessed.contains(peer)) {
+        synchronized (beingProcessed) {
+            if (beingProcessed.contains(peer)) {
+                if (!processingQueue.contains(peer)) {
+                    processingQueue.add(peer);
+                }
+                return;
+            }
             beingProcessed.add(peer);
-            CompletableFuture.runAsync(() -> feedPeer(peer, foodDispenser, doneFeedingLog), utSendingService);
-        } else if (!processingQueue.contains(peer)) {
-            processingQueue.add(peer);
         }
+        feedPeer(peer, foodDispenser, doneFeedingLog);
     }
 
+    /**
+     * Announces the transactions the peer has not seen from us by id and sends only the ones it asks for. Peers not
+     * knowing announcements get all of them.
+     */
     private static void feedPeer(Peer peer, Function<Peer, List<Transaction>> foodDispenser,
             BiConsumer<Peer, List<Transaction>> doneFeedingLog) {
-        List<Transaction> transactionsToSend = foodDispenser.apply(peer);
-
-        if (!transactionsToSend.isEmpty()) {
-            logger.trace("Feeding {} {} transactions", peer.getPeerAddress(), transactionsToSend.size());
-            JsonObject response = peer.send(sendUnconfirmedTransactionsRequest(transactionsToSend));
+        List<Transaction> transactionsToOffer = foodDispenser.apply(peer);
+        List<Transaction> transactionsToAnnounce = unknownTo(peer, transactionsToOffer);
 
-            if (response != null && response.get("error") == null) {
-                doneFeedingLog.accept(peer, transactionsToSend);
-            } else {
-                if (logger.isDebugEnabled())
-                    logger.debug("Error feeding {} transactions: {} error: {}", peer.getPeerAddress(),
-                            transactionsToSend.stream().map(Transaction::getId).collect(Collectors.toList()), response);
-            }
-        } else {
+        if (transactionsToAnnounce.isEmpty()) {
             logger.trace("No need to feed {}", peer.getPeerAddress());
+            // it already has the rest
+            doneFeedingLog.accept(peer, transactionsToOffer);
+            doneFeeding(peer, foodDispenser, doneFeedingLog);
+            return;
         }
 
-        beingProcessed.remove(peer);
+        JsonObject announcement = new JsonObject();
+        announcement.addProperty("requestType", "announceTransactions");
+        JsonArray transactionIds = new JsonArray();
+        for (Transaction transaction : transactionsToAnnounce) {
+            transactionIds.add(transaction.getStringId());
+        }
+        announcement.add("transactionIds", transactionIds);
 
-        if (processingQueue.contains(peer)) {
-            processingQueue.remove(peer);
+        logger.trace("Announcing {} {} transactions", peer.getPeerAddress(), transactionsToAnnounce.size());
+        peer.sendAsync(prepareRequest(announcement)).thenCompose(response -> {
+            if (isUnsupportedRequest(response)) {
+                return peer.sendAsync(sendUnconfirmedTransactionsRequest(transactionsToOffer));
+            }
+            if (response.get("error") != null) {
+                return CompletableFuture.completedFuture(response);
+            }
+            Set<Long> missing = new HashSet<>();
+            for (JsonElement element : JSON.getAsJsonArray(response.get("missingTransactionIds"))) {
+                missing.add(Convert.parseUnsignedLong(JSON.getAsString(element)));
+            }
+            List<Transaction> transactionsToSend = new ArrayList<>();
+            List<Transaction> transactionsItHas = new ArrayList<>();
+            for (Transaction transaction : transactionsToAnnounce) {
+                (missing.contains(transaction.getId()) ? transactionsToSend : transactionsItHas).add(transaction);
+            }
+            markKnown(peer, transactionsItHas);
+            if (transactionsToSend.isEmpty()) {
+                return CompletableFuture.completedFuture(new JsonObject());
+            }
+            logger.trace("Feeding {} {} transactions", peer.getPeerAddress(), transactionsToSend.size());
+            return peer.sendAsync(sendUnconfirmedTransactionsRequest(transactionsToSend)).thenApply(sent -> {
+                // a failed send is announced again with the next feeding
+                if (sent.get("error") == null) {
+                    markKnown(peer, transactionsToSend);
+                }
+                return sent;
+            });
+        }).whenComplete((response, e) -> {
+            try {
+                if (response != null && response.get("error") == null) {
+                    doneFeedingLog.accept(peer, transactionsToOffer);
+                } else {
+                    if (logger.isDebugEnabled())
+                        logger.debug("Error feeding {} transactions: {} error: {}", peer.getPeerAddress(),
+                                transactionsToOffer.stream().map(Transaction::getId).collect(Collectors.toList()),
+                                e != null ? e : response);
+                }
+            } finally {
+                doneFeeding(peer, foodDispenser, doneFeedingLog);
+            }
+        });
+    }
+
+    private static void doneFeeding(Peer peer, Function<Peer, List<Transaction>> foodDispenser,
+            BiConsumer<Peer, List<Transaction>> doneFeedingLog) {
+        synchronized (beingProcessed) {
+            beingProcessed.remove(peer);
+            if (!processingQueue.remove(peer)) {
+                return;
+            }
             beingProcessed.add(peer);
-            feedPeer(peer, foodDispenser, doneFeedingLog);
         }
+        feedPeer(peer, foodDispenser, doneFeedingLog);
     }
 
     private static JsonElement sendUnconfirmedTransactionsRequest(List<Transaction> transactions) {
@@ -901,7 +1158,7 @@ public final class Peers {
                 && peer.getAnnouncedAddress() != null;
     }
 
-    public static Peer getAnyPeer(Peer.State state) {
+    private static void checkWellKnownPeers() {
         if (!connectWellKnownFinished) {
             int wellKnownConnected = 0;
             for (Peer peer : peers.values()) {
@@ -922,6 +1179,10 @@ public final class Peers {
                 addPeer(wellKnownPeer);
             }
         }
+    }
+
+    public static Peer getAnyPeer(Peer.State state) {
+        checkWellKnownPeers();
 
         List<Peer> selectedPeers = new ArrayList<>();
         for (Peer peer : peers.values()) {
@@ -931,17 +1192,69 @@ public final class Peers {
             }
         }
 
-        if (!selectedPeers.isEmpty()) {
+        if (selectedPeers.isEmpty()) {
+            return null;
+        }
+        if (state != Peer.State.CONNECTED) {
+            // nothing known about them yet worth preferring
             return selectedPeers.get(r.nextInt(selectedPeers.size()));
         }
-        return null;
+        return pickByScore(selectedPeers);
+    }
+
+    /**
+     * Picks a peer at random, each as likely as its score, so better peers get most of the requests while the others
+     * still get some and their scores stay current.
+     */
+    private static Peer pickByScore(List<Peer> candidates) {
+        double[] cumulative = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += candidates.get(i).getScore().getValue();
+            cumulative[i] = total;
+        }
+        double pick = r.nextDouble() * total;
+        for (int i = 0; i < cumulative.length; i++) {
+            if (pick < cumulative[i]) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(cumulative.length - 1);
+    }
+
+    /**
+     * @return the peers with the best scoring first
+     */
+    static List<Peer> byScore(Collection<Peer> candidates) {
+        // scores move while sorting, so sort on a snapshot of them
+        Map<Peer, Double> scores = new HashMap<>();
+        for (Peer peer : candidates) {
+            scores.put(peer, peer.getScore().getValue());
+        }
+        List<Peer> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparing(scores::get, Comparator.reverseOrder()));
+        return sorted;
+    }
+
+    /**
+     * @return at most the given number of connected peers, the best scoring first
+     */
+    public static List<Peer> getBestConnectedPeers(int max) {
+        List<Peer> connected = new ArrayList<>();
+        for (Peer peer : peers.values()) {
+            if (!peer.isBlacklisted() && peer.getState() == Peer.State.CONNECTED) {
+                connected.add(peer);
+            }
+        }
+        List<Peer> best = byScore(connected);
+        return best.size() > max ? new ArrayList<>(best.subList(0, max)) : best;
     }
 
     public static List<Peer> getAllActivePriorityPlusSomeExtraPeers() {
         final List<Peer> peersActivePriorityPlusSomeExtraPeers = new ArrayList<>();
         int amountExtrasLeft = propertyService.getInt(P2P_SEND_TO_LIMIT);
 
-        for (Peer peer : peers.values()) {
+        for (Peer peer : byScore(peers.values())) {
             if (peerEligibleForSending(peer, true)) {
                 if (peer.isRebroadcastTarget()) {
                     peersActivePriorityPlusSomeExtraPeers.add(peer);
@@ -0,0 +1,157 @@
+package brs.peer;
+
+import brs.Block;
+import brs.Blockchain;
+import brs.BlockchainProcessor;
+import brs.SignumException;
+import brs.Transaction;
+import brs.TransactionProcessor;
+import brs.util.Convert;
+import brs.util.JSON;
+import brs.web.server.BoundedExecutor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Block announcement without the transactions, only their ids. The receiver takes the transactions it already has
+ * from its unconfirmed pool and then goes on as for <code>processBlock</code>. If some are missing, it asks the
+ * sender for them with <code>getBlockTransactions</code> without waiting for the answer, the block is processed on
+ * the block executor once they arrived.
+ */
+public final class ProcessCompactBlock implements PeerServlet.PeerRequestHandler {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProcessCompactBlock.class);
+
+  private final Blockchain blockchain;
+  private final BlockchainProcessor blockchainProcessor;
+  private final TransactionProcessor transactionProcessor;
+  private final BoundedExecutor blockExecutor;
+
+  public ProcessCompactBlock(Blockchain blockchain, BlockchainProcessor blockchainProcessor,
+                             TransactionProcessor transactionProcessor, BoundedExecutor blockExecutor) {
+    this.blockchain = blockchain;
+    this.blockchainProcessor = blockchainProcessor;
+    this.transactionProcessor = transactionProcessor;
+    this.blockExecutor = blockExecutor;
+  }
+
+  private static final JsonElement ACCEPTED;
+  static {
+    JsonObject response = new JsonObject();
+    response.addProperty("accepted", true);
+    ACCEPTED = response;
+  }
+
+  private static final JsonElement NOT_ACCEPTED;
+  static {
+    JsonObject response = new JsonObject();
+    response.addProperty("accepted", false);
+    NOT_ACCEPTED = response;
+  }
+
+  /**
+   * @return the <code>processCompactBlock</code> request announcing the block
+   */
+  static JsonObject request(Block block) {
+    JsonObject request = GetNextBlockHeaders.header(block);
+    JsonArray transactionIds = new JsonArray();
+    for (Transaction transaction : block.getTransactions()) {
+      transactionIds.add(transaction.getStringId());
+    }
+    request.add("transactionIds", transactionIds);
+    request.addProperty("requestType", "processCompactBlock");
+    return request;
+  }
+
+  @Override
+  public JsonElement processRequest(JsonObject request, Peer peer) {
+
+    try {
+
+      if (! blockchain.getLastBlock().getStringId().equals(JSON.getAsString(request.get("previousBlock")))) {
+        return NOT_ACCEPTED;
+      }
+
+      JsonArray transactionIds = JSON.getAsJsonArray(request.get("transactionIds"));
+      if (transactionIds.size() > GetBlockTransactions.MAX_TRANSACTIONS) {
+        throw new IllegalArgumentException("Too many transactionIds: " + transactionIds.size());
+      }
+      JsonObject[] transactions = new JsonObject[transactionIds.size()];
+      JsonArray missing = new JsonArray();
+      for (int i = 0; i < transactions.length; i++) {
+        String transactionId = JSON.getAsString(transactionIds.get(i));
+        Transaction transaction = transactionProcessor.getUnconfirmedTransaction(Convert.parseUnsignedLong(transactionId));
+        if (transaction != null) {
+          transactions[i] = transaction.getJsonObject();
+        } else {
+          missing.add(transactionId);
+        }
+      }
+
+      if (missing.size() == 0) {
+        process(request, transactions, peer);
+        return ACCEPTED;
+      }
+      if (peer == null) {
+        return NOT_ACCEPTED;
+      }
+
+      JsonObject missingRequest = new JsonObject();
+      missingRequest.addProperty("requestType", "getBlockTransactions");
+      missingRequest.add("transactionIds", missing);
+      // the block executor thread is not held while the sender answers
+      peer.sendAsync(JSON.prepareRequest(missingRequest)).thenAccept(response -> {
+        JsonArray fetched = JSON.getAsJsonArray(response.get("transactions"));
+        if (fetched.size() != missing.size()) {
+          // the block comes along with the regular sync then
+          return;
+        }
+        int next = 0;
+        for (int i = 0; i < transactions.length; i++) {
+          if (transactions[i] == null) {
+            transactions[i] = JSON.getAsJsonObject(fetched.get(next++));
+          }
+        }
+        if (!blockExecutor.execute(() -> processFetched(request, transactions, peer))) {
+          logger.debug("Too many blocks queued, dropping compact block from {}", peer.getPeerAddress());
+        }
+      });
+      return ACCEPTED;
+
+    } catch (SignumException|RuntimeException e) {
+      if (peer != null) {
+        peer.blacklist(e, "received invalid data via requestType=processCompactBlock");
+      }
+      return NOT_ACCEPTED;
+    }
+
+  }
+
+  private void processFetched(JsonObject request, JsonObject[] transactions, Peer peer) {
+    try {
+      // another block may have been pushed meanwhile
+      if (blockchain.getLastBlock().getStringId().equals(JSON.getAsString(request.get("previousBlock")))) {
+        process(request, transactions, peer);
+      }
+    } catch (SignumException|RuntimeException e) {
+      peer.blacklist(e, "received invalid data via requestType=processCompactBlock");
+    }
+  }
+
+  private void process(JsonObject request, JsonObject[] transactions, Peer peer) throws SignumException {
+    JsonObject blockData = request.deepCopy();
+    blockData.remove("transactionIds");
+    JsonArray transactionsData = new JsonArray();
+    for (JsonObject transaction : transactions) {
+      transactionsData.add(transaction);
+    }
+    blockData.add("transactions", transactionsData);
+
+    // the payload hash of the block makes sure these are the transactions of the block
+    blockchainProcessor.processPeerBlock(blockData, peer);
+  }
+
+}
@@ -0,0 +1,78 @@
+package brs.peer;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A byte rate limit: tokens refill at the given rate up to one second's worth. Taking more than there are leaves a
+ * debt, which tells the sender how long to wait before sending again instead of blocking it here. A rate of 0 or
+ * less means unlimited.
+ */
+final class TokenBucket {
+
+    private final long bytesPerSecond;
+    private final LongSupplier clock;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(long bytesPerSecond, LongSupplier clock) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.clock = clock;
+        this.tokens = bytesPerSecond;
+        this.refilledAt = clock.getAsLong();
+    }
+
+    boolean isUnlimited() {
+        return bytesPerSecond <= 0;
+    }
+
+    /**
+     * @param bytes what was sent, less than 0 to give back what was reserved beyond it
+     * @return milliseconds until the debt left by this and earlier sends is paid off, 0 if there is none
+     */
+    synchronized long take(long bytes) {
+        if (isUnlimited()) {
+            return 0;
+        }
+        refill();
+        tokens = Math.min(bytesPerSecond, tokens - bytes);
+        return waitMillis();
+    }
+
+    /**
+     * Takes the bytes of a send that waits for the debt before it, so the next sender already waits for this one.
+     *
+     * @return milliseconds until the debt left by earlier sends is paid off, 0 if there is none
+     */
+    synchronized long reserve(long bytes) {
+        if (isUnlimited()) {
+            return 0;
+        }
+        refill();
+        long wait = waitMillis();
+        tokens -= bytes;
+        return wait;
+    }
+
+    /**
+     * @return milliseconds until the debt is paid off, without taking anything
+     */
+    synchronized long getWaitMillis() {
+        if (isUnlimited()) {
+            return 0;
+        }
+        refill();
+        return waitMillis();
+    }
+
+    private long waitMillis() {
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * 1000 / bytesPerSecond);
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        if (now > refilledAt) {
+            tokens = Math.min(bytesPerSecond, tokens + (now - refilledAt) * bytesPerSecond / 1000.0);
+            refilledAt = now;
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class Props {
     public static final Prop<Boolean> API_WEBSOCKET_ENABLE = new Prop<>("API.WebSocketEnable", true);
     public static final Prop<Integer> API_WEBSOCKET_HEARTBEAT_INTERVAL = new Prop<>("API.WebSocketHeartbeatInterval",
             30);
+    public static final Prop<Integer> API_WEBSOCKET_QUEUE_SIZE = new Prop<>("API.WebSocketQueueSize", 100);
 
     public static final Prop<String> NETWORK_NAME = new Prop<>("node.networkName", Constants.SIGNUM_NETWORK_NAME);
     public static final Prop<String> GENESIS_BLOCK_ID = new Prop<>("node.genesisBlockId",
@@ -106,6 +107,10 @@ public class Props {
     public static final Prop<Integer> BRS_CHECKPOINT_HEIGHT = new Prop<>("node.checkPointHeight", 1_418_000);
     public static final Prop<String> BRS_CHECKPOINT_HASH = new Prop<>("node.checkPointPrevHash",
             "8f76beca852b41447ac59fbdf78750e43dde97f9fc09ec8f071eeb03c43420f0");
+    // State snapshot to start from instead of genesis, and where to export them for others
+    public static final Prop<String> SNAPSHOT_IMPORT_FILE = new Prop<>("node.snapshotImportFile", "");
+    public static final Prop<String> SNAPSHOT_IMPORT_HASH = new Prop<>("node.snapshotImportHash", "");
+    public static final Prop<String> SNAPSHOT_EXPORT_DIR = new Prop<>("node.snapshotExportDir", "");
     public static final Prop<String> BRS_PK_CHECKS = new Prop<>("node.pkChecks",
             "dba639ec3450e0b1;169b3b99ce28a350;a83c47e772a35586;6db77a51a7def19d;c4823aa7028f6735;fb0e32a5bc032257;15a35aa0515e3584;27fcf52c3bc40fba;981454e22b5ac976;0cb15471ad76fcd1;");
 
@@ -129,6 +134,9 @@ public class Props {
     public static final Prop<String> DB_USERNAME = new Prop<>("DB.Username", "");
     public static final Prop<String> DB_PASSWORD = new Prop<>("DB.Password", "");
     public static final Prop<Integer> DB_CONNECTIONS = new Prop<>("DB.Connections", 30);
+    public static final Prop<Boolean> DB_READ_POOL = new Prop<>("DB.ReadPool", false);
+    public static final Prop<String> DB_READ_URL = new Prop<>("DB.ReadUrl", "");
+    public static final Prop<Integer> DB_READ_CONNECTIONS = new Prop<>("DB.ReadConnections", 10);
 
     public static final Prop<Boolean> DB_TRIM_DERIVED_TABLES = new Prop<>("DB.trimDerivedTables", true);
 
@@ -145,6 +153,10 @@ public class Props {
     public static final Prop<Integer> BRS_AT_PROCESSOR_CACHE_BLOCK_COUNT = new Prop<>("node.atProcessorCacheBlockCount",
             1000);
     public static final Prop<Integer> DB_INSERT_BATCH_MAX_SIZE = new Prop<>("DB.InsertBatchMaxSize", 1000);
+    public static final Prop<Boolean> DB_BALANCE_SNAPSHOT = new Prop<>("DB.BalanceSnapshot", true);
+    public static final Prop<Boolean> DB_NAME_INDEX = new Prop<>("DB.NameIndex", true);
+    public static final Prop<Boolean> DB_ORDER_BOOK = new Prop<>("DB.OrderBook", true);
+    public static final Prop<Integer> DB_CONSISTENCY_CHECK_INTERVAL = new Prop<>("DB.ConsistencyCheckInterval", 60);
 
     // P2P options
     public static final Prop<Integer> P2P_PORT = new Prop<>("P2P.Port", 8123);
@@ -163,6 +175,7 @@ public class Props {
     public static final Prop<Integer> P2P_MAX_CONNECTIONS = new Prop<>("P2P.MaxConnections", 20);
     public static final Prop<Integer> P2P_TIMEOUT_CONNECT_MS = new Prop<>("P2P.TimeoutConnect_ms", 4000);
     public static final Prop<Integer> P2P_TIMEOUT_READ_MS = new Prop<>("P2P.TimeoutRead_ms", 8000);
+    public static final Prop<Integer> P2P_MAX_CONNECTIONS_PER_PEER = new Prop<>("P2P.MaxConnectionsPerPeer", 2);
     public static final Prop<Integer> P2P_BLACKLISTING_TIME_MS = new Prop<>("P2P.BlacklistingTime_ms", 600000);
     public static final Prop<Integer> P2P_MAX_BLOCKS = new Prop<>("P2P.MaxBlocks", 720);
 
@@ -174,6 +187,12 @@ public class Props {
     public static final Prop<Integer> P2P_GET_MORE_PEERS_THRESHOLD = new Prop<>("P2P.getMorePeersThreshold", 400);
 
     public static final Prop<Integer> P2P_SEND_TO_LIMIT = new Prop<>("P2P.sendToLimit", 10);
+    public static final Prop<Boolean> P2P_COMPACT_BLOCKS = new Prop<>("P2P.CompactBlocks", true);
+    public static final Prop<Boolean> P2P_HEADERS_FIRST = new Prop<>("P2P.HeadersFirst", true);
+    public static final Prop<Integer> P2P_UPLOAD_LIMIT_KBPS = new Prop<>("P2P.UploadLimitKBps", 0);
+    public static final Prop<Integer> P2P_DOWNLOAD_LIMIT_KBPS = new Prop<>("P2P.DownloadLimitKBps", 0);
+    public static final Prop<Integer> P2P_PEER_UPLOAD_LIMIT_KBPS = new Prop<>("P2P.PeerUploadLimitKBps", 0);
+    public static final Prop<Integer> P2P_PEER_DOWNLOAD_LIMIT_KBPS = new Prop<>("P2P.PeerDownloadLimitKBps", 0);
 
     public static final Prop<Integer> P2P_MAX_UNCONFIRMED_TRANSACTIONS = new Prop<>("P2P.maxUnconfirmedTransactions",
             8192);
@@ -202,6 +221,11 @@ public class Props {
     public static final Prop<Integer> API_SERVER_IDLE_TIMEOUT = new Prop<>("API.ServerIdleTimeout", 60_000);
     public static final Prop<Boolean> API_SERVER_ENFORCE_POST = new Prop<>("API.ServerEnforcePOST", true);
     public static final Prop<String> API_ALLOWED_ORIGINS = new Prop<>("API.AllowedOrigins", "*");
+    public static final Prop<Integer> API_BATCH_MAX_REQUESTS = new Prop<>("API.BatchMaxRequests", 50);
+    public static final Prop<Integer> API_BATCH_THREADS = new Prop<>("API.BatchThreads", 8);
+    public static final Prop<Integer> API_RESPONSE_CACHE_SIZE = new Prop<>("API.ResponseCacheSize", 1000);
+    public static final Prop<Integer> API_RESPONSE_CACHE_MAX_ENTRY_BYTES = new Prop<>(
+            "API.ResponseCacheMaxEntryBytes", 1_000_000);
 
     public static final Prop<Boolean> JETTY_API_GZIP_FILTER = new Prop<>("JETTY.API.GzipFilter", true);
     public static final Prop<Integer> JETTY_API_GZIP_FILTER_MIN_GZIP_SIZE = new Prop<>(
@@ -232,6 +256,13 @@ public class Props {
     public static final Prop<String> JETTY_API_DOS_FILTER_MANAGED_ATTR = new Prop<>("JETTY.API.DoSFilter.managedAttr",
             "true");
 
+    public static final Prop<Boolean> JETTY_API_VIRTUAL_THREADS = new Prop<>("JETTY.API.VirtualThreads", false);
+    public static final Prop<Integer> JETTY_API_MAX_CONCURRENT_ADMIN = new Prop<>("JETTY.API.MaxConcurrentAdmin", 1);
+    public static final Prop<Integer> JETTY_API_MAX_CONCURRENT_READ = new Prop<>("JETTY.API.MaxConcurrentRead", 0);
+    public static final Prop<Integer> JETTY_API_MAX_CONCURRENT_BROADCAST = new Prop<>(
+            "JETTY.API.MaxConcurrentBroadcast", 0);
+    public static final Prop<Integer> JETTY_API_CONCURRENCY_WAIT_MS = new Prop<>("JETTY.API.ConcurrencyWaitMs", 1000);
+
     public static final Prop<Boolean> JETTY_P2P_GZIP_FILTER = new Prop<>("JETTY.P2P.GZIPFilter", true);
     public static final Prop<Integer> JETTY_P2P_GZIP_FILTER_MIN_GZIP_SIZE = new Prop<>(
             "JETTY.P2P.GZIPFilter.minGzipSize", 1024);
@@ -261,6 +292,13 @@ public class Props {
     public static final Prop<String> JETTY_P2P_DOS_FILTER_MANAGED_ATTR = new Prop<>("JETTY.P2P.DoSFilter.managedAttr",
             "true");
 
+    public static final Prop<Boolean> JETTY_P2P_VIRTUAL_THREADS = new Prop<>("JETTY.P2P.VirtualThreads", false);
+    public static final Prop<Integer> JETTY_P2P_BLOCK_THREADS = new Prop<>("JETTY.P2P.BlockThreads", 2);
+    public static final Prop<Integer> JETTY_P2P_TRANSACTION_THREADS = new Prop<>("JETTY.P2P.TransactionThreads", 2);
+    public static final Prop<Integer> JETTY_P2P_BULK_THREADS = new Prop<>("JETTY.P2P.BulkThreads", 4);
+    public static final Prop<Integer> JETTY_P2P_READ_THREADS = new Prop<>("JETTY.P2P.ReadThreads", 16);
+    public static final Prop<Integer> JETTY_P2P_QUEUE_SIZE = new Prop<>("JETTY.P2P.QueueSize", 200);
+
     public static final Prop<Boolean> INDIRECT_INCOMING_SERVICE_ENABLE = new Prop<>(
             "node.indirectIncomingService.enable", true);
 
@@ -7,6 +7,7 @@ package brs.schema;
 import brs.schema.tables.Account;
 import brs.schema.tables.AccountAsset;
 import brs.schema.tables.AccountBalance;
+import brs.schema.tables.AccountTransaction;
 import brs.schema.tables.Alias;
 import brs.schema.tables.AliasOffer;
 import brs.schema.tables.AskOrder;
@@ -68,6 +69,11 @@ public class Db extends SchemaImpl {
      */
     public final AccountBalance ACCOUNT_BALANCE = AccountBalance.ACCOUNT_BALANCE;
 
+    /**
+     * The table <code>DB.account_transaction</code>.
+     */
+    public final AccountTransaction ACCOUNT_TRANSACTION = AccountTransaction.ACCOUNT_TRANSACTION;
+
     /**
      * The table <code>DB.alias</code>.
      */
@@ -207,6 +213,7 @@ public class Db extends SchemaImpl {
             Account.ACCOUNT,
             AccountAsset.ACCOUNT_ASSET,
             AccountBalance.ACCOUNT_BALANCE,
+            AccountTransaction.ACCOUNT_TRANSACTION,
             Alias.ALIAS,
             AliasOffer.ALIAS_OFFER,
             AskOrder.ASK_ORDER,
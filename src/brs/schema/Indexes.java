@@ -7,6 +7,7 @@ package brs.schema;
 import brs.schema.tables.Account;
 import brs.schema.tables.AccountAsset;
 import brs.schema.tables.AccountBalance;
+import brs.schema.tables.AccountTransaction;
 import brs.schema.tables.Alias;
 import brs.schema.tables.AliasOffer;
 import brs.schema.tables.AskOrder;
@@ -51,6 +52,9 @@ public class Indexes {
     public static final Index ACCOUNT_ASSET_ACCOUNT_ASSET_QUANTITY_IDX = Internal.createIndex(DSL.name("account_asset_quantity_idx"), AccountAsset.ACCOUNT_ASSET, new OrderField[] { AccountAsset.ACCOUNT_ASSET.QUANTITY }, false);
     public static final Index ACCOUNT_BALANCE_ACCOUNT_BALANCE_HEIGHT_IDX = Internal.createIndex(DSL.name("account_balance_height_idx"), AccountBalance.ACCOUNT_BALANCE, new OrderField[] { AccountBalance.ACCOUNT_BALANCE.HEIGHT }, false);
     public static final Index ACCOUNT_BALANCE_ACCOUNT_BALANCE_ID_LATEST_IDX = Internal.createIndex(DSL.name("account_balance_id_latest_idx"), AccountBalance.ACCOUNT_BALANCE, new OrderField[] { AccountBalance.ACCOUNT_BALANCE.ID, AccountBalance.ACCOUNT_BALANCE.LATEST }, false);
+    public static final Index ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_ACCOUNT_TIMESTAMP_IDX = Internal.createIndex(DSL.name("account_transaction_account_timestamp_idx"), AccountTransaction.ACCOUNT_TRANSACTION, new OrderField[] { AccountTransaction.ACCOUNT_TRANSACTION.ACCOUNT_ID, AccountTransaction.ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.desc(), AccountTransaction.ACCOUNT_TRANSACTION.TRANSACTION_ID.desc() }, false);
+    public static final Index ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_ACCOUNT_TYPE_TIMESTAMP_IDX = Internal.createIndex(DSL.name("account_transaction_account_type_timestamp_idx"), AccountTransaction.ACCOUNT_TRANSACTION, new OrderField[] { AccountTransaction.ACCOUNT_TRANSACTION.ACCOUNT_ID, AccountTransaction.ACCOUNT_TRANSACTION.TYPE, AccountTransaction.ACCOUNT_TRANSACTION.SUBTYPE, AccountTransaction.ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.desc(), AccountTransaction.ACCOUNT_TRANSACTION.TRANSACTION_ID.desc() }, false);
+    public static final Index ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_HEIGHT_IDX = Internal.createIndex(DSL.name("account_transaction_height_idx"), AccountTransaction.ACCOUNT_TRANSACTION, new OrderField[] { AccountTransaction.ACCOUNT_TRANSACTION.HEIGHT }, false);
     public static final Index ACCOUNT_ACCOUNT_HEIGHT_IDX = Internal.createIndex(DSL.name("account_height_idx"), Account.ACCOUNT, new OrderField[] { Account.ACCOUNT.HEIGHT }, false);
     public static final Index ACCOUNT_ACCOUNT_ID_LATEST_IDX = Internal.createIndex(DSL.name("account_id_latest_idx"), Account.ACCOUNT, new OrderField[] { Account.ACCOUNT.ID, Account.ACCOUNT.LATEST }, false);
     public static final Index ALIAS_ALIAS_ACCOUNT_ID_IDX = Internal.createIndex(DSL.name("alias_account_id_idx"), Alias.ALIAS, new OrderField[] { Alias.ALIAS.ACCOUNT_ID, Alias.ALIAS.HEIGHT }, false);
@@ -7,6 +7,7 @@ package brs.schema;
 import brs.schema.tables.Account;
 import brs.schema.tables.AccountAsset;
 import brs.schema.tables.AccountBalance;
+import brs.schema.tables.AccountTransaction;
 import brs.schema.tables.Alias;
 import brs.schema.tables.AliasOffer;
 import brs.schema.tables.AskOrder;
@@ -54,6 +55,11 @@ public class Tables {
      */
     public static final AccountBalance ACCOUNT_BALANCE = AccountBalance.ACCOUNT_BALANCE;
 
+    /**
+     * The table <code>DB.account_transaction</code>.
+     */
+    public static final AccountTransaction ACCOUNT_TRANSACTION = AccountTransaction.ACCOUNT_TRANSACTION;
+
     /**
      * The table <code>DB.alias</code>.
      */
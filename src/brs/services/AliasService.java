@@ -25,6 +25,8 @@ public interface AliasService {
   int getAliasCount(long tld);
 
   CollectionWithIndex<Alias> getAliasesByOwner(long accountId, String name, Long tld, int from, int to);
+
+  CollectionWithIndex<Alias> searchAliases(String name, int from, int to);
   
   CollectionWithIndex<Alias> getTLDs(int from, int to);
 
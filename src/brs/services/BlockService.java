@@ -5,6 +5,8 @@ import brs.BlockchainProcessor;
 import brs.BlockchainProcessor.BlockNotAcceptedException;
 import brs.BlockchainProcessor.BlockOutOfOrderException;
 
+import java.util.Map;
+
 public interface BlockService {
 
   void preVerify(Block block, Block prevBlock) throws BlockchainProcessor.BlockNotAcceptedException, InterruptedException;
@@ -17,6 +19,12 @@ public interface BlockService {
 
   void calculateBaseTarget(Block block, Block lastBlock) throws BlockOutOfOrderException;
 
+  /**
+   * @param unconnectedBlocks blocks by id that are neither in the chain nor in the download cache yet, the previous
+   * blocks are looked up there first
+   */
+  void calculateBaseTarget(Block block, Block lastBlock, Map<Long, Block> unconnectedBlocks) throws BlockOutOfOrderException;
+
   void setPrevious(Block block, Block previousBlock);
 
   boolean verifyGenerationSignature(Block block) throws BlockNotAcceptedException;
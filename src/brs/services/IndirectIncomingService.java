@@ -2,8 +2,11 @@ package brs.services;
 
 import brs.Transaction;
 
+import java.util.Set;
+
 public interface IndirectIncomingService {
     void processTransaction(Transaction transaction);
     boolean isIndirectlyReceiving(Transaction transaction, long accountId);
+    Set<Long> getIndirectlyReceivingAccountIds(Transaction transaction);
     public void rollback(int height);
 }
@@ -24,8 +24,6 @@ import brs.util.Listeners;
 import java.util.Arrays;
 import java.util.Collection;
 
-import static brs.schema.Tables.ACCOUNT;
-
 public class AccountServiceImpl implements AccountService {
 
   private final AccountStore accountStore;
@@ -123,7 +121,7 @@ public class AccountServiceImpl implements AccountService {
 
   @Override
   public Collection<Account> getAccountsWithName(String name) {
-    return accountTable.getManyBy(ACCOUNT.NAME.equalIgnoreCase(name), 0, -1);
+    return accountStore.getAccountsWithName(name);
   }
 
   @Override
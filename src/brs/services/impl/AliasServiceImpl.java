@@ -126,6 +126,11 @@ public class AliasServiceImpl implements AliasService {
     return new CollectionWithIndex<Alias>(aliasStore.getAliasesByOwner(accountId, name, tld, from, to), from, to);
   }
 
+  @Override
+  public CollectionWithIndex<Alias> searchAliases(String name, int from, int to) {
+    return new CollectionWithIndex<Alias>(aliasStore.searchAliases(name, from, to), from, to);
+  }
+
   @Override
   public CollectionWithIndex<Alias> getTLDs(int from, int to) {
     return new CollectionWithIndex<Alias>(aliasStore.getTLDs(from, to), from, to);
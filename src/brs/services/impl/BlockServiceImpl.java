@@ -21,6 +21,7 @@ import brs.util.ThreadPool;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.bouncycastle.util.encoders.Hex;
@@ -325,6 +326,12 @@ public class BlockServiceImpl implements BlockService {
     @Override
     public void calculateBaseTarget(Block block, Block previousBlock)
             throws BlockOutOfOrderException {
+        calculateBaseTarget(block, previousBlock, Collections.emptyMap());
+    }
+
+    @Override
+    public void calculateBaseTarget(Block block, Block previousBlock, Map<Long, Block> unconnectedBlocks)
+            throws BlockOutOfOrderException {
         long blockTime = Signum.getFluxCapacitor().getValue(FluxValues.BLOCK_TIME);
 
         if (block.getPreviousBlockId() == 0 && block.getId() == Convert
@@ -340,7 +347,7 @@ public class BlockServiceImpl implements BlockService {
             Block itBlock = previousBlock;
             BigInteger avgBaseTarget = BigInteger.valueOf(itBlock.getBaseTarget());
             do {
-                itBlock = downloadCache.getBlock(itBlock.getPreviousBlockId());
+                itBlock = getBlock(unconnectedBlocks, itBlock.getPreviousBlockId());
                 avgBaseTarget = avgBaseTarget.add(BigInteger.valueOf(itBlock.getBaseTarget()));
             } while (itBlock.getHeight() > block.getHeight() - 4);
             avgBaseTarget = avgBaseTarget.divide(BigInteger.valueOf(4));
@@ -379,7 +386,7 @@ public class BlockServiceImpl implements BlockService {
                     break;
                 }
                 long previousBlockId = itBlock.getPreviousBlockId();
-                itBlock = downloadCache.getBlock(previousBlockId);
+                itBlock = getBlock(unconnectedBlocks, previousBlockId);
                 if (itBlock == null) {
                     itBlock = blockchain.getBlock(previousBlockId);
                 }
@@ -432,7 +439,8 @@ public class BlockServiceImpl implements BlockService {
                 block.setCommitment(
                         generator.estimateCommitment(
                                 block.getGeneratorId(),
-                                previousBlock));
+                                previousBlock,
+                                unconnectedBlocks));
 
                 // update the average commitment based on a moving average filter
                 long curCommitment = previousBlock.getAverageCommitment();
@@ -504,4 +512,9 @@ public class BlockServiceImpl implements BlockService {
     public int getScoopNum(Block block) {
         return generator.calculateScoop(block.getGenerationSignature(), block.getHeight());
     }
+
+    private Block getBlock(Map<Long, Block> unconnectedBlocks, long blockId) {
+        Block block = unconnectedBlocks.get(blockId);
+        return block != null ? block : downloadCache.getBlock(blockId);
+    }
 }
@@ -9,6 +9,10 @@ import brs.services.IndirectIncomingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 
 public class IndirectIncomingServiceImpl implements IndirectIncomingService {
     private static final Logger LOGGER = LoggerFactory.getLogger(IndirectIncomingServiceImpl.class);
@@ -42,6 +46,18 @@ public class IndirectIncomingServiceImpl implements IndirectIncomingService {
         return false;
     }
 
+    @Override
+    public Set<Long> getIndirectlyReceivingAccountIds(Transaction transaction) {
+        if (disabled) {
+            return Collections.emptySet();
+        }
+        Set<Long> accountIds = new HashSet<>();
+        for (IndirectIncoming indirect : transaction.getType().getIndirectIncomings(transaction)) {
+            accountIds.add(indirect.getAccountId());
+        }
+        return accountIds;
+    }
+
     @Override
     public void rollback(int height) {
         if (disabled) return;
@@ -5,6 +5,8 @@ import brs.Transaction;
 import brs.peer.Peer;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface UnconfirmedTransactionStore {
 
@@ -20,6 +22,11 @@ public interface UnconfirmedTransactionStore {
 
   List<Transaction> getAllFor(Peer peer);
 
+  /**
+   * @return a copy of all transactions, each with the peers that already have it
+   */
+  Map<Transaction, Set<Peer>> getAllWithFingerPrints();
+
   void remove(Transaction transaction);
 
   void clear();
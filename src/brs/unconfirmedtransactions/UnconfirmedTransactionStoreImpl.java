@@ -178,6 +178,15 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
     }
   }
 
+  @Override
+  public Map<Transaction, Set<Peer>> getAllWithFingerPrints() {
+    synchronized (internalStore) {
+      final Map<Transaction, Set<Peer>> result = new LinkedHashMap<>();
+      fingerPrintsOverview.forEach((transaction, peers) -> result.put(transaction, new HashSet<>(peers)));
+      return result;
+    }
+  }
+
   @Override
   public void remove(Transaction transaction) {
     synchronized (internalStore) {
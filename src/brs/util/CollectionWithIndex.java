@@ -6,6 +6,7 @@ import java.util.Iterator;
 public class CollectionWithIndex<E> implements Iterable<E> {
 
   private int nextIndex = -1;
+  private PageCursor nextCursor;
   private Collection<E> collection;
   
   public CollectionWithIndex(Collection<E> collection, int nextIndex) {
@@ -34,6 +35,18 @@ public class CollectionWithIndex<E> implements Iterable<E> {
     this.nextIndex = nextIndex;
   }
 
+  public boolean hasNextCursor() {
+    return nextCursor != null;
+  }
+
+  public PageCursor getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(PageCursor nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+
   @Override
   public Iterator<E> iterator() {
     return collection.iterator();
@@ -1,6 +1,7 @@
 package brs.util;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -17,6 +18,9 @@ public final class JSON {
 
     public static final JsonElement emptyJSON = new JsonObject();
 
+    // the adapter JsonElement.toString() uses as well, so both give the same output
+    private static final TypeAdapter<JsonElement> ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
     public static JsonElement prepareRequest(final JsonObject json) {
         json.addProperty(PROTOCOL, "B1");
         return json;
@@ -44,9 +48,26 @@ public final class JSON {
         }
     }
 
+    /**
+     * Writes the element without building its string first, the output is the same as {@link #toJsonString}.
+     */
     public static void writeTo(JsonElement jsonElement, Writer writer) throws IOException {
-        writer.write(toJsonString(jsonElement));
-        writer.flush();
+        JsonWriter jsonWriter = newWriter(writer);
+        write(jsonElement, jsonWriter);
+        jsonWriter.flush();
+    }
+
+    public static void write(JsonElement jsonElement, JsonWriter jsonWriter) throws IOException {
+        ELEMENT_ADAPTER.write(jsonWriter, jsonElement != null ? jsonElement : JsonNull.INSTANCE);
+    }
+
+    /**
+     * @return a writer with the settings of {@link JsonElement#toString()}, closing it closes the given writer
+     */
+    public static JsonWriter newWriter(Writer writer) {
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.setStrictness(Strictness.LENIENT);
+        return jsonWriter;
     }
 
     public static String toJsonString(JsonElement jsonElement) {
@@ -0,0 +1,113 @@
+package brs.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive <code>long</code> keys to non-negative <code>int</code> values,
+ * without boxing and without a node object per entry. Not thread safe.
+ */
+public final class LongIntHashMap {
+
+  public static final int NO_VALUE = -1;
+
+  private long[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int size;
+  private int mask;
+
+  public LongIntHashMap() {
+    this(16);
+  }
+
+  public LongIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private int slot(long key) {
+    int slot = hash(key) & mask;
+    while (used[slot] && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  public int get(long key) {
+    int slot = slot(key);
+    return used[slot] ? values[slot] : NO_VALUE;
+  }
+
+  public void put(long key, int value) {
+    int slot = slot(key);
+    if (!used[slot]) {
+      if ((size + 1) * 4 > keys.length * 3) {
+        rehash(keys.length * 2);
+        slot = slot(key);
+      }
+      used[slot] = true;
+      keys[slot] = key;
+      size++;
+    }
+    values[slot] = value;
+  }
+
+  public int remove(long key) {
+    int slot = slot(key);
+    if (!used[slot]) {
+      return NO_VALUE;
+    }
+    int removed = values[slot];
+    // backward shift deletion keeps the probe sequences intact without tombstones
+    int gap = slot;
+    int next = (gap + 1) & mask;
+    while (used[next]) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+      next = (next + 1) & mask;
+    }
+    used[gap] = false;
+    size--;
+    return removed;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    Arrays.fill(used, false);
+    size = 0;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int slot = slot(oldKeys[i]);
+        used[slot] = true;
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,283 @@
+package brs.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Case insensitive in-memory index of names by id, for exact, prefix and substring searches.
+ * <p>
+ * Every name is split into its bigrams and trigrams, a substring query only looks at the ids sharing its bigram or
+ * its rarest trigram. Single characters scan all names, which is still a plain array walk. Each entry
+ * carries a group (the TLD of an alias for instance) the searches can filter on.
+ * <p>
+ * Not thread safe, the owner synchronizes.
+ */
+public final class NameIndex {
+
+  private final LongIntHashMap rows = new LongIntHashMap();
+  private long[] ids = new long[16];
+  private String[] names = new String[16];
+  private long[] groups = new long[16];
+  private int size;
+
+  private final Map<Long, Ids> grams = new HashMap<>();
+  private final Map<String, Ids> exact = new HashMap<>();
+
+  public int size() {
+    return size;
+  }
+
+  public void put(long id, String name, long group) {
+    String lower = name.toLowerCase(Locale.ENGLISH);
+    int row = rows.get(id);
+    if (row != LongIntHashMap.NO_VALUE) {
+      if (names[row].equals(lower)) {
+        groups[row] = group;
+        return;
+      }
+      unlink(id, names[row]);
+    } else {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        names = Arrays.copyOf(names, size * 2);
+        groups = Arrays.copyOf(groups, size * 2);
+      }
+      row = size++;
+      rows.put(id, row);
+      ids[row] = id;
+    }
+    names[row] = lower;
+    groups[row] = group;
+    exact.computeIfAbsent(lower, key -> new Ids()).add(id);
+    for (long gram : distinctGrams(lower)) {
+      grams.computeIfAbsent(gram, key -> new Ids()).add(id);
+    }
+  }
+
+  public void remove(long id) {
+    int row = rows.remove(id);
+    if (row == LongIntHashMap.NO_VALUE) {
+      return;
+    }
+    unlink(id, names[row]);
+    int last = --size;
+    if (row != last) {
+      ids[row] = ids[last];
+      names[row] = names[last];
+      groups[row] = groups[last];
+      rows.put(ids[row], row);
+    }
+    names[last] = null;
+  }
+
+  private void unlink(long id, String name) {
+    removeFrom(exact, name, id);
+    for (long gram : distinctGrams(name)) {
+      removeFrom(grams, gram, id);
+    }
+  }
+
+  private static <K> void removeFrom(Map<K, Ids> map, K key, long id) {
+    Ids set = map.get(key);
+    if (set != null && set.remove(id) && set.size == 0) {
+      map.remove(key);
+    }
+  }
+
+  private static Set<Long> distinctGrams(String name) {
+    Set<Long> distinct = new HashSet<>();
+    for (int i = 0; i + 2 <= name.length(); i++) {
+      distinct.add(bigram(name, i));
+      if (i + 3 <= name.length()) {
+        distinct.add(trigram(name, i));
+      }
+    }
+    return distinct;
+  }
+
+  // marked, so a bigram never collides with a trigram starting with a zero char
+  private static long bigram(String name, int offset) {
+    return (1L << 48) | ((long) name.charAt(offset) << 16) | name.charAt(offset + 1);
+  }
+
+  private static long trigram(String name, int offset) {
+    return ((long) name.charAt(offset) << 32) | ((long) name.charAt(offset + 1) << 16) | name.charAt(offset + 2);
+  }
+
+  /**
+   * @return the ids with exactly this name, ignoring case, in the given group
+   */
+  public List<Long> find(String name, LongPredicate group) {
+    Ids set = exact.get(name.toLowerCase(Locale.ENGLISH));
+    if (set == null) {
+      return Collections.emptyList();
+    }
+    List<Long> result = new ArrayList<>(set.size);
+    for (int i = 0; i < set.size; i++) {
+      if (group.test(groups[rows.get(set.ids[i])])) {
+        result.add(set.ids[i]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Ids of the names containing the query, ignoring case. Exact matches come first, then names starting with the
+   * query, then all others, each shorter names first and then by name and id, so pages are stable.
+   */
+  public List<Long> search(String query, LongPredicate group, int from, int to) {
+    String lower = query.toLowerCase(Locale.ENGLISH);
+    int[] matches;
+    int count = 0;
+    if (lower.length() >= 2) {
+      Ids rarest = null;
+      if (lower.length() == 2) {
+        rarest = grams.get(bigram(lower, 0));
+      } else {
+        for (int i = 0; i + 3 <= lower.length(); i++) {
+          Ids set = grams.get(trigram(lower, i));
+          if (set == null) {
+            return Collections.emptyList();
+          }
+          if (rarest == null || set.size < rarest.size) {
+            rarest = set;
+          }
+        }
+      }
+      if (rarest == null) {
+        return Collections.emptyList();
+      }
+      matches = new int[rarest.size];
+      for (int i = 0; i < rarest.size; i++) {
+        int row = rows.get(rarest.ids[i]);
+        if (group.test(groups[row]) && names[row].contains(lower)) {
+          matches[count++] = row;
+        }
+      }
+    } else {
+      matches = new int[size];
+      for (int row = 0; row < size; row++) {
+        if (group.test(groups[row]) && names[row].contains(lower)) {
+          matches[count++] = row;
+        }
+      }
+    }
+
+    // rank and length are computed once, the comparison only falls back to the names on ties
+    long[] keys = new long[count];
+    for (int i = 0; i < count; i++) {
+      String name = names[matches[i]];
+      keys[i] = ((long) rank(name, lower) << 32) | name.length();
+    }
+    Comparator<Integer> byRelevance = (a, b) -> {
+      int byKey = Long.compare(keys[a], keys[b]);
+      if (byKey != 0) {
+        return byKey;
+      }
+      int byName = names[matches[a]].compareTo(names[matches[b]]);
+      return byName != 0 ? byName : Long.compare(ids[matches[a]], ids[matches[b]]);
+    };
+
+    int first = Math.max(from, 0);
+    boolean bounded = to >= 0 && to >= from && to < Integer.MAX_VALUE;
+    int last = bounded ? Math.min(to, count - 1) : count - 1;
+    if (first > last) {
+      return Collections.emptyList();
+    }
+
+    List<Integer> order;
+    if (last + 1 < count) {
+      // only the best last + 1 are needed, kept in a heap with the worst of them on top
+      PriorityQueue<Integer> best = new PriorityQueue<>(last + 1, byRelevance.reversed());
+      for (int i = 0; i < count; i++) {
+        if (best.size() <= last) {
+          best.add(i);
+        } else if (byRelevance.compare(i, best.peek()) < 0) {
+          best.poll();
+          best.add(i);
+        }
+      }
+      order = new ArrayList<>(best);
+    } else {
+      order = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        order.add(i);
+      }
+    }
+    order.sort(byRelevance);
+
+    List<Long> result = new ArrayList<>(last - first + 1);
+    for (int i = first; i <= last; i++) {
+      result.add(ids[matches[order.get(i)]]);
+    }
+    return result;
+  }
+
+  private static int rank(String name, String query) {
+    if (name.length() == query.length()) {
+      return 0;
+    }
+    return name.startsWith(query) ? 1 : 2;
+  }
+
+  /**
+   * Unordered set of ids in a dense array. The lists per gram are mostly short and scanned on removal, the long
+   * ones of common grams also keep the position of every id, so removing from them does not walk the whole list.
+   */
+  private static final class Ids {
+    private static final int INDEXED_SIZE = 16;
+
+    private long[] ids = new long[4];
+    private int size;
+    private LongIntHashMap positions;
+
+    // callers never add an id twice
+    private void add(long id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      if (positions != null) {
+        positions.put(id, size);
+      } else if (size == INDEXED_SIZE) {
+        positions = new LongIntHashMap(size * 2);
+        for (int i = 0; i < size; i++) {
+          positions.put(ids[i], i);
+        }
+        positions.put(id, size);
+      }
+      ids[size++] = id;
+    }
+
+    private boolean remove(long id) {
+      int position = positions != null ? positions.remove(id) : indexOf(id);
+      if (position == LongIntHashMap.NO_VALUE) {
+        return false;
+      }
+      long moved = ids[--size];
+      ids[position] = moved;
+      if (positions != null && position != size) {
+        positions.put(moved, position);
+      }
+      return true;
+    }
+
+    private int indexOf(long id) {
+      for (int i = 0; i < size; i++) {
+        if (ids[i] == id) {
+          return i;
+        }
+      }
+      return LongIntHashMap.NO_VALUE;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package brs.util;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Position after the last item of a page for keyset pagination: the sort key and the unique id of that item.
+ * The next page continues right after it, no matter how many rows come before, unlike an offset which has to be
+ * skipped row by row. Clients only see it as an opaque token.
+ */
+public final class PageCursor {
+
+  private static final int ENCODED_BYTES = 2 * Long.BYTES;
+
+  private final long key;
+  private final long id;
+
+  public PageCursor(long key, long id) {
+    this.key = key;
+    this.id = id;
+  }
+
+  public long getKey() {
+    return key;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String encode() {
+    ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES);
+    buffer.putLong(key);
+    buffer.putLong(id);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+  }
+
+  /**
+   * @return the cursor, or null for a null or empty token
+   * @throws IllegalArgumentException on a malformed token
+   */
+  public static PageCursor decode(String token) {
+    if (token == null || token.isEmpty()) {
+      return null;
+    }
+    byte[] bytes = Base64.getUrlDecoder().decode(token);
+    if (bytes.length != ENCODED_BYTES) {
+      throw new IllegalArgumentException("Malformed cursor");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    return new PageCursor(buffer.getLong(), buffer.getLong());
+  }
+}
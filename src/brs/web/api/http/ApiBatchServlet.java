@@ -0,0 +1,196 @@
+package brs.web.api.http;
+
+import brs.util.JSON;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static brs.web.api.http.common.JSONResponses.*;
+
+/**
+ * Runs many API requests in one round trip. The body is a JSON array of objects, each with a
+ * <code>requestType</code> and the parameters of that request (strings, or arrays of strings for repeated ones):
+ * <pre>[{"requestType": "getBlock", "height": "1000"}, {"requestType": "getAccount", "account": "S-..."}]</pre>
+ * The answer is a JSON array with the response of every request at its position, a failing request only gets
+ * its own error response.
+ * <p>
+ * Read only requests run in parallel, all others one after the other in their order. Each request goes through
+ * the same parameter validation and concurrency limits as on the regular endpoint.
+ */
+public final class ApiBatchServlet extends HttpServlet {
+
+  private static final Logger logger = LoggerFactory.getLogger(ApiBatchServlet.class);
+
+  private final ApiServlet apiServlet;
+  private final int maxRequests;
+  private final ExecutorService executor;
+
+  public ApiBatchServlet(ApiServlet apiServlet, int maxRequests, int threads) {
+    this.apiServlet = apiServlet;
+    this.maxRequests = maxRequests;
+    this.executor = Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+      Thread thread = new Thread(runnable, "api-batch");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+    try {
+      process(req, resp);
+    } catch (Exception e) { // We don't want to send exception information to client...
+      resp.setStatus(HttpStatus.INTERNAL_SERVER_ERROR_500);
+      logger.warn("Error handling batch request", e);
+    }
+  }
+
+  @Override
+  protected void doOptions(HttpServletRequest req, HttpServletResponse resp) {
+    apiServlet.setResponseHeaders(resp);
+    resp.setStatus(HttpServletResponse.SC_ACCEPTED);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+    super.destroy();
+  }
+
+  private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    apiServlet.setResponseHeaders(resp);
+    if (!apiServlet.checkAllowedHost(req, resp)) {
+      return;
+    }
+
+    JsonArray requests;
+    try {
+      JsonElement body = JSON.parse(req.getReader());
+      requests = body != null && body.isJsonArray() ? body.getAsJsonArray() : null;
+    } catch (JsonParseException e) {
+      requests = null;
+    }
+    if (requests == null || requests.isEmpty()) {
+      resp.setStatus(HttpStatus.BAD_REQUEST_400);
+      ApiServlet.writeJsonToResponse(resp, ERROR_INCORRECT_REQUEST);
+      return;
+    }
+    if (requests.size() > maxRequests) {
+      resp.setStatus(HttpStatus.PAYLOAD_TOO_LARGE_413);
+      ApiServlet.writeJsonToResponse(resp, incorrect("requests", "(at most " + maxRequests + " requests per batch)"));
+      return;
+    }
+
+    List<CompletableFuture<JsonElement>> responses = new ArrayList<>(requests.size());
+    List<Runnable> sequential = new ArrayList<>();
+    for (JsonElement item : requests) {
+      CompletableFuture<JsonElement> response = new CompletableFuture<>();
+      responses.add(response);
+      JsonObject request = JSON.getAsJsonObject(item);
+      String requestType = request.has("requestType") ? JSON.getAsString(request.get("requestType")) : null;
+      ApiServlet.HttpRequestHandler handler = requestType != null ? apiServlet.getRequestHandler(requestType) : null;
+      if (handler == null) {
+        response.complete(ERROR_MISSING_REQUEST);
+        continue;
+      }
+      BatchRequest batchRequest = new BatchRequest(req, request);
+      Runnable task = () -> {
+        try {
+          response.complete(apiServlet.processBatchRequest(handler, batchRequest));
+        } catch (RuntimeException e) {
+          logger.debug("Error processing batch API request", e);
+          response.complete(ERROR_INCORRECT_REQUEST);
+        }
+      };
+      if (apiServlet.isReadOnly(handler)) {
+        executor.execute(task);
+      } else {
+        sequential.add(task);
+      }
+    }
+    sequential.forEach(Runnable::run);
+
+    // written one by one as they complete, in order, instead of building the whole array first
+    resp.setContentType("application/json; charset=UTF-8");
+    try (Writer writer = resp.getWriter()) {
+      writer.write('[');
+      for (int i = 0; i < responses.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        JSON.writeTo(responses.get(i).join(), writer);
+      }
+      writer.write(']');
+    }
+  }
+
+  /**
+   * The outer request with the parameters of one batch item.
+   */
+  private static final class BatchRequest extends HttpServletRequestWrapper {
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+
+    private BatchRequest(HttpServletRequest request, JsonObject item) {
+      super(request);
+      for (Map.Entry<String, JsonElement> entry : item.entrySet()) {
+        JsonElement value = entry.getValue();
+        if (value.isJsonArray()) {
+          JsonArray values = value.getAsJsonArray();
+          String[] strings = new String[values.size()];
+          for (int i = 0; i < strings.length; i++) {
+            strings[i] = JSON.getAsString(values.get(i));
+          }
+          parameters.put(entry.getKey(), strings);
+        } else if (!value.isJsonNull()) {
+          parameters.put(entry.getKey(), new String[] {JSON.getAsString(value)});
+        }
+      }
+    }
+
+    @Override
+    public String getParameter(String name) {
+      String[] values = parameters.get(name);
+      return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+      return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+      return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+      return parameters.get(name);
+    }
+
+    @Override
+    public String getMethod() {
+      return "POST";
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package brs.web.api.http;
+
+import brs.Blockchain;
+import brs.BlockchainProcessor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized responses of handlers whose result only depends on the request parameters and the current
+ * block (see {@link ApiServlet.HttpRequestHandler#isCacheable()}), so repeated queries of explorers and wallets
+ * are answered without touching the database. Every pushed or popped block drops the whole cache.
+ * <p>
+ * Entries hold the UTF-8 bytes and, if large enough, the gzipped bytes too, and carry an ETag so clients can
+ * revalidate with <code>If-None-Match</code> and get a 304. The cached <code>requestProcessingTime</code> is the
+ * one of the original computation.
+ */
+final class ApiResponseCache {
+
+  private static final class Entry {
+    private final byte[] bytes;
+    private final byte[] gzipped;
+    private final String etag;
+
+    private Entry(byte[] bytes, byte[] gzipped, String etag) {
+      this.bytes = bytes;
+      this.gzipped = gzipped;
+      this.etag = etag;
+    }
+  }
+
+  private final Blockchain blockchain;
+  private final int maxEntries;
+  private final int maxEntryBytes;
+  private final int minGzipBytes;
+  private final Map<String, Entry> entries;
+  // bumped on every block change, a response computed across a change is not stored
+  private final AtomicLong generation = new AtomicLong();
+
+  ApiResponseCache(Blockchain blockchain, BlockchainProcessor blockchainProcessor,
+                   int maxEntries, int maxEntryBytes, int minGzipBytes) {
+    this.blockchain = blockchain;
+    this.maxEntries = maxEntries;
+    this.maxEntryBytes = maxEntryBytes;
+    this.minGzipBytes = minGzipBytes;
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > ApiResponseCache.this.maxEntries;
+      }
+    };
+    blockchainProcessor.addListener(block -> invalidate(), BlockchainProcessor.Event.BLOCK_PUSHED);
+    blockchainProcessor.addListener(block -> invalidate(), BlockchainProcessor.Event.BLOCK_AUTO_POPPED);
+    blockchainProcessor.addListener(block -> invalidate(), BlockchainProcessor.Event.BLOCK_MANUAL_POPPED);
+  }
+
+  void invalidate() {
+    synchronized (entries) {
+      generation.incrementAndGet();
+      entries.clear();
+    }
+  }
+
+  void process(ApiServlet.JsonRequestHandler handler, HttpServletRequest req, HttpServletResponse resp)
+    throws IOException {
+    String key = key(req);
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+    }
+    if (entry == null) {
+      long startGeneration = generation.get();
+      long blockId = blockchain.getLastBlock().getId();
+      // encoded straight into the buffer, without the response as string in between
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+      Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+      boolean success = handler.writeJsonRequest(req, writer);
+      writer.flush();
+      byte[] bytes = buffer.toByteArray();
+      entry = new Entry(bytes, bytes.length >= minGzipBytes ? gzip(bytes) : null, etag(blockId, bytes));
+      if (success && bytes.length <= maxEntryBytes) {
+        synchronized (entries) {
+          if (generation.get() == startGeneration) {
+            entries.put(key, entry);
+          }
+        }
+      }
+    }
+    write(entry, req, resp);
+  }
+
+  private static String key(HttpServletRequest req) {
+    // sorted, so the same query with its parameters in another order hits the same entry
+    StringBuilder key = new StringBuilder();
+    for (Map.Entry<String, String[]> parameter : new TreeMap<>(req.getParameterMap()).entrySet()) {
+      if (parameter.getKey().equals("_")) {
+        continue;
+      }
+      key.append(parameter.getKey()).append('\u0000');
+      for (String value : parameter.getValue()) {
+        key.append(value).append('\u0000');
+      }
+      key.append('\u0001');
+    }
+    return key.toString();
+  }
+
+  private static String etag(long blockId, byte[] bytes) {
+    return "\"" + Long.toUnsignedString(blockId, 36) + "-" + Integer.toHexString(Arrays.hashCode(bytes)) + "\"";
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      return null;
+    }
+    return out.toByteArray();
+  }
+
+  private static void write(Entry entry, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    // clients may keep the response but have to revalidate it, which is a cheap 304 until the next block
+    resp.setHeader("Cache-Control", "no-cache, private");
+    resp.setHeader("Pragma", null);
+    resp.setHeader("Expires", null);
+    resp.setHeader("ETag", entry.etag);
+    String ifNoneMatch = req.getHeader("If-None-Match");
+    if (ifNoneMatch != null && ifNoneMatch.contains(entry.etag)) {
+      resp.setStatus(HttpStatus.NOT_MODIFIED_304);
+      return;
+    }
+    resp.setContentType("application/json; charset=UTF-8");
+    byte[] body = entry.bytes;
+    String acceptEncoding = req.getHeader("Accept-Encoding");
+    if (entry.gzipped != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+      resp.setHeader("Content-Encoding", "gzip");
+      resp.setHeader("Vary", "Accept-Encoding");
+      body = entry.gzipped;
+    }
+    resp.setContentLength(body.length);
+    try (OutputStream out = resp.getOutputStream()) {
+      out.write(body);
+    }
+  }
+}
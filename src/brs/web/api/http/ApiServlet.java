@@ -2,6 +2,7 @@ package brs.web.api.http;
 
 import brs.*;
 import brs.assetexchange.AssetExchange;
+import brs.db.sql.Db;
 import brs.deeplink.DeeplinkQRCodeGenerator;
 import brs.feesuggestions.FeeSuggestionCalculator;
 import brs.props.PropertyService;
@@ -9,12 +10,14 @@ import brs.props.Props;
 import brs.services.*;
 import brs.util.JSON;
 import brs.util.Subnet;
+import brs.web.server.ConcurrencyLimiter;
 import brs.web.server.WebServerContext;
 import brs.web.api.http.handler.*;
 import brs.web.api.http.common.*;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import org.eclipse.jetty.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +33,7 @@ import java.net.InetAddress;
 import java.util.*;
 
 import static brs.web.api.http.common.JSONResponses.*;
+import static brs.web.api.http.common.ResultFields.ERROR_CODE_RESPONSE;
 
 public final class ApiServlet extends HttpServlet {
 
@@ -38,6 +42,14 @@ public final class ApiServlet extends HttpServlet {
   private final Set<Subnet> allowedBotHosts;
   private final boolean acceptSurplusParams;
   private final WebServerContext context;
+  // Admin handlers change global state (pop off, full reset, backup, clearing unconfirmed transactions), the admin
+  // limit of one by default keeps them from overlapping. All other handlers are safe to run concurrently: reads run
+  // outside of transactions on their own connection, broadcasts go through the unconfirmed transaction store which
+  // synchronizes itself. Their limits are off by default.
+  private final ConcurrencyLimiter adminLimiter;
+  private final ConcurrencyLimiter readLimiter;
+  private final ConcurrencyLimiter broadcastLimiter;
+  private final ApiResponseCache responseCache;
 
   public ApiServlet(WebServerContext context, Set<Subnet> allowedBotHosts) {
 
@@ -48,6 +60,19 @@ public final class ApiServlet extends HttpServlet {
     this.allowedOrigins = context.getPropertyService().getString(Props.API_ALLOWED_ORIGINS);
     this.acceptSurplusParams = context.getPropertyService().getBoolean(Props.API_ACCEPT_SURPLUS_PARAMS);
 
+    PropertyService propertyService = context.getPropertyService();
+    int maxWaitMs = propertyService.getInt(Props.JETTY_API_CONCURRENCY_WAIT_MS);
+    this.adminLimiter = new ConcurrencyLimiter("admin", propertyService.getInt(Props.JETTY_API_MAX_CONCURRENT_ADMIN), maxWaitMs);
+    this.readLimiter = new ConcurrencyLimiter("read", propertyService.getInt(Props.JETTY_API_MAX_CONCURRENT_READ), maxWaitMs);
+    this.broadcastLimiter = new ConcurrencyLimiter("broadcast", propertyService.getInt(Props.JETTY_API_MAX_CONCURRENT_BROADCAST), maxWaitMs);
+
+    int responseCacheSize = propertyService.getInt(Props.API_RESPONSE_CACHE_SIZE);
+    this.responseCache = responseCacheSize > 0
+      ? new ApiResponseCache(context.getBlockchain(), context.getBlockchainProcessor(), responseCacheSize,
+          propertyService.getInt(Props.API_RESPONSE_CACHE_MAX_ENTRY_BYTES),
+          propertyService.getInt(Props.JETTY_API_GZIP_FILTER_MIN_GZIP_SIZE))
+      : null;
+
     apiRequestHandlers = mapRequestHandlers();
   }
 
@@ -99,6 +124,7 @@ public final class ApiServlet extends HttpServlet {
     map.put("getAccountPublicKey", new GetAccountPublicKey(parameterService));
     map.put("getAccountTransactionIds", new GetAccountTransactionIds(parameterService, blockchain));
     map.put("getAccountTransactions", new GetAccountTransactions(parameterService, blockchain));
+    map.put("exportAccountTransactions", new ExportAccountTransactions(parameterService, blockchain));
     map.put("getAccountAssets", new GetAccountAssets(parameterService, accountService));
     map.put("sellAlias", new SellAlias(parameterService, blockchain, apiTransactionManager));
     map.put("buyAlias", new BuyAlias(parameterService, blockchain, aliasService, apiTransactionManager));
@@ -211,6 +237,8 @@ public final class ApiServlet extends HttpServlet {
     map.put("fullReset", new FullReset(blockchainProcessor, propertyService));
     map.put("popOff", new PopOff(blockchainProcessor, blockchain, blockService, propertyService));
     map.put("backupDB", new BackupDB(propertyService));
+    map.put("getQueryStatistics", new GetQueryStatistics(propertyService));
+    map.put("resetQueryStatistics", new ResetQueryStatistics(propertyService));
 
 
     NetworkParameters networkParameters = context.getNetworkParameters();
@@ -229,6 +257,24 @@ public final class ApiServlet extends HttpServlet {
 
     @Override
     protected void processRequest(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+      resp.setContentType("application/json; charset=UTF-8");
+      try (Writer writer = resp.getWriter()) {
+        try {
+          writeJsonRequest(req, writer);
+        } catch (RuntimeException e) {
+          // only a streamed response fails after writing started, the part written is still in the response
+          // buffer unless it outgrew it
+          if (resp.isCommitted()) {
+            throw new IOException("Streamed API response failed after it was partly sent", e);
+          }
+          logger.debug("Error processing API request", e);
+          resp.resetBuffer();
+          JSON.writeTo(ERROR_INCORRECT_REQUEST, writer);
+        }
+      }
+    }
+
+    final JsonElement processJsonRequest(HttpServletRequest req) {
       long startTime = System.currentTimeMillis();
 
       JsonElement response;
@@ -245,15 +291,79 @@ public final class ApiServlet extends HttpServlet {
       if (response instanceof JsonObject) {
         JSON.getAsJsonObject(response).addProperty("requestProcessingTime", processingTime);
       }
+      logProcessingTime(req, processingTime);
+      return response;
+    }
+
+    /**
+     * Writes the response, streamed if the handler supports it, otherwise the tree of {@link #processJsonRequest}.
+     *
+     * @return false if an error response was written
+     */
+    final boolean writeJsonRequest(HttpServletRequest req, Writer writer) throws IOException {
+      long startTime = System.currentTimeMillis();
+
+      JsonResponseWriter responseWriter;
+      try {
+        responseWriter = processStreamingRequest(req);
+      } catch (ParameterException e) {
+        JSON.writeTo(withProcessingTime(e.getErrorResponse(), startTime), writer);
+        return false;
+      } catch (SignumException | RuntimeException e) {
+        logger.debug("Error processing API request", e);
+        JSON.writeTo(withProcessingTime(ERROR_INCORRECT_REQUEST, startTime), writer);
+        return false;
+      }
+
+      if (responseWriter == null) {
+        JsonElement response = processJsonRequest(req);
+        JSON.writeTo(response, writer);
+        return !(response instanceof JsonObject && ((JsonObject) response).has(ERROR_CODE_RESPONSE));
+      }
+
+      // the same fields as processJsonRequest, written as they are produced
+      JsonWriter json = JSON.newWriter(writer);
+      json.beginObject();
+      responseWriter.writeFields(json);
+      long processingTime = System.currentTimeMillis() - startTime;
+      json.name("requestProcessingTime").value(processingTime);
+      json.endObject();
+      json.flush();
+      logProcessingTime(req, processingTime);
+      return true;
+    }
+
+    private JsonElement withProcessingTime(JsonElement response, long startTime) {
+      JsonObject json = JSON.getAsJsonObject(response).deepCopy();
+      json.addProperty("requestProcessingTime", System.currentTimeMillis() - startTime);
+      return json;
+    }
+
+    private static void logProcessingTime(HttpServletRequest req, long processingTime) {
       if(logger.isDebugEnabled() && processingTime > 20){
         logger.debug("{} ms - {}", processingTime, req.getParameter("requestType"));
       }
-
-      writeJsonToResponse(resp, response);
     }
 
     protected abstract JsonElement processRequest(HttpServletRequest request) throws SignumException;
 
+    /**
+     * Handlers with large responses can write the fields of their response object one by one instead of building
+     * the tree of {@link #processRequest(HttpServletRequest)} first. All parameters are checked and everything
+     * read from the database is loaded here, before anything is written, the returned writer only serializes what
+     * was loaded. A failure after the first bytes went out could not be answered with an error response anymore.
+     *
+     * @return the writer for the fields of the response, or null to use {@link #processRequest(HttpServletRequest)}
+     */
+    protected JsonResponseWriter processStreamingRequest(HttpServletRequest request) throws SignumException {
+      return null;
+    }
+
+  }
+
+  @FunctionalInterface
+  public interface JsonResponseWriter {
+    void writeFields(JsonWriter json) throws IOException;
   }
 
   public abstract static class HttpRequestHandler {
@@ -291,9 +401,25 @@ public final class ApiServlet extends HttpServlet {
     boolean requirePost() {
       return false;
     }
+
+    /**
+     * @return true if the response only depends on the parameters and the current block, so it can be served
+     * from the {@link ApiResponseCache} until the next block
+     */
+    protected boolean isCacheable() {
+      return false;
+    }
+
+    /**
+     * @return true if the handler creates, signs, broadcasts or submits something. Those run under the broadcast
+     * limit, against the primary database and one after the other within a batch, everything else counts as a read
+     */
+    protected boolean isWrite() {
+      return false;
+    }
   }
 
-  private static void writeJsonToResponse(HttpServletResponse resp, JsonElement msg) throws IOException {
+  static void writeJsonToResponse(HttpServletResponse resp, JsonElement msg) throws IOException {
     resp.setContentType("application/json; charset=UTF-8");
     try (Writer writer = resp.getWriter()) {
       JSON.writeTo(msg, writer);
@@ -325,14 +451,29 @@ public final class ApiServlet extends HttpServlet {
     doGet(req, resp);
   }
 
-  private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+  private ConcurrencyLimiter getLimiter(HttpRequestHandler handler) {
+    if (handler.getAPITags().contains(LegacyDocTag.ADMIN)) {
+      return adminLimiter;
+    }
+    if (handler.isWrite()) {
+      return broadcastLimiter;
+    }
+    return readLimiter;
+  }
+
+  void setResponseHeaders(HttpServletResponse resp) {
     resp.setHeader("Access-Control-Allow-Methods", "GET, POST, OPTIONS, HEAD");
     resp.setHeader("Access-Control-Allow-Origin", allowedOrigins);
     resp.setHeader("Access-Control-Allow-Headers", allowedOrigins);
     resp.setHeader("Cache-Control", "no-cache, no-store, must-revalidate, private");
     resp.setHeader("Pragma", "no-cache");
     resp.setDateHeader("Expires", 0);
+  }
 
+  /**
+   * Answers with 403 if the client is not allowed to use the API.
+   */
+  boolean checkAllowedHost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
     if (allowedBotHosts != null) {
       InetAddress remoteAddress = InetAddress.getByName(req.getRemoteHost());
       boolean allowed = false;
@@ -345,9 +486,55 @@ public final class ApiServlet extends HttpServlet {
       if (!allowed) {
         resp.setStatus(HttpStatus.FORBIDDEN_403);
         writeJsonToResponse(resp, ERROR_NOT_ALLOWED);
-        return;
+        return false;
       }
     }
+    return true;
+  }
+
+  HttpRequestHandler getRequestHandler(String requestType) {
+    return apiRequestHandlers.get(requestType);
+  }
+
+  /**
+   * @return true if the request only reads, so it can run concurrently with the other reads of a batch
+   */
+  boolean isReadOnly(HttpRequestHandler handler) {
+    return getLimiter(handler) == readLimiter;
+  }
+
+  /**
+   * Processes one request of a batch, errors are returned as the response of that request.
+   */
+  JsonElement processBatchRequest(HttpRequestHandler handler, HttpServletRequest req) {
+    if (!(handler instanceof JsonRequestHandler)) {
+      return ERROR_INCORRECT_REQUEST;
+    }
+    ConcurrencyLimiter limiter = getLimiter(handler);
+    if (!limiter.acquire()) {
+      return ERROR_TOO_BUSY;
+    }
+    try {
+      if (!acceptSurplusParams) handler.validateParams(req);
+      Db.setReadPoolRouting(isReadOnly(handler));
+      return ((JsonRequestHandler) handler).processJsonRequest(req);
+    } catch (ParameterException e) {
+      return e.getErrorResponse();
+    } catch (RuntimeException e) {
+      logger.debug("Error processing batch API request", e);
+      return ERROR_INCORRECT_REQUEST;
+    } finally {
+      Db.setReadPoolRouting(false);
+      limiter.release();
+    }
+  }
+
+  private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    setResponseHeaders(resp);
+
+    if (!checkAllowedHost(req, resp)) {
+      return;
+    }
 
     if("OPTIONS".equals(req.getMethod())) {
       // For HTTP OPTIONS reply with ACCEPTED status code -- per CORS handshake
@@ -375,15 +562,35 @@ public final class ApiServlet extends HttpServlet {
       return;
     }
 
+    ConcurrencyLimiter limiter = getLimiter(apiRequestHandler);
+    if (!limiter.acquire()) {
+      resp.setStatus(HttpStatus.SERVICE_UNAVAILABLE_503);
+      writeJsonToResponse(resp, ERROR_TOO_BUSY);
+      return;
+    }
+
     try {
       if (!acceptSurplusParams) apiRequestHandler.validateParams(req);
-      apiRequestHandler.processRequest(req, resp);
+      boolean cached = responseCache != null && apiRequestHandler instanceof JsonRequestHandler
+        && apiRequestHandler.isCacheable();
+      // reads outside of transactions go to the read pool (if configured), away from block processing. It may lag
+      // behind, so handlers that change anything validate against the primary, and so do cached responses as they
+      // are kept for the whole block (they are only computed once per block anyway).
+      Db.setReadPoolRouting(isReadOnly(apiRequestHandler) && !cached);
+      if (cached) {
+        responseCache.process((JsonRequestHandler) apiRequestHandler, req, resp);
+      } else {
+        apiRequestHandler.processRequest(req, resp);
+      }
     } catch (ParameterException e) {
       writeJsonToResponse(resp, e.getErrorResponse());
     } catch (RuntimeException e) {
       logger.debug("Error processing API request", e);
       resp.setStatus(HttpStatus.INTERNAL_SERVER_ERROR_500);
       writeJsonToResponse(resp, ERROR_INCORRECT_REQUEST);
+    } finally {
+      Db.setReadPoolRouting(false);
+      limiter.release();
     }
   }
 }
@@ -8,17 +8,22 @@ import brs.at.AtMachineState;
 import brs.crypto.Crypto;
 import brs.crypto.EncryptedData;
 import brs.db.sql.SqlTransactionDb;
+import brs.peer.Bandwidth;
 import brs.peer.Peer;
+import brs.peer.PeerScore;
 import brs.props.Props;
 import brs.util.Convert;
 import brs.util.JSON;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 import static brs.web.api.http.common.ResultFields.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 
 public final class JSONData {
 
@@ -190,6 +195,62 @@ public final class JSONData {
     return json;
   }
 
+  /**
+   * Writes the same as {@link #block(Block, boolean, int, long, int)}, field by field, so only one transaction at
+   * a time exists as objects. Keep both in sync, JSONDataStreamingTest compares them.
+   */
+  public static void writeBlock(JsonWriter json, Block block, boolean includeTransactions, int currentBlockchainHeight, long blockReward, int scoopNum) throws IOException {
+    List<Transaction> allBlockTransactions = block.getAllTransactions();
+    json.beginObject();
+    json.name(BLOCK_RESPONSE).value(block.getStringId());
+    json.name(HEIGHT_RESPONSE).value(block.getHeight());
+    writeAccount(json, GENERATOR_RESPONSE, block.getGeneratorId());
+    json.name(GENERATOR_PUBLIC_KEY_RESPONSE).value(Convert.toHexString(block.getGeneratorPublicKey()));
+    json.name(NONCE_RESPONSE).value(Convert.toUnsignedLong(block.getNonce()));
+    json.name(SCOOP_NUM_RESPONSE).value(scoopNum);
+    json.name(TIMESTAMP_RESPONSE).value(block.getTimestamp());
+    json.name(NUMBER_OF_TRANSACTIONS_RESPONSE).value(allBlockTransactions.size());
+    json.name(TOTAL_AMOUNT_NQT_RESPONSE).value(String.valueOf(block.getTotalAmountNqt()));
+    json.name(TOTAL_FEE_NQT_RESPONSE).value(String.valueOf(block.getTotalFeeNqt()));
+    json.name(TOTAL_FEE_CASH_BACK_NQT_RESPONSE).value(String.valueOf(block.getTotalFeeCashBackNqt()));
+    json.name(TOTAL_FEE_BURNT_NQT_RESPONSE).value(String.valueOf(block.getTotalFeeBurntNqt()));
+    json.name(BLOCK_REWARD_NQT_RESPONSE).value(Convert.toUnsignedLong(blockReward));
+    json.name(BLOCK_REWARD_RESPONSE).value(Convert.toUnsignedLong(blockReward / Signum.getPropertyService().getInt(Props.ONE_COIN_NQT)));
+    json.name(PAYLOAD_LENGTH_RESPONSE).value(block.getPayloadLength());
+    json.name(VERSION_RESPONSE).value(block.getVersion());
+    json.name(BASE_TARGET_RESPONSE).value(Convert.toUnsignedLong(block.getCapacityBaseTarget()));
+    json.name(AVERAGE_COMMITMENT_NQT_RESPONSE).value(Convert.toUnsignedLong(block.getAverageCommitment()));
+    json.name(CUMULATIVE_DIFFICULTY_RESPONSE).value(block.getCumulativeDifficulty().toString());
+
+    if (block.getPreviousBlockId() != 0) {
+      json.name(PREVIOUS_BLOCK_RESPONSE).value(Convert.toUnsignedLong(block.getPreviousBlockId()));
+    }
+
+    if (block.getNextBlockId() != 0) {
+      json.name(NEXT_BLOCK_RESPONSE).value(Convert.toUnsignedLong(block.getNextBlockId()));
+    }
+
+    json.name(PAYLOAD_HASH_RESPONSE).value(Convert.toHexString(block.getPayloadHash()));
+    json.name(GENERATION_SIGNATURE_RESPONSE).value(Convert.toHexString(block.getGenerationSignature()));
+
+    if (block.getVersion() > 1) {
+      json.name(PREVIOUS_BLOCK_HASH_RESPONSE).value(Convert.toHexString(block.getPreviousBlockHash()));
+    }
+
+    json.name(BLOCK_SIGNATURE_RESPONSE).value(Convert.toHexString(block.getBlockSignature()));
+
+    json.name(TRANSACTIONS_RESPONSE).beginArray();
+    for (Transaction transaction : allBlockTransactions) {
+      if (includeTransactions) {
+        writeTransaction(json, transaction, currentBlockchainHeight);
+      } else {
+        json.value(Convert.toUnsignedLong(transaction.getId()));
+      }
+    }
+    json.endArray();
+    json.endObject();
+  }
+
   public static JsonObject encryptedData(EncryptedData encryptedData) {
     JsonObject json = new JsonObject();
     json.addProperty(DATA_RESPONSE, Convert.toHexString(encryptedData.getData()));
@@ -260,6 +321,29 @@ public final class JSONData {
     json.addProperty("networkName", peer.getNetworkName());
     json.addProperty("blacklisted", peer.isBlacklisted());
     json.addProperty("lastUpdated", peer.getLastUpdated());
+    PeerScore score = peer.getScore();
+    if (score != null) {
+      json.addProperty("score", score.getValue());
+      json.addProperty("rttMillis", score.getRttMillis());
+      json.addProperty("downloadBytesPerSecond", score.getDownloadBytesPerSecond());
+      json.addProperty("errorRate", score.getErrorRate());
+      json.addProperty("recentForks", score.getRecentForks());
+      json.addProperty("recentFirstSeenBlocks", score.getRecentFirstSeenBlocks());
+    }
+    return json;
+  }
+
+  /**
+   * @return the current P2P throughput per lane, as read on net volume changes
+   */
+  public static JsonObject p2pThroughput(BlockchainProcessor blockchainProcessor) {
+    JsonObject json = new JsonObject();
+    for (Bandwidth.Lane lane : Bandwidth.Lane.values()) {
+      JsonObject laneJson = new JsonObject();
+      laneJson.addProperty("uploadBytesPerSecond", blockchainProcessor.getUploadBytesPerSecond(lane));
+      laneJson.addProperty("downloadBytesPerSecond", blockchainProcessor.getDownloadBytesPerSecond(lane));
+      json.add(lane.name().toLowerCase(Locale.ROOT), laneJson);
+    }
     return json;
   }
 
@@ -405,12 +489,8 @@ public final class JSONData {
     else if(transaction.hasId()){
       json.addProperty(TRANSACTION_RESPONSE, transaction.getStringId());
     }
-    JsonObject attachmentJSON = new JsonObject();
-    for (Appendix appendage : transaction.getAppendages()) {
-      JSON.addAll(attachmentJSON, appendage.getJsonObject());
-    }
-    if (attachmentJSON.size() > 0) {
-      modifyAttachmentJSON(attachmentJSON);
+    JsonObject attachmentJSON = attachment(transaction);
+    if (attachmentJSON != null) {
       json.add(ATTACHMENT_RESPONSE, attachmentJSON);
     }
     byte[] attachmentBytes = SqlTransactionDb.getAttachmentBytes(transaction);
@@ -437,6 +517,74 @@ public final class JSONData {
     return json;
   }
 
+  /**
+   * Writes the same as {@link #transaction(Transaction, int)}, field by field, only the attachment is built as
+   * objects. Keep both in sync, JSONDataStreamingTest compares them.
+   */
+  public static void writeTransaction(JsonWriter json, Transaction transaction, int currentBlockchainHeight) throws IOException {
+    json.beginObject();
+    json.name(TYPE_RESPONSE).value(transaction.getType().getType());
+    json.name(SUBTYPE_RESPONSE).value(transaction.getType().getSubtype());
+    json.name(TIMESTAMP_RESPONSE).value(transaction.getTimestamp());
+    json.name(DEADLINE_RESPONSE).value(transaction.getDeadline());
+    json.name(SENDER_PUBLIC_KEY_RESPONSE).value(Convert.toHexString(transaction.getSenderPublicKey()));
+    if (transaction.getRecipientId() != 0) {
+      writeAccount(json, RECIPIENT_RESPONSE, transaction.getRecipientId());
+    }
+    json.name(AMOUNT_NQT_RESPONSE).value(String.valueOf(transaction.getAmountNqt()));
+    json.name(FEE_NQT_RESPONSE).value(String.valueOf(transaction.getFeeNqt()));
+    if (transaction.getReferencedTransactionFullHash() != null) {
+      json.name(REFERENCED_TRANSACTION_FULL_HASH_RESPONSE).value(transaction.getReferencedTransactionFullHash());
+    }
+    byte[] signature = Convert.emptyToNull(transaction.getSignature());
+    if (signature != null) {
+      json.name(SIGNATURE_RESPONSE).value(Convert.toHexString(signature));
+      json.name(SIGNATURE_HASH_RESPONSE).value(Convert.toHexString(Crypto.sha256().digest(signature)));
+      json.name(FULL_HASH_RESPONSE).value(transaction.getFullHash());
+      json.name(TRANSACTION_RESPONSE).value(transaction.getStringId());
+    }
+    else if (!transaction.getType().isSigned()) {
+      json.name(FULL_HASH_RESPONSE).value(transaction.getFullHash());
+      json.name(TRANSACTION_RESPONSE).value(transaction.getStringId());
+    }
+    else if(transaction.hasId()){
+      json.name(TRANSACTION_RESPONSE).value(transaction.getStringId());
+    }
+    JsonObject attachmentJSON = attachment(transaction);
+    if (attachmentJSON != null) {
+      json.name(ATTACHMENT_RESPONSE);
+      JSON.write(attachmentJSON, json);
+    }
+    byte[] attachmentBytes = SqlTransactionDb.getAttachmentBytes(transaction);
+    if (attachmentBytes != null) {
+      json.name(ATTACHMENT_BYTES_RESPONSE).value(Convert.toHexString(attachmentBytes));
+    }
+    writeAccount(json, SENDER_RESPONSE, transaction.getSenderId());
+    json.name(HEIGHT_RESPONSE).value(transaction.getHeight());
+    json.name(VERSION_RESPONSE).value(transaction.getVersion());
+    if (transaction.getVersion() > 0) {
+      json.name(EC_BLOCK_ID_RESPONSE).value(Convert.toUnsignedLong(transaction.getEcBlockId()));
+      json.name(EC_BLOCK_HEIGHT_RESPONSE).value(transaction.getEcBlockHeight());
+    }
+    json.name(CASH_BACK_ID_RESPONSE).value(Convert.toUnsignedLong(transaction.getCashBackId()));
+    json.name(BLOCK_RESPONSE).value(Convert.toUnsignedLong(transaction.getBlockId()));
+    json.name(CONFIRMATIONS_RESPONSE).value(currentBlockchainHeight - transaction.getHeight());
+    json.name(BLOCK_TIMESTAMP_RESPONSE).value(transaction.getBlockTimestamp());
+    json.endObject();
+  }
+
+  private static JsonObject attachment(Transaction transaction) {
+    JsonObject attachmentJSON = new JsonObject();
+    for (Appendix appendage : transaction.getAppendages()) {
+      JSON.addAll(attachmentJSON, appendage.getJsonObject());
+    }
+    if (attachmentJSON.size() == 0) {
+      return null;
+    }
+    modifyAttachmentJSON(attachmentJSON);
+    return attachmentJSON;
+  }
+
   public static JsonObject indirect(IndirectIncoming indirectIncoming, int currentBlockchainHeight) {
     JsonObject json = new JsonObject();
     json.addProperty(AMOUNT_NQT_RESPONSE, String.valueOf(indirectIncoming.getAmount()));
@@ -471,6 +619,11 @@ public final class JSONData {
     json.addProperty(name + "RS", Convert.rsAccount(accountId));
   }
 
+  private static void writeAccount(JsonWriter json, String name, long accountId) throws IOException {
+    json.name(name).value(Convert.toUnsignedLong(accountId));
+    json.name(name + "RS").value(Convert.rsAccount(accountId));
+  }
+
   public static JsonObject at(AT at) {
     return at(at, null, true);
   }
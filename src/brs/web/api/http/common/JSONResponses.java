@@ -157,6 +157,14 @@ public final class JSONResponses {
     ERROR_MISSING_REQUEST = response;
   }
 
+  public static final JsonElement ERROR_TOO_BUSY;
+  static {
+    JsonObject response = new JsonObject();
+    response.addProperty(ERROR_CODE_RESPONSE, 1);
+    response.addProperty(ERROR_DESCRIPTION_RESPONSE, "Too many concurrent requests, try again later");
+    ERROR_TOO_BUSY = response;
+  }
+
   public static final JsonElement POST_REQUIRED;
   static {
     JsonObject response = new JsonObject();
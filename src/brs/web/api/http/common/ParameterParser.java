@@ -5,6 +5,7 @@ import brs.Constants;
 import brs.crypto.EncryptedData;
 import brs.fluxcapacitor.FluxValues;
 import brs.util.Convert;
+import brs.util.PageCursor;
 import signumj.entity.SignumAddress;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -184,6 +185,17 @@ public final class ParameterParser {
     }
   }
 
+  /**
+   * @return the cursor to continue after, or null to start with the first page
+   */
+  public static PageCursor getCursor(HttpServletRequest req) throws ParameterException {
+    try {
+      return PageCursor.decode(Convert.emptyToNull(req.getParameter(CURSOR_PARAMETER)));
+    } catch (IllegalArgumentException e) {
+      throw new ParameterException(incorrect(CURSOR_PARAMETER));
+    }
+  }
+
   public static int getFirstIndex(HttpServletRequest req) {
     int firstIndex;
     try {
@@ -42,6 +42,7 @@ public final class Parameters {
   public static final String BUYER_PARAMETER = "buyer";
   public static final String FIRST_INDEX_PARAMETER = "firstIndex";
   public static final String LAST_INDEX_PARAMETER = "lastIndex";
+  public static final String CURSOR_PARAMETER = "cursor";
   public static final String NUMBER_OF_CONFIRMATIONS_PARAMETER = "numberOfConfirmations";
   public static final String HEIGHT_PARAMETER = "height";
   public static final String HEIGHT_START_PARAMETER = "heightStart";
@@ -142,6 +142,7 @@ public class ResultFields {
   public static final String KEY_VALUES_RESPONSE = "keyValues";
   public static final String TRADES_RESPONSE = "trades";
   public static final String NEXT_INDEX_RESPONSE = "nextIndex";
+  public static final String NEXT_CURSOR_RESPONSE = "nextCursor";
   public static final String ASK_ORDER_RESPONSE = "askOrder";
   public static final String BID_ORDER_RESPONSE = "bidOrder";
   public static final String ASK_ORDER_HEIGHT_RESPONSE = "askOrderHeight";
@@ -182,4 +183,6 @@ public class ResultFields {
   public static final String PRIORITY_FEE_RESPONSE = "priority";
   public static final String IS_AT_RESPONSE = "isAT";
   public static final String IS_SECURED_RESPONSE = "isSecured";
+  public static final String QUERIES_RESPONSE = "queries";
+  public static final String POOLS_RESPONSE = "pools";
 }
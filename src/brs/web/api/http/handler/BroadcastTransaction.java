@@ -89,4 +89,9 @@ public final class BroadcastTransaction extends ApiServlet.JsonRequestHandler {
     return true;
   }
 
+  @Override
+  protected boolean isWrite() {
+    return true;
+  }
+
 }
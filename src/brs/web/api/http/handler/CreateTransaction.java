@@ -61,6 +61,11 @@ public abstract class CreateTransaction extends ApiServlet.JsonRequestHandler {
     return true;
   }
 
+  @Override
+  protected final boolean isWrite() {
+    return true;
+  }
+
   private long minimumFeeNQT() {
     return Signum.getFluxCapacitor().getValue(FluxValues.FEE_QUANT);
   }
@@ -0,0 +1,108 @@
+package brs.web.api.http.handler;
+
+import brs.Account;
+import brs.Blockchain;
+import brs.SignumException;
+import brs.services.ParameterService;
+import brs.util.Convert;
+import brs.util.JSON;
+import brs.web.api.http.ApiServlet;
+import brs.web.api.http.common.JSONData;
+import brs.web.api.http.common.LegacyDocTag;
+import brs.web.api.http.common.ParameterException;
+import brs.web.server.ConcurrencyLimiter;
+import com.google.gson.stream.JsonWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import static brs.web.api.http.common.JSONResponses.ERROR_INCORRECT_REQUEST;
+import static brs.web.api.http.common.JSONResponses.ERROR_TOO_BUSY;
+import static brs.web.api.http.common.JSONResponses.incorrect;
+import static brs.web.api.http.common.Parameters.*;
+
+/**
+ * Exports all transactions of an account as newline delimited JSON, one transaction per line, block by block and by
+ * id within a block. As in the account history, indirect incoming payments are included when the indirect incoming
+ * service is enabled. The rows are written to the response as they are read from the database, so the export of an
+ * account with millions of transactions needs neither paging nor the memory for the whole list.
+ * <p>
+ * An export holds a database connection for as long as the client takes to read it, so only a few run at once and
+ * more are answered as too busy.
+ */
+public final class ExportAccountTransactions extends ApiServlet.HttpRequestHandler {
+
+  static final int MAX_CONCURRENT_EXPORTS = 2;
+
+  private final ParameterService parameterService;
+  private final Blockchain blockchain;
+  private final ConcurrencyLimiter exportLimiter = new ConcurrencyLimiter("export", MAX_CONCURRENT_EXPORTS, 0);
+
+  public ExportAccountTransactions(ParameterService parameterService, Blockchain blockchain) {
+    super(new LegacyDocTag[] {LegacyDocTag.ACCOUNTS}, ACCOUNT_PARAMETER, HEIGHT_START_PARAMETER, HEIGHT_END_PARAMETER);
+    this.parameterService = parameterService;
+    this.blockchain = blockchain;
+  }
+
+  @Override
+  protected void processRequest(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    Account account;
+    int heightStart;
+    int heightEnd;
+    try {
+      account = parameterService.getAccount(req);
+      heightStart = getHeight(req, HEIGHT_START_PARAMETER, 0);
+      heightEnd = getHeight(req, HEIGHT_END_PARAMETER, -1);
+    } catch (ParameterException e) {
+      addErrorMessage(resp, e.getErrorResponse());
+      return;
+    } catch (SignumException e) {
+      addErrorMessage(resp, ERROR_INCORRECT_REQUEST);
+      return;
+    }
+
+    if (!exportLimiter.acquire()) {
+      resp.setStatus(HttpStatus.SERVICE_UNAVAILABLE_503);
+      addErrorMessage(resp, ERROR_TOO_BUSY);
+      return;
+    }
+    int currentHeight = blockchain.getHeight();
+    resp.setContentType("application/x-ndjson; charset=UTF-8");
+    try (Writer writer = resp.getWriter()) {
+      JsonWriter json = JSON.newWriter(writer);
+      blockchain.forEachTransaction(account.getId(), heightStart, heightEnd, transaction -> {
+        try {
+          JSONData.writeTransaction(json, transaction, currentHeight);
+          writer.write('\n');
+        } catch (IOException e) {
+          // client went away, this also ends the database cursor
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      exportLimiter.release();
+    }
+  }
+
+  private static int getHeight(HttpServletRequest req, String parameter, int defaultHeight) throws ParameterException {
+    String heightValue = Convert.emptyToNull(req.getParameter(parameter));
+    if (heightValue == null) {
+      return defaultHeight;
+    }
+    try {
+      int height = Integer.parseInt(heightValue);
+      if (height < 0) {
+        throw new ParameterException(incorrect(parameter));
+      }
+      return height;
+    } catch (NumberFormatException e) {
+      throw new ParameterException(incorrect(parameter));
+    }
+  }
+}
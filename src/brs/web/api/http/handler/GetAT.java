@@ -50,4 +50,8 @@ public final class GetAT extends ApiServlet.JsonRequestHandler {
     return JSONData.at(at, atCreation, includeDetails);
   }
 
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
 }
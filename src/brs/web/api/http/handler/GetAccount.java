@@ -58,8 +58,10 @@ public final class GetAccount extends ApiServlet.JsonRequestHandler {
 
     if(parameterService.getEstimateCommitment(req)) {
       Block block = blockchain.getBlockAtHeight(height);
-      long commitment = generator.estimateCommitment(account.getId(), block);
-      response.addProperty(COMMITMENT_NQT_RESPONSE, Convert.toUnsignedLong(commitment));
+      if (block != null) {
+        long commitment = generator.estimateCommitment(account.getId(), block);
+        response.addProperty(COMMITMENT_NQT_RESPONSE, Convert.toUnsignedLong(commitment));
+      }
     }
 
     JSONData.putAccount(response, ACCOUNT_RESPONSE, account.getId());
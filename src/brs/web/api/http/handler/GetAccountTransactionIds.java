@@ -6,6 +6,7 @@ import brs.SignumException;
 import brs.Transaction;
 import brs.services.ParameterService;
 import brs.util.CollectionWithIndex;
+import brs.util.PageCursor;
 
 import brs.util.Convert;
 import brs.web.api.http.ApiServlet;
@@ -19,6 +20,7 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import static brs.web.api.http.common.JSONResponses.MISSING_ACCOUNT;
 import static brs.web.api.http.common.Parameters.*;
+import static brs.web.api.http.common.ResultFields.NEXT_CURSOR_RESPONSE;
 import static brs.web.api.http.common.ResultFields.NEXT_INDEX_RESPONSE;
 
 public final class GetAccountTransactionIds extends ApiServlet.JsonRequestHandler {
@@ -36,6 +38,7 @@ public final class GetAccountTransactionIds extends ApiServlet.JsonRequestHandle
       SUBTYPE_PARAMETER,
       FIRST_INDEX_PARAMETER,
       LAST_INDEX_PARAMETER,
+      CURSOR_PARAMETER,
       NUMBER_OF_CONFIRMATIONS_PARAMETER,
       INCLUDE_INDIRECT_PARAMETER,
       BIDIRECTIONAL_PARAMETER
@@ -93,6 +96,13 @@ public final class GetAccountTransactionIds extends ApiServlet.JsonRequestHandle
     }
 
 
+    // with a cursor the page starts right after it, the first index is only used for the page size
+    PageCursor cursor = ParameterParser.getCursor(req);
+    if (cursor != null) {
+      lastIndex -= firstIndex;
+      firstIndex = 0;
+    }
+
     int timestamp = ParameterParser.getTimestamp(req);
     int numberOfConfirmations = parameterService.getNumberOfConfirmations(req);
     boolean includeIndirect = parameterService.getIncludeIndirect(req);
@@ -105,7 +115,8 @@ public final class GetAccountTransactionIds extends ApiServlet.JsonRequestHandle
       timestamp,
       firstIndex,
       lastIndex,
-      includeIndirect)
+      includeIndirect,
+      cursor)
       : blockchain.getTransactions(
       senderId,
       recipientId,
@@ -116,7 +127,8 @@ public final class GetAccountTransactionIds extends ApiServlet.JsonRequestHandle
       firstIndex,
       lastIndex,
       includeIndirect,
-      parameterService.getBidirectional(req));
+      parameterService.getBidirectional(req),
+      cursor);
 
     JsonArray transactionIds = new JsonArray();
     for (Transaction transaction : accountTransactions) {
@@ -126,9 +138,12 @@ public final class GetAccountTransactionIds extends ApiServlet.JsonRequestHandle
     JsonObject response = new JsonObject();
     response.add("transactionIds", transactionIds);
 
-    if(accountTransactions.hasNextIndex()) {
+    if(cursor == null && accountTransactions.hasNextIndex()) {
       response.addProperty(NEXT_INDEX_RESPONSE, accountTransactions.nextIndex());
     }
+    if (accountTransactions.hasNextCursor()) {
+      response.addProperty(NEXT_CURSOR_RESPONSE, accountTransactions.getNextCursor().encode());
+    }
 
     return response;
   }
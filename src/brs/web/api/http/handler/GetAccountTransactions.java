@@ -6,6 +6,7 @@ import brs.SignumException;
 import brs.Transaction;
 import brs.services.ParameterService;
 import brs.util.CollectionWithIndex;
+import brs.util.PageCursor;
 
 import brs.util.Convert;
 import brs.web.api.http.ApiServlet;
@@ -18,6 +19,7 @@ import signumj.entity.SignumAddress;
 import jakarta.servlet.http.HttpServletRequest;
 
 import static brs.web.api.http.common.Parameters.*;
+import static brs.web.api.http.common.ResultFields.NEXT_CURSOR_RESPONSE;
 import static brs.web.api.http.common.ResultFields.NEXT_INDEX_RESPONSE;
 import static brs.web.api.http.common.ResultFields.TRANSACTIONS_RESPONSE;
 import static brs.web.api.http.common.JSONResponses.MISSING_ACCOUNT;
@@ -37,6 +39,7 @@ public final class GetAccountTransactions extends ApiServlet.JsonRequestHandler
       SUBTYPE_PARAMETER,
       FIRST_INDEX_PARAMETER,
       LAST_INDEX_PARAMETER,
+      CURSOR_PARAMETER,
       NUMBER_OF_CONFIRMATIONS_PARAMETER,
       INCLUDE_INDIRECT_PARAMETER,
       BIDIRECTIONAL_PARAMETER
@@ -91,6 +94,13 @@ public final class GetAccountTransactions extends ApiServlet.JsonRequestHandler
       throw new IllegalArgumentException("lastIndex must be greater or equal to firstIndex");
     }
 
+    // with a cursor the page starts right after it, the first index is only used for the page size
+    PageCursor cursor = ParameterParser.getCursor(req);
+    if (cursor != null) {
+      lastIndex -= firstIndex;
+      firstIndex = 0;
+    }
+
     int timestamp = ParameterParser.getTimestamp(req);
     int numberOfConfirmations = parameterService.getNumberOfConfirmations(req);
     boolean includeIndirect = parameterService.getIncludeIndirect(req);
@@ -104,7 +114,8 @@ public final class GetAccountTransactions extends ApiServlet.JsonRequestHandler
       timestamp,
       firstIndex,
       lastIndex,
-      includeIndirect)
+      includeIndirect,
+      cursor)
       : blockchain.getTransactions(
       senderId,
       recipientId,
@@ -115,7 +126,8 @@ public final class GetAccountTransactions extends ApiServlet.JsonRequestHandler
       firstIndex,
       lastIndex,
       includeIndirect,
-      parameterService.getBidirectional(req));
+      parameterService.getBidirectional(req),
+      cursor);
 
     JsonArray transactions = new JsonArray();
     for (Transaction transaction : accountTransactions) {
@@ -125,9 +137,12 @@ public final class GetAccountTransactions extends ApiServlet.JsonRequestHandler
     JsonObject response = new JsonObject();
     response.add(TRANSACTIONS_RESPONSE, transactions);
 
-    if(accountTransactions.hasNextIndex()) {
+    if(cursor == null && accountTransactions.hasNextIndex()) {
       response.addProperty(NEXT_INDEX_RESPONSE, accountTransactions.nextIndex());
     }
+    if (accountTransactions.hasNextCursor()) {
+      response.addProperty(NEXT_CURSOR_RESPONSE, accountTransactions.getNextCursor().encode());
+    }
 
     return response;
   }
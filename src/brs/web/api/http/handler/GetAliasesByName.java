@@ -44,14 +44,13 @@ public final class GetAliasesByName extends ApiServlet.JsonRequestHandler {
     if (aliasName == null || aliasName.length() < 1 || !TextUtils.isInAlphabetOrUnderline(aliasName)) {
       return JSONResponses.incorrect(ALIAS_NAME_PARAMETER);
     }
-    aliasName = "%" + aliasName.toLowerCase() + "%";
 
     int firstIndex = ParameterParser.getFirstIndex(req);
     int lastIndex = ParameterParser.getLastIndex(req);
 
     JsonArray aliases = new JsonArray();
-    CollectionWithIndex<Alias> aliasesByOwner = aliasService.getAliasesByOwner(0L, aliasName, null, firstIndex, lastIndex);
-    for (Alias alias : aliasesByOwner) {
+    CollectionWithIndex<Alias> matchingAliases = aliasService.searchAliases(aliasName, firstIndex, lastIndex);
+    for (Alias alias : matchingAliases) {
       if(alias.getTimestamp() < timestamp) {
         continue;
       }
@@ -63,8 +62,8 @@ public final class GetAliasesByName extends ApiServlet.JsonRequestHandler {
     JsonObject response = new JsonObject();
     response.add(ALIASES_RESPONSE, aliases);
 
-    if(aliasesByOwner.hasNextIndex()) {
-      response.addProperty(NEXT_INDEX_RESPONSE, aliasesByOwner.nextIndex());
+    if(matchingAliases.hasNextIndex()) {
+      response.addProperty(NEXT_INDEX_RESPONSE, matchingAliases.nextIndex());
     }
 
     return response;
@@ -60,5 +60,4 @@ public final class GetAllAssets extends AbstractAssetsRetrieval {
 
     return response;
   }
-
 }
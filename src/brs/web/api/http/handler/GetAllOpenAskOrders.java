@@ -58,4 +58,8 @@ public final class GetAllOpenAskOrders extends ApiServlet.JsonRequestHandler {
     return response;
   }
 
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
 }
@@ -69,5 +69,4 @@ public final class GetAsset extends ApiServlet.JsonRequestHandler {
         quantityBurnt, tradeCount, transferCount, accountsCount, circulatingSupply,
         tradeVolume, highPrice, lowPrice, openPrice, closePrice);
   }
-
 }
@@ -73,4 +73,9 @@ public final class GetBlock extends ApiServlet.JsonRequestHandler {
 
     return JSONData.block(blockData, includeTransactions, blockchain.getHeight(), blockService.getBlockReward(blockData), blockService.getScoopNum(blockData));
   }
+
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
 }
@@ -11,6 +11,7 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import static brs.web.api.http.common.JSONResponses.INCORRECT_HEIGHT;
 import static brs.web.api.http.common.JSONResponses.MISSING_HEIGHT;
+import static brs.web.api.http.common.JSONResponses.UNKNOWN_BLOCK;
 import static brs.web.api.http.common.Parameters.HEIGHT_PARAMETER;
 
 public final class GetBlockId extends ApiServlet.JsonRequestHandler {
@@ -38,8 +39,12 @@ public final class GetBlockId extends ApiServlet.JsonRequestHandler {
     }
 
     try {
+      long blockId = blockchain.getBlockIdAtHeight(height);
+      if (blockId == 0) {
+        return UNKNOWN_BLOCK;
+      }
       JsonObject response = new JsonObject();
-      response.addProperty("block", Convert.toUnsignedLong(blockchain.getBlockIdAtHeight(height)));
+      response.addProperty("block", Convert.toUnsignedLong(blockId));
       return response;
     } catch (RuntimeException e) {
       return INCORRECT_HEIGHT;
@@ -3,10 +3,12 @@ package brs.web.api.http.handler;
 import brs.Block;
 import brs.Blockchain;
 import brs.web.api.http.common.LegacyDocTag;
+import brs.web.api.http.common.ParameterException;
 import brs.web.api.http.common.ParameterParser;
 import brs.web.api.http.common.Parameters;
 import brs.services.BlockService;
 import brs.util.CollectionWithIndex;
+import brs.util.PageCursor;
 
 import brs.web.api.http.ApiServlet;
 import brs.web.api.http.common.JSONData;
@@ -16,7 +18,11 @@ import com.google.gson.JsonObject;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static brs.web.api.http.common.Parameters.*;
+import static brs.web.api.http.common.ResultFields.NEXT_CURSOR_RESPONSE;
 import static brs.web.api.http.common.ResultFields.NEXT_INDEX_RESPONSE;
 
 public final class GetBlocks extends ApiServlet.JsonRequestHandler {
@@ -25,27 +31,21 @@ public final class GetBlocks extends ApiServlet.JsonRequestHandler {
   private final BlockService blockService;
 
   public GetBlocks(Blockchain blockchain, BlockService blockService) {
-    super(new LegacyDocTag[] {LegacyDocTag.BLOCKS}, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER, INCLUDE_TRANSACTIONS_PARAMETER);
+    super(new LegacyDocTag[] {LegacyDocTag.BLOCKS}, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER, CURSOR_PARAMETER, INCLUDE_TRANSACTIONS_PARAMETER);
     this.blockchain = blockchain;
     this.blockService = blockService;
   }
 
   @Override
   protected
-  JsonElement processRequest(HttpServletRequest req) {
-
-    int firstIndex = ParameterParser.getFirstIndex(req);
-    int lastIndex = ParameterParser.getLastIndex(req);
-    if (lastIndex < 0 || lastIndex - firstIndex > 99) {
-      lastIndex = firstIndex + 99;
-    }
-
+  JsonElement processRequest(HttpServletRequest req) throws ParameterException {
     boolean includeTransactions = Parameters.isTrue(req.getParameter(Parameters.INCLUDE_TRANSACTIONS_PARAMETER));
+    CollectionWithIndex<Block> blocks = getBlocks(req);
+    int currentHeight = blockchain.getHeight();
 
     JsonArray blocksArray = new JsonArray();
-    CollectionWithIndex<Block> blocks = new CollectionWithIndex<Block>(blockchain.getBlocks(firstIndex, lastIndex), firstIndex, lastIndex);
     for (Block block : blocks) {
-      blocksArray.add(JSONData.block(block, includeTransactions, blockchain.getHeight(), blockService.getBlockReward(block), blockService.getScoopNum(block)));
+      blocksArray.add(JSONData.block(block, includeTransactions, currentHeight, blockService.getBlockReward(block), blockService.getScoopNum(block)));
     }
 
     JsonObject response = new JsonObject();
@@ -54,7 +54,74 @@ public final class GetBlocks extends ApiServlet.JsonRequestHandler {
     if(blocks.hasNextIndex()) {
       response.addProperty(NEXT_INDEX_RESPONSE, blocks.nextIndex());
     }
+    if (blocks.hasNextCursor()) {
+      response.addProperty(NEXT_CURSOR_RESPONSE, blocks.getNextCursor().encode());
+    }
 
     return response;
   }
+
+  @Override
+  protected ApiServlet.JsonResponseWriter processStreamingRequest(HttpServletRequest req) throws ParameterException {
+    // up to 100 blocks with all their transactions, written block by block instead of as one tree
+    boolean includeTransactions = Parameters.isTrue(req.getParameter(Parameters.INCLUDE_TRANSACTIONS_PARAMETER));
+    CollectionWithIndex<Block> blocks = getBlocks(req);
+    int currentHeight = blockchain.getHeight();
+
+    // everything read from the database is loaded here, so writing can not fail halfway through the response
+    List<Block> loaded = new ArrayList<>();
+    for (Block block : blocks) {
+      block.getAllTransactions();
+      loaded.add(block);
+    }
+    long[] blockRewards = new long[loaded.size()];
+    int[] scoopNums = new int[loaded.size()];
+    for (int i = 0; i < loaded.size(); i++) {
+      blockRewards[i] = blockService.getBlockReward(loaded.get(i));
+      scoopNums[i] = blockService.getScoopNum(loaded.get(i));
+    }
+
+    return json -> {
+      json.name("blocks").beginArray();
+      for (int i = 0; i < loaded.size(); i++) {
+        JSONData.writeBlock(json, loaded.get(i), includeTransactions, currentHeight, blockRewards[i], scoopNums[i]);
+      }
+      json.endArray();
+
+      if(blocks.hasNextIndex()) {
+        json.name(NEXT_INDEX_RESPONSE).value(blocks.nextIndex());
+      }
+      if (blocks.hasNextCursor()) {
+        json.name(NEXT_CURSOR_RESPONSE).value(blocks.getNextCursor().encode());
+      }
+    };
+  }
+
+  private CollectionWithIndex<Block> getBlocks(HttpServletRequest req) throws ParameterException {
+    int firstIndex = ParameterParser.getFirstIndex(req);
+    int lastIndex = ParameterParser.getLastIndex(req);
+    if (lastIndex < 0 || lastIndex - firstIndex > 99) {
+      lastIndex = firstIndex + 99;
+    }
+
+    // a cursor pins the page to heights, so new blocks do not shift it like an index relative to the top
+    PageCursor cursor = ParameterParser.getCursor(req);
+    if (cursor != null) {
+      return blockchain.getBlocks(cursor, lastIndex - firstIndex + 1);
+    }
+    CollectionWithIndex<Block> blocks = new CollectionWithIndex<Block>(blockchain.getBlocks(firstIndex, lastIndex), firstIndex, lastIndex);
+    Block last = null;
+    for (Block block : blocks) {
+      last = block;
+    }
+    if (blocks.hasNextIndex() && last != null) {
+      blocks.setNextCursor(new PageCursor(last.getHeight(), last.getId()));
+    }
+    return blocks;
+  }
+
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
 }
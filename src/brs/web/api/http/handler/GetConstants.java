@@ -85,4 +85,9 @@ public final class GetConstants extends ApiServlet.JsonRequestHandler {
 
         return response;
     }
+
+    @Override
+    protected boolean isCacheable() {
+        return true;
+    }
 }
@@ -48,4 +48,9 @@ public final class GetMiningInfo extends ApiServlet.JsonRequestHandler {
 
     return response;
   }
+
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
 }
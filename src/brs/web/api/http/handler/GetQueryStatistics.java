@@ -0,0 +1,75 @@
+package brs.web.api.http.handler;
+
+import brs.db.sql.Db;
+import brs.db.sql.PreparedQuery;
+import brs.props.PropertyService;
+import brs.props.Props;
+import brs.web.api.http.ApiServlet;
+import brs.web.api.http.common.LegacyDocTag;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static brs.web.api.http.common.JSONResponses.ERROR_NOT_ALLOWED;
+import static brs.web.api.http.common.Parameters.API_KEY_PARAMETER;
+import static brs.web.api.http.common.ResultFields.POOLS_RESPONSE;
+import static brs.web.api.http.common.ResultFields.QUERIES_RESPONSE;
+
+/**
+ * Reports count and latency of the prepared hot lookups, the most expensive ones (by total time) first,
+ * and the usage of the database connection pools. The query counters are reset with {@link ResetQueryStatistics}.
+ */
+public final class GetQueryStatistics extends ApiServlet.JsonRequestHandler {
+
+  private final List<String> apiAdminKeyList;
+
+  public GetQueryStatistics(PropertyService propertyService) {
+    super(new LegacyDocTag[]{LegacyDocTag.ADMIN}, API_KEY_PARAMETER);
+
+    apiAdminKeyList = propertyService.getStringList(Props.API_ADMIN_KEY_LIST);
+  }
+
+  @Override
+  protected
+  JsonElement processRequest(HttpServletRequest req) {
+    String apiKey = req.getParameter(API_KEY_PARAMETER);
+    if (!apiAdminKeyList.contains(apiKey)) {
+      return ERROR_NOT_ALLOWED;
+    }
+
+    JsonArray queries = new JsonArray();
+    for (PreparedQuery query : PreparedQuery.getStatistics()) {
+      long executions = query.getExecutions();
+      JsonObject json = new JsonObject();
+      json.addProperty("name", query.getName());
+      json.addProperty("count", executions);
+      json.addProperty("totalMs", query.getTotalNanos() / 1_000_000L);
+      json.addProperty("averageUs", executions == 0 ? 0 : query.getTotalNanos() / executions / 1_000L);
+      json.addProperty("maxUs", query.getMaxNanos() / 1_000L);
+      queries.add(json);
+    }
+
+    JsonArray pools = new JsonArray();
+    for (Map.Entry<String, HikariPoolMXBean> pool : Db.getPoolStatistics().entrySet()) {
+      JsonObject json = new JsonObject();
+      json.addProperty("name", pool.getKey());
+      json.addProperty("active", pool.getValue().getActiveConnections());
+      json.addProperty("idle", pool.getValue().getIdleConnections());
+      json.addProperty("total", pool.getValue().getTotalConnections());
+      json.addProperty("awaiting", pool.getValue().getThreadsAwaitingConnection());
+      pools.add(json);
+    }
+
+    JsonObject response = new JsonObject();
+    response.add(QUERIES_RESPONSE, queries);
+    response.add(POOLS_RESPONSE, pools);
+    return response;
+  }
+
+}
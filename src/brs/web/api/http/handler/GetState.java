@@ -13,6 +13,7 @@ import brs.services.EscrowService;
 import brs.services.TimeService;
 
 import brs.web.api.http.ApiServlet;
+import brs.web.api.http.common.JSONData;
 import brs.web.api.http.common.LegacyDocTag;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -113,6 +114,7 @@ public final class GetState extends ApiServlet.JsonRequestHandler {
     response.addProperty("lastBlockchainFeeder", lastBlockchainFeeder == null ? null : lastBlockchainFeeder.getAnnouncedAddress());
     response.addProperty("lastBlockchainFeederHeight", Signum.getBlockchainProcessor().getLastBlockchainFeederHeight());
     response.addProperty("isScanning", Signum.getBlockchainProcessor().isScanning());
+    response.add("p2pThroughput", JSONData.p2pThroughput(Signum.getBlockchainProcessor()));
     response.addProperty("availableProcessors", Runtime.getRuntime().availableProcessors());
     response.addProperty("maxMemory", Runtime.getRuntime().maxMemory());
     response.addProperty("totalMemory", Runtime.getRuntime().totalMemory());
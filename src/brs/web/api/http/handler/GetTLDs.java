@@ -55,4 +55,8 @@ public final class GetTLDs extends ApiServlet.JsonRequestHandler {
     return response;
   }
 
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
 }
@@ -0,0 +1,52 @@
+package brs.web.api.http.handler;
+
+import brs.db.sql.PreparedQuery;
+import brs.props.PropertyService;
+import brs.props.Props;
+import brs.web.api.http.ApiServlet;
+import brs.web.api.http.common.LegacyDocTag;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.List;
+
+import static brs.web.api.http.common.JSONResponses.ERROR_NOT_ALLOWED;
+import static brs.web.api.http.common.JSONResponses.POST_REQUIRED;
+import static brs.web.api.http.common.Parameters.API_KEY_PARAMETER;
+import static brs.web.api.http.common.ResultFields.DONE_RESPONSE;
+
+/**
+ * Resets the counters reported by {@link GetQueryStatistics}.
+ */
+public final class ResetQueryStatistics extends ApiServlet.JsonRequestHandler {
+
+  private final List<String> apiAdminKeyList;
+
+  public ResetQueryStatistics(PropertyService propertyService) {
+    super(new LegacyDocTag[]{LegacyDocTag.ADMIN}, API_KEY_PARAMETER);
+
+    apiAdminKeyList = propertyService.getStringList(Props.API_ADMIN_KEY_LIST);
+  }
+
+  @Override
+  protected
+  JsonElement processRequest(HttpServletRequest req) {
+    // checked here, requirePost() can not be overridden from this package
+    if (!"POST".equals(req.getMethod())) {
+      return POST_REQUIRED;
+    }
+    String apiKey = req.getParameter(API_KEY_PARAMETER);
+    if (!apiAdminKeyList.contains(apiKey)) {
+      return ERROR_NOT_ALLOWED;
+    }
+
+    PreparedQuery.resetStatistics();
+
+    JsonObject response = new JsonObject();
+    response.addProperty(DONE_RESPONSE, true);
+    return response;
+  }
+
+}
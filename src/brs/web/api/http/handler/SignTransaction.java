@@ -76,4 +76,9 @@ public final class SignTransaction extends ApiServlet.JsonRequestHandler {
     return response;
   }
 
+  @Override
+  protected boolean isWrite() {
+    return true;
+  }
+
 }
@@ -174,4 +174,9 @@ public final class SubmitNonce extends ApiServlet.JsonRequestHandler {
   boolean requirePost() {
     return true;
   }
+
+  @Override
+  protected boolean isWrite() {
+    return true;
+  }
 }
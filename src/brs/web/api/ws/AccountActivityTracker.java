@@ -0,0 +1,152 @@
+package brs.web.api.ws;
+
+import brs.Account;
+import brs.Block;
+import brs.Transaction;
+import brs.services.AccountService;
+import brs.services.IndirectIncomingService;
+import brs.web.api.ws.emitter.data.AccountActivityEventData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Computes the per account activity of a block once, while the block is applied, so that clients can follow
+ * their accounts without polling. Touched accounts are the senders, recipients and indirect recipients of all
+ * transactions of the block plus every account whose balance changed (AT payments, rewards, escrows, ...).
+ * <p>
+ * Only accounts some connection subscribed to are reported.
+ * <p>
+ * The result is only handed out once the block got pushed, a block failing after being applied is never reported.
+ * The block callbacks come from the single block pushing thread, but balance changes are reported from whichever
+ * thread makes them and the results are taken by the notifier threads.
+ */
+final class AccountActivityTracker {
+
+  private final AccountService accountService;
+  private final IndirectIncomingService indirectIncomingService;
+  private final Supplier<Set<Long>> subscribedAccounts;
+
+  private final Set<Long> balanceChanged = ConcurrentHashMap.newKeySet();
+  private volatile Set<Long> collecting = Collections.emptySet();
+  private volatile PendingBlock pending;
+
+  private static final class PendingBlock {
+    private final long blockId;
+    private final List<AccountActivityEventData> activities;
+
+    private PendingBlock(long blockId, List<AccountActivityEventData> activities) {
+      this.blockId = blockId;
+      this.activities = activities;
+    }
+  }
+
+  AccountActivityTracker(AccountService accountService, IndirectIncomingService indirectIncomingService,
+                         Supplier<Set<Long>> subscribedAccounts) {
+    this.accountService = accountService;
+    this.indirectIncomingService = indirectIncomingService;
+    this.subscribedAccounts = subscribedAccounts;
+  }
+
+  void onBeforeBlockAccept(Block block) {
+    balanceChanged.clear();
+    pending = null;
+    collecting = subscribedAccounts.get();
+  }
+
+  void onBalanceChanged(Account account) {
+    if (collecting.contains(account.getId())) {
+      balanceChanged.add(account.getId());
+    }
+  }
+
+  void onAfterBlockApply(Block block) {
+    Set<Long> accounts = collecting;
+    if (accounts.isEmpty()) {
+      return;
+    }
+    collecting = Collections.emptySet();
+    Map<Long, List<Long>> transactionsByAccount = new LinkedHashMap<>();
+    addTransactions(block.getTransactions(), accounts, transactionsByAccount);
+    addTransactions(block.getAtTransactions(), accounts, transactionsByAccount);
+    addTransactions(block.getSubscriptionTransactions(), accounts, transactionsByAccount);
+    addTransactions(block.getEscrowTransactions(), accounts, transactionsByAccount);
+    for (Long accountId : balanceChanged) {
+      transactionsByAccount.computeIfAbsent(accountId, id -> new ArrayList<>());
+    }
+    balanceChanged.clear();
+
+    // still inside the block transaction, so the balances are the ones this block results in
+    List<AccountActivityEventData> activities = new ArrayList<>(transactionsByAccount.size());
+    for (Map.Entry<Long, List<Long>> entry : transactionsByAccount.entrySet()) {
+      AccountActivityEventData activity = toActivity(entry.getKey(), entry.getValue());
+      activity.blockId = block.getId();
+      activity.height = block.getHeight();
+      activities.add(activity);
+    }
+    pending = new PendingBlock(block.getId(), activities);
+  }
+
+  /**
+   * @return the activity of the pushed block, empty if it was not collected
+   */
+  List<AccountActivityEventData> takeBlockActivity(Block block) {
+    PendingBlock current = pending;
+    if (current == null || current.blockId != block.getId()) {
+      return Collections.emptyList();
+    }
+    pending = null;
+    return current.activities;
+  }
+
+  List<AccountActivityEventData> getPendingActivity(List<? extends Transaction> transactions) {
+    Set<Long> accounts = subscribedAccounts.get();
+    if (accounts.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Map<Long, List<Long>> transactionsByAccount = new LinkedHashMap<>();
+    addTransactions(transactions, accounts, transactionsByAccount);
+    List<AccountActivityEventData> activities = new ArrayList<>(transactionsByAccount.size());
+    for (Map.Entry<Long, List<Long>> entry : transactionsByAccount.entrySet()) {
+      activities.add(toActivity(entry.getKey(), entry.getValue()));
+    }
+    return activities;
+  }
+
+  private void addTransactions(List<? extends Transaction> transactions, Set<Long> accounts,
+                               Map<Long, List<Long>> transactionsByAccount) {
+    if (transactions == null) {
+      return;
+    }
+    for (Transaction transaction : transactions) {
+      Set<Long> accountIds = new HashSet<>(indirectIncomingService.getIndirectlyReceivingAccountIds(transaction));
+      accountIds.add(transaction.getSenderId());
+      if (transaction.getRecipientId() != 0L) {
+        accountIds.add(transaction.getRecipientId());
+      }
+      accountIds.retainAll(accounts);
+      for (Long accountId : accountIds) {
+        transactionsByAccount.computeIfAbsent(accountId, id -> new ArrayList<>()).add(transaction.getId());
+      }
+    }
+  }
+
+  private AccountActivityEventData toActivity(long accountId, List<Long> transactionIds) {
+    AccountActivityEventData activity = new AccountActivityEventData();
+    activity.accountId = accountId;
+    activity.transactionIds = transactionIds;
+    Account.Balance balance = accountService.getAccountBalance(accountId);
+    if (balance != null) {
+      activity.balanceNqt = balance.getBalanceNqt();
+      activity.unconfirmedBalanceNqt = balance.getUnconfirmedBalanceNqt();
+    }
+    return activity;
+  }
+}
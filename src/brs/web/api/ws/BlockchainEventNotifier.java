@@ -4,13 +4,18 @@ import brs.*;
 import brs.props.Props;
 import brs.web.api.ws.common.Debouncer;
 import brs.web.api.ws.common.SimpleScheduler;
+import brs.web.api.ws.common.WebSocketSubscription;
+import brs.web.api.ws.common.WebsocketEventNames;
+import brs.web.api.ws.emitter.data.AccountActivityEventData;
 import brs.web.api.ws.emitter.data.ConnectedEventData;
 import brs.web.api.ws.emitter.*;
 import brs.web.server.WebServerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
 
@@ -25,6 +30,13 @@ public class BlockchainEventNotifier {
   private final WebServerContext context;
   private final ConcurrentHashMap<String, WebSocketConnection> connections = new ConcurrentHashMap<>();
   private final Debouncer blockPushedDebouncer = new Debouncer(BLOCK_PUSHED_DEBOUNCE_SECS * 1000);
+  // events are serialized once and the same frame is queued on every subscribed connection
+  private final WebSocketEventSink broadcast = frame -> connections.values().forEach(connection -> {
+    if (connection.isSubscribed(frame)) {
+      connection.send(frame);
+    }
+  });
+  private final AccountActivityTracker accountActivityTracker;
   private SimpleScheduler heartbeat;
 
   public static BlockchainEventNotifier getInstance(WebServerContext context) {
@@ -37,11 +49,24 @@ public class BlockchainEventNotifier {
   private BlockchainEventNotifier(WebServerContext context) {
     this.context = context;
     this.notifyExecutor = Executors.newFixedThreadPool(IO_THREAD_COUNT);
+    this.accountActivityTracker = new AccountActivityTracker(
+      context.getAccountService(), context.getIndirectIncomingService(), this::getSubscribedAccounts);
+    this.context.getBlockchainProcessor().addListener(accountActivityTracker::onBeforeBlockAccept, BlockchainProcessor.Event.BEFORE_BLOCK_ACCEPT);
+    this.context.getBlockchainProcessor().addListener(accountActivityTracker::onAfterBlockApply, BlockchainProcessor.Event.AFTER_BLOCK_APPLY);
+    this.context.getAccountService().addListener(accountActivityTracker::onBalanceChanged, Account.Event.BALANCE);
     this.context.getBlockchainProcessor().addListener(this::onBlockPushedEvent, BlockchainProcessor.Event.BLOCK_PUSHED);
     this.context.getTransactionProcessor().addListener(this::onPendingTransactionEvent, TransactionProcessor.Event.ADDED_UNCONFIRMED_TRANSACTIONS);
     initializeHeartBeat();
   }
 
+  private Set<Long> getSubscribedAccounts() {
+    Set<Long> accountIds = new HashSet<>();
+    for (WebSocketConnection connection : connections.values()) {
+      accountIds.addAll(connection.getSubscription().getAccountIds());
+    }
+    return accountIds;
+  }
+
   private void withActiveConnectionsOnly(Runnable fn) {
     if (!connections.isEmpty()) {
       fn.run();
@@ -57,8 +82,8 @@ public class BlockchainEventNotifier {
     }
   }
 
-  private void sendToAll(Consumer<WebSocketConnection> fn) {
-    notifyExecutor.submit(() -> connections.values().forEach(fn));
+  private void sendToAll(Consumer<WebSocketEventSink> fn) {
+    notifyExecutor.submit(() -> fn.accept(broadcast));
   }
 
   public void addConnection(WebSocketConnection connection) {
@@ -86,7 +111,7 @@ public class BlockchainEventNotifier {
       logger.warn("Heartbeat interval must be less than block time ({} seconds) - set to {} seconds", blockTimeSecs, intervalSecs);
     }
     heartbeat = new SimpleScheduler(intervalSecs, SHUTDOWN_TIMEOUT_SECS, () ->
-      withActiveConnectionsOnly(() -> sendToAll(connection -> new HeartBeatEventEmitter(connection).emit()))
+      withActiveConnectionsOnly(() -> sendToAll(sink -> new HeartBeatEventEmitter(sink).emit()))
     );
     heartbeat.start();
   }
@@ -95,14 +120,24 @@ public class BlockchainEventNotifier {
     connections.remove(connection.getId());
   }
 
+  public void updateSubscription(WebSocketConnection connection, WebSocketSubscription subscription) {
+    connection.setSubscription(subscription);
+    notifyExecutor.submit(() -> new SubscribedEventEmitter(connection).emit(subscription));
+  }
+
   public void onBlockPushedEvent(Block block) {
+    // not debounced, every block carries its own account changes
+    List<AccountActivityEventData> activities = accountActivityTracker.takeBlockActivity(block);
+    if (!activities.isEmpty()) {
+      sendToAll(sink -> new AccountActivityEventEmitter(sink, WebsocketEventNames.ACCOUNT_TRANSACTIONS_CONFIRMED).emit(activities));
+    }
     withActiveConnectionsOnly(
       () -> blockPushedDebouncer.debounce(
         () -> withHeartbeatPaused(
           () -> sendToAll(
-            connection -> {
+            sink -> {
               int currentHeight = context.getBlockchainProcessor().getLastBlockchainFeederHeight();
-              new BlockPushedEventEmitter(connection, currentHeight).emit(block);
+              new BlockPushedEventEmitter(sink, currentHeight).emit(block);
             }
           )
         )
@@ -114,7 +149,11 @@ public class BlockchainEventNotifier {
     withActiveConnectionsOnly(
       () -> withHeartbeatPaused(
         () -> sendToAll(
-          connection -> new PendingTransactionsAddedEventEmitter(connection).emit(transactions)
+          sink -> {
+            new PendingTransactionsAddedEventEmitter(sink).emit(transactions);
+            new AccountActivityEventEmitter(sink, WebsocketEventNames.ACCOUNT_TRANSACTIONS_PENDING)
+              .emit(accountActivityTracker.getPendingActivity(transactions));
+          }
         )
       )
     );
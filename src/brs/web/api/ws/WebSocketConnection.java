@@ -1,19 +1,35 @@
 package brs.web.api.ws;
 
+import brs.web.api.ws.common.WebSocketFrame;
+import brs.web.api.ws.common.WebSocketSubscription;
+import brs.web.api.ws.emitter.WebSocketEventSink;
 import org.eclipse.jetty.websocket.api.Callback;
 import org.eclipse.jetty.websocket.api.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.SocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
-public class WebSocketConnection {
+/**
+ * A client connection with its own bounded send queue, so a slow client only ever delays itself.
+ * Frames are sent one after the other; when the queue is full the oldest frame is dropped, and a coalescing
+ * frame replaces a queued older one of the same event.
+ */
+public class WebSocketConnection implements WebSocketEventSink {
   private static final Logger logger = LoggerFactory.getLogger(WebSocketConnection.class);
 
   private final Session session;
+  private final int queueCapacity;
+  private final Deque<WebSocketFrame> queue = new ArrayDeque<>();
+  private boolean sending;
+  private long droppedFrames;
+  private volatile WebSocketSubscription subscription = WebSocketSubscription.ALL;
 
-  public WebSocketConnection(Session session) {
+  public WebSocketConnection(Session session, int queueCapacity) {
     this.session = session;
+    this.queueCapacity = Math.max(queueCapacity, 1);
   }
 
   public String getId() {
@@ -25,16 +41,62 @@ public class WebSocketConnection {
     return session;
   }
 
-  public void sendMessage(String message) {
+  public WebSocketSubscription getSubscription() {
+    return subscription;
+  }
+
+  public void setSubscription(WebSocketSubscription subscription) {
+    this.subscription = subscription;
+  }
+
+  public boolean isSubscribed(WebSocketFrame frame) {
+    return subscription.matches(frame);
+  }
+
+  @Override
+  public void send(WebSocketFrame frame) {
     if (!session.isOpen()) {
       logger.debug("Skipping message send to {} because session is closed", getId());
       return;
     }
+    synchronized (queue) {
+      if (frame.isCoalescing()) {
+        queue.removeIf(queued -> queued.getEventName().equals(frame.getEventName()));
+      }
+      if (queue.size() >= queueCapacity) {
+        queue.pollFirst();
+        droppedFrames++;
+        logger.debug("Send queue of {} is full, dropped {} frames so far", getId(), droppedFrames);
+      }
+      queue.addLast(frame);
+      if (sending) {
+        return;
+      }
+      sending = true;
+    }
+    sendNext();
+  }
 
+  private void sendNext() {
+    WebSocketFrame frame;
+    synchronized (queue) {
+      frame = session.isOpen() ? queue.pollFirst() : null;
+      if (frame == null) {
+        queue.clear();
+        sending = false;
+        return;
+      }
+    }
     SocketAddress remoteAddress = session.getRemoteSocketAddress();
-    session.sendText(message, Callback.from(
-      () -> logger.trace("Sent message to {}", remoteAddress),
-      throwable -> logger.warn("Error sending message to {}: {}", remoteAddress, throwable.getMessage(), throwable)
+    session.sendText(frame.getText(), Callback.from(
+      () -> {
+        logger.trace("Sent message to {}", remoteAddress);
+        sendNext();
+      },
+      throwable -> {
+        logger.warn("Error sending message to {}: {}", remoteAddress, throwable.getMessage(), throwable);
+        sendNext();
+      }
     ));
   }
 
@@ -1,7 +1,11 @@
 
 package brs.web.api.ws;
 
+import brs.props.Props;
+import brs.util.JSON;
+import brs.web.api.ws.common.WebSocketSubscription;
 import brs.web.server.WebServerContext;
+import com.google.gson.JsonElement;
 import org.eclipse.jetty.websocket.api.Callback;
 import org.eclipse.jetty.websocket.api.Session;
 import org.slf4j.Logger;
@@ -11,19 +15,38 @@ public class WebSocketConnectionAdapter extends Session.Listener.Abstract {
   private static final Logger logger = LoggerFactory.getLogger(WebSocketConnectionAdapter.class);
   private WebSocketConnection connection;
   private final BlockchainEventNotifier notifier;
+  private final int queueCapacity;
 
   public WebSocketConnectionAdapter(WebServerContext context) {
     this.notifier = BlockchainEventNotifier.getInstance(context);
+    this.queueCapacity = context.getPropertyService().getInt(Props.API_WEBSOCKET_QUEUE_SIZE);
   }
 
   @Override
   public void onWebSocketOpen(Session session) {
     super.onWebSocketOpen(session);
     logger.debug("Endpoint connected: {}", session);
-    this.connection = new WebSocketConnection(session);
+    this.connection = new WebSocketConnection(session, queueCapacity);
     this.notifier.addConnection(connection);
   }
 
+  @Override
+  public void onWebSocketText(String message) {
+    if (this.connection == null) {
+      return;
+    }
+    try {
+      JsonElement subscribe = JSON.getAsJsonObject(JSON.parse(message)).get("subscribe");
+      if (subscribe == null || !subscribe.isJsonObject()) {
+        logger.debug("Ignoring unknown message from {}", connection.getId());
+        return;
+      }
+      this.notifier.updateSubscription(connection, WebSocketSubscription.parse(subscribe.getAsJsonObject()));
+    } catch (RuntimeException e) {
+      logger.debug("Ignoring malformed message from {}: {}", connection.getId(), e.getMessage());
+    }
+  }
+
 
   @Override
   public void onWebSocketClose(int statusCode, String reason, Callback callback) {
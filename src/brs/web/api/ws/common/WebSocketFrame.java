@@ -0,0 +1,77 @@
+package brs.web.api.ws.common;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * An event serialized once and shared by all connections it is sent to.
+ * <p>
+ * Scoped frames name the accounts (including ATs) and assets they are about, so connections can filter on them.
+ * Coalescing frames only matter in their latest version: a queued older frame of the same event is replaced.
+ * Addressed frames are about a single account and only go to connections that subscribed to that account explicitly.
+ */
+public final class WebSocketFrame {
+
+  private final String eventName;
+  private final String text;
+  private final Set<Long> accountIds;
+  private final Set<Long> assetIds;
+  private final boolean coalescing;
+  private final boolean addressed;
+
+  private WebSocketFrame(String eventName, String text, Set<Long> accountIds, Set<Long> assetIds, boolean coalescing,
+                         boolean addressed) {
+    this.eventName = eventName;
+    this.text = text;
+    this.accountIds = accountIds;
+    this.assetIds = assetIds;
+    this.coalescing = coalescing;
+    this.addressed = addressed;
+  }
+
+  public static WebSocketFrame of(BaseWebSocketResponse<?> response) {
+    return new WebSocketFrame(response.getEventName(), response.toString(), null, null, false, false);
+  }
+
+  public static WebSocketFrame coalescing(BaseWebSocketResponse<?> response) {
+    return new WebSocketFrame(response.getEventName(), response.toString(), null, null, true, false);
+  }
+
+  public static WebSocketFrame scoped(BaseWebSocketResponse<?> response, Set<Long> accountIds, Set<Long> assetIds) {
+    return new WebSocketFrame(response.getEventName(), response.toString(),
+      Collections.unmodifiableSet(accountIds), Collections.unmodifiableSet(assetIds), false, false);
+  }
+
+  public static WebSocketFrame addressed(BaseWebSocketResponse<?> response, long accountId) {
+    return new WebSocketFrame(response.getEventName(), response.toString(),
+      Collections.singleton(accountId), Collections.emptySet(), false, true);
+  }
+
+  public String getEventName() {
+    return eventName;
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  public boolean isScoped() {
+    return accountIds != null;
+  }
+
+  public Set<Long> getAccountIds() {
+    return accountIds == null ? Collections.emptySet() : accountIds;
+  }
+
+  public Set<Long> getAssetIds() {
+    return assetIds == null ? Collections.emptySet() : assetIds;
+  }
+
+  public boolean isCoalescing() {
+    return coalescing;
+  }
+
+  public boolean isAddressed() {
+    return addressed;
+  }
+}
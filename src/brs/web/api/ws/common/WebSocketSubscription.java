@@ -0,0 +1,111 @@
+package brs.web.api.ws.common;
+
+import brs.util.Convert;
+import brs.util.JSON;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Filter of a single connection, set by the client with a message like
+ * <pre>{"subscribe": {"events": ["BLOCK_PUSHED"], "accounts": ["S-..."], "ats": ["..."], "assets": ["..."]}}</pre>
+ * Every list is optional, a missing or empty one does not filter. Account and AT filters only apply to scoped
+ * events (ATs are accounts, so both match the same ids), events without a scope pass if their type is subscribed.
+ * Per account events are never sent without an account filter, a node would otherwise stream every account to everyone.
+ * Each list takes at most {@link #MAX_ENTRIES} entries, matching every frame against huge filters would slow down
+ * the notifications for all connections.
+ */
+public final class WebSocketSubscription {
+
+  public static final int MAX_ENTRIES = 100;
+
+  public static final WebSocketSubscription ALL = new WebSocketSubscription(
+    Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+
+  private final Set<String> events;
+  private final Set<Long> accountIds;
+  private final Set<Long> assetIds;
+
+  private WebSocketSubscription(Set<String> events, Set<Long> accountIds, Set<Long> assetIds) {
+    this.events = events;
+    this.accountIds = accountIds;
+    this.assetIds = assetIds;
+  }
+
+  /**
+   * @param filter the content of the <code>subscribe</code> member
+   * @throws IllegalArgumentException on malformed ids or too many entries
+   */
+  public static WebSocketSubscription parse(JsonObject filter) {
+    Set<String> events = new HashSet<>();
+    for (JsonElement event : array(filter, "events")) {
+      events.add(JSON.getAsString(event));
+    }
+    Set<Long> accountIds = ids(filter, "accounts", Convert::parseAccountId);
+    accountIds.addAll(ids(filter, "ats", Convert::parseAccountId));
+    if (accountIds.size() > MAX_ENTRIES) {
+      throw new IllegalArgumentException("at most " + MAX_ENTRIES + " accounts and ats together");
+    }
+    Set<Long> assetIds = ids(filter, "assets", Convert::parseUnsignedLong);
+    return new WebSocketSubscription(Collections.unmodifiableSet(events), Collections.unmodifiableSet(accountIds),
+      Collections.unmodifiableSet(assetIds));
+  }
+
+  private static JsonArray array(JsonObject filter, String name) {
+    JsonElement element = filter.get(name);
+    JsonArray array = element != null && element.isJsonArray() ? element.getAsJsonArray() : new JsonArray();
+    if (array.size() > MAX_ENTRIES) {
+      throw new IllegalArgumentException("at most " + MAX_ENTRIES + " " + name);
+    }
+    return array;
+  }
+
+  private static Set<Long> ids(JsonObject filter, String name, ToLongFunction<String> parser) {
+    Set<Long> ids = new HashSet<>();
+    for (JsonElement id : array(filter, name)) {
+      ids.add(parser.applyAsLong(JSON.getAsString(id)));
+    }
+    return ids;
+  }
+
+  public boolean matches(WebSocketFrame frame) {
+    if (!events.isEmpty() && !events.contains(frame.getEventName())) {
+      return false;
+    }
+    if (!frame.isScoped()) {
+      return true;
+    }
+    if (frame.isAddressed()) {
+      return intersects(accountIds, frame.getAccountIds());
+    }
+    boolean accountMatch = accountIds.isEmpty() || intersects(accountIds, frame.getAccountIds());
+    boolean assetMatch = assetIds.isEmpty() || intersects(assetIds, frame.getAssetIds());
+    return accountMatch && assetMatch;
+  }
+
+  private static boolean intersects(Set<Long> wanted, Set<Long> present) {
+    for (Long id : present) {
+      if (wanted.contains(id)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public Set<String> getEvents() {
+    return events;
+  }
+
+  public Set<Long> getAccountIds() {
+    return accountIds;
+  }
+
+  public Set<Long> getAssetIds() {
+    return assetIds;
+  }
+}
@@ -5,4 +5,7 @@ public class WebsocketEventNames {
   public static final String BLOCK_PUSHED = "BLOCK_PUSHED";
   public static final String PENDING_TRANSACTIONS_ADDED = "PENDING_TRANSACTIONS_ADDED";
   public static final String HEARTBEAT = "HEARTBEAT";
+  public static final String SUBSCRIBED = "SUBSCRIBED";
+  public static final String ACCOUNT_TRANSACTIONS_CONFIRMED = "ACCOUNT_TRANSACTIONS_CONFIRMED";
+  public static final String ACCOUNT_TRANSACTIONS_PENDING = "ACCOUNT_TRANSACTIONS_PENDING";
 }
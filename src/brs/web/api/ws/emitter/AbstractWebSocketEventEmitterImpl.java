@@ -1,13 +1,11 @@
 package brs.web.api.ws.emitter;
 
-import brs.web.api.ws.WebSocketConnection;
-
 public abstract class AbstractWebSocketEventEmitterImpl<T> implements WebSocketEventEmitter<T> {
 
-  private final WebSocketConnection connection;
+  private final WebSocketEventSink sink;
 
-  protected AbstractWebSocketEventEmitterImpl(WebSocketConnection connection) {
-    this.connection = connection;
+  protected AbstractWebSocketEventEmitterImpl(WebSocketEventSink sink) {
+    this.sink = sink;
   }
 
   public abstract void emit(T t);
@@ -17,7 +15,7 @@ public abstract class AbstractWebSocketEventEmitterImpl<T> implements WebSocketE
     // do nothing - optional implementation
   }
 
-  public WebSocketConnection getConnection() {
-    return connection;
+  public WebSocketEventSink getSink() {
+    return sink;
   }
 }
@@ -0,0 +1,55 @@
+package brs.web.api.ws.emitter;
+
+import brs.util.Convert;
+import brs.web.api.ws.common.JSONWebSocketResponse;
+import brs.web.api.ws.common.WebSocketFrame;
+import brs.web.api.ws.emitter.data.AccountActivityEventData;
+
+import java.util.List;
+
+/**
+ * Sends one frame per account, so each connection only gets the accounts it subscribed to.
+ * Used for both {@link brs.web.api.ws.common.WebsocketEventNames#ACCOUNT_TRANSACTIONS_CONFIRMED} and
+ * {@link brs.web.api.ws.common.WebsocketEventNames#ACCOUNT_TRANSACTIONS_PENDING}, pending activity has no block.
+ */
+public class AccountActivityEventEmitter extends AbstractWebSocketEventEmitterImpl<List<AccountActivityEventData>> {
+
+  private static final int MAX_TRANSACTIONS = 100;
+  private final String eventName;
+
+  public AccountActivityEventEmitter(WebSocketEventSink sink, String eventName) {
+    super(sink);
+    this.eventName = eventName;
+  }
+
+  @Override
+  public void emit(List<AccountActivityEventData> activities) {
+    for (AccountActivityEventData activity : activities) {
+      JSONWebSocketResponse<AccountActivityPayload> response = new JSONWebSocketResponse<>(
+        eventName,
+        new AccountActivityPayload(activity)
+      );
+      this.getSink().send(WebSocketFrame.addressed(response, activity.accountId));
+    }
+  }
+
+  private static class AccountActivityPayload {
+    private final String account;
+    private final String blockId;
+    private final Integer height;
+    private final String[] transactionIds;
+    private final Boolean hasMore;
+    private final String balanceNQT;
+    private final String unconfirmedBalanceNQT;
+
+    public AccountActivityPayload(AccountActivityEventData activity) {
+      this.account = Convert.toUnsignedLong(activity.accountId);
+      this.blockId = activity.blockId != 0L ? Convert.toUnsignedLong(activity.blockId) : null;
+      this.height = activity.blockId != 0L ? activity.height : null;
+      this.transactionIds = activity.transactionIds.stream().limit(MAX_TRANSACTIONS).map(Convert::toUnsignedLong).toArray(String[]::new);
+      this.hasMore = activity.transactionIds.size() > MAX_TRANSACTIONS ? true : null;
+      this.balanceNQT = activity.blockId != 0L ? Long.toString(activity.balanceNqt) : null;
+      this.unconfirmedBalanceNQT = Long.toString(activity.unconfirmedBalanceNqt);
+    }
+  }
+}
@@ -1,15 +1,15 @@
 package brs.web.api.ws.emitter;
 
 import brs.Block;
-import brs.web.api.ws.WebSocketConnection;
 import brs.web.api.ws.common.JSONWebSocketResponse;
+import brs.web.api.ws.common.WebSocketFrame;
 import brs.web.api.ws.common.WebsocketEventNames;
 
 public class BlockPushedEventEmitter extends AbstractWebSocketEventEmitterImpl<Block> {
   private final int currentHeight;
 
-  public BlockPushedEventEmitter(WebSocketConnection connection, int currentHeight) {
-    super(connection);
+  public BlockPushedEventEmitter(WebSocketEventSink sink, int currentHeight) {
+    super(sink);
     this.currentHeight = currentHeight;
   }
 
@@ -19,7 +19,8 @@ public class BlockPushedEventEmitter extends AbstractWebSocketEventEmitterImpl<B
       WebsocketEventNames.BLOCK_PUSHED,
             new PushedBlockPayload(block, currentHeight)
     );
-    this.getConnection().sendMessage(response.toString());
+    // only the latest block matters to a client that is behind
+    this.getSink().send(WebSocketFrame.coalescing(response));
   }
 
   private static class PushedBlockPayload {
@@ -1,14 +1,14 @@
 package brs.web.api.ws.emitter;
 
-import brs.web.api.ws.WebSocketConnection;
 import brs.web.api.ws.emitter.data.ConnectedEventData;
 import brs.web.api.ws.common.JSONWebSocketResponse;
+import brs.web.api.ws.common.WebSocketFrame;
 import brs.web.api.ws.common.WebsocketEventNames;
 
 public class ConnectedEventEmitter extends AbstractWebSocketEventEmitterImpl<ConnectedEventData> {
 
-  public ConnectedEventEmitter(WebSocketConnection connection) {
-      super(connection);
+  public ConnectedEventEmitter(WebSocketEventSink sink) {
+      super(sink);
   }
 
   @Override
@@ -17,7 +17,7 @@ public class ConnectedEventEmitter extends AbstractWebSocketEventEmitterImpl<Con
       WebsocketEventNames.CONNECTED,
             new ConnectedPayload(data)
     );
-    this.getConnection().sendMessage(response.toString());
+    this.getSink().send(WebSocketFrame.of(response));
   }
 
   private static class ConnectedPayload {
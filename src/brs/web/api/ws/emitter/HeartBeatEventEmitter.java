@@ -1,13 +1,13 @@
 package brs.web.api.ws.emitter;
 
-import brs.web.api.ws.WebSocketConnection;
 import brs.web.api.ws.common.JSONWebSocketResponse;
+import brs.web.api.ws.common.WebSocketFrame;
 import brs.web.api.ws.common.WebsocketEventNames;
 
 public class HeartBeatEventEmitter extends AbstractWebSocketEventEmitterImpl<Void> {
 
-  public HeartBeatEventEmitter(WebSocketConnection connection) {
-      super(connection);
+  public HeartBeatEventEmitter(WebSocketEventSink sink) {
+      super(sink);
   }
 
   @Override
@@ -20,6 +20,6 @@ public class HeartBeatEventEmitter extends AbstractWebSocketEventEmitterImpl<Voi
     JSONWebSocketResponse<Void> response = new JSONWebSocketResponse<>(
       WebsocketEventNames.HEARTBEAT
     );
-    this.getConnection().sendMessage(response.toString());
+    this.getSink().send(WebSocketFrame.coalescing(response));
   }
 }
@@ -1,17 +1,20 @@
 package brs.web.api.ws.emitter;
 
+import brs.Attachment;
 import brs.Transaction;
-import brs.web.api.ws.WebSocketConnection;
 import brs.web.api.ws.common.JSONWebSocketResponse;
+import brs.web.api.ws.common.WebSocketFrame;
 import brs.web.api.ws.common.WebsocketEventNames;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class PendingTransactionsAddedEventEmitter extends AbstractWebSocketEventEmitterImpl<List<? extends Transaction>> {
 
   private static final int MAX_TRANSACTIONS = 100;
-  public PendingTransactionsAddedEventEmitter(WebSocketConnection connection) {
-    super(connection);
+  public PendingTransactionsAddedEventEmitter(WebSocketEventSink sink) {
+    super(sink);
   }
 
   @Override
@@ -21,7 +24,31 @@ public class PendingTransactionsAddedEventEmitter extends AbstractWebSocketEvent
         WebsocketEventNames.PENDING_TRANSACTIONS_ADDED,
               new PendingTransactionsAddedPayload(transactions)
       );
-    this.getConnection().sendMessage(response.toString());
+
+    Set<Long> accountIds = new HashSet<>();
+    Set<Long> assetIds = new HashSet<>();
+    for (Transaction transaction : transactions) {
+      accountIds.add(transaction.getSenderId());
+      if (transaction.getRecipientId() != 0L) {
+        accountIds.add(transaction.getRecipientId());
+      }
+      addAssetIds(transaction.getAttachment(), assetIds);
+    }
+    this.getSink().send(WebSocketFrame.scoped(response, accountIds, assetIds));
+  }
+
+  private static void addAssetIds(Attachment attachment, Set<Long> assetIds) {
+    if (attachment instanceof Attachment.ColoredCoinsAssetTransfer) {
+      assetIds.add(((Attachment.ColoredCoinsAssetTransfer) attachment).getAssetId());
+    } else if (attachment instanceof Attachment.ColoredCoinsAssetMultiTransfer) {
+      assetIds.addAll(((Attachment.ColoredCoinsAssetMultiTransfer) attachment).getAssetIds());
+    } else if (attachment instanceof Attachment.ColoredCoinsOrderPlacement) {
+      assetIds.add(((Attachment.ColoredCoinsOrderPlacement) attachment).getAssetId());
+    } else if (attachment instanceof Attachment.ColoredCoinsAssetMint) {
+      assetIds.add(((Attachment.ColoredCoinsAssetMint) attachment).getAssetId());
+    } else if (attachment instanceof Attachment.ColoredCoinsAssetDistributeToHolders) {
+      assetIds.add(((Attachment.ColoredCoinsAssetDistributeToHolders) attachment).getAssetId());
+    }
   }
 
   private static class PendingTransactionsAddedPayload {
@@ -0,0 +1,35 @@
+package brs.web.api.ws.emitter;
+
+import brs.util.Convert;
+import brs.web.api.ws.common.JSONWebSocketResponse;
+import brs.web.api.ws.common.WebSocketFrame;
+import brs.web.api.ws.common.WebSocketSubscription;
+import brs.web.api.ws.common.WebsocketEventNames;
+
+public class SubscribedEventEmitter extends AbstractWebSocketEventEmitterImpl<WebSocketSubscription> {
+
+  public SubscribedEventEmitter(WebSocketEventSink sink) {
+    super(sink);
+  }
+
+  @Override
+  public void emit(WebSocketSubscription subscription) {
+    JSONWebSocketResponse<SubscribedPayload> response = new JSONWebSocketResponse<>(
+      WebsocketEventNames.SUBSCRIBED,
+      new SubscribedPayload(subscription)
+    );
+    this.getSink().send(WebSocketFrame.of(response));
+  }
+
+  private static class SubscribedPayload {
+    private final String[] events;
+    private final String[] accounts;
+    private final String[] assets;
+
+    public SubscribedPayload(WebSocketSubscription subscription) {
+      this.events = subscription.getEvents().toArray(new String[0]);
+      this.accounts = subscription.getAccountIds().stream().map(Convert::toUnsignedLong).toArray(String[]::new);
+      this.assets = subscription.getAssetIds().stream().map(Convert::toUnsignedLong).toArray(String[]::new);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package brs.web.api.ws.emitter;
+
+import brs.web.api.ws.common.WebSocketFrame;
+
+/**
+ * Where an emitter delivers its serialized event: a single connection or the fan-out to all subscribed ones.
+ */
+public interface WebSocketEventSink {
+  void send(WebSocketFrame frame);
+}
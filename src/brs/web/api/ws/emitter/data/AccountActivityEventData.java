@@ -0,0 +1,12 @@
+package brs.web.api.ws.emitter.data;
+
+import java.util.List;
+
+public class AccountActivityEventData {
+    public long accountId;
+    public long blockId;
+    public int height;
+    public List<Long> transactionIds;
+    public long balanceNqt;
+    public long unconfirmedBalanceNqt;
+}
@@ -0,0 +1,68 @@
+package brs.web.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the requests of one endpoint class on its own few threads with a queue of fixed size. A request that finds
+ * the queue full is rejected right away instead of waiting, and a class that is stuck behind a lock only holds up
+ * its own requests, not the server threads or the other classes.
+ */
+public final class BoundedExecutor {
+
+  private final String name;
+  private final ThreadPoolExecutor executor;
+  private final LongAdder rejected = new LongAdder();
+
+  public BoundedExecutor(String name, int threads, int queueSize) {
+    this.name = name;
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    int poolSize = Math.max(1, threads);
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+      new ArrayBlockingQueue<>(Math.max(1, queueSize)), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * @return false if the queue is full or the executor is shut down, the task is not run then
+   */
+  public boolean execute(Runnable task) {
+    try {
+      executor.execute(task);
+      return true;
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      return false;
+    }
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getActive() {
+    return executor.getActiveCount();
+  }
+
+  public int getQueued() {
+    return executor.getQueue().size();
+  }
+
+  public long getRejected() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,67 @@
+package brs.web.server;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds how many requests of one endpoint class are processed at the same time. Requests over the limit wait up to
+ * the configured time for a slot and are rejected afterwards, so a burst can not pile up unbounded work behind the
+ * database (which is what matters once request threads themselves are cheap virtual threads).
+ * A limit of 0 or less means unlimited.
+ */
+public final class ConcurrencyLimiter {
+
+  private final String name;
+  private final int limit;
+  private final long maxWaitMs;
+  private final Semaphore permits;
+  private final LongAdder rejected = new LongAdder();
+
+  public ConcurrencyLimiter(String name, int limit, long maxWaitMs) {
+    this.name = name;
+    this.limit = limit;
+    this.maxWaitMs = maxWaitMs;
+    this.permits = limit > 0 ? new Semaphore(limit, true) : null;
+  }
+
+  /**
+   * @return true if a slot was acquired, it has to be given back with {@link #release()}
+   */
+  public boolean acquire() {
+    if (permits == null) {
+      return true;
+    }
+    try {
+      if (permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    rejected.increment();
+    return false;
+  }
+
+  public void release() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getActive() {
+    return permits == null ? 0 : limit - permits.availablePermits();
+  }
+
+  public long getRejected() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,36 @@
+package brs.web.server;
+
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread pools of the Jetty servers (API and P2P).
+ */
+public final class ServerThreadPools {
+
+  private static final Logger logger = LoggerFactory.getLogger(ServerThreadPools.class);
+
+  private ServerThreadPools() {
+  }
+
+  /**
+   * With virtual threads the platform pool only runs the selectors and acceptors, every request is dispatched to
+   * its own virtual thread. Blocking JDBC calls then no longer tie up one of a few hundred pool threads, the
+   * {@link ConcurrencyLimiter}s bound the actual work instead.
+   */
+  public static QueuedThreadPool create(String name, boolean virtualThreads) {
+    QueuedThreadPool threadPool = new QueuedThreadPool();
+    threadPool.setName(name);
+    if (virtualThreads) {
+      if (VirtualThreads.areSupported()) {
+        threadPool.setVirtualThreadsExecutor(VirtualThreads.getNamedVirtualThreadsExecutor(name + "-vt"));
+        logger.info("{} requests run on virtual threads", name);
+      } else {
+        logger.warn("Virtual threads are not supported by this JVM, {} keeps platform threads", name);
+      }
+    }
+    return threadPool;
+  }
+}
@@ -3,6 +3,7 @@ package brs.web.server;
 import brs.props.PropertyService;
 import brs.props.Props;
 import brs.util.Subnet;
+import brs.web.api.http.ApiBatchServlet;
 import brs.web.api.http.ApiServlet;
 import brs.web.api.http.LegacyDocsServlet;
 import brs.web.api.ws.BlockchainEventNotifier;
@@ -31,6 +32,7 @@ public final class WebServerImpl implements WebServer {
 
     private static final String LEGACY_API_PATH = "/burst";
     private static final String API_PATH = "/api";
+    private static final String API_BATCH_PATH = "/api/batch";
 
     private final org.eclipse.jetty.server.Server jettyServer;
     private BlockchainEventNotifier eventNotifier = null;
@@ -50,7 +52,8 @@ public final class WebServerImpl implements WebServer {
     }
 
     private Server createServerInstance() {
-        final Server jettyServer = new Server();
+        final Server jettyServer = new Server(ServerThreadPools.create("api",
+                context.getPropertyService().getBoolean(Props.JETTY_API_VIRTUAL_THREADS)));
 
         ServletContextHandler servletContextHandler = new ServletContextHandler();
         ServerConnectorFactory connectorFactory = new ServerConnectorFactory(context, jettyServer);
@@ -103,9 +106,19 @@ public final class WebServerImpl implements WebServer {
         ServletHolder apiServletHolder = new ServletHolder(apiServlet);
         servletContextHandler.addServlet(apiServletHolder, API_PATH);
         servletContextHandler.addServlet(apiServletHolder, LEGACY_API_PATH);
-        if (context.getPropertyService().getBoolean(Props.JETTY_API_DOS_FILTER)) {
+        int batchMaxRequests = context.getPropertyService().getInt(Props.API_BATCH_MAX_REQUESTS);
+        if (batchMaxRequests > 0) {
+            servletContextHandler.addServlet(new ServletHolder(new ApiBatchServlet(apiServlet, batchMaxRequests,
+                    context.getPropertyService().getInt(Props.API_BATCH_THREADS))), API_BATCH_PATH);
+        }
+        // on virtual threads the per endpoint class concurrency limits of the ApiServlet replace the DoSFilter
+        if (context.getPropertyService().getBoolean(Props.JETTY_API_DOS_FILTER)
+                && !context.getPropertyService().getBoolean(Props.JETTY_API_VIRTUAL_THREADS)) {
             addDOSFilterToPath(API_PATH, servletContextHandler);
             addDOSFilterToPath(LEGACY_API_PATH, servletContextHandler);
+            if (batchMaxRequests > 0) {
+                addDOSFilterToPath(API_BATCH_PATH, servletContextHandler);
+            }
         }
 
         // set up API docs
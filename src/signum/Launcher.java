@@ -13,7 +13,17 @@ import java.awt.*;
 import java.lang.reflect.InvocationTargetException;
 
 public class Launcher {
+    /**
+     * Seconds idle outgoing peer connections are kept open, below the 30 seconds idle timeout of the peer servers, so
+     * a request is not sent on a connection the peer is just closing. Read once by the JDK, when the first
+     * HttpClient is created.
+     */
+    private static final String PEER_KEEPALIVE_TIMEOUT = "15";
+
     public static void main(String[] args) {
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", PEER_KEEPALIVE_TIMEOUT);
+        }
         Logger logger = LoggerFactory.getLogger(Launcher.class);
         boolean canRunGui = true;
 
@@ -0,0 +1,131 @@
+package brs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+@RunWith(JUnit4.class)
+public class RecentBlockCacheTest {
+    private RecentBlockCache cache;
+
+    @Before
+    public void setUpRecentBlockCacheTest() {
+        cache = new RecentBlockCache(5, Long.MAX_VALUE);
+    }
+
+    private static Block block(long id, int height) {
+        return block(id, height, 0);
+    }
+
+    private static Block block(long id, int height, int size) {
+        Block block = mock(Block.class);
+        doReturn(id).when(block).getId();
+        doReturn(height).when(block).getHeight();
+        // chained to the block with the id one less, as the tests number them
+        doReturn(id - 1).when(block).getPreviousBlockId();
+        doReturn(new byte[size]).when(block).getBytes();
+        doCallRealMethod().when(block).setNextBlockId(anyLong());
+        doCallRealMethod().when(block).getNextBlockId();
+        return block;
+    }
+
+    @Test
+    public void testGetAfter() {
+        for (int height = 1; height <= 4; height++) {
+            cache.put(block(100 + height, height));
+        }
+        List<Block> after = cache.getAfter(102, 10);
+        assertNotNull(after);
+        assertEquals(2, after.size());
+        assertEquals(103, after.get(0).getId());
+        assertEquals(104, after.get(1).getId());
+        assertEquals(1, cache.getAfter(102, 1).size());
+        assertTrue(cache.getAfter(104, 10).isEmpty());
+        assertNull(cache.getAfter(999, 10));
+        assertEquals(103, cache.getAtHeight(3).getId());
+    }
+
+    @Test
+    public void testEvictsOldest() {
+        for (int height = 1; height <= 7; height++) {
+            cache.put(block(100 + height, height));
+        }
+        assertEquals(5, cache.size());
+        assertNull(cache.get(101));
+        assertNull(cache.get(102));
+        assertNotNull(cache.get(103));
+        assertNotNull(cache.get(107));
+    }
+
+    @Test
+    public void testPopOffReplacesHigherBlocks() {
+        for (int height = 1; height <= 4; height++) {
+            cache.put(block(100 + height, height));
+        }
+        // popped off to 2, then a fork block at 3
+        cache.put(block(102, 2));
+        cache.put(block(203, 3));
+        assertNull(cache.get(103));
+        assertNull(cache.get(104));
+        assertEquals(203, cache.getAtHeight(3).getId());
+        assertNull(cache.getAtHeight(4));
+        assertEquals(1, cache.getAfter(102, 10).size());
+    }
+
+    @Test
+    public void testGapIsNotServed() {
+        cache.put(block(101, 1));
+        cache.put(block(105, 5));
+        assertNull(cache.getAfter(101, 10));
+        assertTrue(cache.getAfter(105, 10).isEmpty());
+    }
+
+    @Test
+    public void testNextBlockIdFollowsTheChain() {
+        Block first = block(101, 1);
+        Block second = block(102, 2);
+        cache.put(first);
+        assertEquals(0, first.getNextBlockId());
+        cache.put(second);
+        assertEquals(102, cache.get(101).getNextBlockId());
+        assertEquals(0, cache.get(102).getNextBlockId());
+
+        // popped off to 1, then a fork block at 2
+        cache.put(first);
+        assertEquals(0, cache.get(101).getNextBlockId());
+        Block fork = block(202, 2);
+        doReturn(101L).when(fork).getPreviousBlockId();
+        cache.put(fork);
+        assertEquals(202, cache.get(101).getNextBlockId());
+    }
+
+    @Test
+    public void testEvictsOldestBeyondMaxBytes() {
+        cache = new RecentBlockCache(5, 1000);
+        // 450 bytes each, the bytes and their JSON
+        for (int height = 1; height <= 3; height++) {
+            cache.put(block(100 + height, height, 150));
+        }
+        assertEquals(2, cache.size());
+        assertEquals(900, cache.getBytes());
+        assertNull(cache.get(101));
+
+        // the last block stays even if it alone is too big
+        cache.put(block(104, 4, 2000));
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(104));
+
+        // popped off blocks are no longer counted
+        cache.put(block(103, 3, 30));
+        assertEquals(90, cache.getBytes());
+    }
+}
@@ -0,0 +1,52 @@
+package brs.db.sql;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class OptimisticReadTest {
+
+  private final AtomicLong commits = new AtomicLong(5);
+  private final AtomicBoolean inCommit = new AtomicBoolean();
+
+  private OptimisticRead begin() {
+    return new OptimisticRead(commits::get, inCommit::get);
+  }
+
+  @Test
+  public void testValidWithoutCommit() {
+    OptimisticRead read = begin();
+    assertTrue(read.isValid());
+    assertTrue(read.isValid());
+  }
+
+  @Test
+  public void testInvalidAfterCommit() {
+    OptimisticRead read = begin();
+    commits.incrementAndGet();
+    assertFalse(read.isValid());
+  }
+
+  @Test
+  public void testInvalidWhileCommitting() {
+    OptimisticRead read = begin();
+    inCommit.set(true);
+    assertFalse(read.isValid());
+  }
+
+  @Test
+  public void testInvalidIfStartedWhileCommitting() {
+    // the count was taken before the commit it is in the middle of finished
+    inCommit.set(true);
+    OptimisticRead read = begin();
+    inCommit.set(false);
+    assertFalse(read.isValid());
+  }
+}
@@ -0,0 +1,71 @@
+package brs.db.sql;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class OrderBookTest {
+
+  private static OrderBook.Entry order(long id, long assetId, long price, int height) {
+    return new OrderBook.Entry(id, 100L, assetId, price, height, 10L);
+  }
+
+  private static List<Long> ids(List<OrderBook.Entry> entries) {
+    List<Long> ids = new ArrayList<>();
+    for (OrderBook.Entry entry : entries) {
+      ids.add(entry.id);
+    }
+    return ids;
+  }
+
+  @Test
+  public void asksLowestPriceFirstThenOldest() {
+    OrderBook asks = OrderBook.asks();
+    asks.put(order(1L, 7L, 50L, 10));
+    asks.put(order(2L, 7L, 40L, 12));
+    asks.put(order(3L, 7L, 50L, 9));
+    asks.put(order(-4L, 7L, 50L, 9));
+    asks.put(order(5L, 8L, 1L, 1));
+
+    assertEquals(Arrays.asList(2L, -4L, 3L, 1L), ids(asks.page(7L, 0, -1)));
+    assertEquals(Arrays.asList(-4L, 3L), ids(asks.page(7L, 1, 2)));
+    assertEquals(Collections.emptyList(), ids(asks.page(7L, 4, 10)));
+    assertEquals(Collections.emptyList(), ids(asks.page(9L, 0, -1)));
+  }
+
+  @Test
+  public void bidsHighestPriceFirstThenOldest() {
+    OrderBook bids = OrderBook.bids();
+    bids.put(order(1L, 7L, 50L, 10));
+    bids.put(order(2L, 7L, 40L, 8));
+    bids.put(order(3L, 7L, 50L, 9));
+
+    assertEquals(Arrays.asList(3L, 1L, 2L), ids(bids.page(7L, 0, -1)));
+  }
+
+  @Test
+  public void putReplacesAndRemoveDrops() {
+    OrderBook asks = OrderBook.asks();
+    asks.put(order(1L, 7L, 50L, 10));
+    asks.put(order(2L, 7L, 60L, 10));
+    asks.put(new OrderBook.Entry(1L, 100L, 7L, 50L, 10, 3L));
+
+    assertEquals(2, asks.size());
+    assertEquals(3L, asks.page(7L, 0, 0).get(0).quantityQNT);
+
+    asks.remove(1L);
+    asks.remove(42L);
+    assertEquals(Collections.singletonList(2L), ids(asks.page(7L, 0, -1)));
+    asks.remove(2L);
+    assertEquals(0, asks.size());
+    assertEquals(Collections.emptyList(), asks.page(7L, 0, -1));
+  }
+}
@@ -0,0 +1,141 @@
+package brs.db.sql;
+
+import brs.common.TestInfrastructure;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static brs.schema.Tables.ACCOUNT;
+import static brs.schema.Tables.ACCOUNT_ASSET;
+import static brs.schema.Tables.ASSET_TRANSFER;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class PreparedQueryTest {
+
+  private static final Table<Record> ENTRY = DSL.table(DSL.name("entry"));
+  private static final Field<Long> ID = DSL.field(DSL.name("id"), Long.class);
+  private static final Field<String> NAME = DSL.field(DSL.name("name"), String.class);
+
+  private static final AtomicInteger queryNumber = new AtomicInteger();
+
+  private Connection connection;
+  private DSLContext ctx;
+  private AtomicInteger renders;
+  private PreparedQuery query;
+
+  @Before
+  public void setUpPreparedQueryTest() throws Exception {
+    connection = DriverManager.getConnection(TestInfrastructure.IN_MEMORY_DB_URL);
+    ctx = DSL.using(connection, SQLDialect.SQLITE);
+    ctx.execute("CREATE TABLE entry (id BIGINT NOT NULL, name VARCHAR(10) NOT NULL)");
+    ctx.insertInto(ENTRY, ID, NAME).values(1L, "one").values(2L, "two").execute();
+    renders = new AtomicInteger();
+    // the statistics are global, every test has its own query
+    query = new PreparedQuery("PreparedQueryTest" + queryNumber.incrementAndGet(), context -> {
+      renders.incrementAndGet();
+      return context.select(ID, NAME).from(ENTRY).where(ID.eq((Long) null)).limit(DSL.inline(1));
+    });
+  }
+
+  @After
+  public void tearDownPreparedQueryTest() throws Exception {
+    connection.close();
+  }
+
+  @Test
+  public void testRendersOncePerDialect() {
+    assertEquals("one", query.fetch(ctx, 1L).get(0).get(NAME));
+    assertEquals("two", query.fetch(ctx, 2L).get(0).get(NAME));
+    assertTrue(query.fetch(ctx, 3L).isEmpty());
+    assertEquals(1, renders.get());
+
+    DSLContext otherDialect = DSL.using(connection, SQLDialect.POSTGRES);
+    assertEquals("two", query.fetch(otherDialect, 2L).get(0).get(NAME));
+    assertEquals(2, renders.get());
+  }
+
+  @Test
+  public void testFetchExists() {
+    assertTrue(query.fetchExists(ctx, 1L));
+    assertFalse(query.fetchExists(ctx, 3L));
+  }
+
+  @Test
+  public void testResultHasTemplateFields() {
+    Result<Record> result = query.fetch(ctx, 2L);
+    assertEquals(1, result.size());
+    assertEquals(Long.valueOf(2), result.get(0).get(ID));
+  }
+
+  @Test
+  public void testStatistics() {
+    assertEquals(0, query.getExecutions());
+    query.fetch(ctx, 1L);
+    query.fetch(ctx, 2L);
+    assertEquals(2, query.getExecutions());
+    assertTrue(query.getTotalNanos() > 0);
+    assertTrue(query.getMaxNanos() > 0);
+    assertTrue(query.getMaxNanos() <= query.getTotalNanos());
+    assertTrue(PreparedQuery.getStatistics().contains(query));
+
+    PreparedQuery.resetStatistics();
+    assertEquals(0, query.getExecutions());
+    assertEquals(0, query.getTotalNanos());
+    assertEquals(0, query.getMaxNanos());
+  }
+
+  @Test
+  public void testFailedExecutionIsCounted() {
+    PreparedQuery failing = new PreparedQuery("PreparedQueryTest" + queryNumber.incrementAndGet(),
+      context -> context.select(ID).from(DSL.table(DSL.name("missing"))));
+    try {
+      failing.fetch(ctx);
+      fail("query on a missing table should fail");
+    } catch (RuntimeException expected) {
+      // the latency is still recorded
+    }
+    assertEquals(1, failing.getExecutions());
+  }
+
+  @Test
+  public void testStatisticsOrderedByTotalTime() {
+    List<PreparedQuery> statistics = PreparedQuery.getStatistics();
+    for (int i = 1; i < statistics.size(); i++) {
+      assertTrue(statistics.get(i - 1).getTotalNanos() >= statistics.get(i).getTotalNanos());
+    }
+  }
+
+  @Test
+  public void testPKFields() {
+    assertEquals(List.of(ACCOUNT.ID), EntitySqlTable.getPKFields(ACCOUNT, new String[]{"id"}));
+    assertEquals(List.of(ACCOUNT_ASSET.ACCOUNT_ID, ACCOUNT_ASSET.ASSET_ID),
+      EntitySqlTable.getPKFields(ACCOUNT_ASSET, new String[]{"account_id", "asset_id"}));
+    assertEquals(List.of(ASSET_TRANSFER.ID, ASSET_TRANSFER.ASSET_ID),
+      EntitySqlTable.getPKFields(ASSET_TRANSFER, new String[]{"asset_transfer.id", "asset_transfer.asset_id"}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPKFieldsRejectsNonLongColumn() {
+    EntitySqlTable.getPKFields(ACCOUNT, new String[]{"id", "name"});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPKFieldsRejectsMissingColumn() {
+    EntitySqlTable.getPKFields(ACCOUNT, new String[]{"no_such_column"});
+  }
+}
@@ -0,0 +1,276 @@
+package brs.db.sql;
+
+import brs.Attachment;
+import brs.Transaction;
+import brs.TransactionType;
+import brs.props.PropertyService;
+import brs.props.Props;
+import brs.schema.tables.records.TransactionRecord;
+import brs.util.PageCursor;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.SelectOrderByStep;
+import org.jooq.impl.DSL;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
+import static brs.schema.Tables.INDIRECT_INCOMING;
+import static brs.schema.Tables.TRANSACTION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class SqlAccountTransactionDbTest {
+
+  private static final int ACCOUNTS = 8;
+
+  private Path folder;
+  private SqlAccountTransactionDb accountTransactionDb;
+
+  @Before
+  public void setUpSqlAccountTransactionDbTest() throws Exception {
+    folder = Files.createTempDirectory("accounttransaction");
+    PropertyService propertyService = mock(PropertyService.class);
+    when(propertyService.getString(Props.DB_URL)).thenReturn("jdbc:sqlite:file:" + folder.resolve("test.db"));
+    when(propertyService.getString(Props.DB_SQLITE_JOURNAL_MODE)).thenReturn("WAL");
+    when(propertyService.getString(Props.DB_SQLITE_SYNCHRONOUS)).thenReturn("NORMAL");
+    when(propertyService.getInt(Props.DB_CONNECTIONS)).thenReturn(1);
+    when(propertyService.getInt(Props.DB_SQLITE_CACHE_SIZE)).thenReturn(-2000);
+    // small batches, so the inserts are split
+    when(propertyService.getInt(Props.DB_INSERT_BATCH_MAX_SIZE)).thenReturn(3);
+    when(propertyService.getBoolean(Props.INDIRECT_INCOMING_SERVICE_ENABLE)).thenReturn(true);
+    Db.init(propertyService, null);
+    accountTransactionDb = new SqlAccountTransactionDb(propertyService);
+  }
+
+  @After
+  public void tearDownSqlAccountTransactionDbTest() throws Exception {
+    Db.shutdown();
+    try (Stream<Path> files = Files.walk(folder)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private static Transaction transaction(long id, int height, TransactionType type, long senderId, long recipientId,
+                                         long... indirectRecipients) {
+    Transaction transaction = mock(Transaction.class);
+    when(transaction.getId()).thenReturn(id);
+    when(transaction.getHeight()).thenReturn(height);
+    when(transaction.getBlockTimestamp()).thenReturn(height * 240);
+    when(transaction.getType()).thenReturn(type);
+    when(transaction.getSenderId()).thenReturn(senderId);
+    when(transaction.getRecipientId()).thenReturn(recipientId);
+    if (type == TransactionType.Payment.MULTI_OUT) {
+      List<List<Long>> recipients = new ArrayList<>();
+      for (long recipient : indirectRecipients) {
+        recipients.add(Arrays.asList(recipient, 100L));
+      }
+      Attachment.PaymentMultiOutCreation attachment = mock(Attachment.PaymentMultiOutCreation.class);
+      when(attachment.getRecipients()).thenReturn(recipients);
+      when(transaction.getAttachment()).thenReturn(attachment);
+    } else {
+      when(transaction.getAttachment()).thenReturn(Attachment.ORDINARY_PAYMENT);
+    }
+    return transaction;
+  }
+
+  private static List<String> rows() {
+    return Db.useDSLContext(ctx -> {
+      return ctx.select(ACCOUNT_TRANSACTION.ACCOUNT_ID, ACCOUNT_TRANSACTION.TRANSACTION_ID, ACCOUNT_TRANSACTION.HEIGHT,
+          ACCOUNT_TRANSACTION.INDIRECT)
+        .from(ACCOUNT_TRANSACTION)
+        .orderBy(ACCOUNT_TRANSACTION.TRANSACTION_ID, ACCOUNT_TRANSACTION.ACCOUNT_ID)
+        .fetch(row -> row.value1() + "/" + row.value2() + "/" + row.value3() + (row.value4() ? "/indirect" : ""));
+    });
+  }
+
+  @Test
+  public void testRowsWrittenOnSave() {
+    accountTransactionDb.saveTransactions(Arrays.asList(
+      transaction(10L, 1, TransactionType.Payment.ORDINARY, 1L, 2L),
+      transaction(11L, 1, TransactionType.ColoredCoins.ASSET_ISSUANCE, 3L, 0L),
+      transaction(12L, 2, TransactionType.Payment.ORDINARY, 4L, 4L)));
+
+    assertEquals(Arrays.asList("1/10/1", "2/10/1", "3/11/1", "4/12/2"), rows());
+  }
+
+  @Test
+  public void testDirectAndIndirectRowsAreDeduplicated() {
+    // the sender pays itself and one recipient twice
+    accountTransactionDb.saveTransactions(Arrays.asList(
+      transaction(20L, 5, TransactionType.Payment.MULTI_OUT, 1L, 0L, 1L, 2L, 3L, 3L)));
+
+    assertEquals(Arrays.asList("1/20/5", "2/20/5/indirect", "3/20/5/indirect"), rows());
+  }
+
+  @Test
+  public void testRowsDeletedFromHeight() {
+    accountTransactionDb.saveTransactions(Arrays.asList(
+      transaction(30L, 7, TransactionType.Payment.ORDINARY, 1L, 2L),
+      transaction(31L, 8, TransactionType.Payment.MULTI_OUT, 1L, 0L, 2L, 3L),
+      transaction(32L, 9, TransactionType.Payment.ORDINARY, 2L, 1L)));
+
+    accountTransactionDb.deleteFrom(8);
+
+    assertEquals(Arrays.asList("1/30/7", "2/30/7"), rows());
+  }
+
+  @Test
+  public void testQueryMatchesTransactionTableQuery() {
+    Random random = new Random(42);
+    List<Transaction> transactions = new ArrayList<>();
+    Set<Long> ids = new LinkedHashSet<>();
+    for (int i = 0; i < 300; i++) {
+      long id;
+      do {
+        id = random.nextLong() & Long.MAX_VALUE;
+      } while (!ids.add(id));
+      // a few transactions per block, so the timestamps repeat and the id decides the order
+      int height = 1 + i / 3;
+      long senderId = 1 + random.nextInt(ACCOUNTS);
+      switch (random.nextInt(3)) {
+        case 0:
+          transactions.add(transaction(id, height, TransactionType.Payment.ORDINARY, senderId, 1 + random.nextInt(ACCOUNTS)));
+          break;
+        case 1:
+          transactions.add(transaction(id, height, TransactionType.ColoredCoins.ASSET_ISSUANCE, senderId, 0L));
+          break;
+        default:
+          long[] recipients = new long[1 + random.nextInt(4)];
+          for (int r = 0; r < recipients.length; r++) {
+            recipients[r] = 1 + random.nextInt(ACCOUNTS);
+          }
+          transactions.add(transaction(id, height, TransactionType.Payment.MULTI_OUT, senderId, 0L, recipients));
+          break;
+      }
+    }
+    Db.useDSLContext(ctx -> {
+      for (Transaction transaction : transactions) {
+        insertTransaction(ctx, transaction);
+      }
+    });
+    accountTransactionDb.saveTransactions(transactions);
+
+    int maxHeight = transactions.get(transactions.size() - 1).getHeight();
+    for (int i = 0; i < 500; i++) {
+      long accountId = 1 + random.nextInt(ACCOUNTS);
+      int height = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(maxHeight);
+      byte type = (byte) (random.nextInt(3) - 1);
+      byte subtype = (byte) (random.nextInt(3) - 1);
+      int blockTimestamp = random.nextBoolean() ? 0 : random.nextInt(maxHeight) * 240;
+      boolean includeIndirectIncoming = random.nextBoolean();
+      PageCursor after = null;
+      if (random.nextBoolean()) {
+        Transaction cursor = transactions.get(random.nextInt(transactions.size()));
+        after = new PageCursor(cursor.getBlockTimestamp(), cursor.getId());
+      }
+      String parameters = accountId + " " + height + " " + type + "/" + subtype + " " + blockTimestamp + " "
+        + includeIndirectIncoming + " " + (after == null ? null : after.encode());
+
+      PageCursor finalAfter = after;
+      List<Long> expected = Db.useDSLContext(ctx -> {
+        return transactionTableQuery(ctx, accountId, height, type, subtype, blockTimestamp, includeIndirectIncoming, finalAfter);
+      });
+      List<Long> actual = Db.useDSLContext(ctx -> {
+        return SqlBlockchainStore.getAccountTransactionsQuery(ctx, accountId, height, type, subtype, blockTimestamp,
+          includeIndirectIncoming, finalAfter).fetch(TRANSACTION.ID);
+      });
+      assertEquals(parameters, expected, actual);
+    }
+    assertTrue(Db.useDSLContext(ctx -> {
+      return ctx.fetchCount(ACCOUNT_TRANSACTION, ACCOUNT_TRANSACTION.INDIRECT.isTrue());
+    }) > 0);
+  }
+
+  private static void insertTransaction(DSLContext ctx, Transaction transaction) {
+    TransactionRecord record = ctx.newRecord(TRANSACTION);
+    record.setId(transaction.getId());
+    record.setDeadline((short) 1440);
+    record.setSenderPublicKey(new byte[32]);
+    record.setRecipientId(transaction.getRecipientId() == 0 ? null : transaction.getRecipientId());
+    record.setAmount(0L);
+    record.setFee(0L);
+    record.setHeight(transaction.getHeight());
+    record.setBlockId((long) transaction.getHeight());
+    record.setTimestamp(transaction.getBlockTimestamp());
+    record.setType(transaction.getType().getType());
+    record.setSubtype(transaction.getType().getSubtype());
+    record.setSenderId(transaction.getSenderId());
+    record.setBlockTimestamp(transaction.getBlockTimestamp());
+    record.setFullHash(ByteBuffer.allocate(32).putLong(transaction.getId()).array());
+    record.setVersion((byte) 2);
+    record.setHasMessage(false);
+    record.setHasEncryptedMessage(false);
+    record.setHasPublicKeyAnnouncement(false);
+    record.setHasEncrypttoselfMessage(false);
+    record.insert();
+    if (transaction.getType() == TransactionType.Payment.MULTI_OUT) {
+      for (List<Long> recipient : ((Attachment.PaymentMultiOutCreation) transaction.getAttachment()).getRecipients()) {
+        ctx.insertInto(INDIRECT_INCOMING, INDIRECT_INCOMING.ACCOUNT_ID, INDIRECT_INCOMING.TRANSACTION_ID,
+            INDIRECT_INCOMING.HEIGHT, INDIRECT_INCOMING.AMOUNT)
+          .values(recipient.get(0), transaction.getId(), transaction.getHeight(), recipient.get(1))
+          .execute();
+      }
+    }
+  }
+
+  /**
+   * The union over the transaction and indirect incoming tables the index replaced, without the duplicates it
+   * returned for a sender that is also an indirect recipient.
+   */
+  private static List<Long> transactionTableQuery(DSLContext ctx, long accountId, int height, byte type, byte subtype,
+                                                  int blockTimestamp, boolean includeIndirectIncoming, PageCursor after) {
+    List<Condition> conditions = new ArrayList<>();
+    if (blockTimestamp > 0) {
+      conditions.add(TRANSACTION.BLOCK_TIMESTAMP.ge(blockTimestamp));
+    }
+    if (type >= 0) {
+      conditions.add(TRANSACTION.TYPE.eq(type));
+      if (subtype >= 0) {
+        conditions.add(TRANSACTION.SUBTYPE.eq(subtype));
+      }
+    }
+    if (height < Integer.MAX_VALUE) {
+      conditions.add(TRANSACTION.HEIGHT.le(height));
+    }
+    if (after != null) {
+      int afterTimestamp = (int) after.getKey();
+      conditions.add(TRANSACTION.BLOCK_TIMESTAMP.lt(afterTimestamp)
+        .or(TRANSACTION.BLOCK_TIMESTAMP.eq(afterTimestamp).and(TRANSACTION.ID.lt(after.getId()))));
+    }
+
+    SelectOrderByStep<Record> select = ctx.select(TRANSACTION.ID, TRANSACTION.BLOCK_TIMESTAMP).from(TRANSACTION)
+      .where(conditions).and(TRANSACTION.RECIPIENT_ID.eq(accountId).and(TRANSACTION.SENDER_ID.ne(accountId)))
+      .unionAll(ctx.select(TRANSACTION.ID, TRANSACTION.BLOCK_TIMESTAMP).from(TRANSACTION)
+        .where(conditions).and(TRANSACTION.SENDER_ID.eq(accountId)));
+    if (includeIndirectIncoming) {
+      select = select.unionAll(ctx.select(TRANSACTION.ID, TRANSACTION.BLOCK_TIMESTAMP).from(TRANSACTION)
+        .where(conditions)
+        .and(TRANSACTION.ID.in(ctx.select(INDIRECT_INCOMING.TRANSACTION_ID).from(INDIRECT_INCOMING)
+          .where(INDIRECT_INCOMING.ACCOUNT_ID.eq(accountId)))));
+    }
+    List<Long> ids = select.orderBy(DSL.field(DSL.name("block_timestamp")).desc(), DSL.field(DSL.name("id")).desc())
+      .fetch(TRANSACTION.ID);
+    return ids.stream().distinct().collect(Collectors.toList());
+  }
+}
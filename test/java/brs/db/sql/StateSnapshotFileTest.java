@@ -0,0 +1,125 @@
+package brs.db.sql;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class StateSnapshotFileTest {
+
+  private final List<Path> files = new ArrayList<>();
+
+  @After
+  public void deleteFiles() throws IOException {
+    for (Path file : files) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private Path newFile() throws IOException {
+    Path file = Files.createTempFile("snapshot", ".bin");
+    files.add(file);
+    return file;
+  }
+
+  private String write(Path file, long balance) throws IOException {
+    try (OutputStream out = Files.newOutputStream(file);
+         StateSnapshotFile.Writer writer = new StateSnapshotFile.Writer(out, new StateSnapshotFile.Header(1440, 7L, -1L))) {
+      writer.beginTable("account", Arrays.asList("id", "name", "public_key", "latest"));
+      for (long id = 1; id <= StateSnapshotFile.CHUNK_ROWS + 1; id++) {
+        writer.row(id, id == 1 ? "first" : null, new byte[] {(byte) id, 2, 3}, true);
+      }
+      writer.beginTable("account_balance", Arrays.asList("id", "balance", "height", "flags"));
+      writer.row(1L, balance, 1440, (byte) 1);
+      return writer.finish();
+    }
+  }
+
+  @Test
+  public void readsBackWhatWasWritten() throws IOException {
+    Path file = newFile();
+    String hash = write(file, 100L);
+
+    try (InputStream in = Files.newInputStream(file);
+         StateSnapshotFile.Reader reader = new StateSnapshotFile.Reader(in)) {
+      assertEquals(1440, reader.getHeader().height);
+      assertEquals(7L, reader.getHeader().blockId);
+      assertEquals(-1L, reader.getHeader().genesisBlockId);
+
+      List<StateSnapshotFile.Chunk> chunks = new ArrayList<>();
+      StateSnapshotFile.Chunk chunk;
+      while ((chunk = reader.next()) != null) {
+        chunks.add(chunk);
+      }
+      assertEquals(3, chunks.size());
+      assertEquals("account", chunks.get(0).table);
+      assertEquals(StateSnapshotFile.CHUNK_ROWS, chunks.get(0).rows.size());
+      assertEquals(Arrays.asList("id", "name", "public_key", "latest"), chunks.get(0).columns);
+      Object[] first = chunks.get(0).rows.get(0);
+      assertEquals(1L, first[0]);
+      assertEquals("first", first[1]);
+      assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) first[2]);
+      assertEquals(true, first[3]);
+      assertNull(chunks.get(1).rows.get(0)[1]);
+      assertEquals(1, chunks.get(1).rows.size());
+      assertEquals(Arrays.asList(1L, 100L, 1440, (byte) 1), Arrays.asList(chunks.get(2).rows.get(0)));
+      assertEquals(hash, reader.getHash());
+    }
+  }
+
+  @Test
+  public void hashDependsOnlyOnTheContent() throws IOException {
+    String hash = write(newFile(), 100L);
+
+    assertEquals(hash, write(newFile(), 100L));
+    assertNotEquals(hash, write(newFile(), 101L));
+  }
+
+  @Test
+  public void refusesTamperedFile() throws IOException {
+    Path file = newFile();
+    write(file, 100L);
+    byte[] bytes = Files.readAllBytes(file);
+    // in the hash at the end
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+
+    try (InputStream in = Files.newInputStream(file)) {
+      StateSnapshotFile.verify(in);
+      fail("tampered snapshot accepted");
+    } catch (IOException expected) {
+      assertEquals("Snapshot hash mismatch", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void refusesTruncatedFile() throws IOException {
+    Path file = newFile();
+    write(file, 100L);
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 40));
+
+    try (InputStream in = Files.newInputStream(file)) {
+      StateSnapshotFile.verify(in);
+      fail("truncated snapshot accepted");
+    } catch (IOException expected) {
+      // expected
+    }
+  }
+}
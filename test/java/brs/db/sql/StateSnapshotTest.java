@@ -0,0 +1,209 @@
+package brs.db.sql;
+
+import brs.Block;
+import brs.Constants;
+import brs.db.AccountTransactionDb;
+import brs.db.TransactionDb;
+import brs.db.cache.DBCacheManagerImpl;
+import brs.db.store.DerivedTableManager;
+import brs.props.PropertyService;
+import brs.props.Props;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static brs.schema.Tables.ACCOUNT_BALANCE;
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
+import static brs.schema.Tables.BLOCK;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class StateSnapshotTest {
+
+  private static final long GENESIS_BLOCK_ID = 42L;
+  private static final long BLOCK_ID = 1234L;
+  private static final int HEIGHT = Constants.MAX_ROLLBACK + 100;
+  private static final int ROLLBACK_HEIGHT = HEIGHT - Constants.MAX_ROLLBACK;
+
+  private Path folder;
+  private VersionedEntitySqlTable<Long> balanceTable;
+  private StateSnapshot stateSnapshot;
+
+  @Before
+  public void setUpStateSnapshotTest() throws Exception {
+    folder = Files.createTempDirectory("statesnapshot");
+    PropertyService propertyService = mock(PropertyService.class);
+    when(propertyService.getString(Props.DB_URL)).thenReturn("jdbc:sqlite:file:" + folder.resolve("test.db"));
+    when(propertyService.getString(Props.DB_SQLITE_JOURNAL_MODE)).thenReturn("WAL");
+    when(propertyService.getString(Props.DB_SQLITE_SYNCHRONOUS)).thenReturn("NORMAL");
+    when(propertyService.getInt(Props.DB_CONNECTIONS)).thenReturn(1);
+    when(propertyService.getInt(Props.DB_SQLITE_CACHE_SIZE)).thenReturn(-2000);
+    Db.init(propertyService, mock(DBCacheManagerImpl.class));
+
+    DerivedTableManager derivedTableManager = new DerivedTableManager();
+    DbKey.LongKeyFactory<Long> keyFactory = new DbKey.LongKeyFactory<Long>(ACCOUNT_BALANCE.ID) {
+      @Override
+      public DbKey newKey(Long id) {
+        return (DbKey) newKey(id.longValue());
+      }
+    };
+    balanceTable = new VersionedEntitySqlTable<Long>("account_balance", ACCOUNT_BALANCE, keyFactory,
+      derivedTableManager) {
+      @Override
+      protected Long load(DSLContext ctx, Record record) {
+        return record.get(ACCOUNT_BALANCE.ID);
+      }
+    };
+    stateSnapshot = new StateSnapshot(derivedTableManager, mock(TransactionDb.class),
+      mock(AccountTransactionDb.class), transaction -> { });
+    lastBlock();
+  }
+
+  @After
+  public void tearDownStateSnapshotTest() throws Exception {
+    Db.shutdown();
+    try (Stream<Path> files = Files.walk(folder)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  /**
+   * Writes the versions of an account at the given heights, the last one is the latest.
+   */
+  private static void versions(long id, int... heights) {
+    Db.useDSLContext(ctx -> {
+      for (int i = 0; i < heights.length; i++) {
+        ctx.insertInto(ACCOUNT_BALANCE, ACCOUNT_BALANCE.ID, ACCOUNT_BALANCE.BALANCE,
+            ACCOUNT_BALANCE.UNCONFIRMED_BALANCE, ACCOUNT_BALANCE.FORGED_BALANCE, ACCOUNT_BALANCE.HEIGHT,
+            ACCOUNT_BALANCE.LATEST)
+          .values(id, (long) heights[i], (long) heights[i], 0L, heights[i], i == heights.length - 1)
+          .execute();
+      }
+    });
+  }
+
+  private static void lastBlock() {
+    Db.useDSLContext(ctx -> {
+      ctx.insertInto(BLOCK, BLOCK.ID, BLOCK.VERSION, BLOCK.TIMESTAMP, BLOCK.TOTAL_AMOUNT, BLOCK.TOTAL_FEE,
+          BLOCK.PAYLOAD_LENGTH, BLOCK.GENERATOR_PUBLIC_KEY, BLOCK.CUMULATIVE_DIFFICULTY, BLOCK.BASE_TARGET,
+          BLOCK.HEIGHT, BLOCK.GENERATION_SIGNATURE, BLOCK.BLOCK_SIGNATURE, BLOCK.PAYLOAD_HASH, BLOCK.GENERATOR_ID,
+          BLOCK.NONCE)
+        .values(BLOCK_ID, 3, HEIGHT * 240, 0L, 0L, 0, new byte[32], new byte[1], 0L, HEIGHT, new byte[32],
+          new byte[64], new byte[32], 0L, 0L)
+        .execute();
+    });
+  }
+
+  private static Block block() {
+    Block block = mock(Block.class);
+    when(block.getHeight()).thenReturn(HEIGHT);
+    when(block.getId()).thenReturn(BLOCK_ID);
+    return block;
+  }
+
+  private static void accountTransaction(long accountId, long transactionId, int height) {
+    Db.useDSLContext(ctx -> {
+      ctx.insertInto(ACCOUNT_TRANSACTION, ACCOUNT_TRANSACTION.ACCOUNT_ID, ACCOUNT_TRANSACTION.TRANSACTION_ID,
+          ACCOUNT_TRANSACTION.HEIGHT, ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP, ACCOUNT_TRANSACTION.TYPE,
+          ACCOUNT_TRANSACTION.SUBTYPE, ACCOUNT_TRANSACTION.INDIRECT)
+        .values(accountId, transactionId, height, height * 240, (byte) 0, (byte) 0, false)
+        .execute();
+    });
+  }
+
+  private static List<String> balances(boolean latestOnly) {
+    return Db.useDSLContext(ctx -> {
+      return ctx.selectFrom(ACCOUNT_BALANCE)
+        .where(latestOnly ? ACCOUNT_BALANCE.LATEST.isTrue() : ACCOUNT_BALANCE.LATEST.isNotNull())
+        .orderBy(ACCOUNT_BALANCE.ID, ACCOUNT_BALANCE.HEIGHT)
+        .fetch(row -> row.getId() + "@" + row.getHeight() + "/" + row.getBalance() + (row.getLatest() ? "*" : ""));
+    });
+  }
+
+  private static List<Integer> accountTransactionHeights() {
+    return Db.useDSLContext(ctx -> {
+      return ctx.select(ACCOUNT_TRANSACTION.HEIGHT).from(ACCOUNT_TRANSACTION).orderBy(ACCOUNT_TRANSACTION.HEIGHT)
+        .fetch(ACCOUNT_TRANSACTION.HEIGHT);
+    });
+  }
+
+  /**
+   * The latest balances after popping off the blocks above the height, undone again.
+   */
+  private List<String> balancesAfterPopOff(int height) {
+    Db.beginTransaction();
+    try {
+      balanceTable.rollback(height);
+      return balances(true);
+    } finally {
+      Db.rollbackTransaction();
+      Db.endTransaction();
+    }
+  }
+
+  @Test
+  public void testImportedSnapshotRollsBackLikeTheExportingNode() throws Exception {
+    versions(1L, 10, ROLLBACK_HEIGHT - 50, ROLLBACK_HEIGHT + 50, ROLLBACK_HEIGHT + 100);
+    versions(2L, 20, ROLLBACK_HEIGHT - 10);
+    versions(3L, ROLLBACK_HEIGHT + 20);
+    versions(4L, 30, ROLLBACK_HEIGHT, ROLLBACK_HEIGHT + 1);
+    accountTransaction(1L, 100L, ROLLBACK_HEIGHT);
+    accountTransaction(1L, 101L, ROLLBACK_HEIGHT + 1);
+    accountTransaction(2L, 101L, ROLLBACK_HEIGHT + 1);
+
+    List<String> latest = balances(true);
+    int[] popOffHeights = {HEIGHT - 1, ROLLBACK_HEIGHT + 20, ROLLBACK_HEIGHT};
+    List<List<String>> expected = new ArrayList<>();
+    for (int popOffHeight : popOffHeights) {
+      expected.add(balancesAfterPopOff(popOffHeight));
+    }
+
+    Path file = folder.resolve("snapshot");
+    String hash = stateSnapshot.export(file, block(), GENESIS_BLOCK_ID);
+    assertEquals(HEIGHT, stateSnapshot.importFrom(file, hash, GENESIS_BLOCK_ID));
+
+    // the versions below the rollback height that no rollback can go back to are left out
+    assertEquals(List.of(
+      "1@" + (ROLLBACK_HEIGHT - 50) + "/" + (ROLLBACK_HEIGHT - 50),
+      "1@" + (ROLLBACK_HEIGHT + 50) + "/" + (ROLLBACK_HEIGHT + 50),
+      "1@" + (ROLLBACK_HEIGHT + 100) + "/" + (ROLLBACK_HEIGHT + 100) + "*",
+      "2@" + (ROLLBACK_HEIGHT - 10) + "/" + (ROLLBACK_HEIGHT - 10) + "*",
+      "3@" + (ROLLBACK_HEIGHT + 20) + "/" + (ROLLBACK_HEIGHT + 20) + "*",
+      "4@" + ROLLBACK_HEIGHT + "/" + ROLLBACK_HEIGHT,
+      "4@" + (ROLLBACK_HEIGHT + 1) + "/" + (ROLLBACK_HEIGHT + 1) + "*"), balances(false));
+    assertEquals(latest, balances(true));
+    // written again from the transactions of the snapshot, of which there are none here
+    assertEquals(List.of(), accountTransactionHeights());
+    for (int i = 0; i < popOffHeights.length; i++) {
+      assertEquals("pop off to " + popOffHeights[i], expected.get(i), balancesAfterPopOff(popOffHeights[i]));
+    }
+  }
+
+  @Test
+  public void testHashDoesNotDependOnInsertOrderOrAccountHistory() throws Exception {
+    versions(1L, ROLLBACK_HEIGHT + 1);
+    versions(2L, ROLLBACK_HEIGHT + 2);
+    String hash = stateSnapshot.export(folder.resolve("first"), block(), GENESIS_BLOCK_ID);
+
+    Db.useDSLContext(ctx -> {
+      ctx.deleteFrom(ACCOUNT_BALANCE).execute();
+    });
+    versions(2L, ROLLBACK_HEIGHT + 2);
+    versions(1L, ROLLBACK_HEIGHT + 1);
+    accountTransaction(1L, 100L, ROLLBACK_HEIGHT + 1);
+    assertEquals(hash, stateSnapshot.export(folder.resolve("second"), block(), GENESIS_BLOCK_ID));
+  }
+}
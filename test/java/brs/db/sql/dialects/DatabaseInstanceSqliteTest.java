@@ -0,0 +1,149 @@
+package brs.db.sql.dialects;
+
+import brs.props.PropertyService;
+import brs.props.Props;
+import com.zaxxer.hikari.HikariConfig;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class DatabaseInstanceSqliteTest {
+
+  private static final Field<Long> ID = DSL.field(DSL.name("id"), Long.class);
+  private static final Field<Integer> HEIGHT = DSL.field(DSL.name("height"), Integer.class);
+  private static final Field<Boolean> LATEST = DSL.field(DSL.name("latest"), Boolean.class);
+
+  private Path folder;
+  private DatabaseInstanceSqlite sqlite;
+  private DatabaseInstanceBaseImpl chunked;
+
+  @Before
+  public void setUpDatabaseInstanceSqliteTest() throws Exception {
+    folder = Files.createTempDirectory("clearlatest");
+    PropertyService propertyService = mock(PropertyService.class);
+    when(propertyService.getString(Props.DB_URL)).thenReturn("jdbc:sqlite:file:" + folder.resolve("test.db"));
+    when(propertyService.getString(Props.DB_SQLITE_JOURNAL_MODE)).thenReturn("WAL");
+    when(propertyService.getString(Props.DB_SQLITE_SYNCHRONOUS)).thenReturn("NORMAL");
+    when(propertyService.getInt(Props.DB_CONNECTIONS)).thenReturn(1);
+    when(propertyService.getInt(Props.DB_SQLITE_CACHE_SIZE)).thenReturn(-2000);
+    sqlite = new DatabaseInstanceSqlite(propertyService);
+    // the chunked IN update every other dialect falls back to for small batches
+    chunked = new DatabaseInstanceBaseImpl(propertyService) {
+      @Override
+      protected HikariConfig configureImpl(HikariConfig config) {
+        config.setMaximumPoolSize(1);
+        return config;
+      }
+
+      @Override
+      protected void onShutdownImpl() {
+      }
+
+      @Override
+      protected void onStartupImpl() {
+      }
+
+      @Override
+      public String getMigrationSqlScriptPath() {
+        return null;
+      }
+
+      @Override
+      public String getDatabaseVersionSQLScript() {
+        return null;
+      }
+
+      @Override
+      public SQLDialect getDialect() {
+        return SQLDialect.SQLITE;
+      }
+
+      @Override
+      public SupportStatus getSupportStatus() {
+        return SupportStatus.STABLE;
+      }
+    };
+  }
+
+  @After
+  public void tearDownDatabaseInstanceSqliteTest() throws Exception {
+    chunked.onShutdown();
+    sqlite.onShutdown();
+    try (Stream<Path> files = Files.walk(folder)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Test
+  public void testClearLatestWritesSameRowsAsChunkedUpdate() throws Exception {
+    // more ids than one chunk, some of them without any row, and rows of other ids that have to stay untouched
+    List<Long> ids = new ArrayList<>();
+    for (long id = 1; id <= 2500; id++) {
+      ids.add(id * 2);
+    }
+    try (Connection connection = sqlite.getDataSource().getConnection()) {
+      DSLContext ctx = DSL.using(connection, SQLDialect.SQLITE);
+      Table<Record> bulk = createVersionedTable(ctx, "bulk");
+      Table<Record> reference = createVersionedTable(ctx, "reference");
+
+      ctx.transaction(configuration -> sqlite.clearLatest(DSL.using(configuration), bulk, ID, LATEST, ids));
+      ctx.transaction(configuration -> chunked.clearLatest(DSL.using(configuration), reference, ID, LATEST, ids));
+
+      List<String> bulkRows = rows(ctx, bulk);
+      assertEquals(rows(ctx, reference), bulkRows);
+      assertEquals(4000, bulkRows.size());
+      assertFalse(ctx.fetchExists(bulk, ID.eq(2L).and(LATEST.isTrue())));
+      assertFalse(ctx.fetchExists(bulk, ID.eq(3998L).and(LATEST.isTrue())));
+      assertTrue(ctx.fetchExists(bulk, ID.eq(3L).and(LATEST.isTrue())));
+      // the older versions are not touched either way
+      assertEquals(2000, ctx.fetchCount(bulk, HEIGHT.eq(1).and(LATEST.isFalse())));
+    }
+  }
+
+  /**
+   * Ids 1 to 2000, each with an old version at height 1 and the latest at height 2.
+   */
+  private static Table<Record> createVersionedTable(DSLContext ctx, String name) {
+    ctx.execute("CREATE TABLE " + name + " (db_id INTEGER PRIMARY KEY AUTOINCREMENT, id BIGINT NOT NULL, "
+      + "height INT NOT NULL, latest BOOLEAN NOT NULL DEFAULT TRUE)");
+    ctx.execute("CREATE INDEX " + name + "_id_latest_idx ON " + name + " (id, latest)");
+    Table<Record> table = DSL.table(DSL.name(name));
+    ctx.transaction(configuration -> {
+      DSLContext txContext = DSL.using(configuration);
+      for (long id = 1; id <= 2000; id++) {
+        txContext.insertInto(table, ID, HEIGHT, LATEST).values(id, 1, false).values(id, 2, true).execute();
+      }
+    });
+    return table;
+  }
+
+  private static List<String> rows(DSLContext ctx, Table<Record> table) {
+    return ctx.select(ID, HEIGHT, LATEST).from(table).orderBy(ID, HEIGHT).fetch().stream()
+      .map(row -> row.get(ID) + "/" + row.get(HEIGHT) + "/" + row.get(LATEST))
+      .collect(Collectors.toList());
+  }
+}
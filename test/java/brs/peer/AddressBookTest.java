@@ -0,0 +1,104 @@
+package brs.peer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class AddressBookTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private static Peer peer(String address) {
+        Peer peer = mock(Peer.class);
+        when(peer.getPeerAddress()).thenReturn(address);
+        return peer;
+    }
+
+    @Test
+    public void backoffDoublesAfterEveryFailure() {
+        AddressBook addressBook = new AddressBook(now::get);
+        addressBook.failed("1.2.3.4");
+        assertFalse(addressBook.mayConnect("1.2.3.4"));
+        now.addAndGet(AddressBook.BASE_BACKOFF_MS);
+        assertTrue(addressBook.mayConnect("1.2.3.4"));
+
+        addressBook.failed("1.2.3.4");
+        now.addAndGet(AddressBook.BASE_BACKOFF_MS);
+        assertFalse(addressBook.mayConnect("1.2.3.4"));
+        now.addAndGet(AddressBook.BASE_BACKOFF_MS);
+        assertTrue(addressBook.mayConnect("1.2.3.4"));
+        assertEquals(2, addressBook.getFailures("1.2.3.4"));
+
+        addressBook.connected("1.2.3.4");
+        assertEquals(0, addressBook.getFailures("1.2.3.4"));
+    }
+
+    @Test
+    public void backoffIsCapped() {
+        AddressBook addressBook = new AddressBook(now::get);
+        for (int i = 0; i < 40; i++) {
+            addressBook.failed("1.2.3.4");
+        }
+        now.addAndGet(AddressBook.MAX_BACKOFF_MS);
+        assertTrue(addressBook.mayConnect("1.2.3.4"));
+    }
+
+    @Test
+    public void backoffExpiresByAge() {
+        AddressBook addressBook = new AddressBook(now::get);
+        addressBook.failed("1.2.3.4");
+        addressBook.failed("5.6.7.8");
+        now.addAndGet(AddressBook.EXPIRY_MS - 1);
+        addressBook.failed("5.6.7.8");
+        now.addAndGet(1);
+
+        addressBook.expire();
+        assertEquals(0, addressBook.getFailures("1.2.3.4"));
+        assertEquals(2, addressBook.getFailures("5.6.7.8"));
+    }
+
+    @Test
+    public void selectionSpreadsOverBuckets() {
+        AddressBook addressBook = new AddressBook(now::get);
+        List<Peer> candidates = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            candidates.add(peer("10.1.0." + i));
+        }
+        candidates.add(peer("10.2.0.1"));
+        candidates.add(peer("[2001:db8::1]:8123"));
+        candidates.add(peer("node.example.org"));
+        addressBook.failed("node.example.org");
+
+        List<Peer> selected = addressBook.selectToConnect(candidates, 3);
+        assertEquals(3, selected.size());
+        Set<String> buckets = new HashSet<>();
+        for (Peer peer : selected) {
+            buckets.add(AddressBook.bucket(peer.getPeerAddress()));
+        }
+        assertEquals(3, buckets.size());
+        assertFalse(buckets.contains("node.example.org"));
+
+        assertEquals(12, addressBook.selectToConnect(candidates, 100).size());
+    }
+
+    @Test
+    public void bucketByNetwork() {
+        assertEquals("10.1", AddressBook.bucket("10.1.2.3"));
+        assertEquals("10.1", AddressBook.bucket("10.1.2.3:8123"));
+        assertEquals("2001:db8", AddressBook.bucket("[2001:db8::1]:8123"));
+        assertEquals("node.example.org", AddressBook.bucket("Node.Example.org:8123"));
+    }
+}
@@ -0,0 +1,131 @@
+package brs.peer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(JUnit4.class)
+public class BandwidthTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    public void tokenBucketWaitsForDebt() {
+        TokenBucket bucket = new TokenBucket(1000, now::get);
+        assertEquals(0, bucket.take(1000));
+        assertEquals(500, bucket.take(500));
+        now.addAndGet(200);
+        assertEquals(300, bucket.getWaitMillis());
+        now.addAndGet(300);
+        assertEquals(0, bucket.getWaitMillis());
+    }
+
+    @Test
+    public void tokenBucketRefillsOnlyOneSecond() {
+        TokenBucket bucket = new TokenBucket(1000, now::get);
+        now.addAndGet(60_000);
+        assertEquals(0, bucket.take(1000));
+        assertTrue(bucket.take(1) > 0);
+    }
+
+    @Test
+    public void unlimitedNeverWaits() {
+        Bandwidth bandwidth = new Bandwidth(0, 0, 0, 0, now::get);
+        Peer peer = mock(Peer.class);
+        assertEquals(0, bandwidth.uploaded(peer, Bandwidth.Lane.BULK, 100_000_000));
+        assertEquals(0, bandwidth.reserveBulkRequest(peer, 0).getWaitMillis());
+    }
+
+    @Test
+    public void priorityNeverWaitsButDelaysBulk() {
+        Bandwidth bandwidth = new Bandwidth(1000, 0, 0, 0, now::get);
+        Peer peer = mock(Peer.class);
+        assertEquals(0, bandwidth.uploaded(peer, Bandwidth.Lane.PRIORITY, 3000));
+        assertEquals(2000, bandwidth.reserveBulkRequest(peer, 0).getWaitMillis());
+        assertEquals(3000, bandwidth.uploaded(peer, Bandwidth.Lane.BULK, 1000));
+    }
+
+    @Test
+    public void perPeerLimitOnlyDelaysThatPeer() {
+        Bandwidth bandwidth = new Bandwidth(0, 0, 0, 1000, now::get);
+        Peer busy = mock(Peer.class);
+        Peer other = mock(Peer.class);
+        assertEquals(1000, bandwidth.downloaded(busy, Bandwidth.Lane.BULK, 2000));
+        assertEquals(1000, bandwidth.reserveBulkRequest(busy, 0).getWaitMillis());
+        assertEquals(0, bandwidth.reserveBulkRequest(other, 0).getWaitMillis());
+    }
+
+    @Test
+    public void tokenBucketReservesForTheNextSender() {
+        TokenBucket bucket = new TokenBucket(1000, now::get);
+        assertEquals(0, bucket.reserve(1500));
+        assertEquals(500, bucket.reserve(1000));
+        assertEquals(1500, bucket.getWaitMillis());
+        assertEquals(500, bucket.take(-1000));
+    }
+
+    @Test
+    public void concurrentBulkRequestsWaitBehindEachOther() {
+        Bandwidth bandwidth = new Bandwidth(1000, 0, 0, 0, now::get);
+        Peer peer = mock(Peer.class);
+        assertEquals(0, bandwidth.reserveBulkRequest(peer, 2000).getWaitMillis());
+        assertEquals(1000, bandwidth.reserveBulkRequest(peer, 2000).getWaitMillis());
+        assertEquals(3000, bandwidth.reserveBulkRequest(peer, 2000).getWaitMillis());
+    }
+
+    @Test
+    public void settleTakesTheDifferenceToTheExpectedAnswer() {
+        Bandwidth bandwidth = new Bandwidth(0, 64 * 1024, 0, 0, now::get);
+        Peer peer = mock(Peer.class);
+        // the first answer is expected at 64KB, one second's worth
+        Bandwidth.Reservation reservation = bandwidth.reserveBulkRequest(peer, 100);
+        assertEquals(0, reservation.getWaitMillis());
+        bandwidth.settle(reservation, true, 32 * 1024);
+        // half given back, the next answer is expected at 48KB
+        assertEquals(0, bandwidth.reserveBulkRequest(peer, 100).getWaitMillis());
+        assertEquals(250, bandwidth.reserveBulkRequest(peer, 100).getWaitMillis());
+    }
+
+    @Test
+    public void unsentBulkRequestGivesItsUploadBack() {
+        Bandwidth bandwidth = new Bandwidth(1000, 0, 0, 0, now::get);
+        Peer peer = mock(Peer.class);
+        bandwidth.reserveBulkRequest(peer, 1000);
+        Bandwidth.Reservation failed = bandwidth.reserveBulkRequest(peer, 1000);
+        assertEquals(0, failed.getWaitMillis());
+        bandwidth.settle(failed, false, 0);
+        assertEquals(0, bandwidth.reserveBulkRequest(peer, 0).getWaitMillis());
+        assertEquals(0, bandwidth.getUploadBytesPerSecond(Bandwidth.Lane.BULK));
+    }
+
+    @Test
+    public void lanesByRequestType() {
+        assertEquals(Bandwidth.Lane.BULK, Bandwidth.lane("getNextBlocks"));
+        assertEquals(Bandwidth.Lane.PRIORITY, Bandwidth.lane("processBlock"));
+        assertEquals(Bandwidth.Lane.PRIORITY, Bandwidth.lane(null));
+    }
+
+    @Test
+    public void throttledStreamCountsThroughput() throws IOException {
+        Bandwidth bandwidth = new Bandwidth(0, 0, 0, 0, now::get);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (OutputStream out = bandwidth.throttle(target, mock(Peer.class), Bandwidth.Lane.BULK)) {
+            out.write(new byte[40_000]);
+        }
+        assertEquals(40_000, target.size());
+        now.addAndGet(1000);
+        assertEquals(20_000, bandwidth.getUploadBytesPerSecond(Bandwidth.Lane.BULK));
+        assertEquals(0, bandwidth.getUploadBytesPerSecond(Bandwidth.Lane.PRIORITY));
+        now.addAndGet(60_000);
+        assertEquals(0, bandwidth.getUploadBytesPerSecond(Bandwidth.Lane.BULK));
+    }
+}
@@ -0,0 +1,94 @@
+package brs.peer;
+
+import brs.Blockchain;
+import brs.Transaction;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class GetBlockTransactionsTest {
+
+  private Blockchain mockBlockchain;
+  private GetBlockTransactions getBlockTransactions;
+
+  @Before
+  public void setUp() {
+    mockBlockchain = mock(Blockchain.class);
+    getBlockTransactions = new GetBlockTransactions(mockBlockchain);
+  }
+
+  private static Transaction transaction(long id) {
+    Transaction transaction = mock(Transaction.class);
+    when(transaction.getId()).thenReturn(id);
+    JsonObject json = new JsonObject();
+    json.addProperty("id", id);
+    when(transaction.getJsonObject()).thenReturn(json);
+    return transaction;
+  }
+
+  private static JsonObject request(String... transactionIds) {
+    JsonObject request = new JsonObject();
+    JsonArray ids = new JsonArray();
+    for (String id : transactionIds) {
+      ids.add(id);
+    }
+    request.add("transactionIds", ids);
+    return request;
+  }
+
+  @Test
+  public void looksUpAllTransactionsAtOnceAndKeepsTheRequestedOrder() {
+    // the database returns them in any order
+    when(mockBlockchain.getTransactions(any())).thenReturn(Arrays.asList(transaction(3L), transaction(1L),
+      transaction(2L)));
+
+    JsonObject response = (JsonObject) getBlockTransactions.processRequest(request("2", "3", "1"), mock(Peer.class));
+
+    JsonArray transactions = response.getAsJsonArray("transactions");
+    assertEquals(3, transactions.size());
+    assertEquals(2L, transactions.get(0).getAsJsonObject().get("id").getAsLong());
+    assertEquals(3L, transactions.get(1).getAsJsonObject().get("id").getAsLong());
+    assertEquals(1L, transactions.get(2).getAsJsonObject().get("id").getAsLong());
+    verify(mockBlockchain, times(1)).getTransactions(any());
+    verify(mockBlockchain, never()).getTransaction(anyLong());
+  }
+
+  @Test
+  public void unknownTransactionIsAnError() {
+    when(mockBlockchain.getTransactions(any())).thenReturn(List.of(transaction(1L)));
+
+    JsonObject response = (JsonObject) getBlockTransactions.processRequest(request("1", "2"), mock(Peer.class));
+
+    assertTrue(response.has("error"));
+    assertFalse(response.has("transactions"));
+  }
+
+  @Test
+  public void tooManyTransactionIdsAreAnError() {
+    String[] ids = new String[GetBlockTransactions.MAX_TRANSACTIONS + 1];
+    Arrays.fill(ids, "1");
+
+    JsonObject response = (JsonObject) getBlockTransactions.processRequest(request(ids), mock(Peer.class));
+
+    assertTrue(response.has("error"));
+    verify(mockBlockchain, never()).getTransactions(any());
+  }
+}
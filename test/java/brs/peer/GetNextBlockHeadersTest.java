@@ -0,0 +1,64 @@
+package brs.peer;
+
+import brs.Block;
+import brs.Blockchain;
+import brs.Genesis;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class GetNextBlockHeadersTest {
+    private GetNextBlockHeaders getNextBlockHeaders;
+    private Peer mockPeer;
+    private Block mockBlock;
+
+    @Before
+    public void setUpGetNextBlockHeadersTest() {
+        Blockchain mockBlockchain = mock(Blockchain.class);
+        mockPeer = mock(Peer.class);
+        mockBlock = mock(Block.class);
+        when(mockBlock.getVersion()).thenReturn(3);
+        when(mockBlock.getPayloadHash()).thenReturn(new byte[] {0});
+        when(mockBlock.getBlockSignature()).thenReturn(new byte[] {1});
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            blocks.add(mockBlock);
+        }
+        when(mockBlockchain.getBlocksAfter(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt())).thenReturn(blocks);
+        getNextBlockHeaders = new GetNextBlockHeaders(mockBlockchain);
+    }
+
+    @Test
+    public void testGetNextBlockHeaders() {
+        JsonObject request = new JsonObject();
+        request.addProperty("blockId", Long.toUnsignedString(Genesis.GENESIS_BLOCK_ID));
+        JsonElement responseElement = getNextBlockHeaders.processRequest(request, mockPeer);
+        assertNotNull(responseElement);
+        JsonArray headers = responseElement.getAsJsonObject().get("nextBlockHeaders").getAsJsonArray();
+        assertEquals(GetNextBlockHeaders.MAX_HEADERS, headers.size());
+        for (JsonElement header : headers) {
+            assertEquals("00", header.getAsJsonObject().get("payloadHash").getAsString());
+            assertEquals("01", header.getAsJsonObject().get("blockSignature").getAsString());
+            assertFalse(header.getAsJsonObject().has("transactions"));
+        }
+        // the header is built from the fields, not from the JSON with the transactions
+        verify(mockBlock, never()).getJsonObject();
+        verify(mockBlock, never()).getTransactions();
+    }
+}
@@ -65,6 +65,15 @@ public class GetNextBlocksTest {
         }
     }
 
+    @Test
+    public void testGetNextBlocks_limit() {
+        JsonObject request = new JsonObject();
+        request.addProperty("blockId", Long.toUnsignedString(Genesis.GENESIS_BLOCK_ID));
+        request.addProperty("limit", 60);
+        JsonObject response = getNextBlocks.processRequest(request, mockPeer).getAsJsonObject();
+        assertEquals(60, response.get("nextBlocks").getAsJsonArray().size());
+    }
+
     @Test
     public void testGetNextBlocks_noIdSpecified() {
         JsonObject request = new JsonObject();
@@ -0,0 +1,82 @@
+package brs.peer;
+
+import brs.Transaction;
+import brs.TransactionProcessor;
+import brs.web.server.BoundedExecutor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class GetUnconfirmedTransactionIdsTest {
+
+  private TransactionProcessor mockTransactionProcessor;
+  private BoundedExecutor refreshExecutor;
+  private Peer peer;
+  private Peer otherPeer;
+
+  @Before
+  public void setUp() {
+    mockTransactionProcessor = mock(TransactionProcessor.class);
+    refreshExecutor = new BoundedExecutor("test-inventory", 1, 1);
+    peer = mock(Peer.class);
+    otherPeer = mock(Peer.class);
+    Map<Transaction, Set<Peer>> transactions = new LinkedHashMap<>();
+    for (long id = 1; id <= 10; id++) {
+      Transaction transaction = mock(Transaction.class);
+      when(transaction.getId()).thenReturn(id);
+      when(transaction.getStringId()).thenReturn(Long.toString(id));
+      when(transaction.getSize()).thenReturn(100);
+      // the even ones came from the peer
+      transactions.put(transaction, id % 2 == 0 ? Set.of(peer) : new HashSet<>());
+    }
+    when(mockTransactionProcessor.getAllUnconfirmedTransactionsWithFingerPrints()).thenReturn(transactions);
+  }
+
+  @After
+  public void tearDown() {
+    refreshExecutor.shutdown();
+  }
+
+  private static List<String> ids(PeerServlet.ExtendedProcessRequest processed) {
+    JsonArray ids = processed.response.getAsJsonObject().getAsJsonArray("unconfirmedTransactionIds");
+    List<String> result = new ArrayList<>();
+    ids.forEach(id -> result.add(id.getAsString()));
+    return result;
+  }
+
+  @Test
+  public void leavesOutTheTransactionsThePeerHas() {
+    GetUnconfirmedTransactionIds t = new GetUnconfirmedTransactionIds(mockTransactionProcessor, 100, 1000000,
+      refreshExecutor);
+
+    assertEquals(List.of("1", "3", "5", "7", "9"), ids(t.extendedProcessRequest(new JsonObject(), peer)));
+    assertEquals(10, ids(t.extendedProcessRequest(new JsonObject(), otherPeer)).size());
+  }
+
+  @Test
+  public void answersNoMoreThanOneFetchReturns() {
+    GetUnconfirmedTransactionIds byCount = new GetUnconfirmedTransactionIds(mockTransactionProcessor, 4, 1000000,
+      refreshExecutor);
+    GetUnconfirmedTransactionIds bySize = new GetUnconfirmedTransactionIds(mockTransactionProcessor, 100, 350,
+      refreshExecutor);
+
+    assertEquals(List.of("1", "2", "3", "4"), ids(byCount.extendedProcessRequest(new JsonObject(), otherPeer)));
+    assertEquals(List.of("1", "2", "3"), ids(bySize.extendedProcessRequest(new JsonObject(), otherPeer)));
+  }
+}
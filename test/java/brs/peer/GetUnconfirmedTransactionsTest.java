@@ -0,0 +1,80 @@
+package brs.peer;
+
+import brs.Transaction;
+import brs.TransactionProcessor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static brs.web.api.http.common.ResultFields.UNCONFIRMED_TRANSACTIONS_RESPONSE;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class GetUnconfirmedTransactionsTest {
+
+  private TransactionProcessor mockTransactionProcessor;
+
+  @Before
+  public void setUp() {
+    mockTransactionProcessor = mock(TransactionProcessor.class);
+    for (long id = 1; id <= 10; id++) {
+      Transaction transaction = mock(Transaction.class);
+      when(transaction.getId()).thenReturn(id);
+      when(transaction.getSize()).thenReturn(100);
+      when(transaction.getJsonObject()).thenReturn(new JsonObject());
+      when(mockTransactionProcessor.getUnconfirmedTransaction(id)).thenReturn(transaction);
+    }
+  }
+
+  private static JsonObject request(int count) {
+    JsonObject request = new JsonObject();
+    JsonArray ids = new JsonArray();
+    for (int id = 1; id <= count; id++) {
+      ids.add(Integer.toString(id));
+    }
+    request.add("transactionIds", ids);
+    return request;
+  }
+
+  private static int sent(PeerServlet.ExtendedProcessRequest processed) {
+    return processed.response.getAsJsonObject().getAsJsonArray(UNCONFIRMED_TRANSACTIONS_RESPONSE).size();
+  }
+
+  @Test
+  public void looksAtNoMoreIdsThanThePoolHolds() {
+    GetUnconfirmedTransactions t = new GetUnconfirmedTransactions(mockTransactionProcessor, 4, 1000000);
+
+    assertEquals(4, sent(t.extendedProcessRequest(request(10), null)));
+    verify(mockTransactionProcessor, times(4)).getUnconfirmedTransaction(anyLong());
+  }
+
+  @Test
+  public void sendsNoMoreThanTheRawSizeLimit() {
+    GetUnconfirmedTransactions t = new GetUnconfirmedTransactions(mockTransactionProcessor, 100, 350);
+
+    assertEquals(3, sent(t.extendedProcessRequest(request(10), null)));
+  }
+
+  @Test
+  public void announcementLooksAtNoMoreIdsThanThePoolHolds() {
+    AnnounceTransactions t = new AnnounceTransactions(mockTransactionProcessor, 4);
+    JsonObject request = new JsonObject();
+    JsonArray ids = new JsonArray();
+    for (int id = 11; id <= 20; id++) {
+      ids.add(Integer.toString(id));
+    }
+    request.add("transactionIds", ids);
+
+    JsonObject response = (JsonObject) t.processRequest(request, null);
+
+    assertEquals(4, response.getAsJsonArray("missingTransactionIds").size());
+  }
+}
@@ -0,0 +1,40 @@
+package brs.peer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class KnownInventoryTest {
+
+    @Test
+    public void forgetsIdsAfterExpiry() {
+        KnownInventory known = new KnownInventory(10, 1000);
+        known.add(1L, 0);
+
+        assertTrue(known.contains(1L, 999));
+        assertFalse(known.contains(1L, 1000));
+        assertFalse(known.contains(2L, 0));
+
+        known.add(2L, 1500);
+        assertEquals(1, known.size());
+    }
+
+    @Test
+    public void dropsOldestWhenFull() {
+        KnownInventory known = new KnownInventory(2, 1000);
+        known.add(1L, 0);
+        known.add(2L, 1);
+        known.add(1L, 2);
+        known.add(3L, 3);
+
+        assertEquals(2, known.size());
+        assertTrue(known.contains(1L, 3));
+        assertFalse(known.contains(2L, 3));
+        assertTrue(known.contains(3L, 3));
+    }
+}
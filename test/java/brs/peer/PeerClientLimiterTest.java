@@ -0,0 +1,106 @@
+package brs.peer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class PeerClientLimiterTest {
+
+    @Test
+    public void startsWaitingRequestsInOrderAsRunningOnesComplete() {
+        PeerClient.Limiter limiter = new PeerClient.Limiter(2, 10, 60000);
+        List<CompletableFuture<String>> started = new ArrayList<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(limiter.submit(() -> {
+                CompletableFuture<String> request = new CompletableFuture<>();
+                started.add(request);
+                return request;
+            }));
+        }
+
+        assertEquals(2, started.size());
+        assertEquals(2, limiter.getRunning());
+        assertEquals(2, limiter.getWaiting());
+
+        started.get(1).complete("second");
+        assertEquals("second", results.get(1).join());
+        assertEquals(3, started.size());
+        assertFalse(results.get(2).isDone());
+
+        started.get(0).completeExceptionally(new IllegalStateException("down"));
+        assertTrue(results.get(0).isCompletedExceptionally());
+        assertEquals(4, started.size());
+
+        started.get(2).complete("third");
+        started.get(3).complete("fourth");
+        assertEquals("third", results.get(2).join());
+        assertEquals("fourth", results.get(3).join());
+        assertEquals(0, limiter.getRunning());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    public void failingRequestFreesItsSlot() {
+        PeerClient.Limiter limiter = new PeerClient.Limiter(1, 10, 60000);
+        CompletableFuture<String> failed = limiter.submit(() -> {
+            throw new IllegalArgumentException("bad address");
+        });
+        assertTrue(failed.isCompletedExceptionally());
+
+        CompletableFuture<String> next = limiter.submit(() -> CompletableFuture.completedFuture("ok"));
+        assertEquals("ok", next.join());
+        assertEquals(0, limiter.getRunning());
+    }
+
+    @Test
+    public void rejectsRequestsBeyondTheQueue() {
+        PeerClient.Limiter limiter = new PeerClient.Limiter(1, 1, 60000);
+        CompletableFuture<String> running = new CompletableFuture<>();
+        limiter.submit(() -> running);
+        CompletableFuture<String> waiting = limiter.submit(() -> CompletableFuture.completedFuture("waited"));
+        CompletableFuture<String> rejected = limiter.submit(() -> CompletableFuture.completedFuture("never"));
+
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(1, limiter.getWaiting());
+        running.complete("done");
+        assertEquals("waited", waiting.join());
+    }
+
+    @Test
+    public void waitingRequestTimesOutWithoutStarting() throws Exception {
+        PeerClient.Limiter limiter = new PeerClient.Limiter(1, 10, 50);
+        CompletableFuture<String> running = new CompletableFuture<>();
+        limiter.submit(() -> running);
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture<String> waiting = limiter.submit(() -> {
+            started.set(true);
+            return CompletableFuture.completedFuture("late");
+        });
+
+        try {
+            waiting.get(5, TimeUnit.SECONDS);
+            fail("the request should time out while waiting");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertEquals(0, limiter.getWaiting());
+        running.complete("done");
+        assertFalse(started.get());
+        assertEquals(0, limiter.getRunning());
+    }
+}
@@ -0,0 +1,80 @@
+package brs.peer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class PeerScoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    public void fasterPeerScoresHigher() {
+        PeerScore fast = new PeerScore(now::get);
+        PeerScore slow = new PeerScore(now::get);
+        fast.recordResponse(50, 100);
+        slow.recordResponse(800, 100);
+
+        assertEquals(50, fast.getRttMillis());
+        assertTrue(fast.getValue() > slow.getValue());
+        assertTrue(fast.getValue() > new PeerScore(now::get).getValue());
+    }
+
+    @Test
+    public void downloadRateOnlyFromLargerResponses() {
+        PeerScore score = new PeerScore(now::get);
+        score.recordResponse(100, 100);
+        assertEquals(-1, score.getDownloadBytesPerSecond());
+
+        score.recordResponse(100, 100_000);
+        assertEquals(1_000_000, score.getDownloadBytesPerSecond());
+    }
+
+    @Test
+    public void errorsAndForksLowerTheScore() {
+        PeerScore good = new PeerScore(now::get);
+        PeerScore failing = new PeerScore(now::get);
+        PeerScore forking = new PeerScore(now::get);
+        for (PeerScore score : new PeerScore[] { good, failing, forking }) {
+            score.recordResponse(100, 100);
+        }
+        failing.recordError();
+        forking.recordFork();
+
+        assertEquals(0.5, failing.getErrorRate(), 1e-9);
+        assertTrue(good.getValue() > failing.getValue());
+        assertTrue(good.getValue() > forking.getValue());
+    }
+
+    @Test
+    public void firstSeenBlocksRaiseTheScore() {
+        PeerScore first = new PeerScore(now::get);
+        PeerScore other = new PeerScore(now::get);
+        first.recordResponse(100, 100);
+        other.recordResponse(100, 100);
+        first.recordFirstSeenBlock();
+
+        assertTrue(first.getValue() > other.getValue());
+    }
+
+    @Test
+    public void countsFadeWithHalfLife() {
+        PeerScore score = new PeerScore(now::get);
+        score.recordFork();
+        score.recordError();
+        double penalized = score.getValue();
+
+        now.addAndGet(PeerScore.HALF_LIFE_MS);
+        assertEquals(0.5, score.getRecentForks(), 1e-9);
+
+        now.addAndGet(10 * PeerScore.HALF_LIFE_MS);
+        assertTrue(score.getRecentForks() < 0.001);
+        assertTrue(score.getValue() > penalized);
+    }
+}
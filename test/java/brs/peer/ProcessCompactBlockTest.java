@@ -0,0 +1,183 @@
+package brs.peer;
+
+import brs.Block;
+import brs.Blockchain;
+import brs.BlockchainProcessor;
+import brs.Transaction;
+import brs.TransactionProcessor;
+import brs.web.server.BoundedExecutor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class ProcessCompactBlockTest {
+
+  private Blockchain mockBlockchain;
+  private BlockchainProcessor mockBlockchainProcessor;
+  private TransactionProcessor mockTransactionProcessor;
+  private Peer mockPeer;
+  private BoundedExecutor mockBlockExecutor;
+  private ProcessCompactBlock processCompactBlock;
+
+  @Before
+  public void setUp() {
+    mockBlockchain = mock(Blockchain.class);
+    mockBlockchainProcessor = mock(BlockchainProcessor.class);
+    mockTransactionProcessor = mock(TransactionProcessor.class);
+    mockPeer = mock(Peer.class);
+
+    Block lastBlock = mock(Block.class);
+    when(lastBlock.getStringId()).thenReturn("123");
+    when(mockBlockchain.getLastBlock()).thenReturn(lastBlock);
+
+    mockBlockExecutor = mock(BoundedExecutor.class);
+    when(mockBlockExecutor.execute(any(Runnable.class))).thenAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return true;
+    });
+
+    processCompactBlock = new ProcessCompactBlock(mockBlockchain, mockBlockchainProcessor, mockTransactionProcessor,
+      mockBlockExecutor);
+  }
+
+  private static JsonObject transactionJson(String marker) {
+    JsonObject json = new JsonObject();
+    json.addProperty("marker", marker);
+    return json;
+  }
+
+  private static JsonObject compactBlock(String previousBlock, String... transactionIds) {
+    JsonObject request = new JsonObject();
+    request.addProperty("previousBlock", previousBlock);
+    request.addProperty("nonce", "42");
+    JsonArray ids = new JsonArray();
+    for (String id : transactionIds) {
+      ids.add(id);
+    }
+    request.add("transactionIds", ids);
+    return request;
+  }
+
+  @Test
+  public void rebuildsBlockFromUnconfirmedAndFetchedTransactions() throws Exception {
+    Transaction known = mock(Transaction.class);
+    when(known.getJsonObject()).thenReturn(transactionJson("known"));
+    when(mockTransactionProcessor.getUnconfirmedTransaction(1L)).thenReturn(known);
+
+    JsonObject fetched = new JsonObject();
+    JsonArray fetchedTransactions = new JsonArray();
+    fetchedTransactions.add(transactionJson("fetched"));
+    fetched.add("transactions", fetchedTransactions);
+    CompletableFuture<JsonObject> fetchResponse = new CompletableFuture<>();
+    when(mockPeer.sendAsync(any(JsonElement.class))).thenReturn(fetchResponse);
+
+    JsonObject response = (JsonObject) processCompactBlock.processRequest(compactBlock("123", "1", "2"), mockPeer);
+    assertTrue(response.get("accepted").getAsBoolean());
+    // answered without waiting for the sender
+    verify(mockBlockchainProcessor, never()).processPeerBlock(any(JsonObject.class), any(Peer.class));
+    fetchResponse.complete(fetched);
+
+    ArgumentCaptor<JsonElement> missingRequest = ArgumentCaptor.forClass(JsonElement.class);
+    verify(mockPeer).sendAsync(missingRequest.capture());
+    JsonObject sent = missingRequest.getValue().getAsJsonObject();
+    assertEquals("getBlockTransactions", sent.get("requestType").getAsString());
+    assertEquals(1, sent.getAsJsonArray("transactionIds").size());
+    assertEquals("2", sent.getAsJsonArray("transactionIds").get(0).getAsString());
+
+    ArgumentCaptor<JsonObject> blockData = ArgumentCaptor.forClass(JsonObject.class);
+    verify(mockBlockchainProcessor).processPeerBlock(blockData.capture(), eq(mockPeer));
+    JsonObject block = blockData.getValue();
+    assertFalse(block.has("transactionIds"));
+    assertEquals("42", block.get("nonce").getAsString());
+    JsonArray transactions = block.getAsJsonArray("transactions");
+    assertEquals(2, transactions.size());
+    assertEquals("known", transactions.get(0).getAsJsonObject().get("marker").getAsString());
+    assertEquals("fetched", transactions.get(1).getAsJsonObject().get("marker").getAsString());
+  }
+
+  @Test
+  public void doesNotAskWhenAllTransactionsAreKnown() throws Exception {
+    Transaction known = mock(Transaction.class);
+    when(known.getJsonObject()).thenReturn(transactionJson("known"));
+    when(mockTransactionProcessor.getUnconfirmedTransaction(1L)).thenReturn(known);
+
+    JsonObject response = (JsonObject) processCompactBlock.processRequest(compactBlock("123", "1"), mockPeer);
+
+    assertTrue(response.get("accepted").getAsBoolean());
+    verify(mockPeer, never()).sendAsync(any(JsonElement.class));
+    verify(mockBlockExecutor, never()).execute(any(Runnable.class));
+    verify(mockBlockchainProcessor).processPeerBlock(any(JsonObject.class), eq(mockPeer));
+  }
+
+  @Test
+  public void notProcessedWhenMissingTransactionsCannotBeFetched() throws Exception {
+    JsonObject error = new JsonObject();
+    error.addProperty("error", "Unknown transaction 2");
+    when(mockPeer.sendAsync(any(JsonElement.class))).thenReturn(CompletableFuture.completedFuture(error));
+
+    processCompactBlock.processRequest(compactBlock("123", "2"), mockPeer);
+
+    verify(mockBlockExecutor, never()).execute(any(Runnable.class));
+    verify(mockBlockchainProcessor, never()).processPeerBlock(any(JsonObject.class), any(Peer.class));
+    verify(mockPeer, never()).blacklist(any(Exception.class), any(String.class));
+  }
+
+  @Test
+  public void fetchedBlockIsDroppedWhenAnotherWasPushedMeanwhile() throws Exception {
+    JsonObject fetched = new JsonObject();
+    JsonArray fetchedTransactions = new JsonArray();
+    fetchedTransactions.add(transactionJson("fetched"));
+    fetched.add("transactions", fetchedTransactions);
+    CompletableFuture<JsonObject> fetchResponse = new CompletableFuture<>();
+    when(mockPeer.sendAsync(any(JsonElement.class))).thenReturn(fetchResponse);
+
+    processCompactBlock.processRequest(compactBlock("123", "2"), mockPeer);
+    Block newLastBlock = mock(Block.class);
+    when(newLastBlock.getStringId()).thenReturn("124");
+    when(mockBlockchain.getLastBlock()).thenReturn(newLastBlock);
+    fetchResponse.complete(fetched);
+
+    verify(mockBlockExecutor).execute(any(Runnable.class));
+    verify(mockBlockchainProcessor, never()).processPeerBlock(any(JsonObject.class), any(Peer.class));
+  }
+
+  @Test
+  public void tooManyTransactionIdsAreRejected() throws Exception {
+    String[] ids = new String[GetBlockTransactions.MAX_TRANSACTIONS + 1];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = Integer.toString(i + 1);
+    }
+
+    JsonObject response = (JsonObject) processCompactBlock.processRequest(compactBlock("123", ids), mockPeer);
+
+    assertFalse(response.get("accepted").getAsBoolean());
+    verify(mockTransactionProcessor, never()).getUnconfirmedTransaction(1L);
+    verify(mockPeer).blacklist(any(Exception.class), any(String.class));
+  }
+
+  @Test
+  public void notAcceptedWhenNotOnTopOfOurChain() throws Exception {
+    JsonObject response = (JsonObject) processCompactBlock.processRequest(compactBlock("999", "1"), mockPeer);
+
+    assertFalse(response.get("accepted").getAsBoolean());
+    verify(mockTransactionProcessor, never()).getUnconfirmedTransaction(1L);
+  }
+}
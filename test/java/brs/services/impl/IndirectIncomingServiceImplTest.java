@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -83,4 +84,22 @@ public class IndirectIncomingServiceImplTest {
         when(ordinaryTransaction.getType()).thenReturn(TransactionType.Payment.ORDINARY);
         indirectIncomingService.processTransaction(ordinaryTransaction);
     }
+
+    @Test
+    public void testGetIndirectlyReceivingAccountIds() {
+        List<List<Long>> recipients = new ArrayList<>();
+        recipients.add(Arrays.asList(1L, Constants.ONE_SIGNA));
+        recipients.add(Arrays.asList(2L, Constants.ONE_SIGNA));
+        Attachment.PaymentMultiOutCreation attachment = mock(Attachment.PaymentMultiOutCreation.class);
+        when(attachment.getRecipients()).thenReturn(recipients);
+        Transaction multiOut = mock(Transaction.class);
+        when(multiOut.getType()).thenReturn(TransactionType.Payment.MULTI_OUT);
+        when(multiOut.getAttachment()).thenReturn(attachment);
+        assertEquals(Set.of(1L, 2L), indirectIncomingService.getIndirectlyReceivingAccountIds(multiOut));
+
+        Transaction ordinaryTransaction = mock(Transaction.class);
+        when(ordinaryTransaction.getAttachment()).thenReturn(Attachment.ORDINARY_PAYMENT);
+        when(ordinaryTransaction.getType()).thenReturn(TransactionType.Payment.ORDINARY);
+        assertEquals(Set.of(), indirectIncomingService.getIndirectlyReceivingAccountIds(ordinaryTransaction));
+    }
 }
@@ -0,0 +1,59 @@
+package brs.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class LongIntHashMapTest {
+    @Test
+    public void testPutGetRemove() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(0L, 1);
+        map.put(-1L, 2);
+        map.put(Long.MIN_VALUE, 3);
+        assertEquals(3, map.size());
+        assertEquals(1, map.get(0L));
+        assertEquals(2, map.get(-1L));
+        assertEquals(3, map.get(Long.MIN_VALUE));
+        assertEquals(LongIntHashMap.NO_VALUE, map.get(42L));
+
+        map.put(0L, 5);
+        assertEquals(5, map.get(0L));
+        assertEquals(3, map.size());
+
+        assertEquals(2, map.remove(-1L));
+        assertEquals(LongIntHashMap.NO_VALUE, map.remove(-1L));
+        assertEquals(LongIntHashMap.NO_VALUE, map.get(-1L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testMatchesHashMapUnderChurn() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            // a small key space forces collisions, growth and removals of probed entries
+            long key = random.nextInt(5_000) * 1024L;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? LongIntHashMap.NO_VALUE : removed, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000 * 1024L; key += 1024L) {
+            Integer value = expected.get(key);
+            assertEquals(value == null ? LongIntHashMap.NO_VALUE : value, map.get(key));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package brs.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class NameIndexTest {
+
+  @Test
+  public void searchRanksExactThenPrefixThenSubstring() {
+    NameIndex index = new NameIndex();
+    index.put(1L, "MySignum", 0L);
+    index.put(2L, "signum", 0L);
+    index.put(3L, "SignumArt", 0L);
+    index.put(4L, "bitcoin", 0L);
+    index.put(5L, "signa", 0L);
+
+    assertEquals(Arrays.asList(2L, 3L, 1L), index.search("SIGNUM", group -> true, 0, -1));
+    assertEquals(Arrays.asList(5L, 2L, 3L, 1L), index.search("sign", group -> true, 0, -1));
+    assertEquals(Arrays.asList(3L, 1L), index.search("sign", group -> true, 2, 3));
+    assertEquals(Collections.emptyList(), index.search("ether", group -> true, 0, -1));
+  }
+
+  @Test
+  public void shortQueriesAndGroups() {
+    NameIndex index = new NameIndex();
+    index.put(1L, "ab", 7L);
+    index.put(2L, "cab", 8L);
+    index.put(3L, "xyz", 7L);
+
+    assertEquals(Arrays.asList(1L, 2L), index.search("a", group -> true, 0, -1));
+    assertEquals(Collections.singletonList(1L), index.search("ab", group -> group == 7L, 0, -1));
+    assertEquals(Collections.singletonList(2L), index.find("CAB", group -> group == 8L));
+    assertEquals(Collections.emptyList(), index.find("cab", group -> group == 7L));
+  }
+
+  @Test
+  public void renameAndRemove() {
+    NameIndex index = new NameIndex();
+    index.put(1L, "alpha", 0L);
+    index.put(2L, "alphabet", 0L);
+    index.put(1L, "omega", 0L);
+
+    assertEquals(Collections.singletonList(2L), index.search("alph", group -> true, 0, -1));
+    assertEquals(Collections.singletonList(1L), index.search("meg", group -> true, 0, -1));
+
+    index.remove(2L);
+    index.remove(42L);
+    assertEquals(1, index.size());
+    assertEquals(Collections.emptyList(), index.search("alph", group -> true, 0, -1));
+    assertEquals(Collections.emptyList(), index.find("alphabet", group -> true));
+    assertEquals(Collections.singletonList(1L), index.find("Omega", group -> true));
+  }
+
+  @Test
+  public void removeFromLongPostings() {
+    NameIndex index = new NameIndex();
+    for (long id = 0; id < 200; id++) {
+      index.put(id, "common" + id, 0L);
+    }
+    List<Long> expected = new ArrayList<>();
+    for (long id = 0; id < 200; id++) {
+      if (id % 3 == 0) {
+        index.remove(id);
+      } else if (id % 3 == 1) {
+        index.put(id, "other" + id, 0L);
+      } else {
+        expected.add(id);
+      }
+    }
+    index.remove(2L);
+    expected.remove(Long.valueOf(2L));
+    index.put(3L, "common3", 0L);
+    expected.add(3L);
+
+    List<Long> found = new ArrayList<>(index.search("ommon", group -> true, 0, -1));
+    Collections.sort(found);
+    Collections.sort(expected);
+    assertEquals(expected, found);
+    assertEquals(Collections.emptyList(), index.find("common2", group -> true));
+    assertEquals(Collections.singletonList(4L), index.find("other4", group -> true));
+  }
+
+  @Test
+  public void searchMatchesScan() {
+    Random random = new Random(7);
+    NameIndex index = new NameIndex();
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder name = new StringBuilder();
+      int length = 1 + random.nextInt(10);
+      for (int j = 0; j < length; j++) {
+        name.append((char) ('a' + random.nextInt(4)));
+      }
+      names.add(name.toString());
+      index.put(i, name.toString(), 0L);
+    }
+    for (int i = 0; i < 500; i += 3) {
+      index.remove(i);
+      names.set(i, null);
+    }
+
+    for (String query : new String[] {"a", "ab", "abc", "dcba", "aaaa", "bcdab"}) {
+      List<Long> found = index.search(query, group -> true, 0, -1);
+      int expected = 0;
+      for (String name : names) {
+        if (name != null && name.contains(query)) {
+          expected++;
+        }
+      }
+      assertEquals(query, expected, found.size());
+      for (Long id : found) {
+        assertTrue(names.get(id.intValue()).toLowerCase(Locale.ENGLISH).contains(query));
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package brs.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(JUnit4.class)
+public class PageCursorTest {
+
+  @Test
+  public void testRoundTrip() {
+    PageCursor cursor = PageCursor.decode(new PageCursor(123456, -42L).encode());
+    assertEquals(123456, cursor.getKey());
+    assertEquals(-42L, cursor.getId());
+
+    cursor = PageCursor.decode(new PageCursor(Long.MIN_VALUE, Long.MAX_VALUE).encode());
+    assertEquals(Long.MIN_VALUE, cursor.getKey());
+    assertEquals(Long.MAX_VALUE, cursor.getId());
+  }
+
+  @Test
+  public void testEmpty() {
+    assertNull(PageCursor.decode(null));
+    assertNull(PageCursor.decode(""));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMalformed() {
+    PageCursor.decode("AAAA");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotBase64() {
+    PageCursor.decode("not a cursor!");
+  }
+}
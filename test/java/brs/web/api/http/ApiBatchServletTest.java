@@ -0,0 +1,225 @@
+package brs.web.api.http;
+
+import brs.common.AbstractUnitTest;
+import brs.util.JSON;
+import brs.web.api.http.common.LegacyDocTag;
+import brs.web.api.http.common.ResultFields;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static brs.web.api.http.common.JSONResponses.ERROR_INCORRECT_REQUEST;
+import static brs.web.api.http.common.JSONResponses.ERROR_MISSING_REQUEST;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ApiBatchServletTest extends AbstractUnitTest {
+
+  private ApiServlet apiServlet;
+  private ApiBatchServlet t;
+
+  private static class TestHandler extends ApiServlet.JsonRequestHandler {
+    private final boolean write;
+    private final Function<HttpServletRequest, JsonElement> body;
+
+    TestHandler(boolean write, Function<HttpServletRequest, JsonElement> body) {
+      super(new LegacyDocTag[] {LegacyDocTag.INFO}, "value");
+      this.write = write;
+      this.body = body;
+    }
+
+    @Override
+    protected JsonElement processRequest(HttpServletRequest request) {
+      return body.apply(request);
+    }
+
+    @Override
+    protected boolean isWrite() {
+      return write;
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    apiServlet = mock(ApiServlet.class);
+    when(apiServlet.checkAllowedHost(any(), any())).thenReturn(true);
+    when(apiServlet.isReadOnly(any())).thenAnswer(invocation ->
+      !((ApiServlet.HttpRequestHandler) invocation.getArgument(0)).isWrite());
+    when(apiServlet.processBatchRequest(any(), any())).thenAnswer(invocation ->
+      ((TestHandler) invocation.getArgument(0)).processRequest(invocation.getArgument(1)));
+    t = new ApiBatchServlet(apiServlet, 10, 4);
+  }
+
+  @After
+  public void tearDown() {
+    t.destroy();
+  }
+
+  private void handle(String requestType, TestHandler handler) {
+    when(apiServlet.getRequestHandler(requestType)).thenReturn(handler);
+  }
+
+  private static JsonObject request(String requestType, String value) {
+    JsonObject request = new JsonObject();
+    request.addProperty("requestType", requestType);
+    request.addProperty("value", value);
+    return request;
+  }
+
+  private static JsonElement echo(HttpServletRequest request) {
+    return new JsonPrimitive(request.getParameter("value"));
+  }
+
+  private HttpServletResponse post(JsonElement body, StringWriter out) throws Exception {
+    HttpServletRequest req = mock(HttpServletRequest.class);
+    when(req.getReader()).thenReturn(new BufferedReader(new StringReader(JSON.toJsonString(body))));
+    HttpServletResponse resp = mock(HttpServletResponse.class);
+    when(resp.getWriter()).thenReturn(new PrintWriter(out));
+    t.doPost(req, resp);
+    return resp;
+  }
+
+  private JsonArray batch(JsonObject... requests) throws Exception {
+    JsonArray body = new JsonArray();
+    for (JsonObject request : requests) {
+      body.add(request);
+    }
+    StringWriter out = new StringWriter();
+    post(body, out);
+    return JSON.parse(out.toString()).getAsJsonArray();
+  }
+
+  @Test
+  public void testResponsesInRequestOrder() throws Exception {
+    handle("slowRead", new TestHandler(false, request -> {
+      try {
+        Thread.sleep(200);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return echo(request);
+    }));
+    handle("read", new TestHandler(false, ApiBatchServletTest::echo));
+    handle("write", new TestHandler(true, ApiBatchServletTest::echo));
+
+    JsonArray responses = batch(request("slowRead", "a"), request("write", "b"), request("read", "c"),
+      request("write", "d"));
+
+    assertEquals(4, responses.size());
+    assertEquals("a", responses.get(0).getAsString());
+    assertEquals("b", responses.get(1).getAsString());
+    assertEquals("c", responses.get(2).getAsString());
+    assertEquals("d", responses.get(3).getAsString());
+  }
+
+  @Test
+  public void testReadsRunConcurrently() throws Exception {
+    CountDownLatch running = new CountDownLatch(3);
+    // only completes in time if all three run at the same time
+    handle("read", new TestHandler(false, request -> {
+      running.countDown();
+      try {
+        return new JsonPrimitive(running.await(5, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new JsonPrimitive(false);
+      }
+    }));
+
+    JsonArray responses = batch(request("read", "a"), request("read", "b"), request("read", "c"));
+
+    for (JsonElement response : responses) {
+      assertEquals(true, response.getAsBoolean());
+    }
+  }
+
+  @Test
+  public void testWritesRunOneAfterAnotherInOrder() throws Exception {
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    handle("write", new TestHandler(true, request -> {
+      maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      order.add(request.getParameter("value"));
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      active.decrementAndGet();
+      return echo(request);
+    }));
+
+    batch(request("write", "1"), request("write", "2"), request("write", "3"), request("write", "4"));
+
+    assertEquals(1, maxActive.get());
+    assertEquals(List.of("1", "2", "3", "4"), order);
+  }
+
+  @Test
+  public void testFailingRequestsOnlyGetTheirOwnError() throws Exception {
+    handle("read", new TestHandler(false, ApiBatchServletTest::echo));
+    handle("failingRead", new TestHandler(false, request -> {
+      throw new IllegalStateException("read failed");
+    }));
+    handle("failingWrite", new TestHandler(true, request -> {
+      throw new IllegalStateException("write failed");
+    }));
+    JsonObject withoutType = new JsonObject();
+    withoutType.addProperty("value", "x");
+
+    JsonArray responses = batch(request("failingRead", "a"), request("unknown", "b"), withoutType,
+      request("failingWrite", "c"), request("read", "d"));
+
+    assertEquals(ERROR_INCORRECT_REQUEST, responses.get(0));
+    assertEquals(ERROR_MISSING_REQUEST, responses.get(1));
+    assertEquals(ERROR_MISSING_REQUEST, responses.get(2));
+    assertEquals(ERROR_INCORRECT_REQUEST, responses.get(3));
+    assertEquals("d", responses.get(4).getAsString());
+  }
+
+  @Test
+  public void testRejectsBodyThatIsNoArray() throws Exception {
+    StringWriter out = new StringWriter();
+    HttpServletResponse resp = post(request("read", "a"), out);
+
+    verify(resp).setStatus(HttpStatus.BAD_REQUEST_400);
+    assertEquals(ERROR_INCORRECT_REQUEST, JSON.parse(out.toString()));
+  }
+
+  @Test
+  public void testRejectsTooManyRequests() throws Exception {
+    JsonArray body = new JsonArray();
+    for (int i = 0; i < 11; i++) {
+      body.add(request("read", "a"));
+    }
+    StringWriter out = new StringWriter();
+    HttpServletResponse resp = post(body, out);
+
+    verify(resp).setStatus(HttpStatus.PAYLOAD_TOO_LARGE_413);
+    assertEquals("Incorrect \"requests\"(at most 10 requests per batch)",
+      JSON.getAsString(JSON.parse(out.toString()).getAsJsonObject().get(ResultFields.ERROR_DESCRIPTION_RESPONSE)));
+  }
+}
@@ -0,0 +1,134 @@
+package brs.web.api.http;
+
+import brs.Block;
+import brs.Blockchain;
+import brs.BlockchainProcessor;
+import brs.common.AbstractUnitTest;
+import brs.util.Listener;
+import brs.web.api.http.common.LegacyDocTag;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ApiResponseCacheTest extends AbstractUnitTest {
+
+  private ApiResponseCache t;
+  private Listener<Block> blockPushedListener;
+  private CountingHandler handler;
+
+  private static class CountingHandler extends ApiServlet.JsonRequestHandler {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    CountingHandler() {
+      super(new LegacyDocTag[] {LegacyDocTag.INFO});
+    }
+
+    @Override
+    protected JsonElement processRequest(HttpServletRequest request) {
+      JsonObject response = new JsonObject();
+      response.addProperty("call", calls.incrementAndGet());
+      return response;
+    }
+  }
+
+  private static class CapturingOutputStream extends ServletOutputStream {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    @Override
+    public void write(int b) {
+      bytes.write(b);
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+    }
+
+    String getText() {
+      return bytes.toString(StandardCharsets.UTF_8);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void setUp() {
+    Blockchain blockchain = mock(Blockchain.class);
+    Block lastBlock = mock(Block.class);
+    when(lastBlock.getId()).thenReturn(123L);
+    when(blockchain.getLastBlock()).thenReturn(lastBlock);
+    BlockchainProcessor blockchainProcessor = mock(BlockchainProcessor.class);
+
+    t = new ApiResponseCache(blockchain, blockchainProcessor, 10, 1_000_000, 1024);
+    handler = new CountingHandler();
+
+    ArgumentCaptor<Listener<Block>> listener = ArgumentCaptor.forClass(Listener.class);
+    verify(blockchainProcessor).addListener(listener.capture(), eq(BlockchainProcessor.Event.BLOCK_PUSHED));
+    blockPushedListener = listener.getValue();
+  }
+
+  private HttpServletRequest request(String ifNoneMatch) {
+    HttpServletRequest req = mock(HttpServletRequest.class);
+    when(req.getParameterMap()).thenReturn(Collections.singletonMap("requestType", new String[] {"test"}));
+    when(req.getHeader("If-None-Match")).thenReturn(ifNoneMatch);
+    return req;
+  }
+
+  private String process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    CapturingOutputStream out = new CapturingOutputStream();
+    when(resp.getOutputStream()).thenReturn(out);
+    t.process(handler, req, resp);
+    return out.getText();
+  }
+
+  @Test
+  public void processServesCachedResponseUntilNextBlock() throws IOException {
+    String first = process(request(null), mock(HttpServletResponse.class));
+    String second = process(request(null), mock(HttpServletResponse.class));
+    assertEquals(1, handler.calls.get());
+    assertEquals(first, second);
+    assertTrue(first.contains("\"call\":1"));
+
+    blockPushedListener.notify(mock(Block.class));
+    String third = process(request(null), mock(HttpServletResponse.class));
+    assertEquals(2, handler.calls.get());
+    assertTrue(third.contains("\"call\":2"));
+  }
+
+  @Test
+  public void processAnswersNotModifiedForMatchingETag() throws IOException {
+    HttpServletResponse firstResponse = mock(HttpServletResponse.class);
+    process(request(null), firstResponse);
+    ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+    verify(firstResponse).setHeader(eq("ETag"), etag.capture());
+
+    HttpServletResponse secondResponse = mock(HttpServletResponse.class);
+    String body = process(request(etag.getValue()), secondResponse);
+    verify(secondResponse).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    verify(secondResponse, never()).getOutputStream();
+    assertEquals("", body);
+  }
+}
@@ -0,0 +1,162 @@
+package brs.web.api.http.common;
+
+import brs.Appendix;
+import brs.Attachment;
+import brs.Block;
+import brs.BlockchainImpl;
+import brs.Constants;
+import brs.Signum;
+import brs.Transaction;
+import brs.TransactionType;
+import brs.common.QuickMocker;
+import brs.common.TestConstants;
+import brs.fluxcapacitor.FluxCapacitor;
+import brs.fluxcapacitor.FluxValues;
+import brs.props.PropertyService;
+import brs.props.Props;
+import brs.util.JSON;
+import com.google.gson.stream.JsonWriter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+/**
+ * The streamed block and transaction JSON has to be byte for byte what the JsonObject variants produce.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Signum.class)
+public class JSONDataStreamingTest {
+
+  private static final int HEIGHT = 1000;
+
+  @Before
+  public void setUp() {
+    mockStatic(Signum.class);
+    FluxCapacitor mockFluxCapacitor = QuickMocker.fluxCapacitorEnabledFunctionalities();
+    when(Signum.getFluxCapacitor()).thenReturn(mockFluxCapacitor);
+    doReturn(Constants.FEE_QUANT_SIP3).when(mockFluxCapacitor).getValue(eq(FluxValues.FEE_QUANT), anyInt());
+    BlockchainImpl mockBlockchain = mock(BlockchainImpl.class);
+    when(mockBlockchain.getHeight()).thenReturn(HEIGHT);
+    when(Signum.getBlockchain()).thenReturn(mockBlockchain);
+    PropertyService propertyService = mock(PropertyService.class);
+    when(propertyService.getInt(Props.ONE_COIN_NQT)).thenReturn(100_000_000);
+    when(Signum.getPropertyService()).thenReturn(propertyService);
+
+    TransactionType.init(mockBlockchain, mockFluxCapacitor, null, null, null, null, null, null);
+  }
+
+  private static Transaction transaction(long id, String message) throws Exception {
+    Transaction.Builder builder = new Transaction.Builder((byte) 1, TestConstants.TEST_PUBLIC_KEY_BYTES, 1_000_000L * id, 735_000L, 5000, (short) 1440,
+        Attachment.ORDINARY_PAYMENT)
+        .id(id).senderId(TestConstants.TEST_ACCOUNT_NUMERIC_ID_PARSED).recipientId(-id)
+        .signature(new byte[64]).fullHash(new byte[32])
+        .blockId(77L).height(HEIGHT - 3).blockTimestamp(4990).ecBlockId(55L).ecBlockHeight(HEIGHT - 10);
+    if (message != null) {
+      builder.message(new Appendix.Message(message, HEIGHT));
+    }
+    return builder.build();
+  }
+
+  private static Block block(List<Transaction> transactions) {
+    Block block = mock(Block.class);
+    when(block.getAllTransactions()).thenReturn(transactions);
+    when(block.getStringId()).thenReturn("12345");
+    when(block.getId()).thenReturn(12345L);
+    when(block.getHeight()).thenReturn(HEIGHT - 3);
+    when(block.getGeneratorId()).thenReturn(TestConstants.TEST_ACCOUNT_NUMERIC_ID_PARSED);
+    when(block.getGeneratorPublicKey()).thenReturn(TestConstants.TEST_PUBLIC_KEY_BYTES);
+    when(block.getNonce()).thenReturn(-5L);
+    when(block.getTimestamp()).thenReturn(4990);
+    when(block.getTotalAmountNqt()).thenReturn(1_000_000L);
+    when(block.getTotalFeeNqt()).thenReturn(735_000L);
+    when(block.getPayloadLength()).thenReturn(176);
+    when(block.getVersion()).thenReturn(3);
+    when(block.getCapacityBaseTarget()).thenReturn(18325193796L);
+    when(block.getAverageCommitment()).thenReturn(-1L);
+    when(block.getCumulativeDifficulty()).thenReturn(new BigInteger("123456789012345678901234567890"));
+    when(block.getPreviousBlockId()).thenReturn(-99L);
+    when(block.getPayloadHash()).thenReturn(new byte[32]);
+    when(block.getGenerationSignature()).thenReturn(new byte[32]);
+    when(block.getPreviousBlockHash()).thenReturn(new byte[32]);
+    when(block.getBlockSignature()).thenReturn(new byte[64]);
+    return block;
+  }
+
+  private static String streamedTransaction(Transaction transaction) throws IOException {
+    StringWriter writer = new StringWriter();
+    JsonWriter json = JSON.newWriter(writer);
+    JSONData.writeTransaction(json, transaction, HEIGHT);
+    json.flush();
+    return writer.toString();
+  }
+
+  private static void writeBlock(Writer writer, Block block, boolean includeTransactions) throws IOException {
+    JsonWriter json = JSON.newWriter(writer);
+    JSONData.writeBlock(json, block, includeTransactions, HEIGHT, 1_000_000_000L, 7);
+    json.flush();
+  }
+
+  @Test
+  public void writeTransactionMatchesTransaction() throws Exception {
+    Transaction plain = transaction(1, null);
+    assertEquals(JSON.toJsonString(JSONData.transaction(plain, HEIGHT)), streamedTransaction(plain));
+
+    // escaping of the attachment has to match as well
+    Transaction withMessage = transaction(2, "<b>\"quoted\" & unicode ä€\n</b>");
+    assertEquals(JSON.toJsonString(JSONData.transaction(withMessage, HEIGHT)), streamedTransaction(withMessage));
+  }
+
+  @Test
+  public void writeBlockMatchesBlock() throws Exception {
+    Block block = block(List.of(transaction(1, "first"), transaction(2, null)));
+
+    for (boolean includeTransactions : new boolean[] {false, true}) {
+      StringWriter streamed = new StringWriter();
+      writeBlock(streamed, block, includeTransactions);
+      assertEquals(JSON.toJsonString(JSONData.block(block, includeTransactions, HEIGHT, 1_000_000_000L, 7)), streamed.toString());
+    }
+  }
+
+  @Test
+  public void writeBlockWithoutTransactionsMatchesBlock() throws Exception {
+    Block block = block(Collections.emptyList());
+    when(block.getPreviousBlockId()).thenReturn(0L);
+    when(block.getNextBlockId()).thenReturn(88L);
+    when(block.getVersion()).thenReturn(1);
+
+    StringWriter streamed = new StringWriter();
+    writeBlock(streamed, block, true);
+    assertEquals(JSON.toJsonString(JSONData.block(block, true, HEIGHT, 1_000_000_000L, 7)), streamed.toString());
+  }
+
+  @Test
+  public void writeFullBlockMatchesBlock() throws Exception {
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = 1; i <= 500; i++) {
+      transactions.add(transaction(i, "message " + i));
+    }
+    Block block = block(transactions);
+
+    StringWriter streamed = new StringWriter();
+    writeBlock(streamed, block, true);
+    assertEquals(JSON.toJsonString(JSONData.block(block, true, HEIGHT, 1_000_000_000L, 7)), streamed.toString());
+  }
+}
@@ -0,0 +1,34 @@
+package brs.web.api.http.common;
+
+import brs.BlockchainProcessor;
+import brs.peer.Bandwidth;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class JSONDataTest {
+
+  @Test
+  public void p2pThroughputReportsEveryLane() {
+    BlockchainProcessor blockchainProcessor = mock(BlockchainProcessor.class);
+    when(blockchainProcessor.getUploadBytesPerSecond(Bandwidth.Lane.PRIORITY)).thenReturn(1000L);
+    when(blockchainProcessor.getDownloadBytesPerSecond(Bandwidth.Lane.PRIORITY)).thenReturn(2000L);
+    when(blockchainProcessor.getUploadBytesPerSecond(Bandwidth.Lane.BULK)).thenReturn(30_000L);
+    when(blockchainProcessor.getDownloadBytesPerSecond(Bandwidth.Lane.BULK)).thenReturn(400_000L);
+
+    JsonObject json = JSONData.p2pThroughput(blockchainProcessor);
+
+    JsonObject priority = json.getAsJsonObject("priority");
+    assertEquals(1000L, priority.get("uploadBytesPerSecond").getAsLong());
+    assertEquals(2000L, priority.get("downloadBytesPerSecond").getAsLong());
+    JsonObject bulk = json.getAsJsonObject("bulk");
+    assertEquals(30_000L, bulk.get("uploadBytesPerSecond").getAsLong());
+    assertEquals(400_000L, bulk.get("downloadBytesPerSecond").getAsLong());
+  }
+}
@@ -0,0 +1,191 @@
+package brs.web.api.ws;
+
+import brs.Account;
+import brs.Block;
+import brs.Transaction;
+import brs.services.AccountService;
+import brs.services.IndirectIncomingService;
+import brs.web.api.ws.emitter.data.AccountActivityEventData;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(JUnit4.class)
+public class AccountActivityTrackerTest {
+
+  private AccountService accountService;
+  private IndirectIncomingService indirectIncomingService;
+  private Set<Long> subscribed;
+  private AccountActivityTracker tracker;
+
+  @Before
+  public void setUpAccountActivityTrackerTest() {
+    accountService = mock(AccountService.class);
+    indirectIncomingService = mock(IndirectIncomingService.class);
+    when(indirectIncomingService.getIndirectlyReceivingAccountIds(any())).thenReturn(Collections.emptySet());
+    subscribed = new HashSet<>();
+    tracker = new AccountActivityTracker(accountService, indirectIncomingService, () -> new HashSet<>(subscribed));
+  }
+
+  private static Transaction transaction(long id, long senderId, long recipientId) {
+    Transaction transaction = mock(Transaction.class);
+    when(transaction.getId()).thenReturn(id);
+    when(transaction.getSenderId()).thenReturn(senderId);
+    when(transaction.getRecipientId()).thenReturn(recipientId);
+    return transaction;
+  }
+
+  private static Block block(long id, int height, List<Transaction> transactions) {
+    Block block = mock(Block.class);
+    when(block.getId()).thenReturn(id);
+    when(block.getHeight()).thenReturn(height);
+    when(block.getTransactions()).thenReturn(transactions);
+    when(block.getAtTransactions()).thenReturn(Collections.emptyList());
+    when(block.getSubscriptionTransactions()).thenReturn(Collections.emptyList());
+    when(block.getEscrowTransactions()).thenReturn(Collections.emptyList());
+    return block;
+  }
+
+  private static Account account(long id) {
+    Account account = mock(Account.class);
+    when(account.getId()).thenReturn(id);
+    return account;
+  }
+
+  private void balance(long accountId, long balanceNqt, long unconfirmedBalanceNqt) {
+    Account.Balance balance = mock(Account.Balance.class);
+    when(balance.getBalanceNqt()).thenReturn(balanceNqt);
+    when(balance.getUnconfirmedBalanceNqt()).thenReturn(unconfirmedBalanceNqt);
+    when(accountService.getAccountBalance(accountId)).thenReturn(balance);
+  }
+
+  private static Map<Long, AccountActivityEventData> byAccount(List<AccountActivityEventData> activities) {
+    Map<Long, AccountActivityEventData> byAccount = new HashMap<>();
+    for (AccountActivityEventData activity : activities) {
+      assertNull("one activity per account", byAccount.put(activity.accountId, activity));
+    }
+    return byAccount;
+  }
+
+  private List<AccountActivityEventData> push(Block block, Account... balanceChanged) {
+    tracker.onBeforeBlockAccept(block);
+    for (Account account : balanceChanged) {
+      tracker.onBalanceChanged(account);
+    }
+    tracker.onAfterBlockApply(block);
+    return tracker.takeBlockActivity(block);
+  }
+
+  @Test
+  public void testBlockActivityOfSubscribedAccounts() {
+    subscribed.addAll(Set.of(1L, 2L, 5L));
+    balance(1L, 100, 90);
+    balance(2L, 200, 200);
+    Transaction payment = transaction(10L, 1L, 2L);
+    Transaction other = transaction(11L, 3L, 4L);
+    Transaction multiOut = transaction(12L, 3L, 0L);
+    when(indirectIncomingService.getIndirectlyReceivingAccountIds(multiOut)).thenReturn(Set.of(2L, 4L));
+
+    Map<Long, AccountActivityEventData> activities = byAccount(
+      push(block(1000L, 7, List.of(payment, other, multiOut))));
+
+    assertEquals(Set.of(1L, 2L), activities.keySet());
+    assertEquals(List.of(10L), activities.get(1L).transactionIds);
+    assertEquals(List.of(10L, 12L), activities.get(2L).transactionIds);
+    assertEquals(100, activities.get(1L).balanceNqt);
+    assertEquals(90, activities.get(1L).unconfirmedBalanceNqt);
+    assertEquals(1000L, activities.get(2L).blockId);
+    assertEquals(7, activities.get(2L).height);
+  }
+
+  @Test
+  public void testSelfPaymentIsListedOnce() {
+    subscribed.add(1L);
+    Transaction selfPayment = transaction(10L, 1L, 1L);
+    when(indirectIncomingService.getIndirectlyReceivingAccountIds(selfPayment)).thenReturn(Set.of(1L));
+
+    Map<Long, AccountActivityEventData> activities = byAccount(push(block(1000L, 7, List.of(selfPayment))));
+
+    assertEquals(List.of(10L), activities.get(1L).transactionIds);
+  }
+
+  @Test
+  public void testBalanceChangeWithoutTransaction() {
+    subscribed.addAll(Set.of(1L, 2L));
+    balance(2L, 500, 500);
+
+    // a block reward or AT payment to 2, a change of the unsubscribed 3 is not collected
+    Map<Long, AccountActivityEventData> activities = byAccount(
+      push(block(1000L, 7, Collections.emptyList()), account(2L), account(3L)));
+
+    assertEquals(Set.of(2L), activities.keySet());
+    assertTrue(activities.get(2L).transactionIds.isEmpty());
+    assertEquals(500, activities.get(2L).balanceNqt);
+  }
+
+  @Test
+  public void testBalanceChangesOutsideBlockAreIgnored() {
+    subscribed.add(1L);
+    tracker.onBalanceChanged(account(1L));
+
+    assertTrue(push(block(1000L, 7, Collections.emptyList())).isEmpty());
+  }
+
+  @Test
+  public void testNothingCollectedWithoutSubscriptions() {
+    Block block = block(1000L, 7, List.of(transaction(10L, 1L, 2L)));
+
+    assertTrue(push(block, account(1L)).isEmpty());
+    verifyNoInteractions(accountService);
+  }
+
+  @Test
+  public void testActivityIsTakenOnceAndOnlyForItsBlock() {
+    subscribed.add(1L);
+    Block block = block(1000L, 7, List.of(transaction(10L, 1L, 2L)));
+    tracker.onBeforeBlockAccept(block);
+    tracker.onAfterBlockApply(block);
+
+    assertTrue(tracker.takeBlockActivity(block(1001L, 7, Collections.emptyList())).isEmpty());
+    assertEquals(1, tracker.takeBlockActivity(block).size());
+    assertTrue(tracker.takeBlockActivity(block).isEmpty());
+  }
+
+  @Test
+  public void testFailedBlockIsNotReported() {
+    subscribed.add(1L);
+    Block failed = block(1000L, 7, List.of(transaction(10L, 1L, 2L)));
+    tracker.onBeforeBlockAccept(failed);
+    tracker.onAfterBlockApply(failed);
+    // the next attempt starts before the failed block was pushed
+    Block next = block(1001L, 7, Collections.emptyList());
+    tracker.onBeforeBlockAccept(next);
+
+    assertTrue(tracker.takeBlockActivity(failed).isEmpty());
+  }
+
+  @Test
+  public void testPendingActivity() {
+    subscribed.add(2L);
+    balance(2L, 200, 150);
+
+    Map<Long, AccountActivityEventData> activities = byAccount(
+      tracker.getPendingActivity(List.of(transaction(10L, 1L, 2L), transaction(11L, 3L, 4L))));
+
+    assertEquals(Set.of(2L), activities.keySet());
+    assertEquals(List.of(10L), activities.get(2L).transactionIds);
+    assertEquals(150, activities.get(2L).unconfirmedBalanceNqt);
+  }
+}
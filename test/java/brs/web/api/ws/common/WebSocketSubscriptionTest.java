@@ -0,0 +1,102 @@
+package brs.web.api.ws.common;
+
+import brs.util.JSON;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class WebSocketSubscriptionTest {
+
+  private static WebSocketFrame unscoped(String eventName) {
+    return WebSocketFrame.of(new JSONWebSocketResponse<>(eventName, "{}"));
+  }
+
+  private static WebSocketFrame scoped(String eventName, Set<Long> accountIds, Set<Long> assetIds) {
+    return WebSocketFrame.scoped(new JSONWebSocketResponse<>(eventName, "{}"), accountIds, assetIds);
+  }
+
+  private static WebSocketSubscription parse(String json) {
+    return WebSocketSubscription.parse(JSON.getAsJsonObject(JSON.parse(json)));
+  }
+
+  @Test
+  public void testAllMatchesEverything() {
+    assertTrue(WebSocketSubscription.ALL.matches(unscoped(WebsocketEventNames.BLOCK_PUSHED)));
+    assertTrue(WebSocketSubscription.ALL.matches(
+      scoped(WebsocketEventNames.PENDING_TRANSACTIONS_ADDED, Collections.singleton(1L), Collections.emptySet())));
+  }
+
+  @Test
+  public void testEventFilter() {
+    WebSocketSubscription subscription = parse("{\"events\": [\"BLOCK_PUSHED\"]}");
+    assertTrue(subscription.matches(unscoped(WebsocketEventNames.BLOCK_PUSHED)));
+    assertFalse(subscription.matches(unscoped(WebsocketEventNames.HEARTBEAT)));
+  }
+
+  @Test
+  public void testAccountFilterOnlyAppliesToScopedFrames() {
+    WebSocketSubscription subscription = parse("{\"accounts\": [\"1\"], \"ats\": [\"2\"]}");
+    assertTrue(subscription.matches(unscoped(WebsocketEventNames.BLOCK_PUSHED)));
+    assertTrue(subscription.matches(
+      scoped(WebsocketEventNames.PENDING_TRANSACTIONS_ADDED, Set.of(1L, 3L), Collections.emptySet())));
+    assertTrue(subscription.matches(
+      scoped(WebsocketEventNames.PENDING_TRANSACTIONS_ADDED, Set.of(2L), Collections.emptySet())));
+    assertFalse(subscription.matches(
+      scoped(WebsocketEventNames.PENDING_TRANSACTIONS_ADDED, Set.of(3L), Collections.emptySet())));
+  }
+
+  @Test
+  public void testAccountAndAssetFiltersBothApply() {
+    WebSocketSubscription subscription = parse("{\"accounts\": [\"1\"], \"assets\": [\"10\"]}");
+    assertTrue(subscription.matches(
+      scoped(WebsocketEventNames.PENDING_TRANSACTIONS_ADDED, Set.of(1L), Set.of(10L))));
+    assertFalse(subscription.matches(
+      scoped(WebsocketEventNames.PENDING_TRANSACTIONS_ADDED, Set.of(1L), Set.of(11L))));
+    assertFalse(subscription.matches(
+      scoped(WebsocketEventNames.PENDING_TRANSACTIONS_ADDED, Set.of(2L), Set.of(10L))));
+  }
+
+  @Test
+  public void testAddressedFramesNeedAnAccountFilter() {
+    WebSocketFrame frame = WebSocketFrame.addressed(
+      new JSONWebSocketResponse<>(WebsocketEventNames.ACCOUNT_TRANSACTIONS_CONFIRMED, "{}"), 1L);
+    assertFalse(WebSocketSubscription.ALL.matches(frame));
+    assertFalse(parse("{\"events\": [\"ACCOUNT_TRANSACTIONS_CONFIRMED\"]}").matches(frame));
+    assertFalse(parse("{\"accounts\": [\"2\"]}").matches(frame));
+    assertTrue(parse("{\"accounts\": [\"1\"]}").matches(frame));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyAccounts() {
+    StringBuilder json = new StringBuilder("{\"accounts\": [");
+    for (int i = 1; i <= WebSocketSubscription.MAX_ENTRIES + 1; i++) {
+      json.append(i > 1 ? "," : "").append('"').append(i).append('"');
+    }
+    parse(json.append("]}").toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyAccountsAndAtsTogether() {
+    StringBuilder json = new StringBuilder("{\"accounts\": [");
+    for (int i = 1; i <= WebSocketSubscription.MAX_ENTRIES; i++) {
+      json.append(i > 1 ? "," : "").append('"').append(i).append('"');
+    }
+    parse(json.append("], \"ats\": [\"100000\"]}").toString());
+  }
+
+  @Test
+  public void testMaxEntries() {
+    StringBuilder json = new StringBuilder("{\"assets\": [");
+    for (int i = 1; i <= WebSocketSubscription.MAX_ENTRIES; i++) {
+      json.append(i > 1 ? "," : "").append('"').append(i).append('"');
+    }
+    assertTrue(parse(json.append("]}").toString()).getAssetIds().size() == WebSocketSubscription.MAX_ENTRIES);
+  }
+}
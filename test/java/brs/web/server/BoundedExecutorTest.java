@@ -0,0 +1,54 @@
+package brs.web.server;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class BoundedExecutorTest {
+
+  @Test
+  public void testRejectsWhenQueueFull() throws InterruptedException {
+    BoundedExecutor executor = new BoundedExecutor("test", 1, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(2);
+    try {
+      assertTrue(executor.execute(() -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        done.countDown();
+      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      assertTrue(executor.execute(done::countDown));
+      assertEquals(1, executor.getQueued());
+      assertFalse(executor.execute(done::countDown));
+      assertEquals(1, executor.getRejected());
+
+      release.countDown();
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+      assertTrue(executor.execute(() -> { }));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testRejectsAfterShutdown() {
+    BoundedExecutor executor = new BoundedExecutor("test", 1, 1);
+    executor.shutdown();
+    assertFalse(executor.execute(() -> { }));
+    assertEquals(1, executor.getRejected());
+  }
+}
@@ -0,0 +1,36 @@
+package brs.web.server;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class ConcurrencyLimiterTest {
+
+  @Test
+  public void testRejectsOverLimit() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 2, 0);
+    assertTrue(limiter.acquire());
+    assertTrue(limiter.acquire());
+    assertEquals(2, limiter.getActive());
+    assertFalse(limiter.acquire());
+    assertEquals(1, limiter.getRejected());
+
+    limiter.release();
+    assertTrue(limiter.acquire());
+    assertEquals(2, limiter.getActive());
+  }
+
+  @Test
+  public void testUnlimited() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 0, 0);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(limiter.acquire());
+    }
+    assertEquals(0, limiter.getRejected());
+  }
+}